@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import com.google.caliper.BeforeExperiment;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Walks a synthetic tree of 100k empty files: 100 directories of 10 subdirectories of 100 files.
+ *
+ * The tree is created under /data/local/tmp the first time the benchmark runs and reused by
+ * later runs.
+ */
+public class FilesWalkBenchmark {
+    private static final int TOP_LEVEL_DIRS = 100;
+    private static final int SUBDIRS = 10;
+    private static final int FILES = 100;
+    private static final int TOTAL_FILES = TOP_LEVEL_DIRS * SUBDIRS * FILES;
+
+    private Path root;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        root = Paths.get("/data/local/tmp", getClass().getSimpleName() + "-" + TOTAL_FILES);
+        Path complete = root.resolve(".complete");
+        if (Files.exists(complete)) {
+            return;
+        }
+        for (int i = 0; i < TOP_LEVEL_DIRS; i++) {
+            for (int j = 0; j < SUBDIRS; j++) {
+                Path dir = Files.createDirectories(root.resolve("d" + i).resolve("s" + j));
+                for (int k = 0; k < FILES; k++) {
+                    Path file = dir.resolve("file-" + k + ".dat");
+                    if (!Files.exists(file)) {
+                        Files.createFile(file);
+                    }
+                }
+            }
+        }
+        Files.createFile(complete);
+    }
+
+    public void timeWalk(int reps) throws IOException {
+        for (int i = 0; i < reps; i++) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                checkCount(paths.count());
+            }
+        }
+    }
+
+    public void timeWalkParallel(int reps) throws IOException {
+        for (int i = 0; i < reps; i++) {
+            try (Stream<Path> paths = Files.walkParallel(root, Integer.MAX_VALUE)) {
+                checkCount(paths.count());
+            }
+        }
+    }
+
+    // Files.find hands the matcher the attributes read while walking, here only the file type.
+    public void timeFindRegularFiles(int reps) throws IOException {
+        for (int i = 0; i < reps; i++) {
+            try (Stream<Path> paths = Files.find(root, Integer.MAX_VALUE,
+                    (path, attrs) -> attrs.isRegularFile())) {
+                checkFileCount(paths.count());
+            }
+        }
+    }
+
+    public void timeFindRegularFilesParallel(int reps) throws IOException {
+        for (int i = 0; i < reps; i++) {
+            try (Stream<Path> paths = Files.findParallel(root, Integer.MAX_VALUE,
+                    (path, attrs) -> attrs.isRegularFile())) {
+                checkFileCount(paths.count());
+            }
+        }
+    }
+
+    // Needs the size of each file, so a stat per entry cannot be avoided.
+    public void timeFindNonEmptyFiles(int reps) throws IOException {
+        for (int i = 0; i < reps; i++) {
+            try (Stream<Path> paths = Files.find(root, Integer.MAX_VALUE,
+                    (path, attrs) -> attrs.isRegularFile() && attrs.size() > 0)) {
+                paths.count();
+            }
+        }
+    }
+
+    // Lists a single directory of 100 entries.
+    public void timeNewDirectoryStream(int reps) throws IOException {
+        Path dir = root.resolve("d0").resolve("s0");
+        for (int i = 0; i < reps; i++) {
+            int count = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path path : stream) {
+                    count++;
+                }
+            }
+            if (count != FILES) {
+                throw new IllegalStateException("Found " + count + " entries, expected " + FILES);
+            }
+        }
+    }
+
+    private static void checkFileCount(long count) {
+        // Includes the ".complete" marker.
+        if (count != TOTAL_FILES + 1) {
+            throw new IllegalStateException("Found " + count + " files");
+        }
+    }
+
+    private static void checkCount(long count) {
+        // The files, the marker, the subdirectories, the top level directories and the root.
+        long expected = TOTAL_FILES + 1 + TOP_LEVEL_DIRS * SUBDIRS + TOP_LEVEL_DIRS + 1;
+        if (count != expected) {
+            throw new IllegalStateException("Found " + count + " paths, expected " + expected);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package benchmarks;
 
 import java.security.AccessController;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
 import sun.security.action.GetPropertyAction;
 
@@ -28,9 +30,21 @@ import sun.security.action.GetPropertyAction;
  *
  * As of 2018-07, libcore carries some patches to perform such short-circuiting,
  * so it's interesting to know how much better it performs.
+ *
+ * The contended variants run the same lookups on {@link #THREADS} threads at once; each rep
+ * is one lookup on every thread.
  */
 public class GetSystemPropertyBenchmark {
 
+    private static final int THREADS = 32;
+
+    private final Properties properties = new Properties();
+    {
+        for (int i = 0; i < 64; i++) {
+            properties.setProperty("key" + i, "value" + i);
+        }
+    }
+
     public void timeSystem_getProperty_default(int reps) {
         for (int i = 0; i < reps; i++) {
             System.getProperty("user.language", "en");
@@ -57,4 +71,59 @@ public class GetSystemPropertyBenchmark {
         }
     }
 
+    public void timeSystem_getProperty_hardcoded(int reps) {
+        for (int i = 0; i < reps; i++) {
+            System.getProperty("file.encoding");
+        }
+    }
+
+    public void timeSystem_getProperty_contended(int reps) throws Exception {
+        runOnAllThreads(reps, () -> System.getProperty("user.region"));
+    }
+
+    public void timeSystem_getProperty_hardcoded_contended(int reps) throws Exception {
+        runOnAllThreads(reps, () -> System.getProperty("file.encoding"));
+    }
+
+    public void timeProperties_getProperty_contended(int reps) throws Exception {
+        runOnAllThreads(reps, () -> properties.getProperty("key42"));
+    }
+
+    // One thread keeps updating a property while the others read.
+    public void timeProperties_getProperty_contendedWithWriter(int reps) throws Exception {
+        Thread writer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                properties.setProperty("key0", "value0");
+            }
+        });
+        writer.start();
+        try {
+            runOnAllThreads(reps, () -> properties.getProperty("key42"));
+        } finally {
+            writer.interrupt();
+            writer.join();
+        }
+    }
+
+    private static void runOnAllThreads(int reps, Runnable lookup) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int i = 0; i < reps; i++) {
+                    lookup.run();
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+
+import libcore.math.NativeBN;
+import libcore.util.NativeAllocationRegistry;
+
+/**
+ * Measures allocation churn of small native objects registered with a
+ * NativeAllocationRegistry, with and without batched frees. The native objects
+ * are BoringSSL BIGNUMs, freed with BN_free.
+ */
+public class NativeAllocationRegistryBenchmark {
+    @Param boolean batched;
+
+    private NativeAllocationRegistry registry;
+
+    @BeforeExperiment
+    protected void setUp() {
+        ClassLoader loader = NativeBN.class.getClassLoader();
+        long freeFunction = NativeBN.getNativeFinalizer();
+        registry = batched
+                ? NativeAllocationRegistry.createMallocedBatched(loader, freeFunction, 32)
+                : NativeAllocationRegistry.createMalloced(loader, freeFunction, 32);
+    }
+
+    // How fast can we register and drop native allocations, leaving frees to the runtime?
+    public void timeRegisterAndDrop(int reps) {
+        for (int i = 0; i < reps; i++) {
+            registry.registerNativeAllocation(new Object(), NativeBN.BN_new());
+        }
+    }
+
+    // As above, but also wait until all dropped allocations have been freed.
+    public void timeRegisterDropAndReclaim(int reps) {
+        long baseline = registry.getLiveAllocationCount();
+        for (int i = 0; i < reps; i++) {
+            registry.registerNativeAllocation(new Object(), NativeBN.BN_new());
+        }
+        while (registry.getLiveAllocationCount() > baseline) {
+            Runtime.getRuntime().gc();
+            System.runFinalization();
+        }
+    }
+
+    // How fast can we register native allocations and free them explicitly?
+    public void timeRegisterAndFreeExplicitly(int reps) {
+        for (int i = 0; i < reps; i++) {
+            registry.registerNativeAllocation(new Object(), NativeBN.BN_new()).run();
+        }
+    }
+}
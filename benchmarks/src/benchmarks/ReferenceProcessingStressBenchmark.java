@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import android.system.SystemCleaner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sun.misc.Cleaner;
+
+/**
+ * Stress benchmark for the reference processing daemons. Releases a large number of objects
+ * whose cleanup runs on the ReferenceQueueDaemon (sun.misc.Cleaner, as used by
+ * NativeAllocationRegistry) or the FinalizerDaemon (SystemCleaner), and waits until
+ * all of them have been processed.
+ *
+ * Use dalvik.system.VMDebug.getRuntimeStats() to inspect the "art.daemons.*" counters
+ * after a run, and Daemons.setHelperDaemonCount() to compare configurations.
+ */
+public class ReferenceProcessingStressBenchmark {
+    private static final int OBJECT_COUNT = 1_000_000;
+
+    private static final long WAIT_TIMEOUT_MILLIS = 60_000;
+
+    // Stands in for a native free function; must not capture the referent.
+    private static class CountingThunk implements Runnable {
+        private final AtomicInteger count;
+
+        CountingThunk(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override public void run() {
+            count.incrementAndGet();
+        }
+    }
+
+    // How fast are 1M sun.misc.Cleaners (NativeAllocationRegistry-style) run?
+    public void timeRelease1MNativeBackedObjects(int reps) throws Exception {
+        for (int i = 0; i < reps; i++) {
+            AtomicInteger count = new AtomicInteger();
+            CountingThunk thunk = new CountingThunk(count);
+            allocateSunMiscCleaners(thunk);
+            awaitCount(count);
+        }
+    }
+
+    // How fast are 1M SystemCleaner actions run by the FinalizerDaemon?
+    public void timeRelease1MCleanerObjects(int reps) throws Exception {
+        java.lang.ref.Cleaner cleaner = SystemCleaner.cleaner();
+        for (int i = 0; i < reps; i++) {
+            AtomicInteger count = new AtomicInteger();
+            CountingThunk thunk = new CountingThunk(count);
+            allocateCleanables(cleaner, thunk);
+            awaitCount(count);
+        }
+    }
+
+    // Keep the allocations in separate methods so that nothing stays reachable from the caller's
+    // frame.
+    private static void allocateSunMiscCleaners(Runnable thunk) {
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            Cleaner.create(new Object(), thunk);
+        }
+    }
+
+    private static void allocateCleanables(java.lang.ref.Cleaner cleaner, Runnable thunk) {
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            cleaner.register(new Object(), thunk);
+        }
+    }
+
+    private static void awaitCount(AtomicInteger count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (count.get() < OBJECT_COUNT) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException(
+                        String.format("Only %d of %d objects cleaned?", count.get(), OBJECT_COUNT));
+            }
+            Runtime.getRuntime().gc();
+            Thread.sleep(10);
+        }
+    }
+}
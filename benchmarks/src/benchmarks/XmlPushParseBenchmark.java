@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.harmony.xml.ExpatPushParser;
+import org.apache.harmony.xml.ExpatReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Compares pulling a document through {@link ExpatReader#parse} with pushing it to an
+ * {@link ExpatPushParser} in chunks, as a caller reading from a non-blocking channel would.
+ * Uses the same documents as {@link XmlParseBenchmark}.
+ */
+public class XmlPushParseBenchmark {
+
+    @Param String xmlFile;
+
+    static List<String> xmlFileValues = Arrays.asList(
+            "/etc/apns-conf.xml",
+            "/etc/media_profiles.xml",
+            "/etc/permissions/features.xml"
+    );
+
+    // The size of each read from the channel.
+    @Param({"512", "8192"}) int chunkSize;
+
+    private byte[] xmlBytes;
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+    private ExpatReader reader;
+    private ElementCounter counter;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        xmlBytes = Files.readAllBytes(Paths.get(xmlFile));
+        heapBuffer = ByteBuffer.wrap(xmlBytes);
+        directBuffer = ByteBuffer.allocateDirect(xmlBytes.length);
+        directBuffer.put(xmlBytes).flip();
+        counter = new ElementCounter();
+        reader = new ExpatReader();
+        reader.setContentHandler(counter);
+    }
+
+    public int timePull(int reps) throws Exception {
+        counter.elementCount = 0;
+        for (int i = 0; i < reps; i++) {
+            reader.parse(new InputSource(new ByteArrayInputStream(xmlBytes)));
+        }
+        return counter.elementCount;
+    }
+
+    public int timePushHeap(int reps) throws Exception {
+        return push(heapBuffer, reps);
+    }
+
+    public int timePushDirect(int reps) throws Exception {
+        return push(directBuffer, reps);
+    }
+
+    private int push(ByteBuffer buffer, int reps) throws Exception {
+        counter.elementCount = 0;
+        for (int i = 0; i < reps; i++) {
+            try (ExpatPushParser parser = reader.newPushParser("UTF-8", null, null)) {
+                for (int start = 0; start < xmlBytes.length; start += chunkSize) {
+                    buffer.limit(Math.min(start + chunkSize, xmlBytes.length)).position(start);
+                    parser.feed(buffer);
+                }
+                parser.finish();
+            }
+        }
+        buffer.clear();
+        return counter.elementCount;
+    }
+
+    private static class ElementCounter extends DefaultHandler {
+        int elementCount;
+
+        @Override public void startElement(String uri, String localName, String qName,
+                Attributes attributes) {
+            elementCount++;
+        }
+    }
+}
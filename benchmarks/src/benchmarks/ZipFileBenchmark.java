@@ -16,6 +16,7 @@
 
 package benchmarks;
 
+import com.google.caliper.AfterExperiment;
 import com.google.caliper.BeforeExperiment;
 import com.google.caliper.Param;
 import java.io.File;
@@ -31,7 +32,14 @@ import java.util.zip.ZipOutputStream;
 public class ZipFileBenchmark {
 
     private File file;
-    @Param({"128", "1024", "8192"}) int numEntries;
+    @Param({"128", "1024", "8192", "131072"}) int numEntries;
+
+    // Whether entries are looked up in the index over the central directory.
+    @Param({"false", "true"}) boolean useIndex;
+
+    private ZipFile zipFile;
+    private String[] names;
+    private String[] missingNames;
 
     @BeforeExperiment
     protected void setUp() throws Exception {
@@ -44,6 +52,23 @@ public class ZipFileBenchmark {
             ZipEntry zipEntry = e.nextElement();
         }
         zipFile.close();
+
+        System.setProperty("libcore.zip.useCentralDirectoryIndex", Boolean.toString(useIndex));
+        this.zipFile = new ZipFile(file);
+        Random random = new Random(0);
+        names = new String[1024];
+        missingNames = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            int entry = random.nextInt(numEntries);
+            names[i] = Integer.toHexString(entry);
+            missingNames[i] = "com/example/" + Integer.toHexString(entry) + ".class";
+        }
+    }
+
+    @AfterExperiment
+    protected void tearDown() throws Exception {
+        zipFile.close();
+        System.clearProperty("libcore.zip.useCentralDirectoryIndex");
     }
 
     public void timeZipFileOpen(int reps) throws Exception {
@@ -52,6 +77,19 @@ public class ZipFileBenchmark {
         }
     }
 
+    public void timeGetEntry(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            zipFile.getEntry(names[i & (names.length - 1)]);
+        }
+    }
+
+    // As when a class loader searches a class path of many archives.
+    public void timeGetEntryMissing(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            zipFile.getEntry(missingNames[i & (missingNames.length - 1)]);
+        }
+    }
+
     /**
      * Compresses the given number of files, each of the given size, into a .zip archive.
      */
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.Future;
+import sun.nio.ch.SimpleAsynchronousFileChannelImpl;
+
+/**
+ * Random 4KiB reads from a file with a fixed number of reads in flight. {@code IO_URING} opts in
+ * to io_uring, which AsynchronousFileChannel.open() then uses where the kernel allows it;
+ * {@code THREAD_POOL} uses the default implementation that runs blocking preads on a thread
+ * pool. io_uring kills processes that run under the app seccomp policy, so run the
+ * {@code IO_URING} cases from a shell, not as an app.
+ */
+public class AsynchronousFileChannelBenchmark {
+
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+    private static final int BLOCK_SIZE = 4096;
+
+    public enum Implementation { IO_URING, THREAD_POOL }
+
+    @Param({"IO_URING", "THREAD_POOL"}) Implementation implementation;
+
+    @Param({"1", "32", "256"}) int queueDepth;
+
+    @Param({"false", "true"}) boolean direct;
+
+    private File file;
+    private RandomAccessFile raf;
+    private AsynchronousFileChannel channel;
+    private ByteBuffer[] buffers;
+    private long[] positions;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        file = File.createTempFile("AsynchronousFileChannelBenchmark", null);
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(0).nextBytes(chunk);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            for (int i = 0; i < FILE_SIZE / chunk.length; i++) {
+                out.write(chunk);
+            }
+        }
+        if (implementation == Implementation.IO_URING) {
+            System.setProperty("sun.nio.ch.useIoUring", "true");
+            channel = AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } else {
+            raf = new RandomAccessFile(file, "r");
+            channel = SimpleAsynchronousFileChannelImpl.open(raf.getFD(), true, false, null);
+        }
+        buffers = new ByteBuffer[queueDepth];
+        for (int i = 0; i < queueDepth; i++) {
+            buffers[i] = direct ? ByteBuffer.allocateDirect(BLOCK_SIZE)
+                    : ByteBuffer.allocate(BLOCK_SIZE);
+        }
+        Random random = new Random(42);
+        positions = new long[4096];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (long) random.nextInt(FILE_SIZE / BLOCK_SIZE) * BLOCK_SIZE;
+        }
+    }
+
+    @AfterExperiment
+    protected void tearDown() throws Exception {
+        channel.close();
+        if (raf != null) {
+            raf.close();
+        }
+        file.delete();
+    }
+
+    public void timeRandomRead(int reps) throws Exception {
+        @SuppressWarnings("unchecked")
+        Future<Integer>[] inFlight = new Future[queueDepth];
+        for (int i = 0; i < reps; i++) {
+            int slot = i % queueDepth;
+            if (inFlight[slot] != null) {
+                inFlight[slot].get();
+            }
+            buffers[slot].clear();
+            inFlight[slot] = channel.read(buffers[slot], positions[i & (positions.length - 1)]);
+        }
+        for (Future<Integer> future : inFlight) {
+            if (future != null) {
+                future.get();
+            }
+        }
+    }
+}
@@ -16,10 +16,26 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.BeforeExperiment;
 import java.math.BigInteger;
 import java.util.Random;
 
 public class BigIntegerBenchmark {
+    /** About 100,000 decimal digits. */
+    private static final int HUGE_BITS = 332000;
+
+    private BigInteger huge1;
+    private BigInteger huge2;
+    private BigInteger hugeDividend;
+
+    @BeforeExperiment
+    protected void setUp() {
+        Random r = new Random(0);
+        huge1 = new BigInteger(HUGE_BITS, r);
+        huge2 = new BigInteger(HUGE_BITS, r);
+        hugeDividend = huge1.multiply(huge2).add(huge1);
+    }
+
     public void timeRandomDivision(int reps) throws Exception {
         Random r = new Random();
         BigInteger x = new BigInteger(1024, r);
@@ -46,4 +62,44 @@ public class BigIntegerBenchmark {
             x.multiply(y);
         }
     }
+
+    public void timeRandomModPow(int reps) throws Exception {
+        Random r = new Random();
+        BigInteger base = new BigInteger(2048, r);
+        BigInteger exponent = new BigInteger(256, r);
+        BigInteger modulus = new BigInteger(2048, r).setBit(0);
+        for (int i = 0; i < reps; ++i) {
+            base.modPow(exponent, modulus);
+        }
+    }
+
+    public void timeHugeMultiply(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            huge1.multiply(huge2);
+        }
+    }
+
+    public void timeHugeParallelMultiply(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            huge1.parallelMultiply(huge2);
+        }
+    }
+
+    public void timeHugeDivide(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            hugeDividend.divideAndRemainder(huge2);
+        }
+    }
+
+    public void timeHugeToString(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            huge1.toString();
+        }
+    }
+
+    public void timeHugePow(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            BigInteger.TEN.pow(100000);
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.text.CompiledDateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Formats and parses dates on several threads at once, sharing one SimpleDateFormat under a
+ * lock, giving each thread a SimpleDateFormat of its own, or sharing a CompiledDateFormat.
+ * Each rep is one date on every thread.
+ */
+public class ConcurrentDateFormatBenchmark {
+
+    private static final long MILLIS = 1234567890123L;
+
+    @Param({"1", "8", "32"}) int threads;
+
+    @Param({"yyyy-MM-dd'T'HH:mm:ss.SSSXXX", "EEE, dd MMM yyyy HH:mm:ss zzz"}) String pattern;
+
+    private SimpleDateFormat sharedFormat;
+    private ThreadLocal<SimpleDateFormat> perThreadFormat;
+    private CompiledDateFormat compiledFormat;
+    private String formatted;
+
+    private interface Task {
+        void run(int reps) throws Exception;
+    }
+
+    @BeforeExperiment
+    protected void setUp() {
+        sharedFormat = newFormat();
+        perThreadFormat = ThreadLocal.withInitial(this::newFormat);
+        compiledFormat = CompiledDateFormat.compile(sharedFormat);
+        formatted = sharedFormat.format(new Date(MILLIS));
+    }
+
+    private SimpleDateFormat newFormat() {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        return format;
+    }
+
+    private void runOnAllThreads(final int reps, final Task task) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(reps);
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    public void timeFormatShared(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            Date date = new Date(MILLIS);
+            for (int i = 0; i < n; i++) {
+                synchronized (sharedFormat) {
+                    sharedFormat.format(date);
+                }
+            }
+        });
+    }
+
+    public void timeFormatPerThread(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            Date date = new Date(MILLIS);
+            for (int i = 0; i < n; i++) {
+                perThreadFormat.get().format(date);
+            }
+        });
+    }
+
+    public void timeFormatCompiled(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            for (int i = 0; i < n; i++) {
+                compiledFormat.format(MILLIS);
+            }
+        });
+    }
+
+    public void timeFormatCompiledToBuilder(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < n; i++) {
+                sb.setLength(0);
+                compiledFormat.format(MILLIS, sb);
+            }
+        });
+    }
+
+    public void timeParseShared(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            for (int i = 0; i < n; i++) {
+                synchronized (sharedFormat) {
+                    sharedFormat.parse(formatted);
+                }
+            }
+        });
+    }
+
+    public void timeParsePerThread(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            for (int i = 0; i < n; i++) {
+                perThreadFormat.get().parse(formatted);
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.InMemoryCookieStore;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Looks up and sets cookies in an {@link InMemoryCookieStore} holding 50,000 cookies for 5,000
+ * hosts, from several threads at once. Each rep is one operation on every thread.
+ */
+public class CookieStoreBenchmark {
+
+    private static final int HOSTS = 5000;
+    private static final int COOKIES_PER_HOST = 10;
+
+    @Param({"1", "16"}) int threads;
+
+    private CookieStore store;
+    private URI[] uris;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        store = new InMemoryCookieStore();
+        uris = new URI[HOSTS];
+        for (int h = 0; h < HOSTS; h++) {
+            uris[h] = new URI("https://www.site" + h + ".example.com/index.html");
+            for (int c = 0; c < COOKIES_PER_HOST; c++) {
+                store.add(uris[h], createCookie(h, c, "value"));
+            }
+        }
+    }
+
+    public void timeGet(int reps) throws Exception {
+        runOnAllThreads(reps, (thread, i) -> store.get(uris[(thread * 7919 + i) % HOSTS]));
+    }
+
+    // One update for every nine lookups, as when responses refresh session cookies.
+    public void timeGetAndAdd(int reps) throws Exception {
+        runOnAllThreads(reps, (thread, i) -> {
+            int h = (thread * 7919 + i) % HOSTS;
+            if (i % 10 == 0) {
+                store.add(uris[h], createCookie(h, i % COOKIES_PER_HOST, Integer.toString(i)));
+            } else {
+                store.get(uris[h]);
+            }
+        });
+    }
+
+    // Half the cookies of a host are set for the whole site, so they are found by domain.
+    private static HttpCookie createCookie(int host, int index, String value) {
+        HttpCookie cookie = new HttpCookie("cookie" + index, value);
+        cookie.setDomain((index % 2 == 0) ? ".site" + host + ".example.com"
+                : "www.site" + host + ".example.com");
+        cookie.setPath("/");
+        cookie.setMaxAge(3600);
+        return cookie;
+    }
+
+    private interface Operation {
+        void run(int thread, int i);
+    }
+
+    private void runOnAllThreads(int reps, Operation operation) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int i = 0; i < reps; i++) {
+                    operation.run(thread, i);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
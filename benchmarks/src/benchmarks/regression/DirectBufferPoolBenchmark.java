@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.nio.ByteBuffer;
+import java.nio.DirectBufferPool;
+import java.nio.NioUtils;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Allocates, writes to and frees direct buffers of 16 to 64 KiB, as a network stack does for each
+ * message, with ByteBuffer.allocateDirect() or with a DirectBufferPool. Each rep is one buffer
+ * on every thread.
+ */
+public class DirectBufferPoolBenchmark {
+
+    @Param({"false", "true"}) boolean pooled;
+    @Param({"1", "8"}) int threads;
+
+    private DirectBufferPool pool;
+
+    @BeforeExperiment
+    protected void setUp() {
+        pool = new DirectBufferPool(16 * 1024 * 1024);
+    }
+
+    public void timeAllocateAndFree(int reps) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int i = 0; i < reps; i++) {
+                    // 16, 32 or 64 KiB, less a header's worth so they aren't powers of two.
+                    int size = (16384 << ((thread + i) % 3)) - 64;
+                    ByteBuffer buffer = pooled ? pool.allocate(size)
+                            : ByteBuffer.allocateDirect(size);
+                    buffer.putLong(0, i);
+                    buffer.putLong(size - 8, i);
+                    if (pooled) {
+                        pool.release(buffer);
+                    } else {
+                        NioUtils.freeDirectBuffer(buffer);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Random;
+import libcore.util.HexEncoding;
+
+/**
+ * Hex and Base64 encodes and decodes a payload, both into new arrays, which the array methods
+ * allocate, and between buffers allocated once, which may be direct.
+ */
+public class HexAndBase64Benchmark {
+
+    @Param({"64", "4096", "1048576"}) int size;
+    @Param({"false", "true"}) boolean direct;
+
+    private byte[] data;
+    private String hexString;
+    private byte[] base64Bytes;
+
+    private ByteBuffer dataBuffer;
+    private ByteBuffer hexBuffer;
+    private ByteBuffer base64Buffer;
+    private ByteBuffer decodedBuffer;
+
+    @BeforeExperiment
+    protected void setUp() {
+        data = new byte[size];
+        new Random(0).nextBytes(data);
+        hexString = HexEncoding.encodeToString(data);
+        base64Bytes = Base64.getEncoder().encode(data);
+
+        dataBuffer = allocate(size);
+        dataBuffer.put(data).flip();
+        hexBuffer = allocate(2 * size);
+        hexBuffer.put(hexString.getBytes()).flip();
+        base64Buffer = allocate(base64Bytes.length);
+        base64Buffer.put(base64Bytes).flip();
+        decodedBuffer = allocate(size);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    public void timeHexEncode_array(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            HexEncoding.encode(data);
+        }
+    }
+
+    public void timeHexEncode_buffer(int reps) {
+        ByteBuffer dst = allocate(2 * size);
+        for (int rep = 0; rep < reps; ++rep) {
+            dataBuffer.rewind();
+            dst.clear();
+            HexEncoding.encode(dataBuffer, dst, true /* upperCase */);
+        }
+    }
+
+    public void timeHexDecode_string(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            HexEncoding.decode(hexString);
+        }
+    }
+
+    public void timeHexDecode_buffer(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            hexBuffer.rewind();
+            decodedBuffer.clear();
+            HexEncoding.decode(hexBuffer, decodedBuffer);
+        }
+    }
+
+    public void timeBase64Encode_array(int reps) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        for (int rep = 0; rep < reps; ++rep) {
+            encoder.encode(data);
+        }
+    }
+
+    public void timeBase64Encode_buffer(int reps) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        ByteBuffer dst = allocate(base64Bytes.length);
+        for (int rep = 0; rep < reps; ++rep) {
+            dataBuffer.rewind();
+            dst.clear();
+            encoder.encode(dataBuffer, dst);
+        }
+    }
+
+    public void timeBase64EncodeMime_buffer(int reps) {
+        Base64.Encoder encoder = Base64.getMimeEncoder();
+        ByteBuffer dst = allocate(encoder.encode(data).length);
+        for (int rep = 0; rep < reps; ++rep) {
+            dataBuffer.rewind();
+            dst.clear();
+            encoder.encode(dataBuffer, dst);
+        }
+    }
+
+    public void timeBase64Decode_array(int reps) {
+        Base64.Decoder decoder = Base64.getDecoder();
+        for (int rep = 0; rep < reps; ++rep) {
+            decoder.decode(base64Bytes);
+        }
+    }
+
+    public void timeBase64Decode_buffer(int reps) {
+        Base64.Decoder decoder = Base64.getDecoder();
+        for (int rep = 0; rep < reps; ++rep) {
+            base64Buffer.rewind();
+            decodedBuffer.clear();
+            decoder.decode(base64Buffer, decodedBuffer);
+        }
+    }
+
+    /** What the buffer methods replace for direct buffers: a copy in and out of an array. */
+    public void timeBase64Encode_copiedBuffer(int reps) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        ByteBuffer dst = allocate(base64Bytes.length);
+        for (int rep = 0; rep < reps; ++rep) {
+            dataBuffer.rewind();
+            dst.clear();
+            dst.put(encoder.encode(dataBuffer));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import java.net.HttpCookie;
+import java.util.Date;
+import libcore.net.http.HttpDate;
+
+/**
+ * Parses and formats HTTP dates as found in Expires, Last-Modified and Set-Cookie headers.
+ */
+public class HttpDateBenchmark {
+    // Expires and Last-Modified values in the shapes servers actually send, including the
+    // common invalid ones.
+    private static final String[] CORPUS = {
+            "Sun, 06 Nov 1994 08:49:37 GMT",
+            "Wed, 21 Oct 2015 07:28:00 GMT",
+            "Thu, 01 Jan 1970 00:00:00 GMT",
+            "Tue, 19 Jan 2038 03:14:07 GMT",
+            "Sunday, 06-Nov-94 08:49:37 GMT",
+            "Sun Nov  6 08:49:37 1994",
+            "Wed, 09-Jun-2021 10:18:14 GMT",
+            "Fri, 31-Dec-9999 23:59:59 GMT",
+            "Mon, 27-Jul-2009 12:28:53 GMT",
+            "Thu, 18 Dec 2031 18:00:00 +0000",
+            "Sat, 01 Jan 2000 00:00:00 UTC",
+            "Wed Dec 31 1969 16:00:00 GMT-0800",
+            "Thu,01-Jan-1970 00:00:01 GMT",
+            "0",
+            "-1",
+    };
+
+    private static final String[] SET_COOKIE_HEADERS = {
+            "id=a3fWa; Expires=Wed, 21 Oct 2015 07:28:00 GMT; Secure; HttpOnly",
+            "NID=511=abc; expires=Fri, 31-Dec-2027 23:59:59 GMT; path=/; domain=.example.com",
+            "session=xyz; expires=Sun, 06-Nov-94 08:49:37 GMT; path=/",
+    };
+
+    private static final Date DATE = new Date(1445412480000L);
+
+    public void timeParseCorpus(int reps) {
+        for (int i = 0; i < reps; i++) {
+            for (String value : CORPUS) {
+                HttpDate.parse(value);
+            }
+        }
+    }
+
+    public void timeParseMillisCorpus(int reps) {
+        for (int i = 0; i < reps; i++) {
+            for (String value : CORPUS) {
+                HttpDate.parseMillis(value);
+            }
+        }
+    }
+
+    public void timeParseStandard(int reps) {
+        for (int i = 0; i < reps; i++) {
+            HttpDate.parseMillis("Wed, 21 Oct 2015 07:28:00 GMT");
+        }
+    }
+
+    // An unusual zone name that needs the SimpleDateFormat fallback.
+    public void timeParseFallback(int reps) {
+        for (int i = 0; i < reps; i++) {
+            HttpDate.parseMillis("Wed, 21 Oct 2015 09:28:00 CEST");
+        }
+    }
+
+    public void timeFormatSameSecond(int reps) {
+        for (int i = 0; i < reps; i++) {
+            HttpDate.format(DATE);
+        }
+    }
+
+    public void timeFormatNewSecond(int reps) {
+        Date[] dates = { new Date(1445412480000L), new Date(1445412481000L) };
+        for (int i = 0; i < reps; i++) {
+            HttpDate.format(dates[i & 1]);
+        }
+    }
+
+    public void timeHttpCookieParseExpires(int reps) {
+        for (int i = 0; i < reps; i++) {
+            for (String header : SET_COOKIE_HEADERS) {
+                HttpCookie.parse(header);
+            }
+        }
+    }
+}
@@ -16,8 +16,16 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
 import com.google.caliper.Param;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -28,6 +36,29 @@ public class JarFileBenchmark {
     })
     private String filename;
 
+    // Whether entries are looked up in the index over the central directory.
+    @Param({"false", "true"}) boolean useIndex;
+
+    private String[] names;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        System.setProperty("libcore.zip.useCentralDirectoryIndex", Boolean.toString(useIndex));
+        List<String> list = new ArrayList<>();
+        try (JarFile jf = new JarFile(filename)) {
+            for (Enumeration<JarEntry> e = jf.entries(); e.hasMoreElements(); ) {
+                list.add(e.nextElement().getName());
+            }
+        }
+        Collections.shuffle(list, new Random(0));
+        names = list.toArray(new String[0]);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        System.clearProperty("libcore.zip.useCentralDirectoryIndex");
+    }
+
     public void time(int reps) throws Exception {
         File f = new File(filename);
         for (int i = 0; i < reps; ++i) {
@@ -36,4 +67,15 @@ public class JarFileBenchmark {
             jf.close();
         }
     }
+
+    // Looks up every entry once, as a class loader does when it starts.
+    public void timeGetEntry(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            try (JarFile jf = new JarFile(filename)) {
+                for (String name : names) {
+                    jf.getEntry(name);
+                }
+            }
+        }
+    }
 }
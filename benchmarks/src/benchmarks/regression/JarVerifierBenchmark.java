@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import sun.security.pkcs.ContentInfo;
+import sun.security.pkcs.PKCS7;
+import sun.security.pkcs.SignerInfo;
+import sun.security.x509.AlgorithmId;
+import sun.security.x509.CertificateAlgorithmId;
+import sun.security.x509.CertificateSerialNumber;
+import sun.security.x509.CertificateValidity;
+import sun.security.x509.CertificateVersion;
+import sun.security.x509.CertificateX509Key;
+import sun.security.x509.X500Name;
+import sun.security.x509.X509CertImpl;
+import sun.security.x509.X509CertInfo;
+
+/**
+ * Verifies every entry of a signed jar with 50,000 entries. A {@code parallelism} of 0 reads the
+ * entries one after the other through JarFile.getInputStream(); otherwise they are verified by
+ * JarFile.verifyAllEntries() on a pool of that many threads.
+ */
+public class JarVerifierBenchmark {
+
+    private static final int ENTRIES = 50000;
+
+    @Param({"0", "1", "4", "8"}) int parallelism;
+
+    private File file;
+    private ForkJoinPool pool;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        file = File.createTempFile("JarVerifierBenchmark", ".jar");
+        writeSignedJar(file);
+        if (parallelism > 0) {
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        file.delete();
+    }
+
+    public void timeVerifyAllEntries(int reps) throws Exception {
+        byte[] buffer = new byte[8192];
+        for (int i = 0; i < reps; ++i) {
+            try (JarFile jarFile = new JarFile(file, true)) {
+                if (pool != null) {
+                    jarFile.verifyAllEntries(pool);
+                    continue;
+                }
+                for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
+                    try (InputStream in = jarFile.getInputStream(e.nextElement())) {
+                        while (in.read(buffer) != -1) {
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a jar whose entries are signed with SHA-256 digests and a new RSA key, as
+     * jarsigner would sign it.
+     */
+    private static void writeSignedJar(File file) throws Exception {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        Base64.Encoder base64 = Base64.getEncoder();
+        Random random = new Random(0);
+        byte[][] contents = new byte[ENTRIES][];
+        ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+        ByteArrayOutputStream signatureFile = new ByteArrayOutputStream();
+        manifest.write("Manifest-Version: 1.0\r\nCreated-By: 1.0 (Android)\r\n\r\n"
+                .getBytes(StandardCharsets.UTF_8));
+        StringBuilder sections = new StringBuilder();
+        for (int i = 0; i < ENTRIES; i++) {
+            // Up to 4KiB of text-like content, so that the entries compress.
+            contents[i] = new byte[random.nextInt(4096)];
+            for (int j = 0; j < contents[i].length; j++) {
+                contents[i][j] = (byte) ('a' + random.nextInt(16));
+            }
+            byte[] section = ("Name: " + entryName(i) + "\r\nSHA-256-Digest: "
+                    + base64.encodeToString(sha256.digest(contents[i])) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            manifest.write(section);
+            sections.append("Name: ").append(entryName(i)).append("\r\nSHA-256-Digest: ")
+                    .append(base64.encodeToString(sha256.digest(section))).append("\r\n\r\n");
+        }
+        signatureFile.write(("Signature-Version: 1.0\r\nSHA-256-Digest-Manifest: "
+                + base64.encodeToString(sha256.digest(manifest.toByteArray()))
+                + "\r\nCreated-By: 1.0 (Android)\r\n\r\n" + sections)
+                .getBytes(StandardCharsets.UTF_8));
+
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+            out.write(manifest.toByteArray());
+            out.putNextEntry(new ZipEntry("META-INF/BENCH.SF"));
+            out.write(signatureFile.toByteArray());
+            out.putNextEntry(new ZipEntry("META-INF/BENCH.RSA"));
+            out.write(signatureBlock(signatureFile.toByteArray()));
+            for (int i = 0; i < ENTRIES; i++) {
+                out.putNextEntry(new ZipEntry(entryName(i)));
+                out.write(contents[i]);
+            }
+        }
+    }
+
+    private static String entryName(int i) {
+        return "com/example/package" + (i % 100) + "/Class" + i + ".class";
+    }
+
+    // A detached PKCS#7 signature of data, with a self-signed certificate for the key.
+    private static byte[] signatureBlock(byte[] data) throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        KeyPair keyPair = kpg.generateKeyPair();
+        X500Name name = new X500Name("CN=JarVerifierBenchmark");
+        BigInteger serial = BigInteger.ONE;
+
+        X509CertInfo info = new X509CertInfo();
+        info.set(X509CertInfo.VERSION, new CertificateVersion(CertificateVersion.V3));
+        info.set(X509CertInfo.SERIAL_NUMBER, new CertificateSerialNumber(serial));
+        info.set(X509CertInfo.ALGORITHM_ID,
+                new CertificateAlgorithmId(AlgorithmId.get("SHA256withRSA")));
+        info.set(X509CertInfo.SUBJECT, name);
+        info.set(X509CertInfo.ISSUER, name);
+        long now = System.currentTimeMillis();
+        info.set(X509CertInfo.VALIDITY, new CertificateValidity(
+                new Date(now - 86400000L), new Date(now + 86400000L)));
+        info.set(X509CertInfo.KEY, new CertificateX509Key(keyPair.getPublic()));
+        X509CertImpl cert = new X509CertImpl(info);
+        cert.sign(keyPair.getPrivate(), "SHA256withRSA");
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(data);
+        SignerInfo signerInfo = new SignerInfo(name, serial, AlgorithmId.get("SHA-256"),
+                AlgorithmId.get("RSA"), signature.sign());
+        PKCS7 pkcs7 = new PKCS7(new AlgorithmId[] { AlgorithmId.get("SHA-256") },
+                new ContentInfo(ContentInfo.DATA_OID, null),
+                new X509Certificate[] { cert }, new SignerInfo[] { signerInfo });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pkcs7.encodeSignedData(out);
+        return out.toByteArray();
+    }
+}
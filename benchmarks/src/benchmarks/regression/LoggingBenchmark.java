@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.AsyncHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Logs formatted messages from many threads to a {@link StreamHandler}, either directly or
+ * through an {@link AsyncHandler}. Each rep is one message on every thread.
+ */
+public class LoggingBenchmark {
+
+    public enum Mode { SYNC, ASYNC_BLOCK, ASYNC_DROP, ASYNC_SAMPLE }
+
+    @Param({"SYNC", "ASYNC_BLOCK", "ASYNC_DROP", "ASYNC_SAMPLE"}) Mode mode;
+
+    @Param({"1", "8", "64"}) int threads;
+
+    private Logger logger;
+    private Handler handler;
+
+    @BeforeExperiment
+    protected void setUp() {
+        StreamHandler target = new StreamHandler(new NullOutputStream(), new SimpleFormatter());
+        switch (mode) {
+            case SYNC:
+                handler = target;
+                break;
+            case ASYNC_BLOCK:
+                handler = new AsyncHandler(target, 8192, AsyncHandler.OverflowPolicy.BLOCK);
+                break;
+            case ASYNC_DROP:
+                handler = new AsyncHandler(target, 8192, AsyncHandler.OverflowPolicy.DROP);
+                break;
+            case ASYNC_SAMPLE:
+                handler = new AsyncHandler(target, 8192, AsyncHandler.OverflowPolicy.SAMPLE);
+                break;
+        }
+        logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        handler.close();
+    }
+
+    public void timeLog(int reps) throws Exception {
+        runOnAllThreads(reps, () -> logger.log(Level.INFO, "request {0} took {1} ms",
+                new Object[] { "GET /index.html", 42 }));
+    }
+
+    // Filtered out by the logger's level before any LogRecord is allocated.
+    public void timeLogBelowLevel(int reps) throws Exception {
+        runOnAllThreads(reps, () -> logger.log(Level.FINE, "request {0} took {1} ms",
+                new Object[] { "GET /index.html", 42 }));
+    }
+
+    private void runOnAllThreads(int reps, Runnable log) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int i = 0; i < reps; i++) {
+                    log.run();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Include the time to publish whatever is still queued.
+        handler.flush();
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override public void write(int b) {
+        }
+
+        @Override public void write(byte[] b, int off, int len) {
+        }
+    }
+}
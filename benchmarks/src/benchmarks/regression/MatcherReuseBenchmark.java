@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares matching with a new Matcher, and its native state, per input against the various
+ * ways of reusing one.
+ */
+public class MatcherReuseBenchmark {
+    private static final Pattern PATTERN = Pattern.compile("[a-z]+=[0-9]+");
+
+    private static final CharSequence[] INPUTS = {
+            "key=123", "other=4", "no match", "x=0", "y=", "longer_key=123456789", "z=9", "",
+    };
+
+    public void timeNewMatcherPerInput(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            for (CharSequence input : INPUTS) {
+                PATTERN.matcher(input).matches();
+            }
+        }
+    }
+
+    public void timeResetMatcherPerInput(int reps) {
+        Matcher m = PATTERN.matcher("");
+        for (int i = 0; i < reps; ++i) {
+            for (CharSequence input : INPUTS) {
+                m.reset(input).matches();
+            }
+        }
+    }
+
+    public void timeWithMatcherPerInput(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            for (CharSequence input : INPUTS) {
+                PATTERN.withMatcher(input, Matcher::matches);
+            }
+        }
+    }
+
+    public void timeMatchesAll(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            PATTERN.matchesAll(INPUTS);
+        }
+    }
+
+    public void timeStringMatches(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            for (CharSequence input : INPUTS) {
+                input.toString().matches("[a-z]+=[0-9]+");
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import libcore.io.Arena;
+import libcore.io.Memory;
+import libcore.io.MemorySegment;
+
+/**
+ * Reads and writes the longs of 1 MiB of native memory in order or at random, through a direct
+ * ByteBuffer, through a MemorySegment, which checks every access, and through Memory.peekLong(),
+ * which checks nothing. Each rep reads or writes the whole region once.
+ */
+public class MemorySegmentBenchmark {
+
+    private static final int SIZE = 1024 * 1024;
+    private static final int LONGS = SIZE / 8;
+
+    public enum Access { SEQUENTIAL, RANDOM }
+
+    @Param private Access access;
+    @Param({"BIG_ENDIAN", "LITTLE_ENDIAN"}) private String order;
+
+    private ByteOrder byteOrder;
+    private boolean swap;
+    private int[] offsets;
+    private ByteBuffer buffer;
+    private Arena arena;
+    private MemorySegment segment;
+
+    @BeforeExperiment
+    protected void setUp() {
+        byteOrder = order.equals("BIG_ENDIAN") ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        swap = byteOrder != ByteOrder.nativeOrder();
+        offsets = new int[LONGS];
+        for (int i = 0; i < LONGS; i++) {
+            offsets[i] = i * 8;
+        }
+        if (access == Access.RANDOM) {
+            Random random = new Random(0);
+            for (int i = LONGS - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = offsets[i];
+                offsets[i] = offsets[j];
+                offsets[j] = tmp;
+            }
+        }
+        buffer = ByteBuffer.allocateDirect(SIZE).order(byteOrder);
+        arena = new Arena();
+        segment = arena.allocate(SIZE);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        arena.close();
+    }
+
+    public long timeByteBufferGetLong(int reps) {
+        long sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                sum += buffer.getLong(offset);
+            }
+        }
+        return sum;
+    }
+
+    public long timeMemorySegmentGetLong(int reps) {
+        long sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                sum += segment.getLong(offset, byteOrder);
+            }
+        }
+        return sum;
+    }
+
+    public long timeMemoryPeekLong(int reps) {
+        long address = segment.address();
+        long sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                sum += Memory.peekLong(address + offset, swap);
+            }
+        }
+        return sum;
+    }
+
+    public void timeByteBufferPutLong(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                buffer.putLong(offset, rep);
+            }
+        }
+    }
+
+    public void timeMemorySegmentSetLong(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                segment.setLong(offset, rep, byteOrder);
+            }
+        }
+    }
+
+    public void timeMemoryPokeLong(int reps) {
+        long address = segment.address();
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int offset : offsets) {
+                Memory.pokeLong(address + offset, rep, swap);
+            }
+        }
+    }
+
+    // Bulk copies of the whole region into a long[], which don't depend on the access order.
+
+    public void timeByteBufferBulkGet(int reps) {
+        long[] dst = new long[LONGS];
+        for (int rep = 0; rep < reps; ++rep) {
+            buffer.position(0);
+            buffer.asLongBuffer().get(dst);
+        }
+    }
+
+    public void timeMemorySegmentBulkGet(int reps) {
+        long[] dst = new long[LONGS];
+        for (int rep = 0; rep < reps; ++rep) {
+            segment.get(0, dst, 0, LONGS, byteOrder);
+        }
+    }
+}
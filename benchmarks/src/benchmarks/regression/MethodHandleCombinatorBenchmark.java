@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Calls a static method of three arguments directly, through Method.invoke(), and through
+ * method handles adapted to it by chains of combinators.
+ */
+public class MethodHandleCombinatorBenchmark {
+
+    private Method method;
+    private MethodHandle direct;
+    private MethodHandle rearranged;
+    private MethodHandle bound;
+    private MethodHandle filtered;
+    private MethodHandle folded;
+    private MethodHandle guarded;
+
+    public static int target(int a, long b, String c) {
+        return a + (int) b + c.length();
+    }
+
+    public static int twice(int a) {
+        return a * 2;
+    }
+
+    public static int half(int a) {
+        return a / 2;
+    }
+
+    public static long combine(int a) {
+        return a + 1;
+    }
+
+    public static boolean isPositive(int a) {
+        return a > 0;
+    }
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> klass = MethodHandleCombinatorBenchmark.class;
+        method = klass.getMethod("target", int.class, long.class, String.class);
+        direct = lookup.findStatic(klass, "target",
+                MethodType.methodType(int.class, int.class, long.class, String.class));
+
+        // (int) -> int, by way of drops, a permutation and insertions, which are all fused
+        // into a single adapter.
+        rearranged = MethodHandles.permuteArguments(
+                MethodHandles.dropArguments(direct, 3, Object.class),
+                MethodType.methodType(int.class,
+                        Object.class, long.class, int.class, String.class),
+                2, 1, 3, 0);
+        rearranged = MethodHandles.insertArguments(rearranged, 3, "3");
+        rearranged = MethodHandles.insertArguments(rearranged, 1, 2L);
+        rearranged = MethodHandles.dropArguments(rearranged, 0, String.class);
+        rearranged = MethodHandles.insertArguments(rearranged, 0, "unused");
+        rearranged = MethodHandles.insertArguments(rearranged, 0, new Object());
+
+        // (long, String) -> int
+        bound = MethodHandles.insertArguments(direct, 0, 1);
+
+        // (int) -> int, filtered on the way in and out.
+        MethodHandle twice = lookup.findStatic(klass, "twice",
+                MethodType.methodType(int.class, int.class));
+        MethodHandle half = lookup.findStatic(klass, "half",
+                MethodType.methodType(int.class, int.class));
+        filtered = MethodHandles.filterArguments(direct, 0, twice);
+        filtered = MethodHandles.filterReturnValue(filtered, half);
+        filtered = MethodHandles.insertArguments(filtered, 1, 2L, "3");
+        filtered = MethodHandles.filterArguments(filtered, 0, half);
+
+        // (int, String) -> int
+        MethodHandle combiner = lookup.findStatic(klass, "combine",
+                MethodType.methodType(long.class, int.class));
+        folded = MethodHandles.foldArguments(
+                MethodHandles.permuteArguments(direct,
+                        MethodType.methodType(int.class, long.class, int.class, String.class),
+                        1, 0, 2),
+                combiner);
+
+        // (int, long, String) -> int
+        MethodHandle test = MethodHandles.dropArguments(
+                lookup.findStatic(klass, "isPositive",
+                        MethodType.methodType(boolean.class, int.class)),
+                1, long.class, String.class);
+        guarded = MethodHandles.guardWithTest(test, direct, direct);
+    }
+
+    public int timeDirect(int reps) {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += target(1, 2L, "3");
+        }
+        return sum;
+    }
+
+    public int timeMethodInvoke(int reps) throws Exception {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (Integer) method.invoke(null, 1, 2L, "3");
+        }
+        return sum;
+    }
+
+    public int timeInvokeExact(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) direct.invokeExact(1, 2L, "3");
+        }
+        return sum;
+    }
+
+    public int timeRearranged(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) rearranged.invokeExact(1);
+        }
+        return sum;
+    }
+
+    public int timeInsertArguments(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) bound.invokeExact(2L, "3");
+        }
+        return sum;
+    }
+
+    public int timeFiltered(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) filtered.invokeExact(2);
+        }
+        return sum;
+    }
+
+    public int timeFoldArguments(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) folded.invokeExact(1, "3");
+        }
+        return sum;
+    }
+
+    public int timeGuardWithTest(int reps) throws Throwable {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            sum += (int) guarded.invokeExact(1, 2L, "3");
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import libcore.util.ConcurrentIntObjectMap;
+import libcore.util.IntIntMap;
+import libcore.util.IntObjectMap;
+
+/**
+ * Compares the primitive-keyed maps in libcore.util with the boxed-key maps they replace.
+ * Keys outside the Integer cache are used, as file descriptors and years mostly are, so that
+ * the boxed maps pay for an allocation per lookup.
+ */
+public class PrimitiveMapBenchmark {
+
+    @Param({"16", "1024", "65536"}) int size;
+
+    private int[] keys;
+    private int[] missingKeys;
+
+    private HashMap<Integer, Object> hashMap;
+    private IntObjectMap<Object> intObjectMap;
+    private IntIntMap intIntMap;
+    private ConcurrentHashMap<Integer, Object> concurrentHashMap;
+    private ConcurrentIntObjectMap<Object> concurrentIntObjectMap;
+
+    @BeforeExperiment
+    protected void setUp() {
+        Random random = new Random(0);
+        keys = new int[size];
+        missingKeys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 1000 + 2 * i;
+            missingKeys[i] = 1001 + 2 * i;
+        }
+        // Look keys up in a random order, as events for them arrive.
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+
+        hashMap = new HashMap<>();
+        intObjectMap = new IntObjectMap<>();
+        intIntMap = new IntIntMap();
+        concurrentHashMap = new ConcurrentHashMap<>();
+        concurrentIntObjectMap = new ConcurrentIntObjectMap<>();
+        for (int key : keys) {
+            hashMap.put(key, this);
+            intObjectMap.put(key, this);
+            intIntMap.put(key, key);
+            concurrentHashMap.put(key, this);
+            concurrentIntObjectMap.putIfAbsent(key, this);
+        }
+    }
+
+    public void timeHashMap_get(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                hashMap.get(key);
+            }
+        }
+    }
+
+    public void timeIntObjectMap_get(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                intObjectMap.get(key);
+            }
+        }
+    }
+
+    public void timeHashMap_getMissing(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : missingKeys) {
+                hashMap.get(key);
+            }
+        }
+    }
+
+    public void timeIntObjectMap_getMissing(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : missingKeys) {
+                intObjectMap.get(key);
+            }
+        }
+    }
+
+    public void timeIntIntMap_get(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                intIntMap.get(key, -1);
+            }
+        }
+    }
+
+    public void timeConcurrentHashMap_get(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                concurrentHashMap.get(key);
+            }
+        }
+    }
+
+    public void timeConcurrentIntObjectMap_get(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                concurrentIntObjectMap.get(key);
+            }
+        }
+    }
+
+    /** Registers and unregisters every key, as channels are registered with a Port. */
+    public void timeHashMap_putRemove(int reps) {
+        Map<Integer, Object> map = new HashMap<>();
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                map.put(key, this);
+            }
+            for (int key : keys) {
+                map.remove(key);
+            }
+        }
+    }
+
+    public void timeIntObjectMap_putRemove(int reps) {
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int key : keys) {
+                map.put(key, this);
+            }
+            for (int key : keys) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Prints the heap each map takes per entry, which the timings above don't show. Run with a
+     * small heap and nothing else running, so that the used heap is close to the live heap.
+     */
+    public static void main(String[] args) {
+        final int entries = 100000;
+        Object value = new Object();
+
+        long before = usedHeap();
+        HashMap<Integer, Object> hashMap = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            hashMap.put(1000 + i, value);
+        }
+        long after = usedHeap();
+        System.out.printf("HashMap: %.1f bytes/entry\n", (after - before) / (double) entries);
+
+        before = usedHeap();
+        IntObjectMap<Object> intObjectMap = new IntObjectMap<>();
+        for (int i = 0; i < entries; i++) {
+            intObjectMap.put(1000 + i, value);
+        }
+        after = usedHeap();
+        System.out.printf("IntObjectMap: %.1f bytes/entry\n",
+                (after - before) / (double) entries);
+
+        before = usedHeap();
+        IntIntMap intIntMap = new IntIntMap();
+        for (int i = 0; i < entries; i++) {
+            intIntMap.put(1000 + i, i);
+        }
+        after = usedHeap();
+        System.out.printf("IntIntMap: %.1f bytes/entry\n", (after - before) / (double) entries);
+
+        // Keep the maps reachable until every measurement is taken.
+        if (hashMap.size() + intObjectMap.size() + intIntMap.size() != 3 * entries) {
+            throw new AssertionError();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
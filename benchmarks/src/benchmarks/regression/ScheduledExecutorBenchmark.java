@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimingWheelScheduledExecutor;
+
+/**
+ * Schedules and cancels timeouts on an executor that already holds a large number of pending
+ * tasks, the way a server resets a per-connection idle timeout on every request.
+ */
+public class ScheduledExecutorBenchmark {
+
+    private static final int THREADS = 4;
+
+    private static final Runnable NOOP = () -> {};
+
+    public enum Type { WHEEL, STPE }
+
+    @Param({"WHEEL", "STPE"}) Type type;
+
+    @Param({"1000", "1000000"}) int pending;
+
+    private ScheduledExecutorService executor;
+
+    @BeforeExperiment
+    protected void setUp() {
+        if (type == Type.WHEEL) {
+            executor = new TimingWheelScheduledExecutor(1, TimeUnit.MILLISECONDS);
+        } else {
+            ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1);
+            // Otherwise cancelled timeouts pile up in the queue until they expire.
+            stpe.setRemoveOnCancelPolicy(true);
+            executor = stpe;
+        }
+        for (int i = 0; i < pending; i++) {
+            executor.schedule(NOOP, TimeUnit.HOURS.toMillis(1) + i, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        executor.shutdownNow();
+    }
+
+    public void timeScheduleAndCancel(int reps) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < reps; i++) {
+            executor.schedule(NOOP, 1000 + random.nextInt(60_000), TimeUnit.MILLISECONDS)
+                    .cancel(false);
+        }
+    }
+
+    // Keeps a window of live timeouts, cancelling the oldest when adding a new one.
+    public void timeScheduleAndCancelLater(int reps) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ScheduledFuture<?>[] window = new ScheduledFuture<?>[64];
+        for (int i = 0; i < reps; i++) {
+            int slot = i & (window.length - 1);
+            if (window[slot] != null) {
+                window[slot].cancel(false);
+            }
+            window[slot] = executor.schedule(
+                    NOOP, 1000 + random.nextInt(60_000), TimeUnit.MILLISECONDS);
+        }
+        for (ScheduledFuture<?> future : window) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    public void timeScheduleAndCancel_contended(int reps) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                timeScheduleAndCancel(reps);
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -21,8 +21,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Random;
 
 public class SerializationBenchmark {
     private static byte[] bytes(Object o) throws Exception {
@@ -176,6 +178,102 @@ public class SerializationBenchmark {
         readSingleObject(reps, new SerializableReference());
     }
 
+    // Object graphs of 10k nodes, as found in an on-disk cache. Each node refers to an earlier
+    // node, so most references are written as back references and the recursion stays shallow.
+    private static final int GRAPH_SIZE = 10_000;
+
+    private static ArrayList<Node> newGraph() {
+        Random random = new Random(42);
+        ArrayList<Node> graph = new ArrayList<Node>(GRAPH_SIZE);
+        for (int i = 0; i < GRAPH_SIZE; i++) {
+            Node node = new Node();
+            node.id = i;
+            node.timestamp = 1_700_000_000_000L + i;
+            node.weight = random.nextDouble();
+            node.name = "node" + (i % 100);
+            node.link = (i == 0) ? null : graph.get(random.nextInt(i));
+            graph.add(node);
+        }
+        return graph;
+    }
+
+    private static ArrayList<NodeWithHooks> newGraphWithHooks() {
+        Random random = new Random(42);
+        ArrayList<NodeWithHooks> graph = new ArrayList<NodeWithHooks>(GRAPH_SIZE);
+        for (int i = 0; i < GRAPH_SIZE; i++) {
+            NodeWithHooks node = new NodeWithHooks();
+            node.id = i;
+            node.timestamp = 1_700_000_000_000L + i;
+            node.link = (i == 0) ? null : graph.get(random.nextInt(i));
+            graph.add(node);
+        }
+        return graph;
+    }
+
+    private static ArrayList<Point> newPoints() {
+        ArrayList<Point> points = new ArrayList<Point>(GRAPH_SIZE);
+        for (int i = 0; i < GRAPH_SIZE; i++) {
+            Point point = new Point();
+            point.x = i;
+            point.y = -i;
+            point.z = i * 0.5;
+            points.add(point);
+        }
+        return points;
+    }
+
+    public void timeWriteGraph(int reps) throws Exception {
+        writeSingleObject(reps, newGraph());
+    }
+
+    public void timeReadGraph(int reps) throws Exception {
+        readSingleObject(reps, newGraph());
+    }
+
+    public void timeWriteGraphWithHooks(int reps) throws Exception {
+        writeSingleObject(reps, newGraphWithHooks());
+    }
+
+    public void timeReadGraphWithHooks(int reps) throws Exception {
+        readSingleObject(reps, newGraphWithHooks());
+    }
+
+    public void timeWritePrimitiveOnlyGraph(int reps) throws Exception {
+        writeSingleObject(reps, newPoints());
+    }
+
+    public void timeReadPrimitiveOnlyGraph(int reps) throws Exception {
+        readSingleObject(reps, newPoints());
+    }
+
+    public static class Node implements Serializable {
+        int id;
+        long timestamp;
+        double weight;
+        String name;
+        Node link;
+    }
+
+    public static class NodeWithHooks implements Serializable {
+        int id;
+        long timestamp;
+        NodeWithHooks link;
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+        }
+    }
+
+    public static class Point implements Serializable {
+        int x;
+        int y;
+        double z;
+    }
+
     public static class SerializableBoolean implements Serializable {
         boolean z;
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import dalvik.system.BlockGuard;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Connects to and accepts from a loopback server socket on one thread, under the lax thread
+ * policy or under one that is told about network access, as with StrictMode enabled.
+ */
+public class SocketAcceptBenchmark {
+
+    @Param({"false", "true"}) boolean strict;
+
+    private BlockGuard.Policy savedPolicy;
+    private ServerSocket serverSocket;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        savedPolicy = BlockGuard.getThreadPolicy();
+        if (strict) {
+            BlockGuard.setThreadPolicy(new PermissivePolicy());
+        } else {
+            BlockGuard.setThreadPolicy(BlockGuard.LAX_POLICY);
+        }
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterExperiment
+    protected void tearDown() throws Exception {
+        serverSocket.close();
+        BlockGuard.setThreadPolicy(savedPolicy);
+    }
+
+    public void timeConnectAndAccept(int reps) throws Exception {
+        InetAddress address = serverSocket.getInetAddress();
+        int port = serverSocket.getLocalPort();
+        for (int i = 0; i < reps; ++i) {
+            try (Socket client = new Socket(address, port);
+                 Socket accepted = serverSocket.accept()) {
+            }
+        }
+    }
+
+    // Allows everything, but isn't LAX_POLICY, so BlockGuardOs still works out what to report.
+    private static class PermissivePolicy implements BlockGuard.Policy {
+        @Override public void onWriteToDisk() {}
+        @Override public void onReadFromDisk() {}
+        @Override public void onNetwork() {}
+        @Override public void onUnbufferedIO() {}
+        @Override public void onExplicitGc() {}
+        @Override public int getPolicyMask() { return 0; }
+    }
+}
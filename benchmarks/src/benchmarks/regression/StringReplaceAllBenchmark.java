@@ -73,4 +73,22 @@ public class StringReplaceAllBenchmark {
             s.value.replaceAll("qrst", "0");
         }
     }
+
+    public void timeReplaceAllCharacterClassPattern(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            s.value.replaceAll("[aeiou]+", "_");
+        }
+    }
+
+    public void timeReplaceFirstTrivialPattern(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            s.value.replaceFirst("jklm", "0");
+        }
+    }
+
+    public void timeMatchesAnyPattern(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            s.value.matches("[a-z]*");
+        }
+    }
 }
@@ -56,4 +56,29 @@ public class StringSplitBenchmark {
             "this,is,a,harder,example".split("[,]");
         }
     }
+
+    public void timeStringSplitLiteralMultiChar(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            "this, is, a, simple, example".split(", ");
+        }
+    }
+
+    public void timeStringSplitQuotedMultiChar(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            "this||is||a||simple||example".split("\\|\\|");
+        }
+    }
+
+    public void timeStringSplitWhitespace(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            "this  is a\tsimple   example".split("\\s+");
+        }
+    }
+
+    public void timePatternSplitWhitespace(int reps) {
+        Pattern p = Pattern.compile("\\s+");
+        for (int i = 0; i < reps; ++i) {
+            p.split("this  is a\tsimple   example");
+        }
+    }
 }
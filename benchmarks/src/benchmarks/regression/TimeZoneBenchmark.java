@@ -16,9 +16,34 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.BeforeExperiment;
+import java.util.GregorianCalendar;
+import java.util.Random;
 import java.util.TimeZone;
+import libcore.util.ZoneInfo;
 
 public class TimeZoneBenchmark {
+    private static final int TIME_COUNT = 1024;
+
+    private ZoneInfo zone;
+    // Times a minute apart from the start of 2020, and times at random between 1970 and 2100.
+    private long[] nearbyTimes;
+    private long[] randomTimes;
+    private int[] offsets;
+
+    @BeforeExperiment
+    protected void setUp() {
+        zone = (ZoneInfo) TimeZone.getTimeZone("America/Santiago");
+        nearbyTimes = new long[TIME_COUNT];
+        randomTimes = new long[TIME_COUNT];
+        Random random = new Random(0);
+        for (int i = 0; i < TIME_COUNT; i++) {
+            nearbyTimes[i] = 1577836800000L + i * 60000L;
+            randomTimes[i] = (long) (random.nextDouble() * 4102444800000L);
+        }
+        offsets = new int[TIME_COUNT];
+    }
+
     public void timeTimeZone_getDefault(int reps) throws Exception {
         for (int rep = 0; rep < reps; ++rep) {
             TimeZone.getDefault();
@@ -57,4 +82,60 @@ public class TimeZoneBenchmark {
             TimeZone.getTimeZone("GMT+10");
         }
     }
+
+    // Each rep looks up the offsets of TIME_COUNT times.
+
+    public int timeZoneInfo_getOffset_nearby(int reps) {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (long time : nearbyTimes) {
+                sum += zone.getOffset(time);
+            }
+        }
+        return sum;
+    }
+
+    public int timeZoneInfo_getOffset_random(int reps) {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (long time : randomTimes) {
+                sum += zone.getOffset(time);
+            }
+        }
+        return sum;
+    }
+
+    public int timeZoneInfo_getOffsetsByUtcTime_random(int reps) {
+        int[] rawAndDst = new int[2];
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (long time : randomTimes) {
+                sum += zone.getOffsetsByUtcTime(time, rawAndDst);
+            }
+        }
+        return sum;
+    }
+
+    public void timeZoneInfo_getOffsets_nearby(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            zone.getOffsets(nearbyTimes, offsets);
+        }
+    }
+
+    public void timeZoneInfo_getOffsets_random(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            zone.getOffsets(randomTimes, offsets);
+        }
+    }
+
+    public int timeZoneInfo_getOffset_fields(int reps) {
+        int sum = 0;
+        for (int rep = 0; rep < reps; ++rep) {
+            for (int i = 0; i < TIME_COUNT; i++) {
+                sum += zone.getOffset(GregorianCalendar.AD, 2020, i % 12, 1 + i % 28,
+                        1 + i % 7, i * 60000);
+            }
+        }
+        return sum;
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.Param;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import libcore.util.StripedSecureRandom;
+
+/**
+ * Generates random UUIDs, and their random bytes, on several threads at once. Each rep is one
+ * UUID, or 16 bytes, on every thread. The shared SecureRandom is what randomUUID() used to use.
+ */
+public class UUIDBenchmark {
+
+    @Param({"1", "8", "32"}) int threads;
+
+    private final SecureRandom sharedSecureRandom = new SecureRandom();
+
+    private interface Task {
+        void run(int reps);
+    }
+
+    private void runOnAllThreads(final int reps, final Task task) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                task.run(reps);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    public void timeRandomUUID(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            for (int i = 0; i < n; i++) {
+                UUID.randomUUID();
+            }
+        });
+    }
+
+    public void timeSharedSecureRandom(int reps) throws Exception {
+        runOnAllThreads(reps, n -> {
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < n; i++) {
+                sharedSecureRandom.nextBytes(bytes);
+            }
+        });
+    }
+
+    public void timeStripedSecureRandom(int reps) throws Exception {
+        final StripedSecureRandom random = StripedSecureRandom.getDefault();
+        runOnAllThreads(reps, n -> {
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < n; i++) {
+                random.nextBytes(bytes);
+            }
+        });
+    }
+
+    public void timeToString(int reps) throws Exception {
+        final UUID uuid = UUID.randomUUID();
+        runOnAllThreads(reps, n -> {
+            for (int i = 0; i < n; i++) {
+                uuid.toString();
+            }
+        });
+    }
+}
@@ -21,6 +21,7 @@ import sun.invoke.util.Wrapper;
 import java.lang.invoke.MethodType;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * Provides typed (read-only) access to method arguments and a slot to store a return value.
@@ -185,6 +186,222 @@ public class EmulatedStackFrame {
         return new EmulatedStackFrame(frameType, new Object[numRefs], new byte[frameSize]);
     }
 
+    /**
+     * The number of released frames each thread keeps for {@link #acquire}.
+     */
+    private static final int CACHED_FRAMES = 8;
+
+    /**
+     * Frames released by each thread, most recently released first.
+     */
+    private static final ThreadLocal<EmulatedStackFrame[]> cachedFrames =
+            ThreadLocal.withInitial(() -> new EmulatedStackFrame[CACHED_FRAMES]);
+
+    /**
+     * Returns an emulated stack frame for a given {@code MethodType}, like {@link #create}, but
+     * reuses a frame of the same type released by this thread if there is one.
+     *
+     * The caller must pass the frame to {@link #release} once nothing refers to it any longer,
+     * and must not use it after that.
+     */
+    public static EmulatedStackFrame acquire(MethodType frameType) {
+        final EmulatedStackFrame[] cache = cachedFrames.get();
+        for (int i = 0; i < cache.length; ++i) {
+            final EmulatedStackFrame frame = cache[i];
+            if (frame != null && frame.type == frameType) {
+                cache[i] = null;
+                return frame;
+            }
+        }
+        return create(frameType);
+    }
+
+    /**
+     * Clears a frame returned by {@link #acquire} and makes it available to later calls on this
+     * thread. The least recently released frame is dropped if this thread already keeps as many
+     * as it may.
+     */
+    public static void release(EmulatedStackFrame frame) {
+        Arrays.fill(frame.references, null);
+        Arrays.fill(frame.stackFrame, (byte) 0);
+        final EmulatedStackFrame[] cache = cachedFrames.get();
+        int last = 0;
+        while (last < cache.length - 1 && cache[last] != null) {
+            ++last;
+        }
+        System.arraycopy(cache, 0, cache, 1, last);
+        cache[0] = frame;
+    }
+
+    /**
+     * Moves the arguments of a frame of one type to a frame of another, where each argument of
+     * the destination is either an argument of the source or a constant. The moves are worked
+     * out once, when the mapping is created, and adjacent ones are merged, so that applying the
+     * mapping only copies between the arrays of the frames.
+     *
+     * @hide
+     */
+    public static final class ArgumentMapping {
+        /**
+         * For each reference argument of the destination, the index in the references of the
+         * source to copy it from, or -1 if it is the constant in {@code referenceConstants}.
+         */
+        private final int[] referenceSources;
+        private final Object[] referenceConstants;
+
+        /**
+         * Runs of primitive bytes to copy, as triples of source offset, destination offset and
+         * length. A source offset of -1 copies from {@code primitiveConstants}, which holds the
+         * constants at their offsets in the destination.
+         */
+        private final int[] primitiveRuns;
+        private final byte[] primitiveConstants;
+
+        private ArgumentMapping(int[] referenceSources, Object[] referenceConstants,
+                int[] primitiveRuns, byte[] primitiveConstants) {
+            this.referenceSources = referenceSources;
+            this.referenceConstants = referenceConstants;
+            this.primitiveRuns = primitiveRuns;
+            this.primitiveConstants = primitiveConstants;
+        }
+
+        /**
+         * Creates a mapping from frames of type {@code from} to frames of type {@code to}.
+         *
+         * @param sources for each parameter of {@code to}, the index of the parameter of
+         *        {@code from} that it takes its value from, or -1 if it takes
+         *        {@code constants[i]}
+         * @param constants the constant arguments, primitives boxed in the wrapper of the exact
+         *        parameter type. Other elements are ignored.
+         */
+        public static ArgumentMapping create(MethodType from, MethodType to, int[] sources,
+                Object[] constants) {
+            final Class<?>[] fromTypes = from.ptypes();
+            final int[] fromOffsets = new int[fromTypes.length];
+            int numReferences = 0;
+            int numBytes = 0;
+            for (int i = 0; i < fromTypes.length; ++i) {
+                if (fromTypes[i].isPrimitive()) {
+                    fromOffsets[i] = numBytes;
+                    numBytes += getSize(fromTypes[i]);
+                } else {
+                    fromOffsets[i] = numReferences++;
+                }
+            }
+
+            final Class<?>[] toTypes = to.ptypes();
+            numReferences = 0;
+            numBytes = 0;
+            for (Class<?> ptype : toTypes) {
+                if (ptype.isPrimitive()) {
+                    numBytes += getSize(ptype);
+                } else {
+                    numReferences++;
+                }
+            }
+
+            final int[] referenceSources = new int[numReferences];
+            final Object[] referenceConstants = new Object[numReferences];
+            final int[] runs = new int[toTypes.length * 3];
+            final ByteBuffer primitiveConstants =
+                    ByteBuffer.allocate(numBytes).order(ByteOrder.LITTLE_ENDIAN);
+            int numRuns = 0;
+            int reference = 0;
+            int offset = 0;
+            for (int i = 0; i < toTypes.length; ++i) {
+                final Class<?> ptype = toTypes[i];
+                final int source = sources[i];
+                if (!ptype.isPrimitive()) {
+                    if (source >= 0) {
+                        referenceSources[reference] = fromOffsets[source];
+                    } else {
+                        referenceSources[reference] = -1;
+                        referenceConstants[reference] = constants[i];
+                    }
+                    reference++;
+                    continue;
+                }
+
+                final int size = getSize(ptype);
+                final int sourceOffset;
+                if (source >= 0) {
+                    sourceOffset = fromOffsets[source];
+                } else {
+                    sourceOffset = -1;
+                    primitiveConstants.position(offset);
+                    putConstant(primitiveConstants, ptype, constants[i]);
+                }
+                // Extend the previous run if both ends are contiguous with it.
+                final int last = (numRuns - 1) * 3;
+                if (numRuns > 0 && runs[last + 1] + runs[last + 2] == offset
+                        && ((sourceOffset < 0 && runs[last] < 0)
+                                || (sourceOffset >= 0 && runs[last] >= 0
+                                        && runs[last] + runs[last + 2] == sourceOffset))) {
+                    runs[last + 2] += size;
+                } else {
+                    runs[numRuns * 3] = sourceOffset;
+                    runs[numRuns * 3 + 1] = offset;
+                    runs[numRuns * 3 + 2] = size;
+                    numRuns++;
+                }
+                offset += size;
+            }
+
+            return new ArgumentMapping(referenceSources, referenceConstants,
+                    Arrays.copyOf(runs, numRuns * 3), primitiveConstants.array());
+        }
+
+        // Writes value as StackFrameWriter would write an argument of type ptype.
+        private static void putConstant(ByteBuffer buffer, Class<?> ptype, Object value) {
+            switch (Wrapper.basicTypeChar(ptype)) {
+                case 'Z':
+                    buffer.putInt((boolean) value ? 1 : 0);
+                    break;
+                case 'B':
+                    buffer.putInt((byte) value);
+                    break;
+                case 'C':
+                    buffer.putInt((char) value);
+                    break;
+                case 'S':
+                    buffer.putInt((short) value);
+                    break;
+                case 'I':
+                    buffer.putInt((int) value);
+                    break;
+                case 'J':
+                    buffer.putLong((long) value);
+                    break;
+                case 'F':
+                    buffer.putFloat((float) value);
+                    break;
+                case 'D':
+                    buffer.putDouble((double) value);
+                    break;
+                default:
+                    throw new AssertionError(ptype);
+            }
+        }
+
+        /**
+         * Sets the arguments of {@code to} from those of {@code from} and the constants.
+         */
+        public void apply(EmulatedStackFrame from, EmulatedStackFrame to) {
+            final Object[] fromReferences = from.references;
+            final Object[] toReferences = to.references;
+            for (int i = 0; i < referenceSources.length; ++i) {
+                final int source = referenceSources[i];
+                toReferences[i] = (source >= 0) ? fromReferences[source] : referenceConstants[i];
+            }
+            for (int i = 0; i < primitiveRuns.length; i += 3) {
+                final int source = primitiveRuns[i];
+                System.arraycopy((source >= 0) ? from.stackFrame : primitiveConstants,
+                        (source >= 0) ? source : primitiveRuns[i + 1],
+                        to.stackFrame, primitiveRuns[i + 1], primitiveRuns[i + 2]);
+            }
+        }
+    }
+
     /**
      * Convert parameter index to index within references array.
      */
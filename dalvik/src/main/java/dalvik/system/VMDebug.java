@@ -586,6 +586,29 @@ public final class VMDebug {
         runtimeStatsMap.put("art.gc.pre-oome-gc-count", 10);
     }
 
+    /*
+     * Map from the names of the reference processing stats supported by getRuntimeStat() to
+     * their IDs. These are maintained by the finalizer and reference queue daemons in Java.
+     */
+    private static final HashMap<String, Integer> daemonStatsMap = new HashMap<>();
+
+    static {
+        daemonStatsMap.put("art.daemons.helper-daemons", Daemons.STAT_HELPER_DAEMONS);
+        daemonStatsMap.put("art.daemons.finalizer-queue-length",
+                Daemons.STAT_FINALIZER_QUEUE_LENGTH);
+        daemonStatsMap.put("art.daemons.finalizer-processed", Daemons.STAT_FINALIZER_PROCESSED);
+        daemonStatsMap.put("art.daemons.finalizer-busy-time-ns",
+                Daemons.STAT_FINALIZER_BUSY_TIME_NS);
+        daemonStatsMap.put("art.daemons.reference-queue-backlog",
+                Daemons.STAT_REFERENCE_QUEUE_BACKLOG);
+        daemonStatsMap.put("art.daemons.reference-queue-processed",
+                Daemons.STAT_REFERENCE_QUEUE_PROCESSED);
+        daemonStatsMap.put("art.daemons.reference-queue-busy-time-ns",
+                Daemons.STAT_REFERENCE_QUEUE_BUSY_TIME_NS);
+        daemonStatsMap.put("art.daemons.reference-queue-max-batch-time-ns",
+                Daemons.STAT_REFERENCE_QUEUE_MAX_BATCH_TIME_NS);
+    }
+
     /**
      * Returns the value of a particular runtime statistic or {@code null} if no
      * such runtime statistic exists.
@@ -605,6 +628,10 @@ public final class VMDebug {
         if (statId != null) {
             return getRuntimeStatInternal(statId);
         }
+        statId = daemonStatsMap.get(statName);
+        if (statId != null) {
+            return Long.toString(Daemons.getStat(statId));
+        }
         return null;
     }
 
@@ -625,6 +652,9 @@ public final class VMDebug {
             String value = values[id];
             map.put(name, value);
         }
+        for (Map.Entry<String, Integer> entry : daemonStatsMap.entrySet()) {
+            map.put(entry.getKey(), Long.toString(Daemons.getStat(entry.getValue())));
+        }
         return map;
     }
 
@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -692,6 +693,48 @@ public class JarFileTest extends TestCase {
         }
     }
 
+    public void testVerifyAllEntries() throws Exception {
+        assertVerifyAllEntries(jarName4, entryName3);
+        assertVerifyAllEntries(jarName7, entryName3);
+        assertVerifyAllEntries(integrateJar, integrateJarEntry);
+    }
+
+    /**
+     * Checks that verifyAllEntries() leaves the signers of {@code signedEntry} available
+     * without it being read.
+     */
+    private void assertVerifyAllEntries(String jarName, String signedEntry) throws Exception {
+        File file = Support_Resources.copyFile(resources, null, jarName);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (JarFile jarFile = new JarFile(file, true)) {
+            jarFile.verifyAllEntries(pool);
+            CodeSigner[] signers = jarFile.getJarEntry(signedEntry).getCodeSigners();
+            assertNotNull(jarName, signers);
+            assertEquals(jarName, 1, signers.length);
+            // A second call has nothing left to verify.
+            jarFile.verifyAllEntries(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testVerifyAllEntries_unsigned() throws Exception {
+        File file = Support_Resources.copyFile(resources, null, jarName);
+        try (JarFile jarFile = new JarFile(file, true)) {
+            jarFile.verifyAllEntries();
+            assertNull(jarFile.getJarEntry(entryName).getCodeSigners());
+        }
+    }
+
+    public void testVerifyAllEntries_incorrectlySigned() throws Exception {
+        File file = Support_Resources.copyFile(resources, null, jarName5);
+        try (JarFile jarFile = new JarFile(file, true)) {
+            jarFile.verifyAllEntries();
+            fail("SecurityException expected");
+        } catch (SecurityException expected) {
+        }
+    }
+
     /**
      * The jar is intact, but the entry object is modified.
      */
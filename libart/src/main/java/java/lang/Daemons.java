@@ -26,10 +26,14 @@ import java.lang.ref.Cleaner;
 import java.lang.ref.FinalizerReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import libcore.util.EmptyArray;
+import libcore.util.NativeAllocationRegistry;
 
 import dalvik.system.VMRuntime;
 import dalvik.system.VMDebug;
@@ -66,11 +70,25 @@ public final class Daemons {
 
     private static boolean postZygoteFork = false;
 
+    // Upper bound on the number of helper daemons per queue. Each helper needs its own
+    // FinalizerWatchdogDaemon bit, two per helper index.
+    private static final int MAX_HELPER_DAEMONS = 8;
+
+    // Number of helper daemons per queue to start with the next start() call.
+    private static int requestedHelperDaemons = 0;  // Guarded by HELPER_LOCK.
+
+    // Running helper daemons. Written under HELPER_LOCK, read racily by the watchdog.
+    private static volatile FinalizerDaemon[] finalizerHelpers = new FinalizerDaemon[0];
+    private static volatile ReferenceQueueDaemon[] referenceQueueHelpers =
+            new ReferenceQueueDaemon[0];
+    private static final Object HELPER_LOCK = new Object();
+
     @UnsupportedAppUsage
     public static void start() {
         for (Daemon daemon : DAEMONS) {
             daemon.start();
         }
+        startHelpers();
     }
 
     public static void startPostZygoteFork() {
@@ -78,15 +96,136 @@ public final class Daemons {
         for (Daemon daemon : DAEMONS) {
             daemon.startPostZygoteFork();
         }
+        startHelpers();
     }
 
     @UnsupportedAppUsage
     public static void stop() {
+        // Helpers first, so that the watchdog is still running while they drain.
+        stopHelpers();
         for (Daemon daemon : DAEMONS) {
             daemon.stop();
         }
     }
 
+    /**
+     * Sets the number of additional threads that share the work of the FinalizerDaemon and of
+     * the ReferenceQueueDaemon, which also runs {@code sun.misc.Cleaner} thunks such as those
+     * registered by {@code NativeAllocationRegistry}. {@code count} helpers are started for each
+     * of the two queues. Takes effect the next time the daemons are started, e.g. after a
+     * zygote fork. The default of zero preserves the single-threaded behavior.
+     *
+     * <p>With helpers enabled, references are still finalized and cleaned exactly once, but
+     * no particular order is guaranteed between references processed by different threads.
+     *
+     * @throws IllegalArgumentException if {@code count} is negative or too large.
+     */
+    public static void setHelperDaemonCount(int count) {
+        if (count < 0 || count > MAX_HELPER_DAEMONS) {
+            throw new IllegalArgumentException("Invalid helper daemon count: " + count);
+        }
+        synchronized (HELPER_LOCK) {
+            requestedHelperDaemons = count;
+        }
+    }
+
+    private static void startHelpers() {
+        synchronized (HELPER_LOCK) {
+            int count = requestedHelperDaemons;
+            FinalizerDaemon[] finalizers = new FinalizerDaemon[count];
+            ReferenceQueueDaemon[] referenceQueues = new ReferenceQueueDaemon[count];
+            for (int i = 0; i < count; ++i) {
+                // Bits 1 and 2 belong to the primary daemons.
+                finalizers[i] =
+                        new FinalizerDaemon("FinalizerDaemon-" + (i + 1), 1 << (2 + 2 * i));
+                referenceQueues[i] = new ReferenceQueueDaemon(
+                        "ReferenceQueueDaemon-" + (i + 1), 1 << (3 + 2 * i));
+            }
+            // Publish before starting, so that the watchdog can see any helper it is asked to
+            // monitor.
+            finalizerHelpers = finalizers;
+            referenceQueueHelpers = referenceQueues;
+            for (int i = 0; i < count; ++i) {
+                if (postZygoteFork) {
+                    finalizers[i].startPostZygoteFork();
+                    referenceQueues[i].startPostZygoteFork();
+                } else {
+                    finalizers[i].start();
+                    referenceQueues[i].start();
+                }
+            }
+        }
+    }
+
+    private static void stopHelpers() {
+        synchronized (HELPER_LOCK) {
+            for (FinalizerDaemon helper : finalizerHelpers) {
+                helper.stop();
+            }
+            for (ReferenceQueueDaemon helper : referenceQueueHelpers) {
+                helper.stop();
+            }
+            finalizerHelpers = new FinalizerDaemon[0];
+            referenceQueueHelpers = new ReferenceQueueDaemon[0];
+        }
+    }
+
+    /** Number of helper daemons per queue. See {@link #setHelperDaemonCount}. */
+    public static final int STAT_HELPER_DAEMONS = 0;
+    /** Number of references waiting in the finalizer queue. */
+    public static final int STAT_FINALIZER_QUEUE_LENGTH = 1;
+    /** Total number of finalizers and {@code java.lang.ref.Cleaner}s run. */
+    public static final int STAT_FINALIZER_PROCESSED = 2;
+    /** Total time, in nanoseconds, the finalizer daemons spent with a non-empty queue. */
+    public static final int STAT_FINALIZER_BUSY_TIME_NS = 3;
+    /** Number of pending references taken from the GC but not yet enqueued or cleaned. */
+    public static final int STAT_REFERENCE_QUEUE_BACKLOG = 4;
+    /** Total number of references enqueued or cleaned by the reference queue daemons. */
+    public static final int STAT_REFERENCE_QUEUE_PROCESSED = 5;
+    /** Total time, in nanoseconds, the reference queue daemons spent processing batches. */
+    public static final int STAT_REFERENCE_QUEUE_BUSY_TIME_NS = 6;
+    /** Longest time, in nanoseconds, spent processing a single batch of pending references. */
+    public static final int STAT_REFERENCE_QUEUE_MAX_BATCH_TIME_NS = 7;
+
+    /**
+     * Returns the current value of one of the {@code STAT_*} counters. Values are read without
+     * synchronization and are only intended for monitoring.
+     *
+     * @throws IllegalArgumentException if {@code stat} is unknown.
+     */
+    public static long getStat(int stat) {
+        switch (stat) {
+            case STAT_HELPER_DAEMONS:
+                return finalizerHelpers.length;
+            case STAT_FINALIZER_QUEUE_LENGTH:
+                return FinalizerReference.queue.size();
+            case STAT_FINALIZER_PROCESSED: {
+                long total = 0;
+                for (FinalizerDaemon daemon : FinalizerDaemon.all()) {
+                    total += daemon.processedCount.get();
+                }
+                return total;
+            }
+            case STAT_FINALIZER_BUSY_TIME_NS: {
+                long total = 0;
+                for (FinalizerDaemon daemon : FinalizerDaemon.all()) {
+                    total += daemon.busyNanos.get();
+                }
+                return total;
+            }
+            case STAT_REFERENCE_QUEUE_BACKLOG:
+                return ReferenceQueueDaemon.backlog.get();
+            case STAT_REFERENCE_QUEUE_PROCESSED:
+                return ReferenceQueueDaemon.processedCount.get();
+            case STAT_REFERENCE_QUEUE_BUSY_TIME_NS:
+                return ReferenceQueueDaemon.busyNanos.get();
+            case STAT_REFERENCE_QUEUE_MAX_BATCH_TIME_NS:
+                return ReferenceQueueDaemon.maxBatchNanos.get();
+            default:
+                throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
     private static void waitForDaemonStart() throws Exception {
         if (postZygoteFork) {
             POST_ZYGOTE_START_LATCH.await();
@@ -105,9 +244,16 @@ public final class Daemons {
         private Thread thread;
         private String name;
         private boolean postZygoteFork;
+        // Helpers are started after the daemons counted by the start latches.
+        private final boolean isHelper;
 
         protected Daemon(String name) {
+            this(name, false);
+        }
+
+        protected Daemon(String name, boolean isHelper) {
             this.name = name;
+            this.isHelper = isHelper;
         }
 
         @UnsupportedAppUsage
@@ -137,8 +283,10 @@ public final class Daemons {
                 // priority. We (may) use a native priority that doesn't have a corresponding
                 // java.lang.Thread-level priority (native priorities are more coarse-grained.)
                 VMRuntime.getRuntime().setSystemDaemonThreadPriority();
-                POST_ZYGOTE_START_LATCH.countDown();
-            } else {
+                if (!isHelper) {
+                    POST_ZYGOTE_START_LATCH.countDown();
+                }
+            } else if (!isHelper) {
                 PRE_ZYGOTE_START_LATCH.countDown();
             }
             try {
@@ -208,51 +356,160 @@ public final class Daemons {
         }
     }
 
+    /**
+     * A daemon whose progress is monitored by the FinalizerWatchdogDaemon.
+     */
+    private static abstract class WatchedDaemon extends Daemon {
+        // Monitored by FinalizerWatchdogDaemon to make sure we're still working.
+        final AtomicInteger progressCounter = new AtomicInteger(0);
+        // Single bit identifying this daemon to FinalizerWatchdogDaemon.
+        final int watcheeBit;
+
+        WatchedDaemon(String name, int watcheeBit, boolean isHelper) {
+            super(name, isHelper);
+            this.watcheeBit = watcheeBit;
+        }
+    }
+
     /**
      * This heap management thread moves elements from the garbage collector's
      * pending list to the managed reference queue.
+     *
+     * <p>When helper daemons are configured, the primary instance splits each pending list into
+     * chunks that it and the helpers process concurrently.
      */
-    private static class ReferenceQueueDaemon extends Daemon {
+    private static class ReferenceQueueDaemon extends WatchedDaemon {
         @UnsupportedAppUsage
         private static final ReferenceQueueDaemon INSTANCE = new ReferenceQueueDaemon();
 
-        // Monitored by FinalizerWatchdogDaemon to make sure we're still working.
-        private final AtomicInteger progressCounter = new AtomicInteger(0);
+        // Maximum number of references in a chunk handed to a helper.
+        private static final int CHUNK_SIZE = 1024;
+
+        // Chunks of pending references not yet claimed by any ReferenceQueueDaemon.
+        // Guarded by ReferenceQueue.class, like ReferenceQueue.unenqueued.
+        private static final ArrayDeque<Reference<?>> pendingChunks = new ArrayDeque<>();
+
+        // Statistics, see Daemons.getStat().
+        static final AtomicLong backlog = new AtomicLong();
+        static final AtomicLong processedCount = new AtomicLong();
+        static final AtomicLong busyNanos = new AtomicLong();
+        static final AtomicLong maxBatchNanos = new AtomicLong();
 
         ReferenceQueueDaemon() {
-            super("ReferenceQueueDaemon");
+            super("ReferenceQueueDaemon", FinalizerWatchdogDaemon.RQ_DAEMON, false);
+        }
+
+        ReferenceQueueDaemon(String name, int watcheeBit) {
+            super(name, watcheeBit, true);
+        }
+
+        static ReferenceQueueDaemon[] all() {
+            ReferenceQueueDaemon[] helpers = referenceQueueHelpers;
+            ReferenceQueueDaemon[] result = new ReferenceQueueDaemon[helpers.length + 1];
+            result[0] = INSTANCE;
+            System.arraycopy(helpers, 0, result, 1, helpers.length);
+            return result;
+        }
+
+        private boolean hasWork() {
+            // Only the primary daemon takes lists directly from the GC.
+            return !pendingChunks.isEmpty()
+                    || (this == INSTANCE && ReferenceQueue.unenqueued != null);
         }
 
         @Override public void runInternal() {
-            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(FinalizerWatchdogDaemon.RQ_DAEMON);
+            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(watcheeBit);
             while (isRunning()) {
                 Reference<?> list;
+                boolean isChunk;
                 try {
                     synchronized (ReferenceQueue.class) {
-                        if (ReferenceQueue.unenqueued == null) {
-                            FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(
-                                    FinalizerWatchdogDaemon.RQ_DAEMON);
+                        if (!hasWork()) {
+                            FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(watcheeBit);
                             // Increment after above call. If watchdog saw it active, it should see
                             // the counter update.
                             progressCounter.incrementAndGet();
                             do {
                                ReferenceQueue.class.wait();
-                            } while (ReferenceQueue.unenqueued == null);
+                            } while (!hasWork());
                             progressCounter.incrementAndGet();
-                            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(
-                                    FinalizerWatchdogDaemon.RQ_DAEMON);
+                            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(watcheeBit);
+                        }
+                        // Chunks were split off earlier lists, so handle them first.
+                        isChunk = !pendingChunks.isEmpty();
+                        if (isChunk) {
+                            list = pendingChunks.poll();
+                        } else {
+                            list = ReferenceQueue.unenqueued;
+                            ReferenceQueue.unenqueued = null;
                         }
-                        list = ReferenceQueue.unenqueued;
-                        ReferenceQueue.unenqueued = null;
                     }
                 } catch (InterruptedException e) {
                     continue;
                 } catch (OutOfMemoryError e) {
                     continue;
                 }
-                ReferenceQueue.enqueuePending(list, progressCounter);
-                FinalizerWatchdogDaemon.INSTANCE.resetTimeouts();
+                if (!isChunk && referenceQueueHelpers.length > 0) {
+                    ArrayList<Reference<?>> chunks;
+                    try {
+                        chunks = new ArrayList<>();
+                        backlog.addAndGet(ReferenceQueue.splitPending(list, CHUNK_SIZE, chunks));
+                    } catch (OutOfMemoryError e) {
+                        // Could not record the chunks, and splitPending left the list whole.
+                        // Process it ourselves.
+                        process(list, false);
+                        continue;
+                    }
+                    int published = distribute(chunks);
+                    // Process any chunks that could not be published.
+                    for (int i = published; i < chunks.size(); i++) {
+                        process(chunks.get(i), true);
+                    }
+                    continue;
+                }
+                process(list, isChunk);
+            }
+            // Helpers may be stopped while the watchdog keeps running.
+            FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(watcheeBit);
+        }
+
+        /**
+         * Makes chunks split off a list taken from the GC available to all
+         * ReferenceQueueDaemons, including this one. Returns the number of chunks published,
+         * which is less than {@code chunks.size()} only if the queue could not grow.
+         */
+        private int distribute(ArrayList<Reference<?>> chunks) {
+            int published = 0;
+            synchronized (ReferenceQueue.class) {
+                try {
+                    for (; published < chunks.size(); published++) {
+                        pendingChunks.add(chunks.get(published));
+                    }
+                } catch (OutOfMemoryError e) {
+                    // The caller processes the rest.
+                }
+                ReferenceQueue.class.notifyAll();
+            }
+            return published;
+        }
+
+        private void process(Reference<?> list, boolean isChunk) {
+            long startNanos = System.nanoTime();
+            int count = ReferenceQueue.enqueuePending(list, progressCounter);
+            // Apply frees that batched NativeAllocationRegistries deferred while we ran their
+            // Cleaners.
+            NativeAllocationRegistry.flushPendingFrees();
+            long batchNanos = System.nanoTime() - startNanos;
+            if (isChunk) {
+                backlog.addAndGet(-count);
+            }
+            processedCount.addAndGet(count);
+            busyNanos.addAndGet(batchNanos);
+            long max;
+            while (batchNanos > (max = maxBatchNanos.get())
+                    && !maxBatchNanos.compareAndSet(max, batchNanos)) {
             }
+            FinalizerWatchdogDaemon.INSTANCE.resetTimeouts();
         }
 
         Object currentlyProcessing() {
@@ -260,17 +517,36 @@ public final class Daemons {
         }
     }
 
-    private static class FinalizerDaemon extends Daemon {
+    /**
+     * Runs finalizers and {@code java.lang.ref.Cleaner}s. Helper instances, if any, drain the
+     * same queue concurrently.
+     */
+    private static class FinalizerDaemon extends WatchedDaemon {
         @UnsupportedAppUsage
         private static final FinalizerDaemon INSTANCE = new FinalizerDaemon();
         private final ReferenceQueue<Object> queue = FinalizerReference.queue;
-        private final AtomicInteger progressCounter = new AtomicInteger(0);
         // Object (not reference!) being finalized. Accesses may race!
         @UnsupportedAppUsage
         private Object finalizingObject = null;
 
+        // Statistics, see Daemons.getStat().
+        final AtomicLong processedCount = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+
         FinalizerDaemon() {
-            super("FinalizerDaemon");
+            super("FinalizerDaemon", FinalizerWatchdogDaemon.FINALIZER_DAEMON, false);
+        }
+
+        FinalizerDaemon(String name, int watcheeBit) {
+            super(name, watcheeBit, true);
+        }
+
+        static FinalizerDaemon[] all() {
+            FinalizerDaemon[] helpers = finalizerHelpers;
+            FinalizerDaemon[] result = new FinalizerDaemon[helpers.length + 1];
+            result[0] = INSTANCE;
+            System.arraycopy(helpers, 0, result, 1, helpers.length);
+            return result;
         }
 
         @Override public void runInternal() {
@@ -284,12 +560,16 @@ public final class Daemons {
             // We do stop the  FinalizerWatchDogDaemon if we have nothing to do for a
             // potentially extended period.  This prevents the device from waking up regularly
             // during idle times.
+            // Busy time is accounted only on the slow path, once per transition between an
+            // empty and a non-empty queue.
 
-            // Local copy of progressCounter; saves a fence per increment on ARM.
+            // Local copies of progressCounter and processedCount; saves a fence per increment
+            // on ARM.
             int localProgressCounter = progressCounter.get();
+            long localProcessedCount = processedCount.get();
+            long busyStartNanos = System.nanoTime();
 
-            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(
-                    FinalizerWatchdogDaemon.FINALIZER_DAEMON);
+            FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(watcheeBit);
             while (isRunning()) {
                 try {
                     // Use non-blocking poll to avoid FinalizerWatchdogDaemon communication
@@ -298,24 +578,29 @@ public final class Daemons {
                     if (nextReference != null) {
                         progressCounter.lazySet(++localProgressCounter);
                         processReference(nextReference);
+                        processedCount.lazySet(++localProcessedCount);
                     } else {
                         finalizingObject = null;
+                        busyNanos.addAndGet(System.nanoTime() - busyStartNanos);
                         // Slow path; block.
-                        FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(
-                                FinalizerWatchdogDaemon.FINALIZER_DAEMON);
+                        FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(watcheeBit);
                         // Increment after above call. If watchdog saw it active, it should see
                         // the counter update.
                         progressCounter.set(++localProgressCounter);
                         nextReference = queue.remove();
+                        busyStartNanos = System.nanoTime();
                         progressCounter.set(++localProgressCounter);
-                        FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(
-                                FinalizerWatchdogDaemon.FINALIZER_DAEMON);
+                        FinalizerWatchdogDaemon.INSTANCE.monitoringNeeded(watcheeBit);
                         processReference(nextReference);
+                        processedCount.lazySet(++localProcessedCount);
                     }
                 } catch (InterruptedException ignored) {
+                    busyStartNanos = System.nanoTime();
                 } catch (OutOfMemoryError ignored) {
                 }
             }
+            // Helpers may be stopped while the watchdog keeps running.
+            FinalizerWatchdogDaemon.INSTANCE.monitoringNotNeeded(watcheeBit);
         }
 
         private void processReference(Object ref) {
@@ -509,10 +794,20 @@ public final class Daemons {
             // Read the counter before we read the "active" state the first time, and after
             // we read it the last time, to guarantee that if the state was ever inactive,
             // we'll see a changed counter.
-            int finalizerStartCount = FinalizerDaemon.INSTANCE.progressCounter.get();
-            boolean monitorFinalizer = isActive(FINALIZER_DAEMON);
-            int refQueueStartCount = ReferenceQueueDaemon.INSTANCE.progressCounter.get();
-            boolean monitorRefQueue = isActive(RQ_DAEMON);
+            final FinalizerDaemon[] finalizers = FinalizerDaemon.all();
+            final ReferenceQueueDaemon[] refQueues = ReferenceQueueDaemon.all();
+            final int[] finalizerStartCounts = new int[finalizers.length];
+            final boolean[] monitorFinalizers = new boolean[finalizers.length];
+            final int[] refQueueStartCounts = new int[refQueues.length];
+            final boolean[] monitorRefQueues = new boolean[refQueues.length];
+            for (int j = 0; j < finalizers.length; ++j) {
+                finalizerStartCounts[j] = finalizers[j].progressCounter.get();
+                monitorFinalizers[j] = isActive(finalizers[j].watcheeBit);
+            }
+            for (int j = 0; j < refQueues.length; ++j) {
+                refQueueStartCounts[j] = refQueues[j].progressCounter.get();
+                monitorRefQueues[j] = isActive(refQueues[j].watcheeBit);
+            }
             // Avoid remembering object being finalized, so as not to keep it alive.
             final long startMillis = System.currentTimeMillis();
             final long startNanos = System.nanoTime();
@@ -528,13 +823,11 @@ public final class Daemons {
                     // Don't report possibly spurious timeout if we are interrupted.
                     return null;
                 }
-                if (monitorFinalizer && isActive(FINALIZER_DAEMON)
-                    && FinalizerDaemon.INSTANCE.progressCounter.get() == finalizerStartCount) {
+                if (findStuck(finalizers, finalizerStartCounts, monitorFinalizers) >= 0) {
                     // Still working on same finalizer or Java 9 Cleaner.
                     continue;
                 }
-                if (monitorRefQueue && isActive(RQ_DAEMON)
-                    && ReferenceQueueDaemon.INSTANCE.progressCounter.get() == refQueueStartCount) {
+                if (findStuck(refQueues, refQueueStartCounts, monitorRefQueues) >= 0) {
                     // Still working on same ReferenceQueue or sun.misc.Cleaner.
                     continue;
                 }
@@ -547,29 +840,33 @@ public final class Daemons {
             }
             // Either a state change to inactive, or a task completion would have caused us to see a
             // counter change. Thus at least one of the daemons appears stuck.
-            if (monitorFinalizer && isActive(FINALIZER_DAEMON)
-                && FinalizerDaemon.INSTANCE.progressCounter.get() == finalizerStartCount) {
+            int stuckFinalizer = findStuck(finalizers, finalizerStartCounts, monitorFinalizers);
+            if (stuckFinalizer >= 0) {
+                FinalizerDaemon daemon = finalizers[stuckFinalizer];
                 // The finalizingObject field was set just before the counter increment, which
                 // preceded the doFinalize() or doClean() call.  Thus we are guaranteed to get the
                 // correct finalizing value below, unless doFinalize() just finished as we were
                 // timing out, in which case we may get null or a later one.
-                Object finalizing = FinalizerDaemon.INSTANCE.finalizingObject;
+                Object finalizing = daemon.finalizingObject;
                 System.logE("Was finalizing " + finalizingObjectAsString(finalizing)
                     + ", now finalizing "
-                    + finalizingObjectAsString(FinalizerDaemon.INSTANCE.finalizingObject));
+                    + finalizingObjectAsString(daemon.finalizingObject));
                 // Print both time of day and monotonic time differences:
                 System.logE("Total elapsed millis: "
                     + (System.currentTimeMillis() - startMillis));
                 System.logE("Total elapsed nanos: " + (System.nanoTime() - startNanos));
-                return finalizerTimeoutException(finalizing);
+                return finalizerTimeoutException(daemon, finalizing);
             }
-            if (monitorRefQueue && isActive(RQ_DAEMON)
-                && ReferenceQueueDaemon.INSTANCE.progressCounter.get() == refQueueStartCount) {
+            int stuckRefQueue = findStuck(refQueues, refQueueStartCounts, monitorRefQueues);
+            if (stuckRefQueue >= 0) {
                 // Report RQD timeouts only if they occur repeatedly.
                 // TODO: Consider changing that, but we have historically been more tolerant here,
                 // since we may not increment the reference counter for every processed queue
                 // element.
-                String currentTarget = ReferenceQueueDaemon.INSTANCE.currentlyProcessing().toString();
+                // With helper daemons, the current target is shared and may belong to a
+                // different daemon. It is only used for reporting.
+                String currentTarget =
+                        String.valueOf(refQueues[stuckRefQueue].currentlyProcessing());
                 System.logE("ReferenceQueueDaemon timed out while targeting " + currentTarget
                         + ". Total nanos: " + (System.nanoTime() - startNanos));
                 if (observedReferenceQueueTimeouts.incrementAndGet()
@@ -580,7 +877,22 @@ public final class Daemons {
             return null;
         }
 
-        private static TimeoutException finalizerTimeoutException(Object object) {
+        /**
+         * Returns the index of a daemon that was active at the start of the current timeout
+         * period, is still active, and has made no progress since, or -1 if there is none.
+         */
+        private int findStuck(WatchedDaemon[] daemons, int[] startCounts, boolean[] monitored) {
+            for (int j = 0; j < daemons.length; ++j) {
+                if (monitored[j] && isActive(daemons[j].watcheeBit)
+                        && daemons[j].progressCounter.get() == startCounts[j]) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        private static TimeoutException finalizerTimeoutException(FinalizerDaemon daemon,
+                Object object) {
             StringBuilder messageBuilder = new StringBuilder();
 
             if (object instanceof Cleaner.Cleanable) {
@@ -594,7 +906,7 @@ public final class Daemons {
                     .append(" seconds");
             TimeoutException syntheticException = new TimeoutException(messageBuilder.toString());
             // We use the stack from where finalize() was running to show where it was stuck.
-            syntheticException.setStackTrace(FinalizerDaemon.INSTANCE.getStackTrace());
+            syntheticException.setStackTrace(daemon.getStackTrace());
             return syntheticException;
         }
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package java.nio;
+
+import static android.annotation.SystemApi.Client.MODULE_LIBRARIES;
+
+import android.annotation.SystemApi;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of direct {@link ByteBuffer}s whose memory is reused once they are released, instead
+ * of waiting for the garbage collector to reclaim it.
+ *
+ * <p>Requests are rounded up to a size class, a power of two from 4 KiB to 1 MiB, and served
+ * from memory of that class. Each thread keeps a small magazine of memory for each class, so
+ * allocating and releasing don't contend unless a magazine runs empty or overflows, when whole
+ * magazines are exchanged with a shared depot. The depot holds at most the number of bytes given
+ * to the constructor; memory beyond that is left to the garbage collector. Buffers larger than
+ * the largest class are allocated and freed without pooling.
+ *
+ * <p>{@link #release} frees a buffer: it and every slice and duplicate of it become inaccessible,
+ * so that any later use throws {@link IllegalStateException} rather than seeing the contents of
+ * whichever buffer is given the memory next. Pooled buffers have no accessible backing array.
+ *
+ * @hide
+ */
+@SystemApi(client = MODULE_LIBRARIES)
+public final class DirectBufferPool {
+
+    private static final int MIN_CLASS_SHIFT = 12;
+    private static final int MAX_CLASS_SHIFT = 20;
+    private static final int CLASS_COUNT = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+
+    // The number of buffers of each class a thread keeps to itself.
+    private static final int MAGAZINE_SIZE = 8;
+
+    private static final DirectBufferPool DEFAULT = new DirectBufferPool(16 * 1024 * 1024);
+
+    private static final class Magazine {
+        final DirectByteBuffer.MemoryRef[] refs = new DirectByteBuffer.MemoryRef[MAGAZINE_SIZE];
+        int count;
+    }
+
+    // Full magazines of each class, shared by all threads. Guarded by the deque.
+    private final ArrayDeque<Magazine>[] depots;
+    private final int[] maxDepotMagazines;
+
+    private final ThreadLocal<Magazine[]> magazines =
+            ThreadLocal.withInitial(() -> new Magazine[CLASS_COUNT]);
+
+    /**
+     * Returns the pool shared by the whole process, which caches up to 16 MiB in its depot.
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static DirectBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a pool whose depot holds up to {@code maxCachedBytes} of released memory.
+     *
+     * @param maxCachedBytes the most memory to keep in the shared depot
+     * @hide
+     */
+    @SuppressWarnings("unchecked")
+    @SystemApi(client = MODULE_LIBRARIES)
+    public DirectBufferPool(long maxCachedBytes) {
+        if (maxCachedBytes < 0) {
+            throw new IllegalArgumentException("maxCachedBytes < 0: " + maxCachedBytes);
+        }
+        depots = new ArrayDeque[CLASS_COUNT];
+        maxDepotMagazines = new int[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            depots[i] = new ArrayDeque<>();
+            long magazineBytes = (long) MAGAZINE_SIZE << (MIN_CLASS_SHIFT + i);
+            maxDepotMagazines[i] = (int) Math.min(maxCachedBytes / magazineBytes, 1024);
+        }
+    }
+
+    /**
+     * Returns a direct buffer with the given capacity, like {@link ByteBuffer#allocateDirect}.
+     * Unless the capacity is larger than the largest size class, the buffer's contents are
+     * undefined, since its memory may have been used by a buffer that was released.
+     *
+     * @param capacity the capacity of the buffer, in bytes
+     * @return a new direct buffer
+     * @throws IllegalArgumentException if {@code capacity} is negative
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity < 0: " + capacity);
+        }
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass < 0) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        DirectByteBuffer.MemoryRef memory = take(sizeClass);
+        if (memory == null) {
+            memory = new DirectByteBuffer.MemoryRef(1 << (MIN_CLASS_SHIFT + sizeClass));
+        }
+        return new DirectByteBuffer(capacity, new DirectByteBuffer.MemoryRef(memory));
+    }
+
+    /**
+     * Frees {@code buffer}, which should have been returned by {@link #allocate}, or be a slice
+     * or duplicate of such a buffer. Its memory is reused by later calls to {@code allocate}.
+     * Afterwards the buffer and all its slices and duplicates are inaccessible. Other direct
+     * buffers are freed as by {@link NioUtils#freeDirectBuffer}.
+     *
+     * @param buffer the buffer to free
+     * @throws IllegalArgumentException if {@code buffer} isn't a direct buffer
+     * @throws IllegalStateException if {@code buffer} has already been freed
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public void release(ByteBuffer buffer) {
+        if (!(buffer instanceof DirectByteBuffer)) {
+            throw new IllegalArgumentException("Not a direct buffer: " + buffer);
+        }
+        DirectByteBuffer dbb = (DirectByteBuffer) buffer;
+        DirectByteBuffer.MemoryRef ref = dbb.memoryRef;
+        // Freeing makes the memory inaccessible through every buffer sharing ref before it is
+        // handed on, and the lock makes sure it is handed on only once.
+        synchronized (ref) {
+            if (ref.isFreed) {
+                throw new IllegalStateException("buffer has been freed");
+            }
+            if (dbb.cleaner != null) {
+                dbb.cleaner.clean();
+            }
+            ref.free();
+        }
+        DirectByteBuffer.MemoryRef memory = ref.pooledFrom;
+        if (memory != null) {
+            // The memory was allocated with 7 bytes to spare for alignment.
+            give(sizeClass(memory.buffer.length - 7), memory);
+        }
+    }
+
+    // Returns the index of the smallest class that holds capacity bytes, or -1 if none does.
+    private static int sizeClass(int capacity) {
+        if (capacity > (1 << MAX_CLASS_SHIFT)) {
+            return -1;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+        return Math.max(shift, MIN_CLASS_SHIFT) - MIN_CLASS_SHIFT;
+    }
+
+    private DirectByteBuffer.MemoryRef take(int sizeClass) {
+        Magazine[] local = magazines.get();
+        Magazine magazine = local[sizeClass];
+        if (magazine == null || magazine.count == 0) {
+            ArrayDeque<Magazine> depot = depots[sizeClass];
+            synchronized (depot) {
+                magazine = depot.pollFirst();
+            }
+            if (magazine == null) {
+                return null;
+            }
+            local[sizeClass] = magazine;
+        }
+        DirectByteBuffer.MemoryRef memory = magazine.refs[--magazine.count];
+        magazine.refs[magazine.count] = null;
+        return memory;
+    }
+
+    private void give(int sizeClass, DirectByteBuffer.MemoryRef memory) {
+        Magazine[] local = magazines.get();
+        Magazine magazine = local[sizeClass];
+        if (magazine == null) {
+            magazine = local[sizeClass] = new Magazine();
+        } else if (magazine.count == MAGAZINE_SIZE) {
+            ArrayDeque<Magazine> depot = depots[sizeClass];
+            synchronized (depot) {
+                if (depot.size() < maxDepotMagazines[sizeClass]) {
+                    depot.addFirst(magazine);
+                    magazine = null;
+                }
+            }
+            if (magazine != null) {
+                // The depot is full, so leave this memory to the garbage collector.
+                return;
+            }
+            magazine = local[sizeClass] = new Magazine();
+        }
+        magazine.refs[magazine.count++] = memory;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package java.text;
+
+import android.icu.text.TimeZoneNames;
+import android.icu.util.ULocale;
+
+import com.android.icu.text.ExtendedTimeZoneNames;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import libcore.util.ZoneInfo;
+
+/**
+ * The formatting half of a {@link SimpleDateFormat}, compiled into an immutable object that
+ * any number of threads may share.
+ *
+ * <p>{@link SimpleDateFormat#format} sets the fields of a {@link java.util.Calendar} and then
+ * walks its pattern, so a format can't be shared without a lock. This walks the pattern once,
+ * when it is compiled, and looks up the names it may need from the {@link DateFormatSymbols}
+ * then. Formatting works out the fields of each date directly from its milliseconds and the
+ * offsets of the time zone, and appends them to a {@link StringBuilder}, creating no
+ * {@code Calendar} and taking no lock.
+ *
+ * <p>The output is the same as that of the {@code SimpleDateFormat} the format was compiled
+ * from, as it was then. The week-based pattern letters 'Y', 'w' and 'W', calendars other than
+ * {@link GregorianCalendar}, number formats other than plain decimal ASCII digits, and dates
+ * before the first whole Gregorian year or after the year 9999 are formatted by a copy of the
+ * {@code SimpleDateFormat} made for each call.
+ *
+ * @hide
+ */
+public final class CompiledDateFormat {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    /** The first millisecond of the year 1. */
+    private static final long MIN_FAST_MILLIS = -62135596800000L;
+
+    /** The first millisecond of the year 10000. */
+    private static final long MAX_FAST_MILLIS = 253402300800000L;
+
+    private static final int[] DAYS_BEFORE_MONTH = {
+        0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334
+    };
+
+    /** A copy of the original format, never used to format itself. */
+    private final SimpleDateFormat prototype;
+
+    /** Whether format() can work out all the fields itself. */
+    private final boolean fast;
+    /**
+     * The first local millisecond format() handles itself: the start of the first whole
+     * Gregorian year, whose days of the year the calendar counts as usual.
+     */
+    private final long firstFastMillis;
+    private final TimeZone zone;
+
+    /**
+     * The pattern, with one entry per run of a pattern letter or of literal text. A letter of 0
+     * is literal text, which is in {@code literals}. Fields with names have them in
+     * {@code names}, indexed as DateFormatSymbols indexes them.
+     */
+    private final char[] letters;
+    private final int[] counts;
+    private final String[] literals;
+    private final String[][] names;
+
+    /** Zone names set with DateFormatSymbols.setZoneStrings(), if any. */
+    private final String[][] zoneStrings;
+    private final TimeZoneNames timeZoneNames;
+    private final String canonicalZoneId;
+
+    private CompiledDateFormat(SimpleDateFormat format) {
+        prototype = (SimpleDateFormat) format.clone();
+        prototype.setTimeZone((TimeZone) format.getTimeZone().clone());
+        zone = prototype.getTimeZone();
+
+        final DateFormatSymbols symbols = prototype.getDateFormatSymbols();
+        final Locale locale = prototype.getLocale();
+        boolean fast = isPlainGregorian(prototype) && isPlainDecimal(prototype.getNumberFormat());
+        firstFastMillis = fast
+                ? startOfNextYear(
+                        ((GregorianCalendar) prototype.getCalendar()).getGregorianChange())
+                : Long.MAX_VALUE;
+
+        final String pattern = prototype.toPattern();
+        final int length = pattern.length();
+        char[] letters = new char[length];
+        int[] counts = new int[length];
+        String[] literals = new String[length];
+        String[][] names = new String[length][];
+        boolean hasZoneName = false;
+        int n = 0;
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < length; ) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                // Quoted text, in which '' is a quote, as is '' outside quotes.
+                int end = i + 1;
+                if (end < length && pattern.charAt(end) == '\'') {
+                    literal.append('\'');
+                    i = end + 1;
+                    continue;
+                }
+                while (end < length) {
+                    if (pattern.charAt(end) == '\'') {
+                        if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                            literal.append('\'');
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(pattern.charAt(end++));
+                }
+                i = end + 1;
+                continue;
+            }
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                literals[n++] = literal.toString();
+                literal.setLength(0);
+            }
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            letters[n] = c;
+            counts[n] = count;
+            names[n] = namesFor(symbols, c, count);
+            switch (c) {
+                case 'Y':
+                case 'w':
+                case 'W':
+                    fast = false;
+                    break;
+                case 'z':
+                    hasZoneName = true;
+                    break;
+            }
+            n++;
+            i += count;
+        }
+        if (literal.length() > 0) {
+            literals[n++] = literal.toString();
+        }
+        this.letters = Arrays.copyOf(letters, n);
+        this.counts = Arrays.copyOf(counts, n);
+        this.literals = Arrays.copyOf(literals, n);
+        this.names = Arrays.copyOf(names, n);
+
+        if (hasZoneName && symbols.isZoneStringsSet) {
+            zoneStrings = symbols.getZoneStringsWrapper();
+            timeZoneNames = null;
+            canonicalZoneId = null;
+        } else if (hasZoneName && locale != null) {
+            zoneStrings = null;
+            timeZoneNames = ExtendedTimeZoneNames.getInstance(ULocale.forLocale(locale))
+                    .getTimeZoneNames();
+            canonicalZoneId = android.icu.util.TimeZone.getCanonicalID(zone.getID());
+        } else {
+            fast &= !hasZoneName;
+            zoneStrings = null;
+            timeZoneNames = null;
+            canonicalZoneId = null;
+        }
+        this.fast = fast;
+    }
+
+    /**
+     * Compiles the pattern, symbols, time zone and calendar of {@code format}. Later changes to
+     * {@code format} don't affect the compiled format.
+     */
+    public static CompiledDateFormat compile(SimpleDateFormat format) {
+        return new CompiledDateFormat(format);
+    }
+
+    /**
+     * Returns {@code millis} milliseconds since the epoch, formatted.
+     */
+    public String format(long millis) {
+        return format(millis, new StringBuilder(32)).toString();
+    }
+
+    /**
+     * Appends {@code millis} milliseconds since the epoch, formatted, to {@code sb}, and returns
+     * {@code sb}.
+     */
+    public StringBuilder format(long millis, StringBuilder sb) {
+        final int offset = fast ? zone.getOffset(millis) : 0;
+        final long local = millis + offset;
+        if (!fast || local < firstFastMillis || local >= MAX_FAST_MILLIS) {
+            // The clone has a calendar of its own.
+            SimpleDateFormat format = (SimpleDateFormat) prototype.clone();
+            return sb.append(format.format(new Date(millis)));
+        }
+
+        final long day = Math.floorDiv(local, MILLIS_PER_DAY);
+        final int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+
+        // Civil date from days since the epoch. See Howard Hinnant, "chrono-Compatible
+        // Low-Level Date Algorithms".
+        final long z = day + 719468;
+        final long era = Math.floorDiv(z, 146097);
+        final int dayOfEra = (int) (z - era * 146097);
+        final int yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int marchDayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * marchDayOfYear + 2) / 153;
+        final int dayOfMonth = marchDayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 2 : mp - 10;  // 0-based, as Calendar.MONTH.
+        final int year = (int) (yearOfEra + era * 400) + (month <= 1 ? 1 : 0);
+        final boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+        final int dayOfYear =
+                DAYS_BEFORE_MONTH[month] + dayOfMonth + (leap && month > 1 ? 1 : 0);
+        final int dayOfWeek = (int) Math.floorMod(day + 4, 7) + 1;  // As Calendar.DAY_OF_WEEK.
+        final int hour = millisOfDay / 3600000;
+        final int minute = millisOfDay / 60000 % 60;
+        final int second = millisOfDay / 1000 % 60;
+        final int millisecond = millisOfDay % 1000;
+
+        for (int i = 0; i < letters.length; i++) {
+            final int count = counts[i];
+            final String[] fieldNames = names[i];
+            switch (letters[i]) {
+                case 0:
+                    sb.append(literals[i]);
+                    break;
+                case 'G':
+                    sb.append(fieldNames.length > GregorianCalendar.AD
+                            ? fieldNames[GregorianCalendar.AD] : "");
+                    break;
+                case 'y':
+                    if (count == 2) {
+                        appendNumber(sb, year % 100, 2);
+                    } else {
+                        appendNumber(sb, year, count);
+                    }
+                    break;
+                case 'M':
+                case 'L':
+                    if (fieldNames != null) {
+                        sb.append(fieldNames[month]);
+                    } else {
+                        appendNumber(sb, month + 1, count);
+                    }
+                    break;
+                case 'd':
+                    appendNumber(sb, dayOfMonth, count);
+                    break;
+                case 'k':
+                    appendNumber(sb, hour == 0 ? 24 : hour, count);
+                    break;
+                case 'H':
+                    appendNumber(sb, hour, count);
+                    break;
+                case 'm':
+                    appendNumber(sb, minute, count);
+                    break;
+                case 's':
+                    appendNumber(sb, second, count);
+                    break;
+                case 'S':
+                    // The fraction of a second, to count digits, as SimpleDateFormat works it
+                    // out.
+                    appendNumber(sb,
+                            (int) (((double) millisecond / 1000) * Math.pow(10, count)), count);
+                    break;
+                case 'E':
+                case 'c':
+                    sb.append(fieldNames[dayOfWeek]);
+                    break;
+                case 'D':
+                    appendNumber(sb, dayOfYear, count);
+                    break;
+                case 'F':
+                    appendNumber(sb, (dayOfMonth - 1) / 7 + 1, count);
+                    break;
+                case 'a':
+                    sb.append(fieldNames[hour < 12 ? 0 : 1]);
+                    break;
+                case 'h':
+                    appendNumber(sb, hour % 12 == 0 ? 12 : hour % 12, count);
+                    break;
+                case 'K':
+                    appendNumber(sb, hour % 12, count);
+                    break;
+                case 'u':
+                    appendNumber(sb, dayOfWeek == 1 ? 7 : dayOfWeek - 1, count);
+                    break;
+                case 'z':
+                    appendZoneName(sb, millis, offset, count);
+                    break;
+                case 'Z':
+                    sb.append(TimeZone.createGmtOffsetString(count == 4, count >= 4, offset));
+                    break;
+                case 'X':
+                    appendIsoOffset(sb, offset, count);
+                    break;
+                default:
+                    // 'b' and 'B' format as nothing.
+                    break;
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Returns the names that pattern letter {@code c} repeated {@code count} times formats
+     * with, as {@link SimpleDateFormat} chooses them, or null if it formats a number.
+     */
+    private static String[] namesFor(DateFormatSymbols symbols, char c, int count) {
+        switch (c) {
+            case 'G':
+                return symbols.getEras();
+            case 'M':
+                return count == 3 ? symbols.getShortMonths()
+                        : count == 4 ? symbols.getMonths()
+                        : count == 5 ? symbols.getTinyMonths()
+                        : null;
+            case 'L':
+                return count == 3 ? symbols.getShortStandAloneMonths()
+                        : count == 4 ? symbols.getStandAloneMonths()
+                        : count == 5 ? symbols.getTinyStandAloneMonths()
+                        : null;
+            case 'E':
+                return count == 4 ? symbols.getWeekdays()
+                        : count == 5 ? symbols.getTinyWeekdays()
+                        : symbols.getShortWeekdays();
+            case 'c':
+                return count == 4 ? symbols.getStandAloneWeekdays()
+                        : count == 5 ? symbols.getTinyStandAloneWeekdays()
+                        : symbols.getShortStandAloneWeekdays();
+            case 'a':
+                return symbols.getAmPmStrings();
+            default:
+                return null;
+        }
+    }
+
+    private void appendZoneName(StringBuilder sb, long millis, int offset, int count) {
+        // Whether daylight time is in effect, as GregorianCalendar.computeFields() works it out.
+        final boolean daylight;
+        if (zone instanceof ZoneInfo) {
+            final int[] offsets = new int[2];
+            ((ZoneInfo) zone).getOffsetsByUtcTime(millis, offsets);
+            daylight = offsets[1] != 0;
+        } else {
+            daylight = offset != zone.getRawOffset();
+        }
+
+        final String name;
+        if (zoneStrings != null) {
+            name = libcore.icu.TimeZoneNames.getDisplayName(zoneStrings, zone.getID(), daylight,
+                    count < 4 ? TimeZone.SHORT : TimeZone.LONG);
+        } else {
+            final TimeZoneNames.NameType nameType;
+            if (count < 4) {
+                nameType = daylight
+                        ? TimeZoneNames.NameType.SHORT_DAYLIGHT
+                        : TimeZoneNames.NameType.SHORT_STANDARD;
+            } else {
+                nameType = daylight
+                        ? TimeZoneNames.NameType.LONG_DAYLIGHT
+                        : TimeZoneNames.NameType.LONG_STANDARD;
+            }
+            name = timeZoneNames.getDisplayName(canonicalZoneId, nameType, millis);
+        }
+        if (name != null) {
+            sb.append(name);
+        } else {
+            sb.append(TimeZone.createGmtOffsetString(true, true, offset));
+        }
+    }
+
+    private static void appendIsoOffset(StringBuilder sb, int offset, int count) {
+        if (offset == 0) {
+            sb.append('Z');
+            return;
+        }
+        int minutes = offset / 60000;
+        if (minutes >= 0) {
+            sb.append('+');
+        } else {
+            sb.append('-');
+            minutes = -minutes;
+        }
+        appendNumber(sb, minutes / 60, 2);
+        if (count == 1) {
+            return;
+        }
+        if (count == 3) {
+            sb.append(':');
+        }
+        appendNumber(sb, minutes % 60, 2);
+    }
+
+    /** Appends the non-negative {@code value} in decimal, zero-padded to minDigits. */
+    private static void appendNumber(StringBuilder sb, int value, int minDigits) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < minDigits; i++) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    private static long startOfNextYear(Date gregorianChange) {
+        if (gregorianChange.getTime() < MIN_FAST_MILLIS) {
+            return MIN_FAST_MILLIS;
+        }
+        if (gregorianChange.getTime() >= MAX_FAST_MILLIS) {
+            return Long.MAX_VALUE;
+        }
+        GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.setTimeInMillis(gregorianChange.getTime());
+        calendar.set(calendar.get(Calendar.YEAR) + 1, Calendar.JANUARY, 1, 0, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static boolean isPlainGregorian(SimpleDateFormat format) {
+        return format.getCalendar().getClass() == GregorianCalendar.class;
+    }
+
+    /** Returns whether {@code format} writes integers as ASCII digits and nothing else. */
+    private static boolean isPlainDecimal(NumberFormat format) {
+        if (!(format instanceof DecimalFormat)) {
+            return false;
+        }
+        final DecimalFormat decimal = (DecimalFormat) format;
+        return decimal.getDecimalFormatSymbols().getZeroDigit() == '0'
+                && !decimal.isGroupingUsed()
+                && decimal.getPositivePrefix().isEmpty()
+                && decimal.getPositiveSuffix().isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.io;
+
+import static android.system.OsConstants.MAP_SHARED;
+import static android.system.OsConstants.PROT_READ;
+import static android.system.OsConstants.PROT_WRITE;
+
+import android.system.ErrnoException;
+
+import dalvik.annotation.optimization.FastNative;
+import dalvik.system.VMRuntime;
+
+import java.io.FileDescriptor;
+import java.util.ArrayList;
+
+import libcore.util.NativeAllocationRegistry;
+
+/**
+ * Owns regions of native memory, allocated or mapped from files, and frees them all when it is
+ * closed. The regions are accessed through {@link MemorySegment}s, which may be larger than
+ * 2 GiB.
+ *
+ * <p>Closing the arena makes all its segments inaccessible. An arena that becomes unreachable
+ * without being closed has its memory freed by the garbage collector, once none of its
+ * segments are reachable either, so a forgotten {@code close} leaks nothing but time.
+ *
+ * <p>Segments may be used from any thread, but closing the arena while another thread is
+ * accessing one of its segments is a race the caller must prevent.
+ *
+ * @hide
+ */
+public final class Arena implements AutoCloseable {
+
+    /**
+     * Whether the arena is still open, shared by all its segments. Also the object whose
+     * reachability keeps the memory alive.
+     */
+    static final class Scope {
+        boolean closed;
+
+        void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Arena is closed");
+            }
+        }
+    }
+
+    private static final long FREE_FUNCTION = getFreeFunction();
+    private static final long UNMAP_FUNCTION = getUnmapFunction();
+
+    // The largest size_t, beyond which native code would truncate sizes.
+    private static final long MAX_BYTE_SIZE =
+            VMRuntime.getRuntime().is64Bit() ? Long.MAX_VALUE : 0xffffffffL;
+
+    private final Scope scope = new Scope();
+
+    // Explicit frees of the memory, run on close. Guarded by this.
+    private final ArrayList<Runnable> frees = new ArrayList<>();
+
+    public Arena() {
+    }
+
+    /**
+     * Allocates {@code byteSize} bytes of zeroed native memory, aligned to at least 8 bytes.
+     *
+     * @throws IllegalArgumentException if {@code byteSize} is negative
+     * @throws OutOfMemoryError if the memory can't be allocated, or {@code byteSize} exceeds
+     *         the address space
+     */
+    public MemorySegment allocate(long byteSize) {
+        if (byteSize < 0) {
+            throw new IllegalArgumentException("byteSize < 0: " + byteSize);
+        }
+        if (byteSize > MAX_BYTE_SIZE) {
+            throw new OutOfMemoryError("Failed to allocate " + byteSize + " bytes");
+        }
+        synchronized (this) {
+            scope.checkOpen();
+            long address = allocateNative(byteSize);
+            register(NativeAllocationRegistry.createMalloced(
+                    Arena.class.getClassLoader(), FREE_FUNCTION, byteSize), address);
+            return new MemorySegment(scope, address, byteSize, false);
+        }
+    }
+
+    /**
+     * Maps {@code byteSize} bytes of {@code fd}, starting at {@code offset}, with mmap(2). The
+     * mapping is shared, so writes through a writable segment reach the file. The descriptor
+     * may be closed once this returns.
+     *
+     * @throws IllegalArgumentException if {@code offset} is negative, or {@code byteSize} isn't
+     *         positive or exceeds the address space
+     * @throws ErrnoException if mmap(2) fails
+     */
+    public MemorySegment map(FileDescriptor fd, long offset, long byteSize, boolean writable)
+            throws ErrnoException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset < 0: " + offset);
+        }
+        if (byteSize <= 0) {
+            throw new IllegalArgumentException("byteSize <= 0: " + byteSize);
+        }
+        if (byteSize > MAX_BYTE_SIZE) {
+            throw new IllegalArgumentException("byteSize too large: " + byteSize);
+        }
+        synchronized (this) {
+            scope.checkOpen();
+            int prot = writable ? (PROT_READ | PROT_WRITE) : PROT_READ;
+            long address = Libcore.os.mmap(0L, byteSize, prot, MAP_SHARED, fd, offset);
+            long region;
+            try {
+                region = newMappedRegion(address, byteSize);
+            } catch (Throwable t) {
+                Libcore.os.munmap(address, byteSize);
+                throw t;
+            }
+            // Mapped file pages can be dropped and read again, so they don't count towards the
+            // native heap that the GC responds to.
+            register(NativeAllocationRegistry.createNonmalloced(
+                    Arena.class.getClassLoader(), UNMAP_FUNCTION, 0), region);
+            return new MemorySegment(scope, address, byteSize, !writable);
+        }
+    }
+
+    // Called with the lock held. On failure the registry has already freed nativePtr.
+    private void register(NativeAllocationRegistry registry, long nativePtr) {
+        frees.add(registry.registerNativeAllocation(scope, nativePtr));
+    }
+
+    /**
+     * Returns whether {@link #close} hasn't been called yet.
+     */
+    public synchronized boolean isOpen() {
+        return !scope.closed;
+    }
+
+    /**
+     * Frees all the memory of this arena. Its segments become inaccessible, and using them
+     * throws {@link IllegalStateException}. This is a no-op if the arena is already closed.
+     */
+    @Override
+    public void close() {
+        Runnable[] toFree;
+        synchronized (this) {
+            if (scope.closed) {
+                return;
+            }
+            scope.closed = true;
+            toFree = frees.toArray(new Runnable[frees.size()]);
+            frees.clear();
+        }
+        for (Runnable free : toFree) {
+            free.run();
+        }
+    }
+
+    private static native long allocateNative(long byteSize);
+    private static native long getFreeFunction();
+    private static native long newMappedRegion(long address, long byteSize);
+    private static native long getUnmapFunction();
+
+    // Like memmove(3) and memset(3). The caller checks the bounds.
+    @FastNative
+    static native void copy(long srcAddress, long dstAddress, long byteCount);
+    @FastNative
+    static native void fill(long address, long byteCount, byte value);
+}
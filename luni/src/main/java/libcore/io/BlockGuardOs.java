@@ -60,12 +60,20 @@ public class BlockGuardOs extends ForwardingOs {
     }
 
     @Override public FileDescriptor accept(FileDescriptor fd, SocketAddress peerAddress) throws ErrnoException, SocketException {
-        if (!(isUnixSocket(fd) && isNonBlockingFile(fd))) {
-            BlockGuard.getThreadPolicy().onNetwork();
+        // Deciding whether to tell the policy costs system calls, which are wasted if the policy
+        // would ignore it anyway.
+        final BlockGuard.Policy policy = BlockGuard.getThreadPolicy();
+        if (policy != BlockGuard.LAX_POLICY && !(isUnixSocket(fd) && isNonBlockingFile(fd))) {
+            policy.onNetwork();
         }
         final FileDescriptor acceptFd = super.accept(fd, peerAddress);
-        if (acceptFd != null && isInetSocket(acceptFd)) {
-            tagSocket(acceptFd);
+        if (acceptFd != null) {
+            // An accepted socket has the domain, type and protocol of the listening socket.
+            final int domain = getSocketDomain(fd);
+            acceptFd.setSocketInfo$(domain, fd.getSocketType$(), fd.getSocketProtocol$());
+            if (isInetDomain(domain)) {
+                tagSocket(acceptFd);
+            }
         }
         return acceptFd;
     }
@@ -95,8 +103,9 @@ public class BlockGuardOs extends ForwardingOs {
         try {
             // The usual case is that this _isn't_ a socket, so the getsockopt(2) call in
             // isLingerSocket will throw, and that's really expensive. Try to avoid asking
-            // if we don't care.
-            if (fd.isSocket$()) {
+            // if we don't care, or if the policy would ignore the answer.
+            if (BlockGuard.getThreadPolicy() != BlockGuard.LAX_POLICY
+                    && (fd.getSocketDomain$() != -1 || fd.isSocket$())) {
                 if (isLingerSocket(fd)) {
                     // If the fd is a socket with SO_LINGER set, we might block indefinitely.
                     // We allow non-linger sockets so that apps can close their network
@@ -114,6 +123,8 @@ public class BlockGuardOs extends ForwardingOs {
     }
 
     public static boolean isNonBlockingFile(FileDescriptor fd) throws ErrnoException {
+        // Not cached: native code, such as NIO's IOUtil.configureBlocking, may change O_NONBLOCK
+        // without going through Os.
         int flag = android.system.Os.fcntlInt(fd, F_GETFL, 0);
         if ((flag & O_NONBLOCK) != 0) {
             return true;
@@ -122,15 +133,21 @@ public class BlockGuardOs extends ForwardingOs {
     }
 
     public static boolean isUnixSocket(FileDescriptor fd) throws ErrnoException {
-        return isUnixDomain(Libcore.os.getsockoptInt(fd, SOL_SOCKET, SO_DOMAIN));
+        return isUnixDomain(getSocketDomain(fd));
     }
 
-    private static boolean isUnixDomain(int domain) {
-        return (domain == AF_UNIX);
+    // Returns the domain of the socket, asking the kernel only if it isn't cached.
+    private static int getSocketDomain(FileDescriptor fd) throws ErrnoException {
+        int domain = fd.getSocketDomain$();
+        if (domain == -1) {
+            domain = Libcore.os.getsockoptInt(fd, SOL_SOCKET, SO_DOMAIN);
+            fd.setSocketInfo$(domain, fd.getSocketType$(), fd.getSocketProtocol$());
+        }
+        return domain;
     }
 
-    private static boolean isInetSocket(FileDescriptor fd) throws ErrnoException{
-        return isInetDomain(Libcore.os.getsockoptInt(fd, SOL_SOCKET, SO_DOMAIN));
+    private static boolean isUnixDomain(int domain) {
+        return (domain == AF_UNIX);
     }
 
     private static boolean isInetDomain(int domain) {
@@ -144,28 +161,57 @@ public class BlockGuardOs extends ForwardingOs {
     }
 
     private static boolean isUdpSocket(FileDescriptor fd) throws ErrnoException {
-        return Libcore.os.getsockoptInt(fd, SOL_SOCKET, SO_PROTOCOL) == IPPROTO_UDP;
+        int protocol = fd.getSocketProtocol$();
+        if (protocol == -1) {
+            protocol = Libcore.os.getsockoptInt(fd, SOL_SOCKET, SO_PROTOCOL);
+            fd.setSocketInfo$(fd.getSocketDomain$(), fd.getSocketType$(), protocol);
+        }
+        return protocol == IPPROTO_UDP;
+    }
+
+    // Returns the protocol that socket(2) picks for a protocol of 0, or -1 if that isn't known.
+    private static int defaultProtocol(int domain, int type) {
+        if (domain == AF_UNIX) {
+            return 0;
+        } else if (isInetDomain(domain) && type == SOCK_STREAM) {
+            return IPPROTO_TCP;
+        } else if (isInetDomain(domain) && type == SOCK_DGRAM) {
+            return IPPROTO_UDP;
+        }
+        return -1;
+    }
+
+    // Caches what is known about a socket that has just been created.
+    private static void setSocketInfo(FileDescriptor fd, int domain, int type, int protocol) {
+        type &= ~(SOCK_NONBLOCK | SOCK_CLOEXEC);
+        fd.setSocketInfo$(domain, type, (protocol != 0) ? protocol : defaultProtocol(domain, type));
     }
 
     @Override public void connect(FileDescriptor fd, InetAddress address, int port)
             throws ErrnoException, SocketException {
-        boolean skipGuard = false;
-        try {
-            skipGuard = isUdpSocket(fd);
-        } catch (ErrnoException ignored) {
+        final BlockGuard.Policy policy = BlockGuard.getThreadPolicy();
+        if (policy != BlockGuard.LAX_POLICY) {
+            boolean skipGuard = false;
+            try {
+                skipGuard = isUdpSocket(fd);
+            } catch (ErrnoException ignored) {
+            }
+            if (!skipGuard) policy.onNetwork();
         }
-        if (!skipGuard) BlockGuard.getThreadPolicy().onNetwork();
         super.connect(fd, address, port);
     }
 
     @Override public void connect(FileDescriptor fd, SocketAddress address) throws ErrnoException,
             SocketException {
-        boolean skipGuard = false;
-        try {
-            skipGuard = isUdpSocket(fd);
-        } catch (ErrnoException ignored) {
+        final BlockGuard.Policy policy = BlockGuard.getThreadPolicy();
+        if (policy != BlockGuard.LAX_POLICY) {
+            boolean skipGuard = false;
+            try {
+                skipGuard = isUdpSocket(fd);
+            } catch (ErrnoException ignored) {
+            }
+            if (!skipGuard) policy.onNetwork();
         }
-        if (!skipGuard) BlockGuard.getThreadPolicy().onNetwork();
         super.connect(fd, address);
     }
 
@@ -400,6 +446,7 @@ public class BlockGuardOs extends ForwardingOs {
 
     @Override public FileDescriptor socket(int domain, int type, int protocol) throws ErrnoException {
         final FileDescriptor fd = super.socket(domain, type, protocol);
+        setSocketInfo(fd, domain, type, protocol);
         if (isInetDomain(domain)) {
             tagSocket(fd);
         }
@@ -408,6 +455,8 @@ public class BlockGuardOs extends ForwardingOs {
 
     @Override public void socketpair(int domain, int type, int protocol, FileDescriptor fd1, FileDescriptor fd2) throws ErrnoException {
         super.socketpair(domain, type, protocol, fd1, fd2);
+        setSocketInfo(fd1, domain, type, protocol);
+        setSocketInfo(fd2, domain, type, protocol);
         if (isInetDomain(domain)) {
             tagSocket(fd1);
             tagSocket(fd2);
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.io;
+
+import java.lang.ref.Reference;
+import java.nio.ByteOrder;
+
+/**
+ * A bounded region of native memory owned by an {@link Arena}. Offsets are {@code long}s, so
+ * a segment may be larger than 2 GiB.
+ *
+ * <p>Every access is checked against the bounds of the segment and against the arena being
+ * open: out-of-bounds accesses throw {@link IndexOutOfBoundsException}, and accesses after the
+ * arena is closed throw {@link IllegalStateException}. Multi-byte values are read and written
+ * in the byte order given for each access, and need not be aligned.
+ *
+ * @hide
+ */
+public final class MemorySegment {
+
+    private static final ByteOrder NATIVE_ORDER = ByteOrder.nativeOrder();
+
+    private final Arena.Scope scope;
+    private final long address;
+    private final long byteSize;
+    private final boolean readOnly;
+
+    MemorySegment(Arena.Scope scope, long address, long byteSize, boolean readOnly) {
+        this.scope = scope;
+        this.address = address;
+        this.byteSize = byteSize;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns the address of the first byte of this segment.
+     */
+    public long address() {
+        return address;
+    }
+
+    /**
+     * Returns the size of this segment in bytes.
+     */
+    public long byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * Returns whether this segment can't be written to.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returns whether the arena of this segment is still open.
+     */
+    public boolean isAlive() {
+        return !scope.closed;
+    }
+
+    /**
+     * Returns the {@code newSize} bytes of this segment starting at {@code offset}. The slice
+     * shares the memory and the arena of this segment.
+     */
+    public MemorySegment asSlice(long offset, long newSize) {
+        checkBounds(offset, newSize);
+        return new MemorySegment(scope, address + offset, newSize, readOnly);
+    }
+
+    /**
+     * Returns the bytes of this segment from {@code offset} to its end.
+     */
+    public MemorySegment asSlice(long offset) {
+        return asSlice(offset, byteSize - offset);
+    }
+
+    /**
+     * Returns a read-only view of this segment.
+     */
+    public MemorySegment asReadOnly() {
+        return readOnly ? this : new MemorySegment(scope, address, byteSize, true);
+    }
+
+    public byte getByte(long offset) {
+        byte result = Memory.peekByte(checkRead(offset, 1));
+        Reference.reachabilityFence(this);
+        return result;
+    }
+
+    public void setByte(long offset, byte value) {
+        Memory.pokeByte(checkWrite(offset, 1), value);
+        Reference.reachabilityFence(this);
+    }
+
+    public short getShort(long offset, ByteOrder order) {
+        short result = Memory.peekShort(checkRead(offset, 2), order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+        return result;
+    }
+
+    public void setShort(long offset, short value, ByteOrder order) {
+        Memory.pokeShort(checkWrite(offset, 2), value, order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public char getChar(long offset, ByteOrder order) {
+        char result = (char) Memory.peekShort(checkRead(offset, 2), order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+        return result;
+    }
+
+    public void setChar(long offset, char value, ByteOrder order) {
+        Memory.pokeShort(checkWrite(offset, 2), (short) value, order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public int getInt(long offset, ByteOrder order) {
+        int result = Memory.peekInt(checkRead(offset, 4), order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+        return result;
+    }
+
+    public void setInt(long offset, int value, ByteOrder order) {
+        Memory.pokeInt(checkWrite(offset, 4), value, order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public long getLong(long offset, ByteOrder order) {
+        long result = Memory.peekLong(checkRead(offset, 8), order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+        return result;
+    }
+
+    public void setLong(long offset, long value, ByteOrder order) {
+        Memory.pokeLong(checkWrite(offset, 8), value, order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public float getFloat(long offset, ByteOrder order) {
+        return Float.intBitsToFloat(getInt(offset, order));
+    }
+
+    public void setFloat(long offset, float value, ByteOrder order) {
+        setInt(offset, Float.floatToRawIntBits(value), order);
+    }
+
+    public double getDouble(long offset, ByteOrder order) {
+        return Double.longBitsToDouble(getLong(offset, order));
+    }
+
+    public void setDouble(long offset, double value, ByteOrder order) {
+        setLong(offset, Double.doubleToRawLongBits(value), order);
+    }
+
+    /**
+     * Copies {@code count} bytes starting at {@code offset} into {@code dst}, starting at
+     * {@code dstOffset}.
+     */
+    public void get(long offset, byte[] dst, int dstOffset, int count) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekByteArray(checkRead(offset, count), dst, dstOffset, count);
+        Reference.reachabilityFence(this);
+    }
+
+    /**
+     * Copies {@code count} bytes from {@code src}, starting at {@code srcOffset}, to this
+     * segment starting at {@code offset}.
+     */
+    public void put(long offset, byte[] src, int srcOffset, int count) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeByteArray(checkWrite(offset, count), src, srcOffset, count);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, short[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekShortArray(checkRead(offset, count * 2L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, short[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeShortArray(checkWrite(offset, count * 2L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, char[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekCharArray(checkRead(offset, count * 2L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, char[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeCharArray(checkWrite(offset, count * 2L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, int[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekIntArray(checkRead(offset, count * 4L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, int[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeIntArray(checkWrite(offset, count * 4L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, long[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekLongArray(checkRead(offset, count * 8L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, long[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeLongArray(checkWrite(offset, count * 8L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, float[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekFloatArray(checkRead(offset, count * 4L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, float[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeFloatArray(checkWrite(offset, count * 4L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void get(long offset, double[] dst, int dstOffset, int count, ByteOrder order) {
+        checkArrayBounds(dst.length, dstOffset, count);
+        Memory.peekDoubleArray(checkRead(offset, count * 8L), dst, dstOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    public void put(long offset, double[] src, int srcOffset, int count, ByteOrder order) {
+        checkArrayBounds(src.length, srcOffset, count);
+        Memory.pokeDoubleArray(checkWrite(offset, count * 8L), src, srcOffset, count,
+                order != NATIVE_ORDER);
+        Reference.reachabilityFence(this);
+    }
+
+    /**
+     * Copies {@code byteCount} bytes from {@code src}, starting at {@code srcOffset}, to
+     * {@code dst}, starting at {@code dstOffset}. The regions may overlap.
+     */
+    public static void copy(MemorySegment src, long srcOffset, MemorySegment dst, long dstOffset,
+            long byteCount) {
+        long from = src.checkRead(srcOffset, byteCount);
+        long to = dst.checkWrite(dstOffset, byteCount);
+        Arena.copy(from, to, byteCount);
+        Reference.reachabilityFence(src);
+        Reference.reachabilityFence(dst);
+    }
+
+    /**
+     * Sets every byte of this segment to {@code value}.
+     */
+    public void fill(byte value) {
+        Arena.fill(checkWrite(0, byteSize), byteSize, value);
+        Reference.reachabilityFence(this);
+    }
+
+    @Override
+    public String toString() {
+        return "MemorySegment{address=0x" + Long.toHexString(address)
+                + ", byteSize=" + byteSize + (readOnly ? ", readOnly" : "") + "}";
+    }
+
+    // Returns the address of the byteCount bytes at offset, once it is safe to read them.
+    private long checkRead(long offset, long byteCount) {
+        checkBounds(offset, byteCount);
+        scope.checkOpen();
+        return address + offset;
+    }
+
+    // Returns the address of the byteCount bytes at offset, once it is safe to write them.
+    private long checkWrite(long offset, long byteCount) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Segment is read-only");
+        }
+        return checkRead(offset, byteCount);
+    }
+
+    private void checkBounds(long offset, long byteCount) {
+        if (offset < 0 || byteCount < 0 || offset > byteSize - byteCount) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", byteCount=" + byteCount
+                    + ", byteSize=" + byteSize);
+        }
+    }
+
+    private static void checkArrayBounds(int arrayLength, int arrayOffset, int count) {
+        if ((arrayOffset | count) < 0 || arrayOffset > arrayLength - count) {
+            throw new ArrayIndexOutOfBoundsException("length=" + arrayLength + ", offset="
+                    + arrayOffset + ", count=" + count);
+        }
+    }
+}
@@ -27,6 +27,9 @@ public final class NativeBN {
     public static native void BN_free(long a);
     // void BN_free(BIGNUM *a);
 
+    // Returns the address of BN_free, for use with NativeAllocationRegistry.
+    public static native long getNativeFinalizer();
+
     public static native void litEndInts2bn(int[] ints, int len, boolean neg, long ret);
 
     // Generates a minimal length representation of |a| in a sequence of integers, least-significant
@@ -41,4 +44,16 @@ public final class NativeBN {
 
     public static native void BN_mod_exp(long r, long a, long p, long m);
     // int BN_mod_exp(BIGNUM *r, const BIGNUM *a, const BIGNUM *p, const BIGNUM *m, BN_CTX *ctx);
+
+    // The methods below take and return non-negative numbers as java.math.BigInteger stores their
+    // magnitudes: 32-bit words, most significant first, with no leading zero words in results.
+    // Their BIGNUMs are temporaries of a BN_CTX that the calling thread reuses, so, unlike the
+    // methods above, an operation makes one JNI call and no BIGNUM allocations of its own.
+
+    public static native int[] mulBigEndInts(int[] a, int[] b);
+
+    // Stores the quotient and remainder at indices 0 and 1 of quotientAndRemainder.
+    public static native void divBigEndInts(int[] num, int[] divisor, int[][] quotientAndRemainder);
+
+    public static native int[] modExpBigEndInts(int[] a, int[] p, int[] m);
 }
@@ -18,7 +18,7 @@ package libcore.net.http;
 
 import android.compat.annotation.UnsupportedAppUsage;
 import java.text.DateFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -26,9 +26,20 @@ import java.util.TimeZone;
 
 /**
  * Best-effort parser for HTTP dates.
+ *
+ * <p>The RFC 1123, RFC 850 and asctime() formats, and the browser-compatible variants listed
+ * in {@link #BROWSER_COMPATIBLE_DATE_FORMATS}, are recognized by a single hand-written scan
+ * that neither creates formatters nor throws. Only values the scan rejects, such as dates with
+ * an unusual time zone name or out of range fields, fall back to lenient
+ * {@link SimpleDateFormat} parsing with formatters cached per thread.
  */
 public final class HttpDate {
 
+    /**
+     * Returned by {@link #parseMillis} for values that aren't dates.
+     */
+    public static final long NOT_A_DATE = Long.MIN_VALUE;
+
     /**
      * Most websites serve cookies in the blessed format. Eagerly create the parser to ensure such
      * cookies are on the fast path.
@@ -65,30 +76,521 @@ public final class HttpDate {
             "EEE MMM d yyyy HH:mm:ss z",
     };
 
+    /**
+     * The browser-compatible formats, created once per thread the first time a value needs
+     * them.
+     */
+    private static final ThreadLocal<DateFormat[]> BROWSER_COMPATIBLE_FORMATS
+            = new ThreadLocal<DateFormat[]>() {
+        @Override protected DateFormat[] initialValue() {
+            DateFormat[] formats = new DateFormat[BROWSER_COMPATIBLE_DATE_FORMATS.length];
+            for (int i = 0; i < formats.length; i++) {
+                formats[i] = new SimpleDateFormat(BROWSER_COMPATIBLE_DATE_FORMATS[i], Locale.US);
+            }
+            return formats;
+        }
+    };
+
+    private static final String[] DAY_NAMES = { "Thu", "Fri", "Sat", "Sun", "Mon", "Tue", "Wed" };
+
+    private static final String[] MONTH_NAMES = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    /** The most recently formatted date; its millis are truncated to the second. */
+    private static volatile FormattedDate lastFormatted = new FormattedDate(0, null);
+
+    private static final class FormattedDate {
+        final long second;
+        final String text;
+
+        FormattedDate(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    private HttpDate() {
+    }
+
     /**
      * Returns the date for {@code value}. Returns null if the value couldn't be
      * parsed.
      */
     @UnsupportedAppUsage
     public static Date parse(String value) {
-        try {
-            return STANDARD_DATE_FORMAT.get().parse(value);
-        } catch (ParseException ignore) {
+        long millis = parseMillis(value);
+        return millis == NOT_A_DATE ? null : new Date(millis);
+    }
+
+    /**
+     * Returns the milliseconds since the epoch for {@code value}, or {@link #NOT_A_DATE} if the
+     * value couldn't be parsed.
+     */
+    public static long parseMillis(String value) {
+        long millis = new DateScanner(value).parse();
+        if (millis != NOT_A_DATE) {
+            return millis;
+        }
+        return parseLenient(value);
+    }
+
+    /**
+     * Parses {@code value} with each of the supported formats in turn, as this class used to.
+     */
+    private static long parseLenient(String value) {
+        ParsePosition position = new ParsePosition(0);
+        Date date = STANDARD_DATE_FORMAT.get().parse(value, position);
+        if (date != null) {
+            return date.getTime();
         }
-        for (String formatString : BROWSER_COMPATIBLE_DATE_FORMATS) {
-            try {
-                return new SimpleDateFormat(formatString, Locale.US).parse(value);
-            } catch (ParseException ignore) {
+        // The formats without a time zone use the default one.
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        for (DateFormat format : BROWSER_COMPATIBLE_FORMATS.get()) {
+            format.setTimeZone(defaultTimeZone);
+            position.setIndex(0);
+            position.setErrorIndex(-1);
+            date = format.parse(value, position);
+            if (date != null) {
+                return date.getTime();
             }
         }
-        return null;
+        return NOT_A_DATE;
     }
 
     /**
-     * Returns the string for {@code value}.
+     * Returns the string for {@code value}, in the RFC 1123 format. Formatting the same second
+     * as the previous call returns the same string.
      */
     @UnsupportedAppUsage
     public static String format(Date value) {
-        return STANDARD_DATE_FORMAT.get().format(value);
+        long millis = value.getTime();
+        long second = Math.floorDiv(millis, MILLIS_PER_SECOND);
+        FormattedDate last = lastFormatted;
+        if (last.second == second && last.text != null) {
+            return last.text;
+        }
+        String text = formatSecond(second);
+        if (text == null) {
+            // Years outside 0..9999 don't fit the fixed width format.
+            return STANDARD_DATE_FORMAT.get().format(value);
+        }
+        lastFormatted = new FormattedDate(second, text);
+        return text;
+    }
+
+    /**
+     * Formats {@code second} seconds since the epoch as "EEE, dd MMM yyyy HH:mm:ss GMT", or
+     * returns null if the year can't be written with 4 digits.
+     */
+    private static String formatSecond(long second) {
+        long day = Math.floorDiv(second, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(second, SECONDS_PER_DAY);
+
+        // Civil date from days since the epoch; see daysFromCivil below.
+        long z = day + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return null;
+        }
+
+        char[] buf = new char[29];
+        String dayName = DAY_NAMES[(int) Math.floorMod(day, 7)];
+        buf[0] = dayName.charAt(0);
+        buf[1] = dayName.charAt(1);
+        buf[2] = dayName.charAt(2);
+        buf[3] = ',';
+        buf[4] = ' ';
+        put2(buf, 5, dayOfMonth);
+        buf[7] = ' ';
+        String monthName = MONTH_NAMES[month - 1];
+        buf[8] = monthName.charAt(0);
+        buf[9] = monthName.charAt(1);
+        buf[10] = monthName.charAt(2);
+        buf[11] = ' ';
+        put2(buf, 12, (int) (year / 100));
+        put2(buf, 14, (int) (year % 100));
+        buf[16] = ' ';
+        put2(buf, 17, secondOfDay / 3600);
+        buf[19] = ':';
+        put2(buf, 20, secondOfDay / 60 % 60);
+        buf[22] = ':';
+        put2(buf, 23, secondOfDay % 60);
+        buf[25] = ' ';
+        buf[26] = 'G';
+        buf[27] = 'M';
+        buf[28] = 'T';
+        return new String(buf);
+    }
+
+    private static void put2(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Returns the number of days since 1970-01-01 of the given proleptic Gregorian date.
+     * See Howard Hinnant, "chrono-Compatible Low-Level Date Algorithms".
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        int era = Math.floorDiv(year, 400);
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Single pass scanner over the supported formats. These are, ignoring the separators
+     * (any mix of spaces, commas and dashes) and the optional day name:
+     * <ul>
+     *   <li>day month year time [zone], where month is a name or a number</li>
+     *   <li>month day time year [zone], the asctime() format</li>
+     *   <li>month day year time [zone]</li>
+     * </ul>
+     * Time fields are separated by colons or dashes. Two digit years are interpreted as in
+     * RFC 6265: 70 to 99 are in the 1900s, 00 to 69 in the 2000s. A missing time zone means
+     * GMT. Anything after the time zone is ignored.
+     */
+    private static final class DateScanner {
+        private final String s;
+        private int pos;
+
+        // fields of the date being parsed
+        private int year = -1;
+        private int month = -1;
+        private int day = -1;
+        private int hour = -1;
+        private int minute;
+        private int second;
+
+        DateScanner(String s) {
+            this.s = s;
+        }
+
+        long parse() {
+            if (s == null) {
+                return NOT_A_DATE;
+            }
+            skipSeparators();
+
+            // Optional day name, and the month name of the month-first formats.
+            int wordStart = pos;
+            skipLetters();
+            if (pos > wordStart) {
+                int maybeMonth = monthIndex(wordStart, pos);
+                skipSeparators();
+                if (maybeMonth >= 0 && isDigitAt(pos)) {
+                    // A month name directly followed by a number: there is no day name.
+                    return parseMonthFirst(maybeMonth);
+                }
+                wordStart = pos;
+                skipLetters();
+                if (pos > wordStart) {
+                    int m = monthIndex(wordStart, pos);
+                    if (m < 0) {
+                        return NOT_A_DATE;
+                    }
+                    skipSeparators();
+                    return parseMonthFirst(m);
+                }
+            }
+            return parseDayFirst();
+        }
+
+        // day month year time [zone]
+        private long parseDayFirst() {
+            day = readNumber(1, 2);
+            if (day < 0 || !skipDateSeparator()) {
+                return NOT_A_DATE;
+            }
+            int wordStart = pos;
+            skipLetters();
+            if (pos > wordStart) {
+                month = monthIndex(wordStart, pos);
+            } else {
+                month = readNumber(1, 2) - 1;
+            }
+            if (month < 0 || month > 11 || !skipDateSeparator()) {
+                return NOT_A_DATE;
+            }
+            if (!readYear() || !skipSpaces() || !readTime()) {
+                return NOT_A_DATE;
+            }
+            return finish();
+        }
+
+        // month day time year [zone] or month day year time [zone]
+        private long parseMonthFirst(int m) {
+            month = m;
+            day = readNumber(1, 2);
+            if (day < 0 || !skipSpaces()) {
+                return NOT_A_DATE;
+            }
+            if (isTimeAt(pos)) {
+                if (!readTime() || !skipSpaces() || !readYear()) {
+                    return NOT_A_DATE;
+                }
+            } else {
+                if (!readYear() || !skipSpaces() || !readTime()) {
+                    return NOT_A_DATE;
+                }
+            }
+            return finish();
+        }
+
+        private long finish() {
+            int offsetSeconds = readZone();
+            if (offsetSeconds == Integer.MIN_VALUE) {
+                return NOT_A_DATE;
+            }
+            if (day < 1 || day > daysInMonth(year, month + 1)
+                    || hour > 23 || minute > 59 || second > 59) {
+                // Let the lenient parser decide what this means.
+                return NOT_A_DATE;
+            }
+            long days = daysFromCivil(year, month + 1, day);
+            long seconds = days * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second
+                    - offsetSeconds;
+            return seconds * MILLIS_PER_SECOND;
+        }
+
+        private boolean readYear() {
+            int start = pos;
+            int y = readNumber(2, 4);
+            if (y < 0) {
+                return false;
+            }
+            int digits = pos - start;
+            if (digits == 2) {
+                year = y < 70 ? 2000 + y : 1900 + y;
+            } else if (digits == 4) {
+                year = y;
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        // HH:mm:ss or HH-mm-ss
+        private boolean readTime() {
+            hour = readNumber(1, 2);
+            if (hour < 0 || !skipTimeSeparator()) {
+                return false;
+            }
+            minute = readNumber(1, 2);
+            if (minute < 0 || !skipTimeSeparator()) {
+                return false;
+            }
+            second = readNumber(1, 2);
+            return second >= 0;
+        }
+
+        /**
+         * Returns the offset of the time zone at the current position in seconds, 0 if there
+         * is none, or Integer.MIN_VALUE if it isn't one we know.
+         */
+        private int readZone() {
+            skipSpaces();
+            if (pos == s.length()) {
+                return 0;
+            }
+            char c = s.charAt(pos);
+            if (c == '+' || c == '-') {
+                return readOffset();
+            }
+            int wordStart = pos;
+            skipLetters();
+            int length = pos - wordStart;
+            if (length == 0) {
+                // Trailing text that isn't a zone, for example "; path=/" left by a sloppy
+                // caller. The lenient formats ignored it too.
+                return 0;
+            }
+            if (regionMatches(wordStart, length, "GMT") || regionMatches(wordStart, length, "UTC")
+                    || regionMatches(wordStart, length, "UT")
+                    || regionMatches(wordStart, length, "Z")) {
+                if (pos < s.length() && (s.charAt(pos) == '+' || s.charAt(pos) == '-')) {
+                    return readOffset();
+                }
+                return 0;
+            }
+            if (length == 3 && (s.charAt(wordStart + 2) | 0x20) == 't') {
+                // North American zones, as allowed by RFC 822.
+                boolean daylight = (s.charAt(wordStart + 1) | 0x20) == 'd';
+                if (!daylight && (s.charAt(wordStart + 1) | 0x20) != 's') {
+                    return Integer.MIN_VALUE;
+                }
+                int standardHours;
+                switch (s.charAt(wordStart) | 0x20) {
+                    case 'e': standardHours = -5; break;
+                    case 'c': standardHours = -6; break;
+                    case 'm': standardHours = -7; break;
+                    case 'p': standardHours = -8; break;
+                    default: return Integer.MIN_VALUE;
+                }
+                return (standardHours + (daylight ? 1 : 0)) * 3600;
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        // +hhmm, +hh:mm or +hh
+        private int readOffset() {
+            int sign = s.charAt(pos++) == '-' ? -1 : 1;
+            int start = pos;
+            int value = readNumber(1, 4);
+            if (value < 0) {
+                return Integer.MIN_VALUE;
+            }
+            int hours;
+            int minutes;
+            if (pos - start <= 2) {
+                hours = value;
+                minutes = 0;
+                if (pos < s.length() && s.charAt(pos) == ':') {
+                    pos++;
+                    minutes = readNumber(2, 2);
+                    if (minutes < 0) {
+                        return Integer.MIN_VALUE;
+                    }
+                }
+            } else {
+                hours = value / 100;
+                minutes = value % 100;
+            }
+            if (hours > 23 || minutes > 59) {
+                return Integer.MIN_VALUE;
+            }
+            return sign * (hours * 3600 + minutes * 60);
+        }
+
+        /**
+         * Reads between {@code min} and {@code max} digits and returns their value, or -1 if
+         * there are fewer than {@code min}.
+         */
+        private int readNumber(int min, int max) {
+            int value = 0;
+            int start = pos;
+            int end = Math.min(s.length(), pos + max);
+            while (pos < end) {
+                int digit = s.charAt(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                pos++;
+            }
+            if (pos - start < min || isDigitAt(pos)) {
+                return -1;
+            }
+            return value;
+        }
+
+        private int monthIndex(int start, int end) {
+            if (end - start < 3) {
+                return -1;
+            }
+            for (int i = 0; i < MONTH_NAMES.length; i++) {
+                String name = MONTH_NAMES[i];
+                if ((s.charAt(start) | 0x20) == (name.charAt(0) | 0x20)
+                        && (s.charAt(start + 1) | 0x20) == name.charAt(1)
+                        && (s.charAt(start + 2) | 0x20) == name.charAt(2)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean regionMatches(int start, int length, String word) {
+            return length == word.length() && s.regionMatches(true, start, word, 0, length);
+        }
+
+        private boolean isTimeAt(int i) {
+            // one or two digits followed by a colon
+            return isDigitAt(i) && (charAt(i + 1) == ':'
+                    || (isDigitAt(i + 1) && charAt(i + 2) == ':'));
+        }
+
+        private boolean isDigitAt(int i) {
+            char c = charAt(i);
+            return c >= '0' && c <= '9';
+        }
+
+        private char charAt(int i) {
+            return i < s.length() ? s.charAt(i) : 0;
+        }
+
+        private void skipLetters() {
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+                    break;
+                }
+                pos++;
+            }
+        }
+
+        private void skipSeparators() {
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c != ' ' && c != ',' && c != '\t') {
+                    break;
+                }
+                pos++;
+            }
+        }
+
+        // Returns false unless at least one space was skipped.
+        private boolean skipSpaces() {
+            int start = pos;
+            while (pos < s.length() && (s.charAt(pos) == ' ' || s.charAt(pos) == '\t')) {
+                pos++;
+            }
+            return pos > start || pos == s.length();
+        }
+
+        // A single dash, or one or more spaces.
+        private boolean skipDateSeparator() {
+            if (charAt(pos) == '-') {
+                pos++;
+                return true;
+            }
+            return skipSpaces() && pos < s.length();
+        }
+
+        private boolean skipTimeSeparator() {
+            char c = charAt(pos);
+            if (c == ':' || c == '-') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A map from {@code int} keys to non-null values that any number of threads may read without
+ * a lock, for caches that would otherwise be a {@code ConcurrentHashMap<Integer, V>}.
+ *
+ * <p>Entries are added but never removed or replaced, which is what lets reads go without a
+ * lock: a writer fills a free slot's key before publishing its value, and a probe sequence only
+ * ever grows. Writers take the map's lock. A table that grows is copied, and the copy then
+ * published, so readers still on the old table see the entries it had.
+ *
+ * @param <V> the type of the values
+ * @hide
+ */
+public final class ConcurrentIntObjectMap<V> {
+
+    private static final class Table {
+        final int[] keys;
+        /** The value of each slot, or null if the slot is free. */
+        final AtomicReferenceArray<Object> values;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private volatile Table table;
+
+    /** Guarded by this. */
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public ConcurrentIntObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without growing.
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public ConcurrentIntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        }
+        table = new Table(IntObjectMap.capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value for {@code key}, or null if there is none.
+     */
+    public V get(int key) {
+        return get(table, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V get(Table table, int key) {
+        final int[] keys = table.keys;
+        final AtomicReferenceArray<Object> values = table.values;
+        final int mask = keys.length - 1;
+        for (int i = IntObjectMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            // Read the value first: the key was written before it was.
+            Object value = values.get(i);
+            if (value == null || keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Maps {@code key} to {@code value} unless it already has a value, and returns the value it
+     * had, or null if there was none.
+     *
+     * @throws NullPointerException if {@code value} is null
+     */
+    public V putIfAbsent(int key, V value) {
+        Objects.requireNonNull(value);
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = get(key);
+            if (existing == null) {
+                insert(key, value);
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * Returns the value for {@code key}, first mapping it to {@code function.apply(key)} if it
+     * has none. The function is called at most once per key, with the map's lock held, and may
+     * return null to add nothing.
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> function) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = get(key);
+            if (value == null) {
+                value = function.apply(key);
+                if (value != null) {
+                    insert(key, value);
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Adds an entry for a key that has none. Called with the lock held. */
+    private void insert(int key, Object value) {
+        Table t = table;
+        if (size + 1 > IntObjectMap.maxSize(t.keys.length)) {
+            Table bigger = new Table(t.keys.length * 2);
+            for (int j = 0; j < t.keys.length; j++) {
+                Object v = t.values.get(j);
+                if (v != null) {
+                    put(bigger, t.keys[j], v);
+                }
+            }
+            put(bigger, key, value);
+            // The volatile write publishes every slot of the new table.
+            table = bigger;
+        } else {
+            put(t, key, value);
+        }
+        size++;
+    }
+
+    private static void put(Table table, int key, Object value) {
+        final int mask = table.keys.length - 1;
+        int i = IntObjectMap.hash(key) & mask;
+        while (table.values.get(i) != null) {
+            i = (i + 1) & mask;
+        }
+        table.keys[i] = key;
+        table.values.set(i, value);
+    }
+}
@@ -20,6 +20,10 @@ import static android.annotation.SystemApi.Client.MODULE_LIBRARIES;
 
 import android.annotation.SystemApi;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
 /**
  * Hexadecimal encoding where each byte is represented by two hexadecimal digits.
  * @hide
@@ -35,6 +39,32 @@ public class HexEncoding {
             '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
     };
 
+    /**
+     * The two ASCII digits of each byte value, the first in the high byte, for encoding eight
+     * bytes at a time.
+     */
+    private static final short[] LOWER_CASE_PAIRS = pairs(LOWER_CASE_DIGITS);
+    private static final short[] UPPER_CASE_PAIRS = pairs(UPPER_CASE_DIGITS);
+
+    /** The value of each ASCII hexadecimal digit, and -1 for every other byte. */
+    private static final byte[] DIGIT_VALUES = new byte[256];
+
+    static {
+        Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            DIGIT_VALUES[LOWER_CASE_DIGITS[i]] = (byte) i;
+            DIGIT_VALUES[UPPER_CASE_DIGITS[i]] = (byte) i;
+        }
+    }
+
+    private static short[] pairs(char[] digits) {
+        short[] pairs = new short[256];
+        for (int b = 0; b < 256; b++) {
+            pairs[b] = (short) (digits[b >> 4] << 8 | digits[b & 0xf]);
+        }
+        return pairs;
+    }
+
     /** Hidden constructor to prevent instantiation. */
     private HexEncoding() {}
 
@@ -237,6 +267,179 @@ public class HexEncoding {
         return result;
     }
 
+    /**
+     * Encodes the remaining bytes of {@code src}, or as many of them as {@code dst} has room
+     * for, into {@code dst} as ASCII hexadecimal digits. Either buffer may be direct, and
+     * neither is copied, so a long input can be encoded a buffer at a time.
+     *
+     * <p>Upon return, the positions of both buffers have advanced past the bytes read and
+     * written.
+     *
+     * @param  src the bytes to encode
+     * @param  dst the buffer to write the digits to
+     * @param  upperCase {@code true} to use uppercase letters, {@code false}
+     *         for lowercase
+     * @return the number of digits written, twice the number of bytes encoded
+     * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static int encode(ByteBuffer src, ByteBuffer dst, boolean upperCase) {
+        short[] pairs = upperCase ? UPPER_CASE_PAIRS : LOWER_CASE_PAIRS;
+        boolean srcSwap = src.order() != ByteOrder.BIG_ENDIAN;
+        boolean dstSwap = dst.order() != ByteOrder.BIG_ENDIAN;
+        int sp = src.position();
+        int dp = dst.position();
+        int count = Math.min(src.remaining(), dst.remaining() / 2);
+        int sl = sp + count;
+
+        // Eight bytes to sixteen digits at a time.
+        for (; sl - sp >= 8; sp += 8, dp += 16) {
+            long bytes = src.getLong(sp);
+            if (srcSwap) {
+                bytes = Long.reverseBytes(bytes);
+            }
+            long high = 0;
+            long low = 0;
+            for (int shift = 56; shift >= 32; shift -= 8) {
+                high = high << 16 | pairs[(int) (bytes >>> shift) & 0xff];
+                low = low << 16 | pairs[(int) (bytes >>> (shift - 32)) & 0xff];
+            }
+            dst.putLong(dp, dstSwap ? Long.reverseBytes(high) : high);
+            dst.putLong(dp + 8, dstSwap ? Long.reverseBytes(low) : low);
+        }
+        for (; sp < sl; sp++, dp += 2) {
+            short pair = pairs[src.get(sp) & 0xff];
+            dst.put(dp, (byte) (pair >> 8));
+            dst.put(dp + 1, (byte) pair);
+        }
+        src.position(sl);
+        dst.position(dp);
+        return count * 2;
+    }
+
+    /**
+     * Encodes {@code len} bytes of {@code src}, starting at {@code offset}, into {@code dst} as
+     * ASCII hexadecimal digits, starting at {@code dstOffset}.
+     *
+     * @param  upperCase {@code true} to use uppercase letters, {@code false}
+     *         for lowercase
+     * @return the number of digits written, {@code 2 * len}
+     * @throws IllegalArgumentException if {@code dst} has too little room after
+     *         {@code dstOffset}
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static int encode(byte[] src, int offset, int len, byte[] dst, int dstOffset,
+            boolean upperCase) {
+        ByteBuffer in = ByteBuffer.wrap(src, offset, len);
+        ByteBuffer out = ByteBuffer.wrap(dst, dstOffset, dst.length - dstOffset);
+        if (out.remaining() / 2 < len) {
+            throw new IllegalArgumentException("Output array is too small: " + out.remaining()
+                    + " < " + (2L * len));
+        }
+        return encode(in, out, upperCase);
+    }
+
+    /**
+     * Decodes the pairs of ASCII hexadecimal digits remaining in {@code src}, or as many of them
+     * as {@code dst} has room for, into {@code dst}. Letters can be either uppercase or
+     * lowercase. A single digit left at the end of {@code src} isn't decoded, so a long input
+     * can be decoded a buffer at a time. Either buffer may be direct.
+     *
+     * <p>Upon return, the positions of both buffers have advanced past the digits read and the
+     * bytes written, even if a malformed pair was found; the position of {@code src} is then
+     * that of the malformed pair.
+     *
+     * @param  src the digits to decode
+     * @param  dst the buffer to write the bytes to
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the input is malformed
+     * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static int decode(ByteBuffer src, ByteBuffer dst) throws IllegalArgumentException {
+        boolean srcSwap = src.order() != ByteOrder.BIG_ENDIAN;
+        boolean dstSwap = dst.order() != ByteOrder.BIG_ENDIAN;
+        int sp = src.position();
+        int dp = dst.position();
+        int count = Math.min(src.remaining() / 2, dst.remaining());
+        int dl = dp + count;
+
+        // Sixteen digits to eight bytes at a time, stopping before any malformed digit.
+        for (; dl - dp >= 8; sp += 16, dp += 8) {
+            long high = src.getLong(sp);
+            long low = src.getLong(sp + 8);
+            if (srcSwap) {
+                high = Long.reverseBytes(high);
+                low = Long.reverseBytes(low);
+            }
+            long bytes = 0;
+            int check = 0;
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                int digit = DIGIT_VALUES[(int) (high >>> shift) & 0xff];
+                check |= digit;
+                bytes = bytes << 4 | (digit & 0xf);
+            }
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                int digit = DIGIT_VALUES[(int) (low >>> shift) & 0xff];
+                check |= digit;
+                bytes = bytes << 4 | (digit & 0xf);
+            }
+            if (check < 0) {
+                break;
+            }
+            dst.putLong(dp, dstSwap ? Long.reverseBytes(bytes) : bytes);
+        }
+        for (; dp < dl; sp += 2, dp++) {
+            int high = DIGIT_VALUES[src.get(sp) & 0xff];
+            int low = DIGIT_VALUES[src.get(sp + 1) & 0xff];
+            if ((high | low) < 0) {
+                src.position(sp);
+                dst.position(dp);
+                int bad = high < 0 ? sp : sp + 1;
+                throw new IllegalArgumentException(
+                        "Illegal char: " + (char) (src.get(bad) & 0xff) + " at offset " + bad);
+            }
+            dst.put(dp, (byte) (high << 4 | low));
+        }
+        src.position(sp);
+        dst.position(dp);
+        return count;
+    }
+
+    /**
+     * Decodes {@code len} ASCII hexadecimal digits of {@code src}, starting at {@code offset},
+     * into {@code dst}, starting at {@code dstOffset}. Letters can be either uppercase or
+     * lowercase. Odd-length inputs are not allowed.
+     *
+     * @return the number of bytes written, {@code len / 2}
+     * @throws IllegalArgumentException if the input is malformed, or {@code dst} has too
+     *         little room after {@code dstOffset}
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static int decode(byte[] src, int offset, int len, byte[] dst, int dstOffset)
+            throws IllegalArgumentException {
+        ByteBuffer in = ByteBuffer.wrap(src, offset, len);
+        ByteBuffer out = ByteBuffer.wrap(dst, dstOffset, dst.length - dstOffset);
+        if ((len % 2) != 0) {
+            throw new IllegalArgumentException("Invalid input length: " + len);
+        }
+        if (out.remaining() < len / 2) {
+            throw new IllegalArgumentException("Output array is too small: " + out.remaining()
+                    + " < " + (len / 2));
+        }
+        return decode(in, out);
+    }
+
     private static int toDigit(char[] str, int offset) throws IllegalArgumentException {
         // NOTE: that this isn't really a code point in the traditional sense, since we're
         // just rejecting surrogate pairs outright.
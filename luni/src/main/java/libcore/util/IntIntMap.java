@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.util.Arrays;
+
+/**
+ * A map from {@code int} keys to {@code int} values, laid out as {@link IntObjectMap} is.
+ *
+ * <p>A key of 0 marks a free slot, so the entry for 0, if any, is kept apart from the table.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @hide
+ */
+public final class IntIntMap {
+
+    private int[] keys;
+    private int[] values;
+    /** The number of entries in the table, which excludes the entry for 0. */
+    private int tableSize;
+
+    private boolean hasZeroKey;
+    private int zeroKeyValue;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntIntMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without growing.
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public IntIntMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        }
+        int capacity = IntObjectMap.capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Returns the value for {@code key}, or {@code valueIfKeyNotFound} if there is none.
+     */
+    public int get(int key, int valueIfKeyNotFound) {
+        if (key == 0) {
+            return hasZeroKey ? zeroKeyValue : valueIfKeyNotFound;
+        }
+        final int[] keys = this.keys;
+        final int mask = keys.length - 1;
+        for (int i = IntObjectMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == 0) {
+                return valueIfKeyNotFound;
+            }
+        }
+    }
+
+    /**
+     * Returns whether there is a value for {@code key}.
+     */
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        final int mask = keys.length - 1;
+        for (int i = IntObjectMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return true;
+            }
+            if (k == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing any value it had.
+     */
+    public void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroKeyValue = value;
+            return;
+        }
+        final int mask = keys.length - 1;
+        int i = IntObjectMap.hash(key) & mask;
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++tableSize > IntObjectMap.maxSize(keys.length)) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the value for {@code key}, and returns whether there was one.
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had;
+        }
+        final int mask = keys.length - 1;
+        int hole = IntObjectMap.hash(key) & mask;
+        while (true) {
+            if (keys[hole] == 0) {
+                return false;
+            }
+            if (keys[hole] == key) {
+                break;
+            }
+            hole = (hole + 1) & mask;
+        }
+        keys[hole] = 0;
+        tableSize--;
+        for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = IntObjectMap.hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                keys[i] = 0;
+                hole = i;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return tableSize + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * Returns whether there are no entries.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        tableSize = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * Returns the keys, in no particular order, in a new array that later changes to the map
+     * don't affect.
+     */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int count = 0;
+        if (hasZeroKey) {
+            result[count++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[count++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        final int mask = capacity - 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = IntObjectMap.hash(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A map from {@code int} keys to non-null values, for internal paths that would otherwise box
+ * their keys into a {@code HashMap<Integer, V>}.
+ *
+ * <p>Entries live in a pair of parallel arrays, found by open addressing with linear probing,
+ * so a lookup neither boxes its key nor follows a node. Removal shifts later entries of the
+ * probe sequence back, leaving no tombstones. The table is at most three quarters full, and
+ * doesn't shrink.
+ *
+ * <p>This class is not thread-safe. See {@link ConcurrentIntObjectMap} for a map that can be
+ * read without a lock.
+ *
+ * @param <V> the type of the values
+ * @hide
+ */
+public final class IntObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    /** The value of each slot, or null if the slot is free. */
+    private Object[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without growing.
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        }
+        int capacity = capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Returns the value for {@code key}, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        final int[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object value = values[i];
+            if (value == null || keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Returns whether there is a value for {@code key}.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, and returns the value it replaced, or null if there was
+     * none.
+     *
+     * @throws NullPointerException if {@code value} is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value);
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > maxSize(keys.length)) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the value for {@code key}, and returns it, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        final int mask = keys.length - 1;
+        int hole = hash(key) & mask;
+        while (true) {
+            if (values[hole] == null) {
+                return null;
+            }
+            if (keys[hole] == key) {
+                break;
+            }
+            hole = (hole + 1) & mask;
+        }
+        V old = (V) values[hole];
+        values[hole] = null;
+        size--;
+        // Move back each later entry of the run that the hole now cuts off from its home slot.
+        for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                values[i] = null;
+                hole = i;
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether there are no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the keys, in no particular order, in a new array that later changes to the map
+     * don't affect.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[count++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final int mask = capacity - 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of {@code key}, so that sequential keys, such as file descriptors, don't
+     * fill runs of neighbouring slots.
+     */
+    static int hash(int key) {
+        int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /** The most entries a table of {@code capacity} slots holds: three quarters of them. */
+    static int maxSize(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    /** The smallest power of two, at least {@link #MIN_CAPACITY}, that holds {@code size}. */
+    static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (maxSize(capacity) < size) {
+            if (capacity == 1 << 30) {
+                throw new IllegalArgumentException("Too many entries: " + size);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
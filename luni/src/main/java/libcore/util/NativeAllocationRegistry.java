@@ -24,6 +24,8 @@ import dalvik.system.VMRuntime;
 import sun.misc.Cleaner;
 
 import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import libcore.util.NonNull;
 
@@ -44,6 +46,12 @@ import libcore.util.NonNull;
  * native function used to free the allocation and the estimated size of the
  * allocation. Once a NativeAllocationRegistry is instantiated, it can be
  * used to register any number of native allocations of that kind.
+ * <p>
+ * Registries created with one of the {@code create*Batched} factory methods
+ * defer frees of unreachable objects and apply them with a single native call
+ * per batch, and report allocations to the runtime in aggregate. This is
+ * intended for kinds of native allocations that are created and dropped at a
+ * very high rate.
  * @hide
  */
 @SystemApi(client = MODULE_LIBRARIES)
@@ -68,6 +76,27 @@ public class NativeAllocationRegistry {
     // We use an even value close to 100 that is unlikely to be explicitly provided.
     private static final long DEFAULT_SIZE = 98;
 
+    // Maximum number of frees deferred by a batched registry before they are applied.
+    private static final int FREE_BATCH_SIZE = 256;
+    // Non-malloced bytes a batched registry accumulates before reporting them to the runtime.
+    private static final long REPORT_THRESHOLD_BYTES = 256 * 1024;
+
+    // Non-null iff this registry batches frees and allocation accounting.
+    // Pointers of unreachable objects whose free has been deferred. Guarded by itself.
+    private final long[] pendingFrees;
+    private int pendingFreeCount;  // Guarded by pendingFrees.
+    // Registered non-malloced bytes not yet reported to the runtime, for batched registries.
+    private final AtomicLong unreportedBytes;
+    // Whether this registry is in registriesWithPendingFrees.
+    private boolean listedForFlush;  // Guarded by registriesWithPendingFrees.
+
+    // Number of registered allocations that have not been freed yet.
+    private final AtomicLong liveCount = new AtomicLong();
+
+    // Batched registries with deferred frees, flushed by flushPendingFrees(). Guarded by itself.
+    private static final ArrayList<NativeAllocationRegistry> registriesWithPendingFrees =
+            new ArrayList<>();
+
     /**
      * Return a {@link NativeAllocationRegistry} for native memory that is mostly
      * allocated by means other than the system memory allocator. For example,
@@ -92,7 +121,35 @@ public class NativeAllocationRegistry {
     @SystemApi(client = MODULE_LIBRARIES)
     public static NativeAllocationRegistry createNonmalloced(
             @NonNull ClassLoader classLoader, long freeFunction, long size) {
-        return new NativeAllocationRegistry(classLoader, freeFunction, size, false);
+        return new NativeAllocationRegistry(classLoader, freeFunction, size, false, false);
+    }
+
+    /**
+     * Return a batched {@link NativeAllocationRegistry} for native memory that is
+     * mostly allocated by means other than the system memory allocator.
+     * <p>
+     * Behaves like {@link #createNonmalloced(ClassLoader, long, long)}, except that
+     * frees of unreachable objects are deferred and applied in batches, and
+     * allocations are reported to the garbage collector in aggregate. Frees requested
+     * through the {@link Runnable} returned by {@link #registerNativeAllocation} are
+     * still applied immediately.
+     *
+     * @param classLoader  ClassLoader that was used to load the native
+     *                     library defining freeFunction.
+     * @param freeFunction address of a native function of type
+     *                     {@code void f(void* nativePtr)} used to free this
+     *                     kind of native allocation
+     * @param size         estimated size in bytes of the part of the described
+     *                     native memory that is not allocated with system malloc.
+     * @return allocated {@link NativeAllocationRegistry}
+     * @throws IllegalArgumentException If {@code size} is negative
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static NativeAllocationRegistry createNonmallocedBatched(
+            @NonNull ClassLoader classLoader, long freeFunction, long size) {
+        return new NativeAllocationRegistry(classLoader, freeFunction, size, false, true);
     }
 
     /**
@@ -124,7 +181,34 @@ public class NativeAllocationRegistry {
     @SystemApi(client = MODULE_LIBRARIES)
     public static NativeAllocationRegistry createMalloced(
             @NonNull ClassLoader classLoader, long freeFunction, long size) {
-        return new NativeAllocationRegistry(classLoader, freeFunction, size, true);
+        return new NativeAllocationRegistry(classLoader, freeFunction, size, true, false);
+    }
+
+    /**
+     * Return a batched {@link NativeAllocationRegistry} for native memory that is
+     * mostly allocated by the system memory allocator.
+     * <p>
+     * Behaves like {@link #createMalloced(ClassLoader, long, long)}, except that
+     * frees of unreachable objects are deferred and applied in batches. Frees
+     * requested through the {@link Runnable} returned by
+     * {@link #registerNativeAllocation} are still applied immediately.
+     *
+     * @param classLoader  ClassLoader that was used to load the native
+     *                     library {@code freeFunction} belongs to.
+     * @param freeFunction address of a native function of type
+     *                     {@code void f(void* nativePtr)} used to free this
+     *                     kind of native allocation
+     * @param size         estimated size in bytes of the part of the described
+     *                     native memory allocated with system malloc.
+     * @return allocated {@link NativeAllocationRegistry}
+     * @throws IllegalArgumentException If {@code size} is negative
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public static NativeAllocationRegistry createMallocedBatched(
+            @NonNull ClassLoader classLoader, long freeFunction, long size) {
+        return new NativeAllocationRegistry(classLoader, freeFunction, size, true, true);
     }
 
     /**
@@ -146,7 +230,8 @@ public class NativeAllocationRegistry {
     @libcore.api.IntraCoreApi
     public static NativeAllocationRegistry createMalloced(
             @NonNull ClassLoader classLoader, long freeFunction) {
-        return new NativeAllocationRegistry(classLoader, freeFunction, DEFAULT_SIZE, true);
+        return new NativeAllocationRegistry(
+                classLoader, freeFunction, DEFAULT_SIZE, true, false);
     }
 
     /**
@@ -176,15 +261,18 @@ public class NativeAllocationRegistry {
      *                     tools. In this case a value of zero is commonly used to
      *                     indicate an unknown non-huge size.
      * @param mallocAllocation the native object is primarily allocated via malloc.
+     * @param batched      frees of unreachable objects and allocation accounting are batched.
      */
     private NativeAllocationRegistry(ClassLoader classLoader, long freeFunction, long size,
-            boolean mallocAllocation) {
+            boolean mallocAllocation, boolean batched) {
         if (size < 0) {
             throw new IllegalArgumentException("Invalid native allocation size: " + size);
         }
         this.classLoader = classLoader;
         this.freeFunction = freeFunction;
         this.size = mallocAllocation ? (size | IS_MALLOCED) : (size & ~IS_MALLOCED);
+        this.pendingFrees = batched ? new long[FREE_BATCH_SIZE] : null;
+        this.unreportedBytes = batched ? new AtomicLong() : null;
     }
 
     /**
@@ -217,7 +305,44 @@ public class NativeAllocationRegistry {
      */
     @SystemApi(client = MODULE_LIBRARIES)
     public NativeAllocationRegistry(@NonNull ClassLoader classLoader, long freeFunction, long size) {
-        this(classLoader, freeFunction, size, size == 0);
+        this(classLoader, freeFunction, size, size == 0, false);
+    }
+
+    /**
+     * Returns the number of native allocations registered with this
+     * {@link NativeAllocationRegistry} that have not been freed yet. For batched
+     * registries, frees that have been deferred are counted as already freed.
+     *
+     * @return number of live native allocations
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public long getLiveAllocationCount() {
+        return liveCount.get();
+    }
+
+    /**
+     * Returns the estimated number of bytes held by the native allocations
+     * registered with this {@link NativeAllocationRegistry} that have not been
+     * freed yet, based on the size passed when creating it.
+     *
+     * @return estimated number of live native bytes
+     *
+     * @hide
+     */
+    @SystemApi(client = MODULE_LIBRARIES)
+    public long getLiveAllocationBytes() {
+        return liveCount.get() * (size & ~IS_MALLOCED);
+    }
+
+    /**
+     * Returns the bytes of this batched registry's allocations that have not been reported to
+     * the runtime yet, or 0 for other registries.
+     */
+    // VisibleForTesting
+    long getUnreportedBytes() {
+        return unreportedBytes != null ? unreportedBytes.get() : 0;
     }
 
     /**
@@ -269,14 +394,19 @@ public class NativeAllocationRegistry {
         try {
             thunk = new CleanerThunk();
             Cleaner cleaner = Cleaner.create(referent, thunk);
-            result = new CleanerRunner(cleaner);
-            registerNativeAllocation(this.size);
+            result = new CleanerRunner(cleaner, thunk);
+            if (pendingFrees != null) {
+                registerNativeAllocationBatched();
+            } else {
+                registerNativeAllocation(this.size);
+            }
         } catch (VirtualMachineError vme /* probably OutOfMemoryError */) {
             applyFreeFunction(freeFunction, nativePtr);
             throw vme;
         } // Other exceptions are impossible.
         // Enable the cleaner only after we can no longer throw anything, including OOME.
         thunk.setNativePtr(nativePtr);
+        liveCount.incrementAndGet();
         // Ensure that cleaner doesn't get invoked before we enable it.
         Reference.reachabilityFence(referent);
         return result;
@@ -284,6 +414,8 @@ public class NativeAllocationRegistry {
 
     private class CleanerThunk implements Runnable {
         private long nativePtr;
+        // Set when the free was requested explicitly, and should not be deferred.
+        private volatile boolean explicit;
 
         public CleanerThunk() {
             this.nativePtr = 0;
@@ -291,11 +423,24 @@ public class NativeAllocationRegistry {
 
         public void run() {
             if (nativePtr != 0) {
-                applyFreeFunction(freeFunction, nativePtr);
-                registerNativeFree(size);
+                liveCount.decrementAndGet();
+                if (pendingFrees != null && !explicit) {
+                    deferFree(nativePtr);
+                } else {
+                    applyFreeFunction(freeFunction, nativePtr);
+                    if (pendingFrees != null) {
+                        registerNativeFreeBatched();
+                    } else {
+                        registerNativeFree(size);
+                    }
+                }
             }
         }
 
+        public void setExplicit() {
+            explicit = true;
+        }
+
         public void setNativePtr(long nativePtr) {
             this.nativePtr = nativePtr;
         }
@@ -309,16 +454,122 @@ public class NativeAllocationRegistry {
 
     private static class CleanerRunner implements Runnable {
         private final Cleaner cleaner;
+        private final CleanerThunk thunk;
 
-        public CleanerRunner(Cleaner cleaner) {
+        public CleanerRunner(Cleaner cleaner, CleanerThunk thunk) {
             this.cleaner = cleaner;
+            this.thunk = thunk;
         }
 
         public void run() {
+            // If the reference queue daemon wins the race to clean, the free may be applied
+            // immediately even though it was not requested explicitly. That is harmless.
+            thunk.setExplicit();
             cleaner.clean();
         }
     }
 
+    // Account for an allocation in a batched registry. Non-malloced bytes are reported to the
+    // runtime once enough of them accumulate; malloc-based allocations are already sampled by
+    // VMRuntime.notifyNativeAllocation().
+    private void registerNativeAllocationBatched() {
+        if ((size & IS_MALLOCED) != 0) {
+            registerNativeAllocation(size);
+        } else if (unreportedBytes.addAndGet(size) >= REPORT_THRESHOLD_BYTES) {
+            reportUnreportedBytes();
+        }
+    }
+
+    // Account for an explicit free in a batched registry. Bytes the runtime has not been told
+    // about yet are taken back from the unreported count; otherwise they are reported first, so
+    // that the runtime's count never drops below the true value.
+    private void registerNativeFreeBatched() {
+        if ((size & IS_MALLOCED) != 0) {
+            return;
+        }
+        long bytes;
+        do {
+            bytes = unreportedBytes.get();
+            if (bytes < size) {
+                reportUnreportedBytes();
+                VMRuntime.getRuntime().registerNativeFree(size);
+                return;
+            }
+        } while (!unreportedBytes.compareAndSet(bytes, bytes - size));
+    }
+
+    private void reportUnreportedBytes() {
+        long bytes = unreportedBytes.getAndSet(0);
+        if (bytes > 0) {
+            VMRuntime.getRuntime().registerNativeAllocation(bytes);
+        }
+    }
+
+    // Record a free of an unreachable object, applying the current batch once it is full.
+    // Called by the reference queue daemons.
+    private void deferFree(long nativePtr) {
+        boolean wasEmpty;
+        synchronized (pendingFrees) {
+            wasEmpty = pendingFreeCount == 0;
+            pendingFrees[pendingFreeCount++] = nativePtr;
+            if (pendingFreeCount == pendingFrees.length) {
+                applyPendingFreesLocked();
+                return;
+            }
+        }
+        if (wasEmpty) {
+            synchronized (registriesWithPendingFrees) {
+                if (!listedForFlush) {
+                    listedForFlush = true;
+                    registriesWithPendingFrees.add(this);
+                }
+            }
+        }
+    }
+
+    // @GuardedBy("pendingFrees")
+    private void applyPendingFreesLocked() {
+        int count = pendingFreeCount;
+        if (count == 0) {
+            return;
+        }
+        applyFreeFunctions(freeFunction, pendingFrees, count);
+        pendingFreeCount = 0;
+        if ((size & IS_MALLOCED) == 0) {
+            // Report outstanding allocations first, so that the runtime's count never goes
+            // negative.
+            reportUnreportedBytes();
+            VMRuntime.getRuntime().registerNativeFree(size * count);
+        }
+    }
+
+    /**
+     * Applies all frees deferred by batched registries. Called by the reference
+     * queue daemons once they have processed a list of pending references, so that
+     * deferred frees are not held back indefinitely when allocation churn stops.
+     *
+     * @hide
+     */
+    public static void flushPendingFrees() {
+        NativeAllocationRegistry[] registries;
+        synchronized (registriesWithPendingFrees) {
+            if (registriesWithPendingFrees.isEmpty()) {
+                return;
+            }
+            registries = registriesWithPendingFrees.toArray(
+                    new NativeAllocationRegistry[registriesWithPendingFrees.size()]);
+            registriesWithPendingFrees.clear();
+            for (NativeAllocationRegistry registry : registries) {
+                registry.listedForFlush = false;
+            }
+        }
+        for (NativeAllocationRegistry registry : registries) {
+            synchronized (registry.pendingFrees) {
+                registry.applyPendingFreesLocked();
+            }
+        }
+    }
+
     // Inform the garbage collector of the allocation. We do this differently for
     // malloc-based allocations.
     private static void registerNativeAllocation(long size) {
@@ -356,5 +607,8 @@ public class NativeAllocationRegistry {
      */
     @SystemApi(client = MODULE_LIBRARIES)
     public static native void applyFreeFunction(long freeFunction, long nativePtr);
+
+    // Calls freeFunction(nativePtrs[i]) for each i < count, with a single native call.
+    private static native void applyFreeFunctions(long freeFunction, long[] nativePtrs, int count);
 }
 
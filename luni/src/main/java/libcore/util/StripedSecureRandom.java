@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import dalvik.system.ZygoteHooks;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Random bytes from a cryptographically strong generator, for callers on many threads that each
+ * want a few bytes at a time.
+ *
+ * <p>{@link SecureRandom#nextBytes} is synchronized, so threads sharing one instance wait for
+ * each other. This spreads threads over several stripes, each with a {@link SecureRandom} of
+ * its own, chosen by thread id. Each stripe fetches a block of bytes at a time and hands it out
+ * in slices, zeroing the bytes it hands out. No byte is handed out twice.
+ *
+ * <p>The zygote does not buffer, so that processes forked from it never share bytes.
+ *
+ * @hide
+ */
+public final class StripedSecureRandom {
+
+    private static final int DEFAULT_BLOCK_SIZE = 4096;
+    private static final int MAX_STRIPES = 64;
+
+    private static class Holder {
+        static final StripedSecureRandom DEFAULT = new StripedSecureRandom(
+                2 * Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE);
+    }
+
+    private static final class Stripe {
+        /** Created on first use. Guarded by this. */
+        SecureRandom random;
+
+        /** Bytes before {@code position} have been handed out. Guarded by this. */
+        final byte[] block;
+        int position;
+
+        Stripe(int blockSize) {
+            block = new byte[blockSize];
+            position = blockSize;
+        }
+    }
+
+    private final Stripe[] stripes;
+
+    /**
+     * Returns the instance shared by the whole process, with about two stripes per CPU.
+     */
+    public static StripedSecureRandom getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Creates a generator with at least {@code stripeCount} stripes, up to 64, which each fetch
+     * {@code blockSize} bytes at a time.
+     *
+     * @throws IllegalArgumentException if either argument isn't positive
+     */
+    public StripedSecureRandom(int stripeCount, int blockSize) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount <= 0: " + stripeCount);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize <= 0: " + blockSize);
+        }
+        // Round up to a power of two, so that a thread's stripe is a mask of its id.
+        final int count = Integer.highestOneBit(Math.min(stripeCount, MAX_STRIPES) * 2 - 1);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(blockSize);
+        }
+    }
+
+    /**
+     * Fills {@code bytes} with random bytes.
+     */
+    public void nextBytes(byte[] bytes) {
+        nextBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Fills {@code count} bytes of {@code bytes}, starting at {@code offset}, with random bytes.
+     *
+     * @throws ArrayIndexOutOfBoundsException if the range is out of the bounds of {@code bytes}
+     */
+    public void nextBytes(byte[] bytes, int offset, int count) {
+        ArrayUtils.throwsIfOutOfBounds(bytes.length, offset, count);
+        final Stripe stripe =
+                stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        synchronized (stripe) {
+            if (stripe.random == null) {
+                stripe.random = new SecureRandom();
+            }
+            final byte[] block = stripe.block;
+            if (count >= block.length || ZygoteHooks.inZygote()) {
+                // Not worth buffering, or not safe to.
+                if (offset == 0 && count == bytes.length) {
+                    stripe.random.nextBytes(bytes);
+                } else {
+                    final byte[] result = new byte[count];
+                    stripe.random.nextBytes(result);
+                    System.arraycopy(result, 0, bytes, offset, count);
+                }
+                return;
+            }
+            while (count > 0) {
+                if (stripe.position == block.length) {
+                    stripe.random.nextBytes(block);
+                    stripe.position = 0;
+                }
+                final int n = Math.min(count, block.length - stripe.position);
+                System.arraycopy(block, stripe.position, bytes, offset, n);
+                Arrays.fill(block, stripe.position, stripe.position + n, (byte) 0);
+                stripe.position += n;
+                offset += n;
+                count -= n;
+            }
+        }
+    }
+}
@@ -63,6 +63,12 @@ public final class ZoneInfo extends TimeZone {
             0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335,
     };
 
+    /**
+     * The number of lookups that miss {@link #mLastInterval} before an instance builds its
+     * {@link OffsetTable}. Most instances look up a handful of times, if at all.
+     */
+    private static final int OFFSET_TABLE_THRESHOLD = 16;
+
     // Proclaim serialization compatibility with pre-OpenJDK AOSP
     static final long serialVersionUID = -4598738130123921552L;
 
@@ -122,6 +128,18 @@ public final class ZoneInfo extends TimeZone {
      */
     private transient ZoneInfoData mDelegate;
 
+    /**
+     * The interval between transitions that the last lookup was in. Replaced as a whole, so
+     * that threads sharing this instance never see a mix of two intervals.
+     */
+    private transient Interval mLastInterval;
+
+    /** Built from {@link #mDelegate} once lookups miss often enough, and shared with clones. */
+    private transient OffsetTable mOffsetTable;
+
+    /** Lookups that have missed {@link #mLastInterval} while there was no table. */
+    private transient int mIntervalMisses;
+
     /**
      * Creates an instance using the current system clock time to calculate the {@link #mDstSavings}
      * and {@link #mUseDst} fields. See also {@link #createZoneInfo(ZoneInfoData, long)}.
@@ -143,7 +161,13 @@ public final class ZoneInfo extends TimeZone {
     }
 
     private ZoneInfo(ZoneInfoData delegate, int dstSavings, boolean useDst) {
+        this(delegate, dstSavings, useDst, null);
+    }
+
+    private ZoneInfo(ZoneInfoData delegate, int dstSavings, boolean useDst,
+            OffsetTable offsetTable) {
         mDelegate = delegate;
+        mOffsetTable = offsetTable;
         mDstSavings = dstSavings;
         mUseDst = useDst;
         mTransitions = delegate.getTransitions();
@@ -221,12 +245,53 @@ public final class ZoneInfo extends TimeZone {
         calc -= mDelegate.getRawOffset();
         calc -= UNIX_OFFSET;
 
-        return mDelegate.getOffset(calc);
+        return getOffset(calc);
     }
 
     @Override
     public int getOffset(long when) {
-        return mDelegate.getOffset(when);
+        Interval interval = mLastInterval;
+        if (interval == null || when < interval.start || when >= interval.end) {
+            interval = findInterval(when);
+        }
+        return interval.offset;
+    }
+
+    /**
+     * Sets {@code offsets[i]} to {@code getOffset(utcTimesInMillis[i])} for each {@code i}, in
+     * one pass that is cheapest when the times are sorted or close together.
+     *
+     * @throws IllegalArgumentException if {@code offsets} is shorter than
+     *     {@code utcTimesInMillis}
+     */
+    public void getOffsets(long[] utcTimesInMillis, int[] offsets) {
+        if (offsets.length < utcTimesInMillis.length) {
+            throw new IllegalArgumentException("offsets.length=" + offsets.length
+                    + " < utcTimesInMillis.length=" + utcTimesInMillis.length);
+        }
+        if (utcTimesInMillis.length == 0) {
+            return;
+        }
+        OffsetTable table = mOffsetTable;
+        if (table == null) {
+            table = new OffsetTable(mDelegate);
+            mOffsetTable = table;
+        }
+        long start = 0;
+        long end = 0;
+        int offset = 0;
+        int index = -1;
+        for (int i = 0; i < utcTimesInMillis.length; i++) {
+            long when = utcTimesInMillis[i];
+            if (index < 0 || when < start || when >= end) {
+                index = table.findInterval(when);
+                start = table.intervalStart(index);
+                end = table.intervalEnd(index);
+                offset = table.offsets[index];
+            }
+            offsets[i] = offset;
+        }
+        mLastInterval = table.interval(index);
     }
 
     @Override
@@ -242,6 +307,9 @@ public final class ZoneInfo extends TimeZone {
     @Override
     public void setRawOffset(int off) {
         mDelegate = mDelegate.createCopyWithRawOffset(off);
+        mLastInterval = null;
+        mOffsetTable = null;
+        mIntervalMisses = 0;
     }
 
     @Override
@@ -300,10 +368,145 @@ public final class ZoneInfo extends TimeZone {
     public Object clone() {
         // Pass the mDstSavings and mUseDst explicitly because they must not be recalculated when
         // cloning. See {@link #create(ZoneInfoData)}.
-        return new ZoneInfo(mDelegate, mDstSavings, mUseDst);
+        return new ZoneInfo(mDelegate, mDstSavings, mUseDst, mOffsetTable);
     }
 
     public int getOffsetsByUtcTime(long utcTimeInMillis, int[] offsets) {
-        return mDelegate.getOffsetsByUtcTime(utcTimeInMillis, offsets);
+        Interval interval = mLastInterval;
+        if (interval == null || utcTimeInMillis < interval.start
+                || utcTimeInMillis >= interval.end) {
+            interval = findInterval(utcTimeInMillis);
+        }
+        offsets[0] = interval.rawOffset;
+        offsets[1] = interval.dstOffset;
+        return interval.offset;
+    }
+
+    /**
+     * Finds the interval {@code when} is in and remembers it as {@link #mLastInterval}.
+     */
+    private Interval findInterval(long when) {
+        Interval interval;
+        OffsetTable table = mOffsetTable;
+        if (table != null) {
+            interval = table.interval(table.findInterval(when));
+        } else if (++mIntervalMisses > OFFSET_TABLE_THRESHOLD) {
+            table = new OffsetTable(mDelegate);
+            mOffsetTable = table;
+            interval = table.interval(table.findInterval(when));
+        } else {
+            // Ask the delegate, and work out where its answer stops applying.
+            long[] transitions = mDelegate.getTransitions();
+            int index = Arrays.binarySearch(transitions, Math.floorDiv(when, 1000L));
+            index = index >= 0 ? index + 1 : -index - 1;
+            int[] rawAndDst = new int[2];
+            int offset = mDelegate.getOffsetsByUtcTime(when, rawAndDst);
+            interval = new Interval(
+                    index == 0 ? Long.MIN_VALUE : transitions[index - 1] * 1000L,
+                    index == transitions.length ? Long.MAX_VALUE : transitions[index] * 1000L,
+                    offset, rawAndDst[0], rawAndDst[1]);
+        }
+        mLastInterval = interval;
+        return interval;
+    }
+
+    /**
+     * A span of time, from {@code start} inclusive to {@code end} exclusive, between two
+     * transitions, and the offsets that apply throughout it.
+     */
+    private static final class Interval {
+        final long start;
+        final long end;
+        final int offset;
+        final int rawOffset;
+        final int dstOffset;
+
+        Interval(long start, long end, int offset, int rawOffset, int dstOffset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+            this.rawOffset = rawOffset;
+            this.dstOffset = dstOffset;
+        }
+    }
+
+    /**
+     * The offsets of every interval between the transitions of a {@link ZoneInfoData}, and, for
+     * the years 1970 to 2099, where each year-sized bucket starts, so that a lookup in that
+     * window is a shift and a step or two rather than a binary search. Immutable.
+     *
+     * <p>Interval {@code i} runs from {@code starts[i - 1]} to {@code starts[i]}. Interval 0 is
+     * everything before the first transition, and the last interval everything after the last.
+     */
+    private static final class OffsetTable {
+        /** The start of the window the buckets cover, 1970-01-01T00:00Z. */
+        private static final long WINDOW_START = 0L;
+
+        /** The end of the window the buckets cover, 2100-01-01T00:00Z. */
+        private static final long WINDOW_END = 4102444800000L;
+
+        /** Buckets are 2^35 ms, about 398 days, so finding one needs no calendar arithmetic. */
+        private static final int BUCKET_SHIFT = 35;
+
+        /** The transitions, in milliseconds. */
+        final long[] starts;
+        final int[] offsets;
+        final int[] rawOffsets;
+        final int[] dstOffsets;
+
+        /** The interval that the first millisecond of each bucket is in. */
+        final int[] bucketIntervals;
+
+        OffsetTable(ZoneInfoData delegate) {
+            long[] transitions = delegate.getTransitions();
+            int count = transitions.length;
+            starts = new long[count];
+            for (int i = 0; i < count; i++) {
+                starts[i] = transitions[i] * 1000L;
+            }
+            offsets = new int[count + 1];
+            rawOffsets = new int[count + 1];
+            dstOffsets = new int[count + 1];
+            int[] rawAndDst = new int[2];
+            for (int i = 0; i <= count; i++) {
+                long when = i > 0 ? starts[i - 1] : (count > 0 ? starts[0] - 1 : 0);
+                offsets[i] = delegate.getOffsetsByUtcTime(when, rawAndDst);
+                rawOffsets[i] = rawAndDst[0];
+                dstOffsets[i] = rawAndDst[1];
+            }
+            bucketIntervals = new int[(int) ((WINDOW_END - WINDOW_START - 1) >>> BUCKET_SHIFT) + 1];
+            for (int b = 0; b < bucketIntervals.length; b++) {
+                bucketIntervals[b] = search(WINDOW_START + ((long) b << BUCKET_SHIFT));
+            }
+        }
+
+        int findInterval(long when) {
+            if (when < WINDOW_START || when >= WINDOW_END) {
+                return search(when);
+            }
+            int index = bucketIntervals[(int) ((when - WINDOW_START) >>> BUCKET_SHIFT)];
+            while (index < starts.length && starts[index] <= when) {
+                index++;
+            }
+            return index;
+        }
+
+        private int search(long when) {
+            int index = Arrays.binarySearch(starts, when);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        long intervalStart(int index) {
+            return index == 0 ? Long.MIN_VALUE : starts[index - 1];
+        }
+
+        long intervalEnd(int index) {
+            return index == starts.length ? Long.MAX_VALUE : starts[index];
+        }
+
+        Interval interval(int index) {
+            return new Interval(intervalStart(index), intervalEnd(index), offsets[index],
+                    rawOffsets[index], dstOffsets[index]);
+        }
     }
 }
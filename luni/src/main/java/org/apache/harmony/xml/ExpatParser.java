@@ -34,6 +34,7 @@ import java.io.Reader;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
 import libcore.io.IoUtils;
 
 import dalvik.annotation.optimization.ReachabilitySensitive;
@@ -478,6 +479,78 @@ class ExpatParser {
     private native void appendBytes(long pointer, byte[] xml, int offset,
             int length) throws SAXException, ExpatException;
 
+    /**
+     * Appends the remaining bytes of {@code xml} and advances its position to
+     * its limit. Direct buffers are passed to Expat by address rather than
+     * copied into a Java array first. Expat retains whatever it has not parsed
+     * yet when it is suspended, so the buffer may be reused once this returns.
+     *
+     * @throws SAXException if an error occurs during parsing
+     */
+    /*package*/ void append(ByteBuffer xml) throws SAXException {
+        int position = xml.position();
+        int length = xml.limit() - position;
+        try {
+            if (xml.isDirect()) {
+                appendDirect(this.pointer, xml, position, length);
+            } else if (xml.hasArray()) {
+                appendBytes(this.pointer, xml.array(), xml.arrayOffset() + position, length);
+            } else {
+                // Read-only heap buffers don't expose their array.
+                byte[] bytes = new byte[length];
+                xml.duplicate().get(bytes);
+                appendBytes(this.pointer, bytes, 0, length);
+            }
+        } catch (ExpatException e) {
+            throw new ParseException(e.getMessage(), this.locator);
+        }
+        xml.position(position + length);
+    }
+
+    private native void appendDirect(long pointer, ByteBuffer xml, int offset,
+            int length) throws SAXException, ExpatException;
+
+    /**
+     * Asks Expat to stop after the event currently being dispatched. May only
+     * be called from a handler while this parser is parsing.
+     */
+    /*package*/ void suspend() {
+        try {
+            stop(this.pointer);
+        } catch (ExpatException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static native void stop(long pointer) throws ExpatException;
+
+    /**
+     * Continues parsing the input retained by a suspended parser.
+     *
+     * @throws SAXException if an error occurs during parsing
+     */
+    /*package*/ void resume() throws SAXException {
+        try {
+            resume(this.pointer);
+        } catch (ExpatException e) {
+            throw new ParseException(e.getMessage(), this.locator);
+        }
+    }
+
+    private native void resume(long pointer) throws SAXException, ExpatException;
+
+    /** Matches XML_SUSPENDED in expat.h. */
+    private static final int STATUS_SUSPENDED = 3;
+
+    /**
+     * Returns true if a handler suspended parsing and it hasn't been resumed.
+     */
+    /*package*/ boolean isSuspended() {
+        return parsingStatus(this.pointer) == STATUS_SUSPENDED;
+    }
+
+    private static native int parsingStatus(long pointer);
+
     /**
      * Parses an XML document from the given input stream.
      */
@@ -530,7 +603,7 @@ class ExpatParser {
         }
     }
 
-    private void startDocument() throws SAXException {
+    /*package*/ void startDocument() throws SAXException {
         ContentHandler contentHandler = xmlReader.contentHandler;
         if (contentHandler != null) {
             contentHandler.setDocumentLocator(this.locator);
@@ -538,7 +611,7 @@ class ExpatParser {
         }
     }
 
-    private void endDocument() throws SAXException {
+    /*package*/ void endDocument() throws SAXException {
         ContentHandler contentHandler;
         contentHandler = xmlReader.contentHandler;
         if (contentHandler != null) {
@@ -560,6 +633,17 @@ class ExpatParser {
         }
     }
 
+    /**
+     * Releases native resources now rather than when this parser is collected.
+     * This parser may not be used afterwards.
+     */
+    /*package*/ synchronized void close() {
+        if (this.pointer != 0) {
+            release(this.pointer);
+            this.pointer = 0;
+        }
+    }
+
     @Override protected synchronized void finalize() throws Throwable {
         try {
             if (this.pointer != 0) {
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.harmony.xml;
+
+import java.nio.ByteBuffer;
+import org.xml.sax.SAXException;
+
+/**
+ * Parses a single document that is pushed to it piece by piece, for example as
+ * it arrives on a non-blocking channel. Events are dispatched to the handlers
+ * of the {@link ExpatReader} that created this parser from within
+ * {@link #feed}, {@link #resume} and {@link #finish}; none of these block on
+ * I/O.
+ *
+ * <p>A handler may call {@link #suspend} to stop parsing after the event it is
+ * handling, for example to apply back pressure. Expat keeps the input it has
+ * not parsed yet and continues with it when {@link #resume} is called. No
+ * input may be fed while the parser is suspended.
+ *
+ * <p>Not thread safe.
+ *
+ * @see ExpatReader#newPushParser
+ */
+public final class ExpatPushParser implements AutoCloseable {
+
+    private final ExpatParser parser;
+
+    private boolean started;
+    private boolean finishing;
+    private boolean finished;
+    private boolean closed;
+
+    /** True while Expat is dispatching events, the only time it can be suspended. */
+    private boolean parsing;
+
+    /*package*/ ExpatPushParser(ExpatParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Parses the remaining bytes of {@code xml} and advances its position to
+     * its limit. Direct buffers are read in place. The buffer may be reused as
+     * soon as this returns, even if parsing was suspended.
+     *
+     * @return false if a handler suspended parsing, true otherwise
+     * @throws IllegalStateException if this parser is suspended, finished or
+     *     closed
+     * @throws SAXException if the document is malformed or a handler throws
+     */
+    public boolean feed(ByteBuffer xml) throws SAXException {
+        checkCanParse();
+        if (finishing) {
+            throw new IllegalStateException("finish() has already been called");
+        }
+        start();
+        parsing = true;
+        try {
+            parser.append(xml);
+        } finally {
+            parsing = false;
+        }
+        return !parser.isSuspended();
+    }
+
+    /**
+     * Signals the end of the document and parses whatever input remains.
+     * {@code endDocument()} is reported once all input has been parsed.
+     *
+     * @return false if a handler suspended parsing, in which case {@link
+     *     #resume} completes the document, true otherwise
+     * @throws SAXException if the document is incomplete or malformed, or a
+     *     handler throws
+     */
+    public boolean finish() throws SAXException {
+        checkCanParse();
+        if (finishing) {
+            throw new IllegalStateException("finish() has already been called");
+        }
+        start();
+        finishing = true;
+        parsing = true;
+        try {
+            parser.finish();
+        } finally {
+            parsing = false;
+        }
+        return endIfDone();
+    }
+
+    /**
+     * Stops parsing once the current handler returns. May only be called from
+     * a handler.
+     *
+     * @throws IllegalStateException if no event is being dispatched
+     */
+    public void suspend() {
+        if (!parsing) {
+            throw new IllegalStateException("suspend() must be called from a handler");
+        }
+        parser.suspend();
+    }
+
+    /**
+     * Returns true if a handler suspended parsing and it hasn't been resumed.
+     */
+    public boolean isSuspended() {
+        return !closed && parser.isSuspended();
+    }
+
+    /**
+     * Continues parsing the input that was left when a handler suspended this
+     * parser.
+     *
+     * @return false if a handler suspended parsing again, true otherwise
+     * @throws IllegalStateException if this parser isn't suspended
+     * @throws SAXException if the document is malformed or a handler throws
+     */
+    public boolean resume() throws SAXException {
+        if (!isSuspended()) {
+            throw new IllegalStateException("not suspended");
+        }
+        parsing = true;
+        try {
+            parser.resume();
+        } finally {
+            parsing = false;
+        }
+        return endIfDone();
+    }
+
+    /**
+     * Releases the native parser. Further calls to this parser fail.
+     */
+    @Override public void close() {
+        if (!closed) {
+            closed = true;
+            parser.close();
+        }
+    }
+
+    private void checkCanParse() {
+        if (closed) {
+            throw new IllegalStateException("closed");
+        }
+        if (parser.isSuspended()) {
+            throw new IllegalStateException("suspended");
+        }
+    }
+
+    private void start() throws SAXException {
+        if (!started) {
+            started = true;
+            parser.startDocument();
+        }
+    }
+
+    private boolean endIfDone() throws SAXException {
+        if (parser.isSuspended()) {
+            return false;
+        }
+        if (finishing && !finished) {
+            finished = true;
+            parser.endDocument();
+        }
+        return true;
+    }
+}
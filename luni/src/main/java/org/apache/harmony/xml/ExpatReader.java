@@ -327,4 +327,19 @@ public class ExpatReader implements XMLReader {
     public void parse(String systemId) throws IOException, SAXException {
         parse(new InputSource(systemId));
     }
+
+    /**
+     * Returns a parser for a document that is pushed to it incrementally
+     * instead of being read from an {@link InputSource}. Events are reported
+     * to this reader's handlers.
+     *
+     * @param encoding the document's encoding, or null for UTF-8
+     * @param publicId the document's public ID, or null
+     * @param systemId the document's system ID, used to resolve external
+     *     entities; may be null
+     */
+    public ExpatPushParser newPushParser(String encoding, String publicId, String systemId) {
+        return new ExpatPushParser(
+                new ExpatParser(encoding, this, processNamespaces, publicId, systemId));
+    }
 }
@@ -40,6 +40,7 @@ jint JNI_OnLoad(JavaVM* vm, void*) {
     REGISTER(register_java_lang_invoke_MethodHandle);
     REGISTER(register_java_lang_invoke_VarHandle);
     REGISTER(register_libcore_icu_ICU);
+    REGISTER(register_libcore_io_Arena);
     REGISTER(register_libcore_io_AsynchronousCloseMonitor);
     REGISTER(register_libcore_io_Linux);
     REGISTER(register_libcore_io_Memory);
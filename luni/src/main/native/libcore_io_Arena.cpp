@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#define LOG_TAG "Arena"
+
+#include <stdint.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/mman.h>
+
+#include <nativehelper/JNIHelp.h>
+#include <nativehelper/jni_macros.h>
+
+// A mapping made by Arena.map(), which NativeAllocationRegistry frees with unmapRegion.
+struct MappedRegion {
+    void* address;
+    size_t size;
+};
+
+static inline void* toPointer(jlong address) {
+    return reinterpret_cast<void*>(static_cast<uintptr_t>(address));
+}
+
+static inline jlong toJlong(const void* pointer) {
+    return static_cast<jlong>(reinterpret_cast<uintptr_t>(pointer));
+}
+
+static void unmapRegion(void* pointer) {
+    MappedRegion* region = reinterpret_cast<MappedRegion*>(pointer);
+    munmap(region->address, region->size);
+    free(region);
+}
+
+static jlong Arena_allocateNative(JNIEnv* env, jclass, jlong byteSize) {
+    // Arena.allocate() checks this too; don't let a truncated size through regardless.
+    void* pointer = nullptr;
+    if (static_cast<uint64_t>(byteSize) <= SIZE_MAX) {
+        // calloc(0) may return NULL, which NativeAllocationRegistry doesn't accept.
+        pointer = calloc(byteSize == 0 ? 1 : static_cast<size_t>(byteSize), 1);
+    }
+    if (pointer == nullptr) {
+        jniThrowExceptionFmt(env, "java/lang/OutOfMemoryError",
+                             "Failed to allocate %lld bytes", static_cast<long long>(byteSize));
+        return 0;
+    }
+    return toJlong(pointer);
+}
+
+static jlong Arena_getFreeFunction(JNIEnv*, jclass) {
+    return static_cast<jlong>(reinterpret_cast<uintptr_t>(&free));
+}
+
+static jlong Arena_newMappedRegion(JNIEnv* env, jclass, jlong address, jlong byteSize) {
+    MappedRegion* region = reinterpret_cast<MappedRegion*>(malloc(sizeof(MappedRegion)));
+    if (region == nullptr) {
+        jniThrowOutOfMemoryError(env, nullptr);
+        return 0;
+    }
+    region->address = toPointer(address);
+    region->size = static_cast<size_t>(byteSize);
+    return toJlong(region);
+}
+
+static jlong Arena_getUnmapFunction(JNIEnv*, jclass) {
+    return static_cast<jlong>(reinterpret_cast<uintptr_t>(&unmapRegion));
+}
+
+static void Arena_copy(JNIEnv*, jclass, jlong srcAddress, jlong dstAddress, jlong byteCount) {
+    memmove(toPointer(dstAddress), toPointer(srcAddress), static_cast<size_t>(byteCount));
+}
+
+static void Arena_fill(JNIEnv*, jclass, jlong address, jlong byteCount, jbyte value) {
+    memset(toPointer(address), value, static_cast<size_t>(byteCount));
+}
+
+static JNINativeMethod gMethods[] = {
+    NATIVE_METHOD(Arena, allocateNative, "(J)J"),
+    FAST_NATIVE_METHOD(Arena, copy, "(JJJ)V"),
+    FAST_NATIVE_METHOD(Arena, fill, "(JJB)V"),
+    NATIVE_METHOD(Arena, getFreeFunction, "()J"),
+    NATIVE_METHOD(Arena, getUnmapFunction, "()J"),
+    NATIVE_METHOD(Arena, newMappedRegion, "(JJ)J"),
+};
+void register_libcore_io_Arena(JNIEnv* env) {
+    jniRegisterNativeMethods(env, "libcore/io/Arena", gMethods, NELEM(gMethods));
+}
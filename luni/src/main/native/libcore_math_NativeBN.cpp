@@ -38,6 +38,74 @@ struct BN_CTX_Deleter {
 };
 typedef std::unique_ptr<BN_CTX, BN_CTX_Deleter> Unique_BN_CTX;
 
+// Operations on more bits than this use a BN_CTX of their own, so that the thread's cached one
+// isn't left holding their temporaries for the life of the thread.
+static const size_t kMaxCachedCtxBits = 1 << 16;
+
+// The BN_CTX for an operation on operands of |bits| bits in all. Below kMaxCachedCtxBits, that
+// is a context kept per thread, so that successive operations reuse the BIGNUMs it allocated
+// rather than each creating and freeing a context of its own. Null if none could be allocated.
+//
+// Once any BN_CTX_get on a context fails, every later one does too. So unless succeeded() is
+// called, the thread's context is dropped when this goes out of scope, and the next operation
+// allocates a new one. Declare any ScopedBnCtxFrame after this, so that it ends first.
+class OperationCtx {
+ public:
+  explicit OperationCtx(size_t bits) : cached_(bits <= kMaxCachedCtxBits), succeeded_(false) {
+    if (cached_) {
+      Unique_BN_CTX& cached = threadCtx();
+      if (!cached) {
+        cached.reset(BN_CTX_new());
+      }
+      ctx_ = cached.get();
+    } else {
+      ownCtx_.reset(BN_CTX_new());
+      ctx_ = ownCtx_.get();
+    }
+  }
+
+  ~OperationCtx() {
+    if (cached_ && !succeeded_) {
+      threadCtx().reset();
+    }
+  }
+
+  BN_CTX* get() const {
+    return ctx_;
+  }
+
+  // Keeps the thread's context for later operations.
+  void succeeded() {
+    succeeded_ = true;
+  }
+
+ private:
+  static Unique_BN_CTX& threadCtx() {
+    thread_local Unique_BN_CTX ctx;
+    return ctx;
+  }
+
+  const bool cached_;
+  bool succeeded_;
+  BN_CTX* ctx_;
+  Unique_BN_CTX ownCtx_;
+};
+
+// Brackets the temporaries taken from a BN_CTX with BN_CTX_get, which are all released here.
+class ScopedBnCtxFrame {
+ public:
+  explicit ScopedBnCtxFrame(BN_CTX* ctx) : ctx_(ctx) {
+    BN_CTX_start(ctx_);
+  }
+
+  ~ScopedBnCtxFrame() {
+    BN_CTX_end(ctx_);
+  }
+
+ private:
+  BN_CTX* const ctx_;
+};
+
 static BIGNUM* toBigNum(jlong address) {
   return reinterpret_cast<BIGNUM*>(static_cast<uintptr_t>(address));
 }
@@ -88,6 +156,10 @@ static void NativeBN_BN_free(JNIEnv*, jclass, jlong a) {
   BN_free(toBigNum(a));
 }
 
+static jlong NativeBN_getNativeFinalizer(JNIEnv*, jclass) {
+  return static_cast<jlong>(reinterpret_cast<uintptr_t>(&BN_free));
+}
+
 static void NativeBN_litEndInts2bn(JNIEnv* env, jclass, jintArray arr, int len, jboolean neg, jlong ret0) {
   BIGNUM* ret = toBigNum(ret0);
 
@@ -141,27 +213,169 @@ static jintArray NativeBN_bn2litEndInts(JNIEnv* env, jclass, jlong a0) {
 }
 
 static void NativeBN_BN_mul(JNIEnv* env, jclass, jlong r, jlong a, jlong b) {
-  Unique_BN_CTX ctx(BN_CTX_new());
+  OperationCtx ctx(BN_num_bits(toBigNum(a)) + BN_num_bits(toBigNum(b)));
   BN_CTX* ctxp = ctx.get();
   if (!ctxp || !BN_mul(toBigNum(r), toBigNum(a), toBigNum(b), ctxp)) {
     throwException(env);
+    return;
   }
+  ctx.succeeded();
 }
 
 static void NativeBN_BN_div(JNIEnv* env, jclass, jlong q, jlong rem, jlong num, jlong divisor) {
-  Unique_BN_CTX ctx(BN_CTX_new());
+  OperationCtx ctx(BN_num_bits(toBigNum(num)) + BN_num_bits(toBigNum(divisor)));
   BN_CTX* ctxp = ctx.get();
   if (!ctxp || !BN_div(toBigNum(q), toBigNum(rem), toBigNum(num), toBigNum(divisor), ctxp)) {
     throwException(env);
+    return;
   }
+  ctx.succeeded();
 }
 
 static void NativeBN_BN_mod_exp(JNIEnv* env, jclass, jlong r, jlong a, jlong p, jlong m) {
-  Unique_BN_CTX ctx(BN_CTX_new());
+  OperationCtx ctx(BN_num_bits(toBigNum(a)) + BN_num_bits(toBigNum(m)));
   BN_CTX* ctxp = ctx.get();
   if (!ctxp || !BN_mod_exp(toBigNum(r), toBigNum(a), toBigNum(p), toBigNum(m), ctxp)) {
     throwException(env);
+    return;
+  }
+  ctx.succeeded();
+}
+
+// The number of bits spanned by |magnitude|, leading zero words included.
+static size_t magnitudeBits(JNIEnv* env, jintArray magnitude) {
+  return static_cast<size_t>(env->GetArrayLength(magnitude)) * 32;
+}
+
+// Sets |ret| to the non-negative number whose magnitude, as java.math.BigInteger stores it, is
+// |magnitude|: 32-bit words, most significant first. Returns false, with an exception pending,
+// on failure.
+static bool bigEndInts2bn(JNIEnv* env, jintArray magnitude, BIGNUM* ret) {
+  ScopedIntArrayRO words(env, magnitude);
+  if (words.get() == NULL) {
+    return false;
+  }
+  // BN_le2bn wants the words least significant first. Their bytes are already in that order.
+  size_t len = words.size();
+  std::unique_ptr<jint[]> leWords(new jint[len]);
+  std::reverse_copy(words.get(), words.get() + len, leWords.get());
+  if (!BN_le2bn(reinterpret_cast<const uint8_t*>(leWords.get()), len * sizeof(jint), ret)) {
+    throwException(env);
+    return false;
+  }
+  return true;
+}
+
+// Returns the magnitude of |a|, as java.math.BigInteger stores it, with no leading zero words.
+// Returns null, with an exception pending, on failure.
+static jintArray bn2BigEndInts(JNIEnv* env, const BIGNUM* a) {
+  int intLen = (BN_num_bytes(a) + sizeof(int) - 1) / sizeof(int);
+  jintArray result = env->NewIntArray(intLen);
+  if (result == NULL) {
+    return NULL;
+  }
+  ScopedIntArrayRW ints(env, result);
+  if (ints.get() == NULL) {
+    return NULL;
+  }
+  if (!BN_bn2le_padded(reinterpret_cast<uint8_t*>(ints.get()), intLen * sizeof(int), a)) {
+    throwException(env);
+    return NULL;
+  }
+  std::reverse(ints.get(), ints.get() + intLen);
+  return result;
+}
+
+static jintArray NativeBN_mulBigEndInts(JNIEnv* env, jclass, jintArray a0, jintArray b0) {
+  OperationCtx ctx(magnitudeBits(env, a0) + magnitudeBits(env, b0));
+  BN_CTX* ctxp = ctx.get();
+  if (!ctxp) {
+    throwException(env);
+    return NULL;
+  }
+  ScopedBnCtxFrame frame(ctxp);
+  BIGNUM* a = BN_CTX_get(ctxp);
+  BIGNUM* b = BN_CTX_get(ctxp);
+  BIGNUM* r = BN_CTX_get(ctxp);
+  if (!r) {
+    throwException(env);
+    return NULL;
+  }
+  if (!bigEndInts2bn(env, a0, a) || !bigEndInts2bn(env, b0, b)) {
+    return NULL;
+  }
+  if (!BN_mul(r, a, b, ctxp)) {
+    throwException(env);
+    return NULL;
+  }
+  ctx.succeeded();
+  return bn2BigEndInts(env, r);
+}
+
+static void NativeBN_divBigEndInts(JNIEnv* env, jclass, jintArray num0, jintArray divisor0,
+                                   jobjectArray quotientAndRemainder) {
+  OperationCtx ctx(magnitudeBits(env, num0) + magnitudeBits(env, divisor0));
+  BN_CTX* ctxp = ctx.get();
+  if (!ctxp) {
+    throwException(env);
+    return;
+  }
+  ScopedBnCtxFrame frame(ctxp);
+  BIGNUM* num = BN_CTX_get(ctxp);
+  BIGNUM* divisor = BN_CTX_get(ctxp);
+  BIGNUM* q = BN_CTX_get(ctxp);
+  BIGNUM* rem = BN_CTX_get(ctxp);
+  if (!rem) {
+    throwException(env);
+    return;
+  }
+  if (!bigEndInts2bn(env, num0, num) || !bigEndInts2bn(env, divisor0, divisor)) {
+    return;
+  }
+  if (!BN_div(q, rem, num, divisor, ctxp)) {
+    throwException(env);
+    return;
+  }
+  ctx.succeeded();
+  jintArray quotient = bn2BigEndInts(env, q);
+  if (quotient == NULL) {
+    return;
+  }
+  env->SetObjectArrayElement(quotientAndRemainder, 0, quotient);
+  env->DeleteLocalRef(quotient);
+  jintArray remainder = bn2BigEndInts(env, rem);
+  if (remainder == NULL) {
+    return;
+  }
+  env->SetObjectArrayElement(quotientAndRemainder, 1, remainder);
+}
+
+static jintArray NativeBN_modExpBigEndInts(JNIEnv* env, jclass, jintArray a0, jintArray p0,
+                                           jintArray m0) {
+  OperationCtx ctx(magnitudeBits(env, a0) + magnitudeBits(env, m0));
+  BN_CTX* ctxp = ctx.get();
+  if (!ctxp) {
+    throwException(env);
+    return NULL;
+  }
+  ScopedBnCtxFrame frame(ctxp);
+  BIGNUM* a = BN_CTX_get(ctxp);
+  BIGNUM* p = BN_CTX_get(ctxp);
+  BIGNUM* m = BN_CTX_get(ctxp);
+  BIGNUM* r = BN_CTX_get(ctxp);
+  if (!r) {
+    throwException(env);
+    return NULL;
+  }
+  if (!bigEndInts2bn(env, a0, a) || !bigEndInts2bn(env, p0, p) || !bigEndInts2bn(env, m0, m)) {
+    return NULL;
+  }
+  if (!BN_mod_exp(r, a, p, m, ctxp)) {
+    throwException(env);
+    return NULL;
   }
+  ctx.succeeded();
+  return bn2BigEndInts(env, r);
 }
 
 static JNINativeMethod gMethods[] = {
@@ -171,7 +385,11 @@ static JNINativeMethod gMethods[] = {
    NATIVE_METHOD(NativeBN, BN_mul, "(JJJ)V"),
    NATIVE_METHOD(NativeBN, BN_new, "()J"),
    NATIVE_METHOD(NativeBN, bn2litEndInts, "(J)[I"),
+   NATIVE_METHOD(NativeBN, divBigEndInts, "([I[I[[I)V"),
+   NATIVE_METHOD(NativeBN, getNativeFinalizer, "()J"),
    NATIVE_METHOD(NativeBN, litEndInts2bn, "([IIZJ)V"),
+   NATIVE_METHOD(NativeBN, modExpBigEndInts, "([I[I[I)[I"),
+   NATIVE_METHOD(NativeBN, mulBigEndInts, "([I[I)[I"),
 };
 void register_libcore_math_NativeBN(JNIEnv* env) {
     jniRegisterNativeMethods(env, "libcore/math/NativeBN", gMethods, NELEM(gMethods));
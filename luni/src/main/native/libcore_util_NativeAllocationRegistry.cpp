@@ -15,6 +15,7 @@
  */
 
 #include <nativehelper/JNIHelp.h>
+#include <nativehelper/ScopedPrimitiveArray.h>
 #include <nativehelper/jni_macros.h>
 
 typedef void (*FreeFunction)(void*);
@@ -29,8 +30,29 @@ static void NativeAllocationRegistry_applyFreeFunction(JNIEnv*,
     nativeFreeFunction(nativePtr);
 }
 
+static void NativeAllocationRegistry_applyFreeFunctions(JNIEnv* env,
+                                                        jclass,
+                                                        jlong freeFunction,
+                                                        jlongArray javaPtrs,
+                                                        jint count) {
+    ScopedLongArrayRO ptrs(env, javaPtrs);
+    if (ptrs.get() == nullptr) {
+        return;
+    }
+    if (count < 0 || static_cast<size_t>(count) > ptrs.size()) {
+        jniThrowException(env, "java/lang/ArrayIndexOutOfBoundsException", nullptr);
+        return;
+    }
+    FreeFunction nativeFreeFunction
+        = reinterpret_cast<FreeFunction>(static_cast<uintptr_t>(freeFunction));
+    for (jint i = 0; i < count; ++i) {
+        nativeFreeFunction(reinterpret_cast<void*>(static_cast<uintptr_t>(ptrs[i])));
+    }
+}
+
 static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(NativeAllocationRegistry, applyFreeFunction, "(JJ)V"),
+    NATIVE_METHOD(NativeAllocationRegistry, applyFreeFunctions, "(J[JI)V"),
 };
 
 void register_libcore_util_NativeAllocationRegistry(JNIEnv* env) {
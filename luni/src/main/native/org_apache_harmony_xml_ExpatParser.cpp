@@ -1077,6 +1077,49 @@ static void ExpatParser_appendString(JNIEnv* env, jobject object, jlong pointer,
     append(env, object, pointer, bytes, 0, byteCount, isFinal);
 }
 
+static void ExpatParser_appendDirect(JNIEnv* env, jobject object, jlong pointer,
+        jobject xml, jint byteOffset, jint byteCount) {
+    // The buffer's memory is handed to Expat as is; no JNI copy is made.
+    const char* bytes = reinterpret_cast<const char*>(env->GetDirectBufferAddress(xml));
+    if (bytes == NULL) {
+        jniThrowException(env, "java/lang/IllegalArgumentException", "not a direct buffer");
+        return;
+    }
+    append(env, object, pointer, bytes, byteOffset, byteCount, XML_FALSE);
+}
+
+/**
+ * Suspends the parser once the handler currently running returns. Expat only
+ * allows this from within a handler.
+ */
+static void ExpatParser_stop(JNIEnv* env, jobject, jlong pointer) {
+    XML_Parser parser = toXMLParser(pointer);
+    if (XML_StopParser(parser, XML_TRUE) != XML_STATUS_OK) {
+        jniThrowExpatException(env, XML_GetErrorCode(parser));
+    }
+}
+
+/**
+ * Continues parsing the input Expat retained when it was suspended.
+ */
+static void ExpatParser_resume(JNIEnv* env, jobject object, jlong pointer) {
+    XML_Parser parser = toXMLParser(pointer);
+    ParsingContext* context = toParsingContext(parser);
+    context->env = env;
+    context->object = object;
+    if (!XML_ResumeParser(parser) && !env->ExceptionCheck()) {
+        jniThrowExpatException(env, XML_GetErrorCode(parser));
+    }
+    context->object = NULL;
+    context->env = NULL;
+}
+
+static jint ExpatParser_parsingStatus(JNIEnv*, jobject, jlong pointer) {
+    XML_ParsingStatus status;
+    XML_GetParsingStatus(toXMLParser(pointer), &status);
+    return status.parsing;
+}
+
 /**
  * Releases parser only.
  */
@@ -1370,14 +1413,18 @@ static JNINativeMethod parserMethods[] = {
     NATIVE_METHOD(ExpatParser, appendString, "(JLjava/lang/String;Z)V"),
     NATIVE_METHOD(ExpatParser, appendBytes, "(J[BII)V"),
     NATIVE_METHOD(ExpatParser, appendChars, "(J[CII)V"),
+    NATIVE_METHOD(ExpatParser, appendDirect, "(JLjava/nio/ByteBuffer;II)V"),
     NATIVE_METHOD(ExpatParser, cloneAttributes, "(JI)J"),
     NATIVE_METHOD(ExpatParser, column, "(J)I"),
     NATIVE_METHOD(ExpatParser, createEntityParser, "(JLjava/lang/String;)J"),
     NATIVE_METHOD(ExpatParser, initialize, "(Ljava/lang/String;Z)J"),
     NATIVE_METHOD(ExpatParser, line, "(J)I"),
+    NATIVE_METHOD(ExpatParser, parsingStatus, "(J)I"),
     NATIVE_METHOD(ExpatParser, release, "(J)V"),
     NATIVE_METHOD(ExpatParser, releaseParser, "(J)V"),
+    NATIVE_METHOD(ExpatParser, resume, "(J)V"),
     NATIVE_METHOD(ExpatParser, staticInitialize, "(Ljava/lang/String;)V"),
+    NATIVE_METHOD(ExpatParser, stop, "(J)V"),
 };
 
 static JNINativeMethod attributeMethods[] = {
@@ -299,4 +299,67 @@ public class EmulatedStackFrameTest extends TestCase {
         stackFrame.setReference(2, "Hello");
         assertEquals("Hello", stackFrame.getReference(2, String.class));
     }
+
+    public void testAcquireRelease() {
+        MethodType type = MethodType.methodType(
+                void.class, new Class<?>[] { long.class, String.class });
+        EmulatedStackFrame frame = EmulatedStackFrame.acquire(type);
+        EmulatedStackFrame.StackFrameWriter writer = new EmulatedStackFrame.StackFrameWriter();
+        writer.attach(frame);
+        writer.putNextLong(42);
+        writer.putNextReference("foo", String.class);
+
+        // A frame in use is never handed out twice.
+        EmulatedStackFrame other = EmulatedStackFrame.acquire(type);
+        assertNotSame(frame, other);
+        EmulatedStackFrame.release(other);
+        EmulatedStackFrame.release(frame);
+
+        // A released frame is reused, and is as clean as a new one.
+        EmulatedStackFrame reused = EmulatedStackFrame.acquire(type);
+        assertSame(frame, reused);
+        EmulatedStackFrame.StackFrameReader reader = new EmulatedStackFrame.StackFrameReader();
+        reader.attach(reused);
+        assertEquals(0, reader.nextLong());
+        assertNull(reader.nextReference(String.class));
+        EmulatedStackFrame.release(reused);
+
+        // Frames are only reused for the same type.
+        EmulatedStackFrame differentType = EmulatedStackFrame.acquire(
+                MethodType.methodType(int.class, new Class<?>[] { long.class, String.class }));
+        assertNotSame(frame, differentType);
+    }
+
+    public void testArgumentMapping() {
+        MethodType from = MethodType.methodType(void.class,
+                new Class<?>[] { int.class, String.class, long.class, Object.class, byte.class });
+        MethodType to = MethodType.methodType(void.class,
+                new Class<?>[] { long.class, byte.class, int.class, Object.class, char.class,
+                        String.class, double.class });
+        EmulatedStackFrame.ArgumentMapping mapping = EmulatedStackFrame.ArgumentMapping.create(
+                from, to, new int[] { 2, 4, 0, -1, -1, 1, -1 },
+                new Object[] { null, null, null, "constant", 'c', null, 1.5 });
+
+        EmulatedStackFrame source = EmulatedStackFrame.create(from);
+        EmulatedStackFrame.StackFrameWriter writer = new EmulatedStackFrame.StackFrameWriter();
+        writer.attach(source);
+        writer.putNextInt(-7);
+        writer.putNextReference("foo", String.class);
+        writer.putNextLong(0x0102030405060708L);
+        writer.putNextReference(Integer.valueOf(3), Object.class);
+        writer.putNextByte((byte) 9);
+
+        EmulatedStackFrame destination = EmulatedStackFrame.create(to);
+        mapping.apply(source, destination);
+
+        EmulatedStackFrame.StackFrameReader reader = new EmulatedStackFrame.StackFrameReader();
+        reader.attach(destination);
+        assertEquals(0x0102030405060708L, reader.nextLong());
+        assertEquals((byte) 9, reader.nextByte());
+        assertEquals(-7, reader.nextInt());
+        assertEquals("constant", reader.nextReference(Object.class));
+        assertEquals('c', reader.nextChar());
+        assertEquals("foo", reader.nextReference(String.class));
+        assertEquals(1.5, reader.nextDouble());
+    }
 }
@@ -18,9 +18,13 @@ package libcore.java.io;
 
 import junit.framework.TestCase;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InvalidClassException;
 import java.io.InvalidObjectException;
 import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
 import java.io.ObjectStreamField;
 import java.io.Serializable;
@@ -458,4 +462,109 @@ public final class SerializationTest extends TestCase {
         } catch (InvalidClassException expected) {
         }
     }
+
+    public void testLookupReturnsCachedDescriptor() {
+        ObjectStreamClass osc = ObjectStreamClass.lookup(WithHooks.class);
+        assertSame(osc, ObjectStreamClass.lookup(WithHooks.class));
+        assertNull(ObjectStreamClass.lookup(Object.class));
+        assertSame(ObjectStreamClass.lookupAny(Object.class),
+                ObjectStreamClass.lookupAny(Object.class));
+    }
+
+    public void testHooksAreInvoked() throws Exception {
+        WithHooks original = new WithHooks();
+        original.value = 7;
+        WithHooks copy = (WithHooks) SerializationTester.reserialize(original);
+        assertEquals(7, copy.value);
+        assertTrue(copy.readObjectCalled);
+        assertTrue(original.writeObjectCalled);
+        assertEquals("replaced", SerializationTester.reserialize(new WithWriteReplace()));
+        assertEquals("resolved", SerializationTester.reserialize(new WithReadResolve()));
+    }
+
+    public void testHookExceptionsAreNotWrapped() throws Exception {
+        try {
+            SerializationTester.serialize(new ThrowsFromWriteObject());
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("writeObject", expected.getMessage());
+        }
+        byte[] bytes = SerializationTester.serialize(new ThrowsFromReadObject());
+        try {
+            new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+            fail();
+        } catch (InvalidObjectException expected) {
+            assertEquals("readObject", expected.getMessage());
+        }
+    }
+
+    public void testPrimitiveOnlyFields() throws Exception {
+        PrimitivesOnly original = new PrimitivesOnly();
+        original.i = -1;
+        original.j = Long.MIN_VALUE;
+        original.d = Math.PI;
+        original.z = true;
+        PrimitivesOnly copy = (PrimitivesOnly) SerializationTester.reserialize(original);
+        assertEquals(-1, copy.i);
+        assertEquals(Long.MIN_VALUE, copy.j);
+        assertEquals(Math.PI, copy.d);
+        assertTrue(copy.z);
+    }
+
+    static class WithHooks implements Serializable {
+        private static final long serialVersionUID = 0L;
+        int value;
+        transient boolean writeObjectCalled;
+        transient boolean readObjectCalled;
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            writeObjectCalled = true;
+            out.defaultWriteObject();
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            readObjectCalled = true;
+        }
+    }
+
+    static class WithWriteReplace implements Serializable {
+        private static final long serialVersionUID = 0L;
+
+        private Object writeReplace() {
+            return "replaced";
+        }
+    }
+
+    static class WithReadResolve implements Serializable {
+        private static final long serialVersionUID = 0L;
+
+        private Object readResolve() {
+            return "resolved";
+        }
+    }
+
+    static class ThrowsFromWriteObject implements Serializable {
+        private static final long serialVersionUID = 0L;
+
+        private void writeObject(ObjectOutputStream out) {
+            throw new IllegalStateException("writeObject");
+        }
+    }
+
+    static class ThrowsFromReadObject implements Serializable {
+        private static final long serialVersionUID = 0L;
+
+        private void readObject(ObjectInputStream in) throws IOException {
+            throw new InvalidObjectException("readObject");
+        }
+    }
+
+    static class PrimitivesOnly implements Serializable {
+        private static final long serialVersionUID = 0L;
+        int i;
+        long j;
+        double d;
+        boolean z;
+    }
 }
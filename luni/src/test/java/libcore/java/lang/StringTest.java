@@ -616,6 +616,31 @@ public class StringTest extends TestCase {
         assertEquals("", splits[7]);
     }
 
+    public void testSplit_literalMultiCharSeparator() {
+        assertEquals(Arrays.asList("a", "b", "", "c"),
+                Arrays.asList("a, b, , c, , ".split(", ")));
+        assertEquals(Arrays.asList("a", "b", "", "c", "", ""),
+                Arrays.asList("a, b, , c, , ".split(", ", -1)));
+        assertEquals(Arrays.asList("a", "b, c"), Arrays.asList("a, b, c".split(", ", 2)));
+        assertEquals(Arrays.asList("", "a"), Arrays.asList("||a".split("\\|\\|")));
+        assertEquals(Arrays.asList("a|b"), Arrays.asList("a|b".split("\\|\\|")));
+        // Matches are non-overlapping, from left to right.
+        assertEquals(Arrays.asList("", "", "a"), Arrays.asList("aaaaa".split("aa")));
+        assertEquals(0, "abab".split("ab").length);
+        assertEquals(Arrays.asList(""), Arrays.asList("".split("ab")));
+    }
+
+    public void testRegexMethods_repeatedPattern() {
+        // Exercise the compiled pattern cache with the same expression used in different ways.
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList("a  b\tc".split("\\s+")));
+            assertEquals("a_b_c", "a  b\tc".replaceAll("\\s+", "_"));
+            assertEquals("a_b\tc", "a  b\tc".replaceFirst("\\s+", "_"));
+            assertTrue("  ".matches("\\s+"));
+            assertFalse("a ".matches("\\s+"));
+        }
+    }
+
     // http://b/63745717
     // A buffer overflow bug was found in ICU4C. A native crash occurs only when ASAN is enabled.
     public void testSplit_lookBehind() {
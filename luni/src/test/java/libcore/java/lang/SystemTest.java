@@ -232,6 +232,31 @@ public class SystemTest extends TestCase {
         assertEquals("v2", System.getProperty("p1"));
     }
 
+    public void testSystemProperties_setProperties_unchangeable() {
+        String vmVersion = System.getProperty("java.vm.version");
+        String osArch = System.getProperty("os.arch");
+        assertNotNull(vmVersion);
+        assertNotNull(osArch);
+
+        Properties newProperties = new Properties();
+        newProperties.setProperty("java.vm.version", "v1");
+        newProperties.setProperty("os.arch", "v2");
+        newProperties.setProperty("p1", "v3");
+        try {
+            System.setProperties(newProperties);
+
+            // Look in the Properties object itself too, not only through System.getProperty().
+            Properties properties = System.getProperties();
+            assertEquals(vmVersion, properties.getProperty("java.vm.version"));
+            assertEquals(osArch, properties.getProperty("os.arch"));
+            assertEquals(vmVersion, System.getProperty("java.vm.version"));
+            assertEquals(osArch, System.getProperty("os.arch"));
+            assertEquals("v3", properties.getProperty("p1"));
+        } finally {
+            System.setProperties(null);
+        }
+    }
+
     public void testSystemProperties_getProperties_clear() {
         String userDir = System.getProperty("user.dir");
         assertNotNull(userDir);
@@ -1630,6 +1630,59 @@ public class MethodHandleCombinersTest extends TestCase {
         }
     }
 
+    static String rearrangeReceiver(long a, String b, int c, double d, Object e) {
+        return a + "," + b + "," + c + "," + d + "," + e;
+    }
+
+    public static void testRearrangeArguments_chain() throws Throwable {
+        MethodHandle target = MethodHandles.lookup().findStatic(
+                MethodHandleCombinersTest.class, "rearrangeReceiver",
+                MethodType.methodType(String.class,
+                        long.class, String.class, int.class, double.class, Object.class));
+
+        // Each of these adapts the previous one, and is fused with it into a single adapter
+        // of the original target.
+        MethodHandle adapter = MethodHandles.insertArguments(target, 2, 7);
+        assertEquals("1,b,7,2.5,e",
+                (String) adapter.invokeExact(1L, "b", 2.5, (Object) "e"));
+
+        adapter = MethodHandles.permuteArguments(adapter,
+                MethodType.methodType(String.class,
+                        Object.class, double.class, String.class, long.class),
+                3, 2, 1, 0);
+        assertEquals("1,b,7,2.5,e",
+                (String) adapter.invokeExact((Object) "e", 2.5, "b", 1L));
+
+        adapter = MethodHandles.dropArguments(adapter, 1, int.class, String.class);
+        assertEquals("1,b,7,2.5,e",
+                (String) adapter.invokeExact((Object) "e", 3, "x", 2.5, "b", 1L));
+
+        adapter = MethodHandles.insertArguments(adapter, 5, 9L);
+        adapter = adapter.bindTo("f");
+        assertEquals(MethodType.methodType(String.class,
+                int.class, String.class, double.class, String.class), adapter.type());
+        for (int i = 0; i < 3; ++i) {
+            assertEquals("9,b,7," + i + ".5,f",
+                    (String) adapter.invokeExact(i, "x", i + 0.5, "b"));
+        }
+    }
+
+    private static MethodHandle factorialHandle;
+
+    static long factorial(long n, String unused) throws Throwable {
+        return n <= 1 ? 1 : n * (long) factorialHandle.invokeExact(n - 1);
+    }
+
+    public static void testRearrangeArguments_reentrant() throws Throwable {
+        // Nested invocations of the same adapter each need a frame of their own.
+        MethodHandle target = MethodHandles.lookup().findStatic(
+                MethodHandleCombinersTest.class, "factorial",
+                MethodType.methodType(long.class, long.class, String.class));
+        factorialHandle = MethodHandles.insertArguments(target, 1, "unused");
+        assertEquals(3628800L, (long) factorialHandle.invokeExact(10L));
+        assertEquals(120L, (long) factorialHandle.invokeExact(5L));
+    }
+
     public static String foldFilter(char a, char b) {
         return String.valueOf(a) + "+" + b;
     }
@@ -227,6 +227,56 @@ public class BigIntegerTest extends junit.framework.TestCase {
         try_gcd_variants(large, BigInteger.ZERO, large);
     }
 
+    /**
+     * Test parallelMultiply() against multiply(), at sizes either side of
+     * the thousand or so ints above which it splits up the work.
+     */
+    public void test_parallelMultiply() throws Exception {
+        Random r = new Random(0);
+        assertEquals(BigInteger.ZERO, BigInteger.ZERO.parallelMultiply(BigInteger.TEN));
+        for (int bits : new int[] { 1, 64, 2000, 32 * 1024, 32 * 3000 }) {
+            BigInteger x = new BigInteger(bits, r).setBit(bits - 1);
+            BigInteger y = new BigInteger(bits + 1000, r).negate();
+            assertEquals(x.multiply(y), x.parallelMultiply(y));
+            assertEquals(y.multiply(x), y.parallelMultiply(x));
+            assertEquals(x.multiply(x), x.parallelMultiply(x));
+        }
+    }
+
+    /**
+     * Test division of numbers large enough to use Burnikel-Ziegler division
+     * rather than BoringSSL's, by the identity that quotient and remainder
+     * must satisfy.
+     */
+    public void test_divideAndRemainder_large() throws Exception {
+        Random r = new Random(0);
+        for (int divisorBits : new int[] { 32 * 2000, 32 * 2100, 32 * 5000 }) {
+            BigInteger y = new BigInteger(divisorBits, r).setBit(divisorBits - 1);
+            BigInteger x = new BigInteger(2 * divisorBits + 1000, r).negate();
+            BigInteger[] qr = x.divideAndRemainder(y);
+            assertEquals(x, qr[0].multiply(y).add(qr[1]));
+            assertTrue(qr[1].signum() <= 0);
+            assertTrue(qr[1].abs().compareTo(y) < 0);
+            assertEquals(qr[0], x.divide(y));
+            assertEquals(qr[1], x.remainder(y));
+            assertEquals(qr[1].signum() == 0 ? qr[1] : qr[1].add(y), x.mod(y));
+        }
+    }
+
+    /**
+     * Test toString() of numbers of about 100,000 digits, which it converts
+     * by recursive division.
+     */
+    public void test_toString_large() throws Exception {
+        BigInteger nines = BigInteger.TEN.pow(100000).subtract(BigInteger.ONE);
+        assertEquals("9".repeat(100000), nines.toString());
+
+        BigInteger x = new BigInteger(332000, new Random(0));
+        for (int radix : new int[] { 10, 36 }) {
+            assertEquals(x, new BigInteger(x.toString(radix), radix));
+        }
+    }
+
     public void test_byteValueExact() throws Exception {
         for (int i = -300; i != 300; i += 10) {
             try {
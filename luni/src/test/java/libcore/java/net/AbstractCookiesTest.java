@@ -837,7 +837,7 @@ public abstract class AbstractCookiesTest extends TestCase {
      * RFC 2965 and RFC 6265. CookieStoreImpl assumes these values are set "correctly" by the time
      * it receives the HttpCookie instance.
      */
-    private static HttpCookie createCookie(String name, String value, String domain, String path) {
+    protected static HttpCookie createCookie(String name, String value, String domain, String path) {
         HttpCookie cookie = new HttpCookie(name, value);
         cookie.setDomain(domain);
         cookie.setPath(path);
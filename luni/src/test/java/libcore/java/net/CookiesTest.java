@@ -18,13 +18,16 @@ package libcore.java.net;
 
 import java.net.CookieManager;
 import java.net.CookieStore;
+import java.net.HttpCookie;
 import java.net.InMemoryCookieStore;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CookiesTest extends AbstractCookiesTest {
     @Override
@@ -48,4 +51,82 @@ public class CookiesTest extends AbstractCookiesTest {
         List<String> cookieList = cookies.values().iterator().next();
         assertEquals(Collections.singletonList("foo=bar"), cookieList);
     }
+
+    public void testCookieStoreGetMatchesDomainsOfHost() throws Exception {
+        CookieStore cookieStore = createCookieStore();
+        HttpCookie host = createCookie("a", "android", "a.b.example.com", "/");
+        // Netscape cookies match subdomains without a leading period in the domain.
+        HttpCookie parent = createCookie("b", "banana", "b.example.com", "/");
+        parent.setVersion(0);
+        HttpCookie site = createCookie("c", "cupcake", ".EXAMPLE.com", "/");
+        HttpCookie sibling = createCookie("d", "donut", "c.example.com", "/");
+        HttpCookie other = createCookie("e", "eclair", ".example.org", "/");
+        cookieStore.add(new URI("http://a.b.example.com"), host);
+        cookieStore.add(new URI("http://b.example.com"), parent);
+        cookieStore.add(new URI("http://example.com"), site);
+        cookieStore.add(new URI("http://c.example.com"), sibling);
+        cookieStore.add(new URI("http://example.org"), other);
+
+        List<HttpCookie> cookies = cookieStore.get(new URI("https://A.b.example.com/path"));
+        assertEquals(3, cookies.size());
+        assertTrue(cookies.containsAll(Arrays.asList(host, parent, site)));
+        assertEquals(Arrays.asList(site), cookieStore.get(new URI("http://www.example.com")));
+        assertEquals(Arrays.asList(other), cookieStore.get(new URI("http://example.org")));
+    }
+
+    public void testCookieStoreDropsCookiesWhenTheyExpire() throws Exception {
+        CookieStore cookieStore = createCookieStore();
+        URI uri1 = new URI("http://a.com");
+        URI uri2 = new URI("http://b.com");
+        HttpCookie shortLived = createCookie("a", "android", "a.com", "/");
+        shortLived.setMaxAge(1);
+        cookieStore.add(uri1, shortLived);
+        HttpCookie longLived = createCookie("b", "banana", "b.com", "/");
+        longLived.setMaxAge(3600);
+        cookieStore.add(uri2, longLived);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!shortLived.hasExpired()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+        // Adding a cookie drops the expired one, although nothing has looked it up.
+        cookieStore.add(uri2, createCookie("c", "cupcake", "b.com", "/"));
+        assertFalse(cookieStore.remove(uri1, shortLived));
+        assertTrue(cookieStore.remove(uri2, longLived));
+    }
+
+    public void testCookieStoreConcurrentAddAndGet() throws Exception {
+        final CookieStore cookieStore = createCookieStore();
+        final URI uri = new URI("http://a.com");
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1000; i++) {
+                        HttpCookie cookie = createCookie("c" + thread, Integer.toString(i),
+                                ".a.com", "/");
+                        cookieStore.add(uri, cookie);
+                        assertTrue(cookieStore.get(uri).contains(cookie));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        List<HttpCookie> cookies = cookieStore.get(new URI("http://www.a.com"));
+        assertEquals(threads.length, cookies.size());
+        for (HttpCookie cookie : cookies) {
+            assertEquals("999", cookie.getValue());
+        }
+    }
 }
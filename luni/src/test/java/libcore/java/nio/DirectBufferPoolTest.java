@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.DirectBufferPool;
+import junit.framework.TestCase;
+import sun.nio.ch.DirectBuffer;
+
+public final class DirectBufferPoolTest extends TestCase {
+
+    private final DirectBufferPool pool = new DirectBufferPool(1024 * 1024);
+
+    public void testAllocate() {
+        ByteBuffer b = pool.allocate(10000);
+        assertTrue(b.isDirect());
+        assertTrue(b.isAccessible());
+        assertEquals(0, b.position());
+        assertEquals(10000, b.limit());
+        assertEquals(10000, b.capacity());
+        b.putLong(9992, 0x0102030405060708L);
+        assertEquals(0x0102030405060708L, b.getLong(9992));
+        try {
+            b.put(10000, (byte) 0);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testAllocate_negative() {
+        try {
+            pool.allocate(-1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testAllocate_noArray() {
+        // The memory is handed on after release, so it mustn't be reachable through an array.
+        ByteBuffer b = pool.allocate(4096);
+        assertFalse(b.hasArray());
+        try {
+            b.array();
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertFalse(b.duplicate().hasArray());
+        assertFalse(b.slice().hasArray());
+    }
+
+    public void testRelease_reusesMemory() {
+        ByteBuffer b1 = pool.allocate(5000);
+        long address = ((DirectBuffer) b1).address();
+        pool.release(b1);
+        // Any capacity in the same size class gets the same memory back.
+        ByteBuffer b2 = pool.allocate(8192);
+        assertEquals(address, ((DirectBuffer) b2).address());
+        pool.release(b2);
+        ByteBuffer b3 = pool.allocate(16384);
+        assertFalse(address == ((DirectBuffer) b3).address());
+    }
+
+    public void testRelease_makesInaccessible() {
+        ByteBuffer b1 = pool.allocate(4096);
+        ByteBuffer b2 = b1.duplicate();
+        ByteBuffer b3 = b1.slice();
+        pool.release(b1);
+        for (ByteBuffer b : new ByteBuffer[] { b1, b2, b3 }) {
+            assertFalse(b.isAccessible());
+            try {
+                b.get(0);
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                b.put(0, (byte) 1);
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                b.setAccessible(true);
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+        }
+        // Reusing the memory must not revive the old buffers.
+        ByteBuffer b4 = pool.allocate(4096);
+        assertTrue(b4.isAccessible());
+        assertFalse(b1.isAccessible());
+    }
+
+    public void testRelease_twice() {
+        ByteBuffer b = pool.allocate(4096);
+        ByteBuffer duplicate = b.duplicate();
+        pool.release(b);
+        try {
+            pool.release(b);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            pool.release(duplicate);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        // The memory was only handed back once.
+        ByteBuffer b1 = pool.allocate(4096);
+        ByteBuffer b2 = pool.allocate(4096);
+        assertFalse(((DirectBuffer) b1).address() == ((DirectBuffer) b2).address());
+    }
+
+    public void testRelease_notDirect() {
+        try {
+            pool.release(ByteBuffer.allocate(4096));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testRelease_unpooled() {
+        ByteBuffer b = ByteBuffer.allocateDirect(4096);
+        pool.release(b);
+        assertFalse(b.isAccessible());
+    }
+
+    public void testAllocate_largerThanSizeClasses() {
+        ByteBuffer b = pool.allocate(2 * 1024 * 1024);
+        assertEquals(2 * 1024 * 1024, b.capacity());
+        assertTrue(b.hasArray());
+        pool.release(b);
+        assertFalse(b.isAccessible());
+    }
+
+    public void testAllocate_zero() {
+        ByteBuffer b = pool.allocate(0);
+        assertEquals(0, b.capacity());
+        pool.release(b);
+    }
+
+    public void testCompact() {
+        ByteBuffer b = pool.allocate(8);
+        for (int i = 0; i < 8; i++) {
+            b.put((byte) i);
+        }
+        b.position(3);
+        b.limit(7);
+        b.compact();
+        assertEquals(4, b.position());
+        assertEquals(8, b.limit());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 3, b.get(i));
+        }
+    }
+
+    public void testOtherThreads() throws Exception {
+        // Memory released on one thread can be allocated on another once a magazine is full.
+        ByteBuffer[] buffers = new ByteBuffer[64];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.allocate(4096);
+        }
+        Thread releaser = new Thread(() -> {
+            for (ByteBuffer b : buffers) {
+                pool.release(b);
+            }
+        });
+        releaser.start();
+        releaser.join();
+        Thread allocator = new Thread(() -> {
+            for (int i = 0; i < buffers.length; i++) {
+                ByteBuffer b = pool.allocate(4096);
+                b.putInt(0, i);
+                assertEquals(i, b.getInt(0));
+            }
+        });
+        allocator.start();
+        allocator.join();
+    }
+}
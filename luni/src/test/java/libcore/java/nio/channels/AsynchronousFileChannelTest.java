@@ -24,6 +24,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.CompletionHandler;
@@ -37,9 +38,14 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -766,4 +772,59 @@ public class AsynchronousFileChannelTest {
         otherAfc.close();
     }
 
+    @Test
+    public void testRead_manyPending() throws Throwable {
+        byte[] contents = new byte[256 * 1024];
+        new Random(42).nextBytes(contents);
+        File temp = createTemporaryFile(contents);
+        AsynchronousFileChannel afc = AsynchronousFileChannel.open(temp.toPath(),
+                StandardOpenOption.READ);
+
+        // Many more reads than the channel has threads, into both kinds of buffer.
+        List<ByteBuffer> bufs = new ArrayList<>();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ByteBuffer buf = (i % 2 == 0) ? ByteBuffer.allocateDirect(512)
+                    : ByteBuffer.allocate(512);
+            bufs.add(buf);
+            futures.add(afc.read(buf, (i * 512L) % contents.length));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(512, (int) futures.get(i).get(10, TimeUnit.SECONDS));
+            ByteBuffer buf = bufs.get(i);
+            assertEquals(512, buf.position());
+            buf.flip();
+            byte[] actual = new byte[512];
+            buf.get(actual);
+            int offset = (int) ((i * 512L) % contents.length);
+            assertArrayEquals(Arrays.copyOfRange(contents, offset, offset + 512), actual);
+        }
+        afc.close();
+    }
+
+    @Test
+    public void testClose_withPendingReads() throws Throwable {
+        File temp = createTemporaryFile(64 * 1024);
+        AsynchronousFileChannel afc = AsynchronousFileChannel.open(temp.toPath(),
+                StandardOpenOption.READ);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(afc.read(ByteBuffer.allocateDirect(64), i * 64));
+        }
+        afc.close();
+        for (Future<Integer> future : futures) {
+            try {
+                assertEquals(64, (int) future.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AsynchronousCloseException);
+            }
+        }
+        try {
+            afc.read(ByteBuffer.allocate(1), 0).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClosedChannelException);
+        }
+    }
+
 }
@@ -36,6 +36,7 @@ import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemLoopException;
@@ -49,6 +50,7 @@ import java.nio.file.NotDirectoryException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
@@ -899,6 +901,164 @@ public class Files2Test {
         assertEquals(expectedDirSet, dirSet);
     }
 
+    @Test
+    public void test_findParallel() throws IOException {
+        // Directory structure.
+        //        root
+        //        ├── dir1
+        //        │   ├── dir2
+        //        │   │   ├── dir3
+        //        │   │   └── file5
+        //        │   ├── dir4
+        //        │   └── file3
+        //        ├── dir5
+        //        └── file1
+        //
+        Path rootDir = Paths.get(filesSetup.getTestDir(), "root");
+        Path dir1 = Paths.get(filesSetup.getTestDir(), "root/dir1");
+        Path dir2 = Paths.get(filesSetup.getTestDir(), "root/dir1/dir2");
+        Path dir3 = Paths.get(filesSetup.getTestDir(), "root/dir1/dir2/dir3");
+        Path dir4 = Paths.get(filesSetup.getTestDir(), "root/dir1/dir4");
+        Path dir5 = Paths.get(filesSetup.getTestDir(), "root/dir5");
+        Path file1 = Paths.get(filesSetup.getTestDir(), "root/file1");
+        Path file3 = Paths.get(filesSetup.getTestDir(), "root/dir1/file3");
+        Path file5 = Paths.get(filesSetup.getTestDir(), "root/dir1/dir2/file5");
+
+        Files.createDirectories(dir3);
+        Files.createDirectories(dir4);
+        Files.createDirectories(dir5);
+        Files.createFile(file1);
+        Files.createFile(file3);
+        Files.createFile(file5);
+
+        // Same results as the sequential walk, in any order.
+        for (int depth : new int[] { 0, 1, 2, 3, Integer.MAX_VALUE }) {
+            Set<Path> expected = new HashSet<>();
+            try (Stream<Path> stream = Files.walk(rootDir, depth)) {
+                stream.forEach(expected::add);
+            }
+            Set<Path> actual = new HashSet<>();
+            try (Stream<Path> stream = Files.walkParallel(rootDir, depth)) {
+                assertTrue(stream.isParallel());
+                stream.forEach(path -> {
+                    synchronized (actual) {
+                        assertTrue(actual.add(path));
+                    }
+                });
+            }
+            assertEquals(expected, actual);
+        }
+
+        // The matcher sees the same attributes as a stat would.
+        Set<Path> dirs = new HashSet<>();
+        try (Stream<Path> stream = Files.findParallel(rootDir, Integer.MAX_VALUE,
+                (path, attrs) -> attrs.isDirectory() == Files.isDirectory(path)
+                        && attrs.isRegularFile() == Files.isRegularFile(path)
+                        && attrs.isDirectory())) {
+            stream.forEach(path -> {
+                synchronized (dirs) {
+                    dirs.add(path);
+                }
+            });
+        }
+        assertEquals(new HashSet<>(Arrays.asList(rootDir, dir1, dir2, dir3, dir4, dir5)), dirs);
+
+        try {
+            Files.walkParallel(rootDir, -1);
+            fail();
+        } catch (IllegalArgumentException expected) {}
+
+        try {
+            Files.walkParallel(Paths.get(filesSetup.getTestDir(), "nonexistent"), 1);
+            fail();
+        } catch (NoSuchFileException expected) {}
+    }
+
+    @Test
+    public void test_newDirectoryStream_manyEntries() throws IOException {
+        // Enough long names to need several reads from the directory.
+        Path dir = Paths.get(filesSetup.getTestDir(), "dir");
+        Files.createDirectory(dir);
+        char[] padding = new char[200];
+        Arrays.fill(padding, 'x');
+        Set<Path> expected = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(Files.createFile(dir.resolve(i + new String(padding))));
+        }
+
+        Set<Path> actual = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                assertTrue(actual.add(path));
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_newDirectoryStream_cachedAttributes() throws IOException {
+        Path dir = Paths.get(filesSetup.getTestDir(), "dir");
+        Files.createDirectory(dir);
+        Files.createDirectory(dir.resolve("subdir"));
+        Files.write(dir.resolve("file"), new byte[42]);
+        Files.createSymbolicLink(dir.resolve("link"), dir.resolve("file"));
+
+        // Files.find hands the cached attributes of directory entries to the matcher.
+        Map<Path, BasicFileAttributes> found = new HashMap<>();
+        try (Stream<Path> stream = Files.find(dir, 1, (path, attrs) -> {
+            found.put(path, attrs);
+            return true;
+        })) {
+            assertEquals(4, stream.count());
+        }
+
+        BasicFileAttributes subdir = found.get(dir.resolve("subdir"));
+        assertTrue(subdir.isDirectory());
+        assertFalse(subdir.isRegularFile());
+        assertFalse(subdir.isSymbolicLink());
+
+        BasicFileAttributes file = found.get(dir.resolve("file"));
+        assertTrue(file.isRegularFile());
+        assertEquals(42, file.size());
+        assertEquals(Files.getLastModifiedTime(dir.resolve("file")), file.lastModifiedTime());
+
+        BasicFileAttributes link = found.get(dir.resolve("link"));
+        assertTrue(link.isSymbolicLink());
+        assertFalse(link.isRegularFile());
+    }
+
+    @Test
+    public void test_walkFileTree_entryRemovedDuringWalk() throws IOException {
+        Path dir = Paths.get(filesSetup.getTestDir(), "dir");
+        Files.createDirectory(dir);
+        Path file1 = Files.createFile(dir.resolve("file1"));
+        Path file2 = Files.createFile(dir.resolve("file2"));
+
+        // Both names are read from the directory before either is visited, so
+        // whichever is visited second no longer exists.
+        List<Path> visited = new ArrayList<>();
+        List<IOException> failures = new ArrayList<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                    throws IOException {
+                visited.add(file);
+                assertEquals(0, attrs.size());
+                Files.delete(file.equals(file1) ? file2 : file1);
+                return CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                failures.add(e);
+                return CONTINUE;
+            }
+        });
+        assertEquals(1, visited.size());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof NoSuchFileException);
+    }
+
     @Test
     public void test_find_NPE() throws IOException {
         Path rootDir = Paths.get(filesSetup.getTestDir(), "root");
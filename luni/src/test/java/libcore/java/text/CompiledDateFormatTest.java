@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.text;
+
+import java.text.CompiledDateFormat;
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CompiledDateFormatTest extends junit.framework.TestCase {
+
+    private static final String[] PATTERNS = {
+            "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+            "yy/M/d h:mm a",
+            "EEEE, MMMM d, y G 'at' kk:mm:ss.S",
+            "D F u K:m:s.SS 'x''y' ''",
+            "yyyyy.MMMMM.dd GGG hh 'o''clock' a, zzzz",
+            "LLLL LLL cccc ccc EEEEE Z ZZZZ ZZZZZ X XX",
+            "MMM d, ''yy SSSS z",
+    };
+
+    private static final String[] ZONES = {
+            "UTC", "America/Los_Angeles", "Asia/Kolkata", "Australia/Lord_Howe",
+            "America/St_Johns", "Europe/London",
+    };
+
+    private static final Locale[] LOCALES = {
+            Locale.US, Locale.FRANCE, Locale.JAPAN, new Locale("ru", "RU"),
+    };
+
+    /** Midnight, 1 January 1583 UTC, after the default Gregorian cutover. */
+    private static final long MIN_MILLIS = -12212553600000L;
+
+    /** Midnight, 1 January 9999 UTC. */
+    private static final long MAX_MILLIS = 253370764800000L;
+
+    public void testFormat_sameAsSimpleDateFormat() {
+        Random random = new Random(0);
+        for (Locale locale : LOCALES) {
+            for (String pattern : PATTERNS) {
+                for (String zone : ZONES) {
+                    SimpleDateFormat sdf = new SimpleDateFormat(pattern, locale);
+                    sdf.setTimeZone(TimeZone.getTimeZone(zone));
+                    CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+                    for (int i = 0; i < 200; i++) {
+                        long millis = MIN_MILLIS
+                                + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+                        assertFormat(sdf, compiled, millis);
+                    }
+                    assertFormat(sdf, compiled, 0);
+                    assertFormat(sdf, compiled, -1);
+                    assertFormat(sdf, compiled, System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    public void testFormat_aroundTransitions() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS z zzzz Z",
+                Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        // 2000-04-02 10:00 UTC and 2000-10-29 09:00 UTC, when daylight time started and ended.
+        for (long transition : new long[] { 954669600000L, 972810000000L }) {
+            for (long delta = -2000; delta <= 2000; delta += 250) {
+                assertFormat(sdf, compiled, transition + delta);
+            }
+        }
+    }
+
+    public void testFormat_outsideFastRange() {
+        SimpleDateFormat sdf = new SimpleDateFormat("EEE, d MMM yyyy G HH:mm:ss D", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        // Around the Gregorian cutover, 15 October 1582, in the Julian calendar, BC, and after
+        // the year 9999.
+        final long cutover = -12219292800000L;
+        for (long millis = cutover - 3 * 86400000L; millis < cutover + 3 * 86400000L;
+                millis += 3600000L) {
+            assertFormat(sdf, compiled, millis);
+        }
+        assertFormat(sdf, compiled, -12212553600000L - 1);
+        assertFormat(sdf, compiled, -62135596800000L - 1);
+        assertFormat(sdf, compiled, -100000000000000L);
+        assertFormat(sdf, compiled, 253402300800000L);
+        assertFormat(sdf, compiled, 300000000000000L);
+    }
+
+    public void testFormat_weekFields() {
+        SimpleDateFormat sdf = new SimpleDateFormat("YYYY-'W'ww-u W", Locale.UK);
+        sdf.setTimeZone(TimeZone.getTimeZone("Europe/London"));
+        CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        for (long millis = 1577577600000L; millis < 1578182400000L; millis += 43200000L) {
+            assertFormat(sdf, compiled, millis);
+        }
+    }
+
+    public void testFormat_nonAsciiDigits() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss",
+                Locale.forLanguageTag("ar-EG-u-nu-arab"));
+        sdf.setTimeZone(TimeZone.getTimeZone("Africa/Cairo"));
+        assertFormat(sdf, CompiledDateFormat.compile(sdf), 1000000000000L);
+    }
+
+    public void testFormat_zoneStrings() {
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(Locale.US);
+        symbols.setZoneStrings(new String[][] {
+                { "America/Los_Angeles", "Pacific", "PT", "Pacific Summer", "PS" },
+        });
+        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm z zzzz", symbols);
+        sdf.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        assertEquals("04:00 PT Pacific", compiled.format(946728000000L));
+        assertEquals("05:00 PS Pacific Summer", compiled.format(962280000000L));
+        assertFormat(sdf, compiled, 946728000000L);
+        assertFormat(sdf, compiled, 962280000000L);
+    }
+
+    public void testFormat_appendsToBuilder() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        StringBuilder sb = new StringBuilder("date: ");
+        assertSame(sb, CompiledDateFormat.compile(sdf).format(0, sb));
+        assertEquals("date: 1970-01-01", sb.toString());
+    }
+
+    public void testCompile_laterChangesIgnored() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        sdf.setTimeZone(utc);
+        CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        sdf.applyPattern("HH:mm");
+        sdf.setTimeZone(TimeZone.getTimeZone("Asia/Tokyo"));
+        utc.setRawOffset(3600000);
+        assertEquals("1970-01-01 00:00", compiled.format(0));
+    }
+
+    public void testFormat_concurrent() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss.SSS zzz", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        final CompiledDateFormat compiled = CompiledDateFormat.compile(sdf);
+        final long[] millis = new long[1000];
+        final String[] expected = new String[millis.length];
+        Random random = new Random(0);
+        for (int i = 0; i < millis.length; i++) {
+            // Include some dates that are formatted by a copy of the SimpleDateFormat.
+            millis[i] = i % 10 == 0 ? -20000000000000L + i : random.nextLong() % MAX_MILLIS;
+            expected[i] = sdf.format(new Date(millis[i]));
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int first = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 20; round++) {
+                        for (int i = first; i < millis.length; i++) {
+                            assertEquals(expected[i], compiled.format(millis[i]));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private static void assertFormat(SimpleDateFormat sdf, CompiledDateFormat compiled,
+            long millis) {
+        assertEquals(sdf.toPattern() + " " + sdf.getTimeZone().getID() + " " + millis,
+                sdf.format(new Date(millis)), compiled.format(millis));
+    }
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
@@ -1050,6 +1051,130 @@ public class Base64Test extends TestCase {
     }
 
     /** Decodes a string, returning the resulting bytes interpreted as an ASCII String. */
+    public void testEncodeDecode_buffers() {
+        Encoder[] encoders = {
+                Base64.getEncoder(), Base64.getUrlEncoder(), Base64.getMimeEncoder(),
+                Base64.getMimeEncoder(8, new byte[] { '!' }), Base64.getEncoder().withoutPadding(),
+        };
+        Decoder[] decoders = {
+                Base64.getDecoder(), Base64.getUrlDecoder(), Base64.getMimeDecoder(),
+                Base64.getMimeDecoder(), Base64.getDecoder(),
+        };
+        Random random = new Random(0);
+        for (int length = 0; length < 200; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            for (int i = 0; i < encoders.length; i++) {
+                byte[] expected = encoders[i].encode(data);
+                for (boolean direct : new boolean[] { false, true }) {
+                    ByteOrder order = random.nextBoolean()
+                            ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+                    ByteBuffer src = allocate(length + 2, direct, order);
+                    src.position(2);
+                    src.put(data);
+                    src.position(2);
+                    ByteBuffer encoded = allocate(expected.length + 1, direct, order);
+                    encoded.position(1);
+                    assertEquals(expected.length, encoders[i].encode(src, encoded));
+                    assertFalse(src.hasRemaining());
+                    assertFalse(encoded.hasRemaining());
+                    encoded.position(1);
+                    byte[] actual = new byte[expected.length];
+                    encoded.get(actual);
+                    assertArrayEquals(expected, actual);
+
+                    encoded.position(1);
+                    ByteBuffer decoded = allocate(length, direct, order);
+                    assertEquals(length, decoders[i].decode(encoded, decoded));
+                    assertFalse(encoded.hasRemaining());
+                    decoded.flip();
+                    byte[] roundTripped = new byte[length];
+                    decoded.get(roundTripped);
+                    assertArrayEquals(data, roundTripped);
+                }
+            }
+        }
+    }
+
+    public void testEncode_bufferTooSmall() {
+        ByteBuffer src = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        ByteBuffer dst = ByteBuffer.allocateDirect(7);
+        try {
+            Base64.getEncoder().encode(src, dst);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, src.position());
+        assertEquals(0, dst.position());
+    }
+
+    public void testDecode_bufferInvalid() {
+        ByteBuffer src = ByteBuffer.allocateDirect(18);
+        src.put("QUJDREVG\r\nR0hJSks=".getBytes(US_ASCII));
+        src.flip();
+        try {
+            Base64.getDecoder().decode(src, ByteBuffer.allocate(12));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, src.position());
+
+        src.position(0);
+        ByteBuffer dst = ByteBuffer.allocate(12);
+        assertEquals(11, Base64.getMimeDecoder().decode(src, dst));
+        assertEquals("ABCDEFGHIJK", new String(dst.array(), 0, 11, US_ASCII));
+    }
+
+    public void testEncodeDecode_arrayRanges() {
+        byte[] data = "Hello, world".getBytes(US_ASCII);
+        byte[] encoded = new byte[20];
+        assertEquals(8, Base64.getEncoder().encode(data, 7, 5, encoded, 3));
+        assertEquals("d29ybGQ=", new String(encoded, 3, 8, US_ASCII));
+
+        byte[] decoded = new byte[8];
+        assertEquals(5, Base64.getDecoder().decode(encoded, 3, 8, decoded, 2));
+        assertEquals("world", new String(decoded, 2, 5, US_ASCII));
+
+        try {
+            Base64.getEncoder().encode(data, 0, data.length, encoded, 5);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            Base64.getDecoder().decode(encoded, 3, 8, decoded, 4);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            Base64.getEncoder().encode(data, 8, 5, encoded, 0);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    /** Pieces of a multiple of 3 bytes encode to pieces of the whole encoding. */
+    public void testEncode_buffersInPieces() {
+        byte[] data = new byte[1000];
+        new Random(0).nextBytes(data);
+        ByteBuffer src = ByteBuffer.wrap(data);
+        ByteBuffer dst = ByteBuffer.allocateDirect(2000);
+        while (src.hasRemaining()) {
+            ByteBuffer piece = src.duplicate();
+            piece.limit(Math.min(src.position() + 99, src.limit()));
+            Base64.getEncoder().encode(piece, dst);
+            src.position(piece.position());
+        }
+        dst.flip();
+        byte[] actual = new byte[dst.remaining()];
+        dst.get(actual);
+        assertArrayEquals(Base64.getEncoder().encode(data), actual);
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct, ByteOrder order) {
+        return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity))
+                .order(order);
+    }
+
     private static String decodeToAscii(Decoder decoder, String encoded) throws Exception {
         byte[] plain = decoder.decode(encoded);
         return new String(plain, US_ASCII);
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PropertiesTest extends junit.framework.TestCase {
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> newProperties() {
+        return (Map<K, V>) (Map<?, ?>) new Properties();
+    }
+
+    public void test_getOrDefault() {
+        MapDefaultMethodTester.test_getOrDefault(newProperties(), false /*doesNotAcceptNullKey*/,
+                false /*doesNotAcceptNullValue*/, true /*getAcceptsAnyObject*/);
+    }
+
+    public void test_forEach() {
+        MapDefaultMethodTester.test_forEach(newProperties());
+    }
+
+    public void test_putIfAbsent() {
+        MapDefaultMethodTester.test_putIfAbsent(newProperties(), false /*doesNotAcceptNullKey*/,
+                false /*doesNotAcceptNullValue*/);
+    }
+
+    public void test_remove() {
+        MapDefaultMethodTester.test_remove(newProperties(), false /*doesNotAcceptNullKey*/,
+                false /*doesNotAcceptNullValue*/);
+    }
+
+    public void test_replace$K$V$V() {
+        MapDefaultMethodTester.test_replace$K$V$V(newProperties(),
+                false /*doesNotAcceptNullKey*/, false /*doesNotAcceptNullValue*/);
+    }
+
+    public void test_replace$K$V() {
+        MapDefaultMethodTester.test_replace$K$V(newProperties(), false /*doesNotAcceptNullKey*/,
+                false /*doesNotAcceptNullValue*/);
+    }
+
+    public void test_computeIfAbsent() {
+        MapDefaultMethodTester.test_computeIfAbsent(newProperties(),
+                false /*doesNotAcceptNullKey*/, false /*doesNotAcceptNullValue*/);
+    }
+
+    public void test_computeIfPresent() {
+        MapDefaultMethodTester.test_computeIfPresent(newProperties(),
+                false /*doesNotAcceptNullKey*/);
+    }
+
+    public void test_compute() {
+        MapDefaultMethodTester.test_compute(newProperties(), false /*doesNotAcceptNullKey*/);
+    }
+
+    public void test_merge() {
+        MapDefaultMethodTester.test_merge(newProperties(), false /*doesNotAcceptNullKey*/);
+    }
+
+    public void test_nullKeysAndValues() {
+        Properties p = new Properties();
+        try {
+            p.put(null, "value");
+            fail();
+        } catch (NullPointerException expected) {}
+        try {
+            p.put("key", null);
+            fail();
+        } catch (NullPointerException expected) {}
+    }
+
+    public void test_entrySet_add() {
+        Properties p = new Properties();
+        p.setProperty("key", "value");
+        try {
+            p.entrySet().add(new AbstractMap.SimpleEntry<>("other", "value"));
+            fail();
+        } catch (UnsupportedOperationException expected) {}
+        try {
+            p.entrySet().addAll(Collections.singleton(
+                    new AbstractMap.SimpleEntry<>("other", "value")));
+            fail();
+        } catch (UnsupportedOperationException expected) {}
+        assertEquals(1, p.size());
+    }
+
+    public void test_keysAndElements() {
+        Properties p = new Properties();
+        p.setProperty("a", "1");
+        p.setProperty("b", "2");
+
+        Set<Object> keys = new HashSet<>();
+        for (Enumeration<Object> e = p.keys(); e.hasMoreElements(); ) {
+            keys.add(e.nextElement());
+        }
+        assertEquals(p.keySet(), keys);
+
+        Set<Object> values = new HashSet<>();
+        for (Enumeration<Object> e = p.elements(); e.hasMoreElements(); ) {
+            values.add(e.nextElement());
+        }
+        assertEquals(new HashSet<>(p.values()), values);
+        assertTrue(p.contains("1"));
+        assertTrue(p.containsValue("2"));
+        assertFalse(p.contains("a"));
+    }
+
+    public void test_equalsAndHashCode() {
+        Properties p = new Properties();
+        p.setProperty("a", "1");
+        Hashtable<Object, Object> h = new Hashtable<>();
+        h.put("a", "1");
+        assertEquals(h, p);
+        assertEquals(p, h);
+        assertEquals(h.hashCode(), p.hashCode());
+        assertEquals(h.toString(), p.toString());
+    }
+
+    public void test_clone() {
+        Properties defaults = new Properties();
+        defaults.setProperty("default", "d");
+        Properties p = new Properties(defaults);
+        p.setProperty("a", "1");
+
+        Properties clone = (Properties) p.clone();
+        clone.setProperty("b", "2");
+        p.remove("a");
+
+        assertEquals("1", clone.getProperty("a"));
+        assertEquals("d", clone.getProperty("default"));
+        assertNull(p.getProperty("b"));
+        assertEquals(2, clone.size());
+    }
+
+    public void test_serialization() throws Exception {
+        Properties defaults = new Properties();
+        defaults.setProperty("default", "d");
+        Properties p = new Properties(defaults);
+        for (int i = 0; i < 100; i++) {
+            p.setProperty("key" + i, "value" + i);
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(p);
+        }
+        Properties copy = (Properties) new ObjectInputStream(
+                new ByteArrayInputStream(bos.toByteArray())).readObject();
+
+        assertEquals(p, copy);
+        assertEquals("d", copy.getProperty("default"));
+        copy.setProperty("new", "value");
+        assertEquals("value", copy.getProperty("new"));
+    }
+
+    public void test_concurrentReadsAndWrites() throws Exception {
+        Properties p = new Properties();
+        for (int i = 0; i < 100; i++) {
+            p.setProperty("key" + i, "value" + i);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 10_000; i++) {
+                        String key = "key" + (i % 100);
+                        if (i % 10 == id) {
+                            p.setProperty(key, "value" + (i % 100));
+                        } else {
+                            assertEquals("value" + (i % 100), p.getProperty(key));
+                        }
+                        if (i % 1000 == 0) {
+                            assertEquals(100, p.stringPropertyNames().size());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+}
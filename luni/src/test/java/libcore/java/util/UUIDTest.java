@@ -18,6 +18,7 @@ package libcore.java.util;
 
 import junit.framework.TestCase;
 
+import java.util.HashSet;
 import java.util.UUID;
 
 // There are more tests in the harmony suite:
@@ -80,4 +81,22 @@ public class UUIDTest extends TestCase {
       fail("0-0-0-0-0- is invalid UUID, IAE should be thrown");
     } catch (IllegalArgumentException expected) { }
   }
+
+  public void testToString() {
+    assertEquals("00000000-0000-0000-0000-000000000000", new UUID(0L, 0L).toString());
+    assertEquals("ffffffff-ffff-ffff-ffff-ffffffffffff", new UUID(-1L, -1L).toString());
+    assertEquals("01234567-89ab-cdef-fedc-ba9876543210",
+        new UUID(0x0123456789abcdefL, 0xfedcba9876543210L).toString());
+  }
+
+  public void testRandomUUID() {
+    var seen = new HashSet<UUID>();
+    for (int i = 0; i < 1000; i++) {
+      UUID uuid = UUID.randomUUID();
+      assertEquals(4, uuid.version());
+      assertEquals(2, uuid.variant());
+      assertEquals(uuid, UUID.fromString(uuid.toString()));
+      assertTrue(seen.add(uuid));
+    }
+  }
 }
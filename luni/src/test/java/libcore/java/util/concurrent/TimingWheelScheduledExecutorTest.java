@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.concurrent;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimingWheelScheduledExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelScheduledExecutorTest extends TestCase {
+
+    private TimingWheelScheduledExecutor executor;
+
+    @Override
+    protected void setUp() {
+        executor = new TimingWheelScheduledExecutor(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    public void testSchedule_neverRunsEarly() throws Exception {
+        Random random = new Random(42);
+        AtomicInteger early = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long delayMillis = random.nextInt(300);
+            long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            futures.add(executor.schedule(() -> {
+                if (System.nanoTime() < due) {
+                    early.incrementAndGet();
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, early.get());
+    }
+
+    public void testSchedule_delaysSpanningSeveralLevels() throws Exception {
+        // 10us ticks put these delays in the first three levels of the wheel.
+        TimingWheelScheduledExecutor fine =
+                new TimingWheelScheduledExecutor(10, TimeUnit.MICROSECONDS);
+        try {
+            long start = System.nanoTime();
+            long[] delaysMicros = { 1, 700, 2600, 70_000, 700_000 };
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long delay : delaysMicros) {
+                futures.add(fine.schedule(System::nanoTime, delay, TimeUnit.MICROSECONDS));
+            }
+            for (int i = 0; i < delaysMicros.length; i++) {
+                long ranAfter = futures.get(i).get(5, TimeUnit.SECONDS) - start;
+                assertTrue(ranAfter >= TimeUnit.MICROSECONDS.toNanos(delaysMicros[i]));
+            }
+        } finally {
+            fine.shutdownNow();
+        }
+    }
+
+    public void testCancel() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<ScheduledFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            futures.add(executor.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < futures.size(); i += 2) {
+            assertTrue(futures.get(i).cancel(false));
+        }
+        executor.schedule(() -> {}, 200, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+        assertEquals(5_000, runs.get());
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i % 2 == 0, futures.get(i).isCancelled());
+            assertTrue(futures.get(i).isDone());
+        }
+    }
+
+    public void testScheduleAtFixedRate() throws Exception {
+        CountDownLatch latch = new CountDownLatch(5);
+        ScheduledFuture<?> future =
+                executor.scheduleAtFixedRate(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(false));
+    }
+
+    public void testScheduleWithFixedDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(5);
+        ScheduledFuture<?> future =
+                executor.scheduleWithFixedDelay(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(false));
+    }
+
+    public void testTaskExecutor() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor(r -> new Thread(r, "runner"));
+        TimingWheelScheduledExecutor delegating = new TimingWheelScheduledExecutor(
+                1, TimeUnit.MILLISECONDS, r -> new Thread(r, "timer"), pool);
+        try {
+            Future<String> name = delegating.schedule(
+                    () -> Thread.currentThread().getName(), 1, TimeUnit.MILLISECONDS);
+            assertEquals("runner", name.get(5, TimeUnit.SECONDS));
+        } finally {
+            delegating.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    public void testShutdown_runsDelayedTasksAndCancelsPeriodicTasks() throws Exception {
+        Future<String> delayed = executor.schedule(() -> "done", 20, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> periodic =
+                executor.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        try {
+            executor.execute(() -> {});
+            fail();
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals("done", delayed.get(5, TimeUnit.SECONDS));
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(periodic.isCancelled());
+    }
+
+    public void testShutdownNow_returnsPendingTasks() throws Exception {
+        executor.schedule(() -> {}, 1, TimeUnit.HOURS);
+        executor.schedule(() -> {}, 2, TimeUnit.HOURS).cancel(false);
+        assertEquals(1, executor.shutdownNow().size());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    public void testShutdown_beforeAnyTask() {
+        executor.shutdown();
+        assertTrue(executor.isTerminated());
+    }
+}
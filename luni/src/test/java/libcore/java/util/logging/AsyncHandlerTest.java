@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.AsyncHandler;
+import java.util.logging.AsyncHandler.OverflowPolicy;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import junit.framework.TestCase;
+
+public class AsyncHandlerTest extends TestCase {
+
+    private final RecordingHandler target = new RecordingHandler();
+    private final Logger logger = Logger.getAnonymousLogger();
+
+    @Override protected void setUp() throws Exception {
+        super.setUp();
+        logger.setUseParentHandlers(false);
+    }
+
+    public void testPublishesInOrder() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        for (int i = 0; i < 1000; i++) {
+            logger.log(Level.INFO, "message {0}", i);
+        }
+        handler.flush();
+        assertEquals(1000, target.records.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, target.records.get(i).getParameters()[0]);
+        }
+        assertEquals(1, target.flushes);
+        assertEquals(0, handler.getDroppedCount());
+        handler.close();
+        assertTrue(target.closed);
+    }
+
+    public void testInfersCallerOnLoggingThread() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        logger.info("hello");
+        handler.close();
+        LogRecord record = target.records.get(0);
+        assertEquals(AsyncHandlerTest.class.getName(), record.getSourceClassName());
+        assertEquals("testInfersCallerOnLoggingThread", record.getSourceMethodName());
+    }
+
+    public void testCapturesMutableParameters() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        StringBuilder mutable = new StringBuilder("before");
+        Object[] parameters = { mutable, 42, TimeUnit.SECONDS };
+        logger.log(Level.INFO, "{0} {1} {2}", parameters);
+        mutable.append(" and after");
+        handler.close();
+        // The message was formatted before the parameter changed.
+        LogRecord record = target.records.get(0);
+        assertEquals("before 42 SECONDS", record.getMessage());
+        assertNull(record.getParameters());
+        // The caller's array is left alone.
+        assertSame(mutable, parameters[0]);
+    }
+
+    public void testKeepsImmutableParameters() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        Date date = new Date(0);
+        Object[] parameters = { 1234, date, TimeUnit.SECONDS };
+        logger.log(Level.INFO, "{0,number,#} {1,date} {2}", parameters);
+        date.setTime(1000000000000L);
+        handler.close();
+        LogRecord record = target.records.get(0);
+        assertEquals("{0,number,#} {1,date} {2}", record.getMessage());
+        Object[] captured = record.getParameters();
+        assertSame(parameters[0], captured[0]);
+        assertEquals(new Date(0), captured[1]);
+        assertSame(parameters[2], captured[2]);
+    }
+
+    public void testFormatsMutableParametersLikeTarget() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        AtomicInteger count = new AtomicInteger(1234567);
+        logger.log(Level.INFO, "{0,number,#}", count);
+        count.set(0);
+        handler.close();
+        // A String parameter would not format as a number.
+        assertEquals("1234567", target.records.get(0).getMessage());
+    }
+
+    public void testLeavesCallersRecordAlone() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        RecordingHandler other = new RecordingHandler();
+        logger.addHandler(handler);
+        logger.addHandler(other);
+        StringBuilder mutable = new StringBuilder("mutable");
+        Date date = new Date(0);
+        logger.log(Level.INFO, "{0} {1}", mutable);
+        logger.log(Level.INFO, "{0,date}", date);
+        handler.close();
+        // The logger's other handlers see the records as they were logged.
+        LogRecord first = other.records.get(0);
+        assertEquals("{0} {1}", first.getMessage());
+        assertSame(mutable, first.getParameters()[0]);
+        LogRecord second = other.records.get(1);
+        assertSame(date, second.getParameters()[0]);
+        // The target is given copies.
+        assertNotSame(first, target.records.get(0));
+        assertEquals("mutable {1}", target.records.get(0).getMessage());
+        assertEquals(first.getSequenceNumber(), target.records.get(0).getSequenceNumber());
+        assertNotSame(date, target.records.get(1).getParameters()[0]);
+        assertEquals(AsyncHandlerTest.class.getName(),
+                target.records.get(1).getSourceClassName());
+    }
+
+    public void testPublishesDirectlyOnceConsumerDies() {
+        // Don't let the consumer's death kill the test process.
+        Thread.UncaughtExceptionHandler defaultHandler =
+                Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, throwable) -> { });
+        try {
+            target.failWith = new StackOverflowError();
+            AsyncHandler handler = new AsyncHandler(target, 4, OverflowPolicy.BLOCK);
+            logger.addHandler(handler);
+            logger.info("kills the consumer");
+            // With the consumer gone, BLOCK must neither wait forever nor lose new records.
+            for (int i = 0; i < 100; i++) {
+                logger.info("message");
+            }
+            handler.close();
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+        }
+        // Records still in the buffer when the consumer died are lost.
+        assertTrue(target.records.size() >= 100 - 4);
+        assertEquals("message", target.records.get(target.records.size() - 1).getMessage());
+    }
+
+    public void testSkipsRecordsBelowLevel() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        handler.setLevel(Level.WARNING);
+        logger.addHandler(handler);
+        logger.info("ignored");
+        logger.warning("published");
+        handler.close();
+        assertEquals(1, target.records.size());
+        assertEquals("published", target.records.get(0).getMessage());
+    }
+
+    public void testDropWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        target.blockUntil = release;
+        AsyncHandler handler = new AsyncHandler(target, 4, OverflowPolicy.DROP);
+        logger.addHandler(handler);
+        for (int i = 0; i < 100; i++) {
+            logger.info("message");
+        }
+        release.countDown();
+        handler.close();
+        // The background thread holds one record while it is blocked.
+        assertTrue(target.records.size() <= 5);
+        assertEquals(100, target.records.size() + handler.getDroppedCount());
+    }
+
+    public void testSampleWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        target.blockUntil = release;
+        AsyncHandler handler = new AsyncHandler(target, 64, OverflowPolicy.SAMPLE);
+        logger.addHandler(handler);
+        for (int i = 0; i < 1000; i++) {
+            logger.info("message");
+        }
+        release.countDown();
+        handler.close();
+        assertTrue(target.records.size() <= 65);
+        // Past the half-full mark every tenth record still gets in.
+        assertTrue(target.records.size() > 33);
+        assertEquals(1000, target.records.size() + handler.getDroppedCount());
+    }
+
+    public void testCloseDropsLaterRecords() {
+        AsyncHandler handler = new AsyncHandler(target, 16, OverflowPolicy.BLOCK);
+        logger.addHandler(handler);
+        logger.info("before");
+        handler.close();
+        logger.info("after");
+        assertEquals(1, target.records.size());
+    }
+
+    private static class RecordingHandler extends Handler {
+        final List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+        volatile CountDownLatch blockUntil;
+        // Thrown by the first publish() only.
+        volatile Error failWith;
+        volatile int flushes;
+        volatile boolean closed;
+
+        @Override public void publish(LogRecord record) {
+            Error error = failWith;
+            if (error != null) {
+                failWith = null;
+                throw error;
+            }
+            CountDownLatch latch = blockUntil;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            records.add(record);
+        }
+
+        @Override public void flush() {
+            flushes++;
+        }
+
+        @Override public void close() {
+            closed = true;
+        }
+    }
+}
@@ -16,7 +16,13 @@
 
 package libcore.java.util.regex;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import java.util.regex.Pattern;
 import org.junit.Test;
@@ -36,4 +42,82 @@ public class PatternTest {
         assertThrows(IllegalArgumentException.class,
                 () -> Pattern.compile("a", Pattern.UNICODE_CHARACTER_CLASS));
     }
+
+    @Test
+    public void testSplit_literalWithFlags() {
+        assertArrayEquals(new String[] { "x", "y" },
+                Pattern.compile("ab", Pattern.CASE_INSENSITIVE).split("xABy"));
+        assertArrayEquals(new String[] { "x", "y" },
+                Pattern.compile("a b", Pattern.COMMENTS).split("xaby"));
+        assertArrayEquals(new String[] { "x", "y" },
+                Pattern.compile("\\.", Pattern.LITERAL).split("x\\.y"));
+    }
+
+    @Test
+    public void testMatchesAll() {
+        Pattern p = Pattern.compile("a+b");
+        boolean[] expected = { true, false, true, false };
+        boolean[] actual = p.matchesAll(new CharSequence[] { "ab", "ba", "aaab", "" });
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+        assertEquals(0, p.matchesAll(new CharSequence[0]).length);
+        assertThrows(IllegalArgumentException.class,
+                () -> p.matchesAll(new CharSequence[] { "ab", null }));
+    }
+
+    @Test
+    public void testWithMatcher_reusesMatcher() {
+        Pattern p = Pattern.compile("(a)(b)?");
+        // The matcher must not escape the callback, so compare identities instead.
+        int first = p.withMatcher("xa", m -> {
+            assertTrue(m.find());
+            assertEquals(1, m.start());
+            m.region(1, 2);
+            m.useTransparentBounds(true);
+            m.useAnchoringBounds(false);
+            return System.identityHashCode(m);
+        });
+        int second = p.withMatcher("ab", m -> {
+            // A reused matcher starts out like a new one.
+            assertFalse(m.hasTransparentBounds());
+            assertTrue(m.hasAnchoringBounds());
+            assertEquals(0, m.regionStart());
+            assertEquals(2, m.regionEnd());
+            assertTrue(m.matches());
+            assertEquals("b", m.group(2));
+            return System.identityHashCode(m);
+        });
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testWithMatcher_nested() {
+        Pattern p = Pattern.compile("a");
+        p.withMatcher("a", outer -> {
+            p.withMatcher("b", inner -> {
+                assertNotSame(outer, inner);
+                assertFalse(inner.matches());
+                return null;
+            });
+            assertTrue(outer.matches());
+            return null;
+        });
+    }
+
+    @Test
+    public void testWithMatcher_usePattern() {
+        Pattern p = Pattern.compile("a");
+        p.withMatcher("b", m -> {
+            m.usePattern(Pattern.compile("b"));
+            return null;
+        });
+        p.withMatcher("a", m -> {
+            // The matcher that switched patterns was not reused.
+            assertSame(p, m.pattern());
+            assertTrue(m.matches());
+            return null;
+        });
+    }
 }
@@ -27,7 +27,12 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -122,4 +127,78 @@ public final class ZipFileTest extends AbstractZipFileTest {
             }
         }
     }
+
+    public void testGetEntry_centralDirectoryIndex() throws Exception {
+        File f = createTemporaryZipFile();
+        List<String> names = new ArrayList<>();
+        try (ZipOutputStream out = createZipOutputStream(
+                new BufferedOutputStream(new FileOutputStream(f)))) {
+            for (int i = 0; i < 1000; i++) {
+                String name = (i % 7 == 0) ? "dir" + i + "/"
+                        : (i % 11 == 0) ? "\u00fcn\u00efc/" + i
+                        : "a/b/C" + i + ".class";
+                names.add(name);
+                ZipEntry entry = new ZipEntry(name);
+                if (i % 5 == 0) {
+                    entry.setComment("comment " + i);
+                }
+                if (i % 13 == 0) {
+                    entry.setExtra(new byte[] { (byte) 0xfe, (byte) 0xca, 2, 0, 1, 2 });
+                }
+                byte[] data = name.endsWith("/")
+                        ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+                if (i % 3 == 0) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(data.length);
+                    entry.setCrc(crc.getValue());
+                }
+                out.putNextEntry(entry);
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+
+        List<String> queries = new ArrayList<>(names);
+        for (String name : names) {
+            // Directories are also found without the trailing slash.
+            queries.add(name.endsWith("/") ? name.substring(0, name.length() - 1) : name + "x");
+        }
+        queries.addAll(Arrays.asList("", "/", "a/", "a/b/"));
+
+        String property = "libcore.zip.useCentralDirectoryIndex";
+        try (ZipFile expected = new ZipFile(f)) {
+            System.setProperty(property, "true");
+            try (ZipFile indexed = new ZipFile(f)) {
+                for (String query : queries) {
+                    assertEntryEquals(query, expected.getEntry(query), indexed.getEntry(query));
+                }
+                ZipEntry entry = indexed.getEntry("a/b/C1.class");
+                try (InputStream in = indexed.getInputStream(entry)) {
+                    byte[] data = new byte[(int) entry.getSize()];
+                    assertEquals(data.length, in.read(data));
+                    assertEquals("a/b/C1.class", new String(data, StandardCharsets.UTF_8));
+                }
+            } finally {
+                System.clearProperty(property);
+            }
+        }
+    }
+
+    private static void assertEntryEquals(String name, ZipEntry expected, ZipEntry actual) {
+        if (expected == null) {
+            assertNull(name, actual);
+            return;
+        }
+        assertNotNull(name, actual);
+        assertEquals(name, expected.getName(), actual.getName());
+        assertEquals(name, expected.getSize(), actual.getSize());
+        assertEquals(name, expected.getCompressedSize(), actual.getCompressedSize());
+        assertEquals(name, expected.getCrc(), actual.getCrc());
+        assertEquals(name, expected.getMethod(), actual.getMethod());
+        assertEquals(name, expected.getTime(), actual.getTime());
+        assertEquals(name, expected.getComment(), actual.getComment());
+        assertTrue(name, Arrays.equals(expected.getExtra(), actual.getExtra()));
+    }
 }
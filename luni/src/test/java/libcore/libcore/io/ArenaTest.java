@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.io;
+
+import static android.system.OsConstants.O_RDONLY;
+import static android.system.OsConstants.O_RDWR;
+
+import android.system.Os;
+
+import dalvik.system.VMRuntime;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import junit.framework.TestCase;
+import libcore.io.Arena;
+import libcore.io.MemorySegment;
+import libcore.testing.io.TestIoUtils;
+
+public class ArenaTest extends TestCase {
+
+    private Arena arena;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        arena = new Arena();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        arena.close();
+        super.tearDown();
+    }
+
+    public void testAllocate_zeroed() {
+        MemorySegment segment = arena.allocate(4096);
+        assertEquals(4096, segment.byteSize());
+        assertEquals(0, segment.address() % 8);
+        for (long i = 0; i < segment.byteSize(); i += 8) {
+            assertEquals(0L, segment.getLong(i, ByteOrder.nativeOrder()));
+        }
+    }
+
+    public void testAllocate_negative() {
+        try {
+            arena.allocate(-1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testAllocate_tooLarge() {
+        // More than a 32-bit address space, so that it can't be truncated to a small size.
+        try {
+            arena.allocate(Long.MAX_VALUE);
+            fail();
+        } catch (OutOfMemoryError expected) {
+        }
+        assertTrue(arena.isOpen());
+    }
+
+    public void testAllocate_empty() {
+        MemorySegment segment = arena.allocate(0);
+        assertEquals(0, segment.byteSize());
+        try {
+            segment.getByte(0);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testByteOrder() {
+        MemorySegment segment = arena.allocate(16);
+        segment.setInt(0, 0x01020304, ByteOrder.BIG_ENDIAN);
+        assertEquals(0x01, segment.getByte(0));
+        assertEquals(0x04, segment.getByte(3));
+        assertEquals(0x04030201, segment.getInt(0, ByteOrder.LITTLE_ENDIAN));
+
+        // Unaligned.
+        segment.setLong(3, 0x0102030405060708L, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x08, segment.getByte(3));
+        assertEquals(0x0807060504030201L, segment.getLong(3, ByteOrder.BIG_ENDIAN));
+
+        segment.setShort(1, (short) 0x0102, ByteOrder.BIG_ENDIAN);
+        assertEquals((short) 0x0201, segment.getShort(1, ByteOrder.LITTLE_ENDIAN));
+        segment.setChar(1, '\u0102', ByteOrder.LITTLE_ENDIAN);
+        assertEquals('\u0201', segment.getChar(1, ByteOrder.BIG_ENDIAN));
+        segment.setFloat(8, 1.5f, ByteOrder.BIG_ENDIAN);
+        assertEquals(1.5f, segment.getFloat(8, ByteOrder.BIG_ENDIAN));
+        segment.setDouble(8, -2.25, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(-2.25, segment.getDouble(8, ByteOrder.LITTLE_ENDIAN));
+    }
+
+    public void testBounds() {
+        MemorySegment segment = arena.allocate(16);
+        segment.getLong(8, ByteOrder.BIG_ENDIAN);
+        assertOutOfBounds(() -> segment.getLong(9, ByteOrder.BIG_ENDIAN));
+        assertOutOfBounds(() -> segment.getByte(-1));
+        assertOutOfBounds(() -> segment.setInt(Long.MAX_VALUE, 0, ByteOrder.BIG_ENDIAN));
+        assertOutOfBounds(() -> segment.asSlice(8, 9));
+        assertOutOfBounds(() -> segment.put(0, new int[5], 0, 5, ByteOrder.BIG_ENDIAN));
+        try {
+            segment.get(0, new byte[4], 1, 4);
+            fail();
+        } catch (ArrayIndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testBulk() {
+        MemorySegment segment = arena.allocate(64);
+        int[] ints = { 1, -2, 0x01020304, Integer.MIN_VALUE };
+        segment.put(4, ints, 0, ints.length, ByteOrder.BIG_ENDIAN);
+        assertEquals(0x01020304, segment.getInt(12, ByteOrder.BIG_ENDIAN));
+        int[] intsRead = new int[ints.length];
+        segment.get(4, intsRead, 0, ints.length, ByteOrder.BIG_ENDIAN);
+        assertTrue(Arrays.equals(ints, intsRead));
+        segment.get(4, intsRead, 0, ints.length, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(Integer.reverseBytes(0x01020304), intsRead[2]);
+
+        long[] longs = { 1L, Long.MAX_VALUE, -3L };
+        segment.put(1, longs, 0, longs.length, ByteOrder.LITTLE_ENDIAN);
+        long[] longsRead = new long[longs.length];
+        segment.get(1, longsRead, 0, longs.length, ByteOrder.LITTLE_ENDIAN);
+        assertTrue(Arrays.equals(longs, longsRead));
+
+        double[] doubles = { 0.5, -1e300 };
+        segment.put(32, doubles, 0, doubles.length, ByteOrder.BIG_ENDIAN);
+        assertEquals(-1e300, segment.getDouble(40, ByteOrder.BIG_ENDIAN));
+
+        byte[] bytes = { 1, 2, 3, 4, 5 };
+        segment.put(60, bytes, 1, 4);
+        assertEquals(5, segment.getByte(63));
+    }
+
+    public void testSlice() {
+        MemorySegment segment = arena.allocate(64);
+        MemorySegment slice = segment.asSlice(16, 8);
+        assertEquals(segment.address() + 16, slice.address());
+        assertEquals(8, slice.byteSize());
+        slice.setLong(0, 42L, ByteOrder.BIG_ENDIAN);
+        assertEquals(42L, segment.getLong(16, ByteOrder.BIG_ENDIAN));
+        assertOutOfBounds(() -> slice.getByte(8));
+        assertEquals(48, segment.asSlice(16).byteSize());
+    }
+
+    public void testReadOnly() {
+        MemorySegment segment = arena.allocate(8);
+        segment.setByte(0, (byte) 7);
+        MemorySegment readOnly = segment.asReadOnly();
+        assertTrue(readOnly.isReadOnly());
+        assertEquals(7, readOnly.getByte(0));
+        try {
+            readOnly.setByte(0, (byte) 1);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertTrue(readOnly.asSlice(4).isReadOnly());
+    }
+
+    public void testCopyAndFill() {
+        MemorySegment segment = arena.allocate(32);
+        segment.asSlice(0, 16).fill((byte) 0x5a);
+        assertEquals(0x5a, segment.getByte(15));
+        assertEquals(0, segment.getByte(16));
+        // Overlapping.
+        MemorySegment.copy(segment, 0, segment, 8, 16);
+        assertEquals(0x5a, segment.getByte(23));
+        assertEquals(0, segment.getByte(24));
+        try {
+            MemorySegment.copy(segment, 0, segment, 17, 16);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testClose() {
+        MemorySegment segment = arena.allocate(8);
+        MemorySegment slice = segment.asSlice(4);
+        assertTrue(arena.isOpen());
+        arena.close();
+        assertFalse(arena.isOpen());
+        assertFalse(segment.isAlive());
+        try {
+            segment.getByte(0);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            slice.setInt(0, 0, ByteOrder.BIG_ENDIAN);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arena.allocate(8);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        arena.close();
+    }
+
+    public void testMap() throws Exception {
+        File dir = TestIoUtils.createTemporaryDirectory("ArenaTest");
+        File file = new File(dir, "mapped");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        }
+        FileDescriptor fd = Os.open(file.getPath(), O_RDONLY, 0);
+        MemorySegment segment;
+        try {
+            segment = arena.map(fd, 0, 8, false);
+        } finally {
+            Os.close(fd);
+        }
+        assertTrue(segment.isReadOnly());
+        assertEquals(0x0102030405060708L, segment.getLong(0, ByteOrder.BIG_ENDIAN));
+
+        fd = Os.open(file.getPath(), O_RDWR, 0);
+        try {
+            segment = arena.map(fd, 0, 8, true);
+        } finally {
+            Os.close(fd);
+        }
+        segment.setInt(0, 0x0a0b0c0d, ByteOrder.BIG_ENDIAN);
+        arena.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            assertEquals(0x0a0b0c0d, raf.readInt());
+        }
+    }
+
+    public void testMap_larger() throws Exception {
+        // Larger than a ByteBuffer or MemoryMappedFile can cover.
+        if (!VMRuntime.getRuntime().is64Bit()) {
+            return;
+        }
+        File dir = TestIoUtils.createTemporaryDirectory("ArenaTest");
+        File file = new File(dir, "sparse");
+        long size = 3L * 1024 * 1024 * 1024;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            raf.seek(size - 4);
+            raf.writeInt(0x11223344);
+        }
+        FileDescriptor fd = Os.open(file.getPath(), O_RDONLY, 0);
+        try {
+            MemorySegment segment = arena.map(fd, 0, size, false);
+            assertEquals(size, segment.byteSize());
+            assertEquals(0x11223344, segment.getInt(size - 4, ByteOrder.BIG_ENDIAN));
+            assertEquals(0, segment.getInt(Integer.MAX_VALUE + 1L, ByteOrder.BIG_ENDIAN));
+        } finally {
+            Os.close(fd);
+            file.delete();
+        }
+    }
+
+    private static void assertOutOfBounds(Runnable access) {
+        try {
+            access.run();
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+}
@@ -22,8 +22,14 @@ import static android.system.OsConstants.IPPROTO_TCP;
 import static android.system.OsConstants.IPPROTO_UDP;
 import static android.system.OsConstants.F_SETFL;
 import static android.system.OsConstants.SOCK_DGRAM;
+import static android.system.OsConstants.SOCK_NONBLOCK;
+import static android.system.OsConstants.SOL_SOCKET;
+import static android.system.OsConstants.SO_DOMAIN;
+import static android.system.OsConstants.SO_PROTOCOL;
+import static android.system.OsConstants.SO_TYPE;
 import static android.system.OsConstants.O_NONBLOCK;
 import static android.system.OsConstants.SOCK_STREAM;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -46,6 +52,7 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -216,6 +223,79 @@ public class BlockGuardOsTest {
         }
     }
 
+    @Test
+    public void test_socket_cachesSocketInfo() throws ErrnoException, IOException {
+        FileDescriptor tcpSocket = Libcore.os.socket(AF_INET6, SOCK_STREAM | SOCK_NONBLOCK, 0);
+        FileDescriptor unixSocket = Libcore.os.socket(AF_UNIX, SOCK_DGRAM, 0);
+        try {
+            assertSocketInfoCached(tcpSocket);
+            assertSocketInfoCached(unixSocket);
+            assertTrue(BlockGuardOs.isNonBlockingFile(tcpSocket));
+            assertFalse(BlockGuardOs.isNonBlockingFile(unixSocket));
+
+            // O_NONBLOCK may be changed without going through Os, as NIO does.
+            Libcore.rawOs.fcntlInt(unixSocket, F_SETFL, O_NONBLOCK);
+            assertTrue(BlockGuardOs.isNonBlockingFile(unixSocket));
+            Libcore.rawOs.fcntlInt(tcpSocket, F_SETFL, 0);
+            assertFalse(BlockGuardOs.isNonBlockingFile(tcpSocket));
+        } finally {
+            IoUtils.closeQuietly(tcpSocket);
+            IoUtils.closeQuietly(unixSocket);
+        }
+    }
+
+    @Test
+    public void test_close_forgetsSocketInfo() throws ErrnoException {
+        FileDescriptor socket = Libcore.os.socket(AF_UNIX, SOCK_DGRAM, 0);
+        assertSocketInfoCached(socket);
+        // close() clears the descriptor from native code rather than through setInt$.
+        Libcore.os.close(socket);
+        assertEquals(-1, socket.getSocketDomain$());
+        assertEquals(-1, socket.getSocketType$());
+        assertEquals(-1, socket.getSocketProtocol$());
+    }
+
+    @Test
+    public void test_accept_cachesSocketInfo() throws ErrnoException, IOException {
+        FileDescriptor serverSocket = Libcore.os.socket(AF_INET6, SOCK_STREAM, 0);
+        FileDescriptor clientSocket = Libcore.os.socket(AF_INET6, SOCK_STREAM, 0);
+        FileDescriptor acceptedSocket = null;
+        try {
+            Libcore.os.bind(serverSocket, InetAddress.getLoopbackAddress(), 0);
+            Libcore.os.listen(serverSocket, 1);
+            InetSocketAddress address = (InetSocketAddress) Libcore.os.getsockname(serverSocket);
+            Libcore.os.connect(clientSocket, address.getAddress(), address.getPort());
+            acceptedSocket = Libcore.os.accept(serverSocket, null);
+            assertSocketInfoCached(acceptedSocket);
+        } finally {
+            IoUtils.closeQuietly(serverSocket);
+            IoUtils.closeQuietly(clientSocket);
+            IoUtils.closeQuietly(acceptedSocket);
+        }
+    }
+
+    private static void assertSocketInfoCached(FileDescriptor fd) throws ErrnoException {
+        assertEquals(Libcore.rawOs.getsockoptInt(fd, SOL_SOCKET, SO_DOMAIN),
+                fd.getSocketDomain$());
+        assertEquals(Libcore.rawOs.getsockoptInt(fd, SOL_SOCKET, SO_TYPE), fd.getSocketType$());
+        assertEquals(Libcore.rawOs.getsockoptInt(fd, SOL_SOCKET, SO_PROTOCOL),
+                fd.getSocketProtocol$());
+    }
+
+    @Test
+    public void test_laxPolicy_skipsSocketChecks() throws ErrnoException, IOException {
+        BlockGuard.setThreadPolicy(BlockGuard.LAX_POLICY);
+        BlockGuardOs blockGuardOs = new BlockGuardOs(mockOsDelegate);
+
+        // Asking the kernel about an invalid descriptor would fail, so these only succeed
+        // without policy checks.
+        FileDescriptor invalid = new FileDescriptor();
+        assertNull(blockGuardOs.accept(invalid, null));
+        blockGuardOs.connect(invalid, InetAddress.getLoopbackAddress(), 0);
+        verify(mockOsDelegate, times(1)).accept(eq(invalid), any());
+        verify(mockOsDelegate, times(1)).connect(eq(invalid), any(), anyInt());
+    }
+
     /**
      * Checks that BlockGuardOs is updated when the Os interface changes. BlockGuardOs extends
      * ForwardingOs so doing so isn't an obvious step and it can be missed. When adding methods to
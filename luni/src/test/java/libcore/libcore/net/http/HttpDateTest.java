@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.net.http;
+
+import java.util.Date;
+import junit.framework.TestCase;
+import libcore.net.http.HttpDate;
+
+public class HttpDateTest extends TestCase {
+
+    // 1994-11-06T08:49:37Z, the example date of RFC 7231.
+    private static final long EXAMPLE = 784111777000L;
+
+    public void testParse_standardFormats() {
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sunday, 06-Nov-94 08:49:37 GMT"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun Nov  6 08:49:37 1994"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun Nov 6 08:49:37 1994"));
+    }
+
+    public void testParse_browserCompatibleFormats() {
+        String[] values = {
+                "Sun, 06-Nov-1994 08:49:37 GMT",
+                "Sun, 06-Nov-1994 08-49-37 GMT",
+                "Sun, 06 Nov 94 08:49:37 GMT",
+                "Sun 06-Nov-1994 08:49:37 GMT",
+                "Sun 06 Nov 1994 08:49:37 GMT",
+                "Sun 06-Nov-1994 08-49-37 GMT",
+                "Sun 06-Nov-94 08:49:37 GMT",
+                "Sun 06 Nov 94 08:49:37 GMT",
+                "Sun,06-Nov-94 08:49:37 GMT",
+                "Sun,06-Nov-1994 08:49:37 GMT",
+                "Sun, 06-11-1994 08:49:37 GMT",
+                "Sun Nov 6 1994 08:49:37 GMT",
+        };
+        for (String value : values) {
+            assertEquals(value, EXAMPLE, HttpDate.parseMillis(value));
+        }
+    }
+
+    public void testParse_timeZones() {
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 08:49:37 UTC"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 08:49:37 +0000"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 10:49:37 +0200"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 09:49:37 GMT+01:00"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 00:49:37 PST"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 03:49:37 EST"));
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 04:49:37 EDT"));
+    }
+
+    public void testParse_twoDigitYears() {
+        // As in RFC 6265.
+        assertEquals(0L, HttpDate.parseMillis("Thu, 01-Jan-70 00:00:00 GMT"));
+        assertEquals(946684800000L, HttpDate.parseMillis("Sat, 01-Jan-00 00:00:00 GMT"));
+        assertEquals(3124137600000L, HttpDate.parseMillis("Fri, 31-Dec-68 00:00:00 GMT"));
+    }
+
+    public void testParse_trailingText() {
+        assertEquals(EXAMPLE, HttpDate.parseMillis("Sun, 06 Nov 1994 08:49:37 GMT; path=/"));
+    }
+
+    public void testParse_invalid() {
+        assertEquals(HttpDate.NOT_A_DATE, HttpDate.parseMillis(""));
+        assertEquals(HttpDate.NOT_A_DATE, HttpDate.parseMillis("0"));
+        assertEquals(HttpDate.NOT_A_DATE, HttpDate.parseMillis("-1"));
+        assertEquals(HttpDate.NOT_A_DATE, HttpDate.parseMillis("never"));
+        assertEquals(HttpDate.NOT_A_DATE, HttpDate.parseMillis("Sun, 06 Nov"));
+        assertNull(HttpDate.parse("Sun, 06 Foo 1994 08:49:37 GMT"));
+    }
+
+    public void testParse_returnsDate() {
+        assertEquals(new Date(EXAMPLE), HttpDate.parse("Sun, 06 Nov 1994 08:49:37 GMT"));
+    }
+
+    public void testFormat() {
+        assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HttpDate.format(new Date(EXAMPLE)));
+        assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HttpDate.format(new Date(EXAMPLE + 999)));
+        assertEquals("Thu, 01 Jan 1970 00:00:00 GMT", HttpDate.format(new Date(0)));
+        assertEquals("Wed, 31 Dec 1969 23:59:59 GMT", HttpDate.format(new Date(-1)));
+        assertEquals("Tue, 29 Feb 2000 12:00:00 GMT",
+                HttpDate.format(new Date(951825600000L)));
+    }
+
+    public void testFormat_sameSecondReturnsSameString() {
+        String first = HttpDate.format(new Date(EXAMPLE));
+        assertSame(first, HttpDate.format(new Date(EXAMPLE + 500)));
+    }
+
+    public void testFormatParseRoundTrip() {
+        for (long millis = -86400000L * 366 * 3; millis < 86400000L * 366 * 80;
+                millis += 86400000L * 17 + 3723000L) {
+            assertEquals(millis, HttpDate.parseMillis(HttpDate.format(new Date(millis))));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import libcore.util.ConcurrentIntObjectMap;
+
+public class ConcurrentIntObjectMapTest extends TestCase {
+
+    public void testPutIfAbsent() {
+        ConcurrentIntObjectMap<String> map = new ConcurrentIntObjectMap<>();
+        assertNull(map.putIfAbsent(7, "a"));
+        assertEquals("a", map.putIfAbsent(7, "b"));
+        assertEquals("a", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+        try {
+            map.putIfAbsent(8, null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testComputeIfAbsent() {
+        ConcurrentIntObjectMap<String> map = new ConcurrentIntObjectMap<>();
+        assertEquals("5", map.computeIfAbsent(5, String::valueOf));
+        assertEquals("5", map.computeIfAbsent(5, key -> "other"));
+        assertNull(map.computeIfAbsent(6, key -> null));
+        assertNull(map.get(6));
+        assertEquals(1, map.size());
+    }
+
+    public void testGrowth() {
+        ConcurrentIntObjectMap<Integer> map = new ConcurrentIntObjectMap<>();
+        for (int i = -5000; i < 5000; i++) {
+            assertNull(map.putIfAbsent(i, i));
+        }
+        assertEquals(10000, map.size());
+        for (int i = -5000; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+        assertNull(map.get(5000));
+    }
+
+    /**
+     * Several threads compute the same keys while the map grows, and must all see one value,
+     * computed once, for each key.
+     */
+    public void testComputeIfAbsent_concurrent() throws Exception {
+        final ConcurrentIntObjectMap<Integer> map = new ConcurrentIntObjectMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final int keys = 20000;
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override public Void call() {
+                        for (int key = 0; key < keys; key++) {
+                            Integer value = map.computeIfAbsent(key, k -> {
+                                calls.incrementAndGet();
+                                return k * 2;
+                            });
+                            assertEquals(key * 2, value.intValue());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(keys, calls.get());
+        assertEquals(keys, map.size());
+    }
+}
@@ -16,9 +16,12 @@
 
 package libcore.libcore.util;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.Random;
 
 import junit.framework.TestCase;
 import static libcore.util.HexEncoding.decode;
@@ -110,6 +113,121 @@ public class HexEncodingTest extends TestCase {
     }
   }
 
+  public void testEncodeDecode_buffers() {
+    Random random = new Random(0);
+    for (int length = 0; length < 100; length++) {
+      byte[] data = new byte[length];
+      random.nextBytes(data);
+      for (boolean direct : new boolean[] { false, true }) {
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+          ByteBuffer src = allocate(length + 3, direct, order);
+          src.position(3);
+          src.put(data);
+          src.position(3);
+          ByteBuffer encoded = allocate(2 * length + 1, direct, order);
+          encoded.position(1);
+          assertEquals(2 * length, encode(src, encoded, false /* upperCase */));
+          assertFalse(src.hasRemaining());
+          assertFalse(encoded.hasRemaining());
+
+          encoded.position(1);
+          assertEquals(lower(encodeToString(data)), ascii(encoded));
+
+          encoded.position(1);
+          ByteBuffer decoded = allocate(length, direct, order);
+          assertEquals(length, decode(encoded, decoded));
+          assertFalse(encoded.hasRemaining());
+          assertArraysEqual(data, copy(decoded));
+        }
+      }
+    }
+  }
+
+  public void testEncodeDecode_inPieces() {
+    byte[] data = new byte[1000];
+    new Random(0).nextBytes(data);
+    ByteBuffer src = ByteBuffer.wrap(data);
+    ByteBuffer piece = ByteBuffer.allocateDirect(15);
+    StringBuilder encoded = new StringBuilder();
+    while (src.hasRemaining()) {
+      piece.clear();
+      encode(src, piece, true /* upperCase */);
+      piece.flip();
+      encoded.append(ascii(piece));
+    }
+    assertEquals(encodeToString(data), encoded.toString());
+
+    // An odd number of digits leaves the last one for the next call.
+    ByteBuffer digits = ByteBuffer.wrap(encoded.toString().getBytes(StandardCharsets.US_ASCII));
+    digits.limit(7);
+    ByteBuffer decoded = ByteBuffer.allocate(data.length);
+    assertEquals(3, decode(digits, decoded));
+    assertEquals(6, digits.position());
+    digits.limit(digits.capacity());
+    decode(digits, decoded);
+    assertArraysEqual(data, decoded.array());
+  }
+
+  public void testEncodeDecode_arrayRanges() {
+    byte[] data = "avocados".getBytes(StandardCharsets.UTF_8);
+    byte[] encoded = new byte[20];
+    assertEquals(12, encode(data, 1, 6, encoded, 2, true /* upperCase */));
+    assertEquals("766F6361646F",
+        new String(encoded, 2, 12, StandardCharsets.US_ASCII));
+
+    byte[] decoded = new byte[7];
+    assertEquals(6, decode(encoded, 2, 12, decoded, 1));
+    assertArraysEqual("\0vocado".getBytes(StandardCharsets.UTF_8), decoded);
+
+    try {
+      encode(data, 0, 8, encoded, 5, true /* upperCase */);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      decode(encoded, 2, 11, decoded, 0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      encode(data, 4, 5, encoded, 0, true /* upperCase */);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testDecode_buffer_invalid() {
+    byte[] digits = "0123456789abcdef0123456789ABCDEF01g3".getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer src = ByteBuffer.allocateDirect(digits.length);
+    src.put(digits);
+    src.flip();
+    ByteBuffer dst = ByteBuffer.allocate(digits.length / 2);
+    try {
+      decode(src, dst);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    // The valid pairs before the malformed one are decoded.
+    assertEquals(34, src.position());
+    assertEquals(17, dst.position());
+  }
+
+  private static ByteBuffer allocate(int capacity, boolean direct, ByteOrder order) {
+    return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity))
+        .order(order);
+  }
+
+  private static byte[] copy(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.capacity()];
+    buffer.position(0);
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static String ascii(ByteBuffer buffer) {
+    return StandardCharsets.US_ASCII.decode(buffer).toString();
+  }
+
   private static void assertArraysEqual(char[] lhs, char[] rhs) {
     assertEquals(new String(lhs), new String(rhs));
   }
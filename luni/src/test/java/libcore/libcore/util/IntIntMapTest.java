@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import libcore.util.IntIntMap;
+
+public class IntIntMapTest extends TestCase {
+
+    public void testZeroKey() {
+        IntIntMap map = new IntIntMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.get(0, -1));
+        map.put(0, 42);
+        map.put(5, 0);
+        assertTrue(map.containsKey(0));
+        assertEquals(42, map.get(0, -1));
+        assertEquals(0, map.get(5, -1));
+        assertEquals(2, map.size());
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        assertTrue(Arrays.equals(new int[] { 0, 5 }, keys));
+
+        assertTrue(map.remove(0));
+        assertFalse(map.remove(0));
+        assertEquals(-1, map.get(0, -1));
+        assertEquals(1, map.size());
+
+        map.put(0, 1);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertFalse(map.containsKey(5));
+    }
+
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -300; key < 300; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value != null ? value : -1, map.get(key, -1));
+            assertEquals(value != null, map.containsKey(key));
+        }
+    }
+}
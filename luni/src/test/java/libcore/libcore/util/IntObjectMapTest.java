@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import libcore.util.IntObjectMap;
+
+public class IntObjectMapTest extends TestCase {
+
+    public void testConstructor_negativeSize() {
+        try {
+            new IntObjectMap<String>(-1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testPutGetRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(3, "three"));
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(-1, "minus one"));
+        assertEquals("three", map.put(3, "THREE"));
+        assertEquals(3, map.size());
+        assertEquals("THREE", map.get(3));
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+        assertNull(map.get(4));
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(4));
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.remove(0));
+        assertNull(map.get(0));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(3));
+    }
+
+    public void testPut_nullValue() {
+        try {
+            new IntObjectMap<String>().put(1, null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testKeys() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 7, "");
+        }
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 7, keys[i]);
+        }
+        // The keys are a snapshot, so the map may be changed while going through them.
+        for (int key : keys) {
+            map.remove(key);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keys().length);
+    }
+
+    /**
+     * Checks random puts and removes against a HashMap, with keys from a small range so that
+     * probe sequences collide and removal has to shift entries back.
+     */
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -300; key < 300; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import libcore.util.LongObjectMap;
+
+public class LongObjectMapTest extends TestCase {
+
+    public void testPutGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(Long.MIN_VALUE, "min"));
+        assertNull(map.put(1L << 32, "high"));
+        assertNull(map.put(0L, "zero"));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals("high", map.get(1L << 32));
+        assertNull(map.get(1L));
+        assertEquals(3, map.size());
+        assertEquals(3, map.keys().length);
+
+        assertEquals("high", map.remove(1L << 32));
+        assertFalse(map.containsKey(1L << 32));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            // Keys that differ only in their high bits, which the hash has to spread.
+            long key = (long) random.nextInt(512) << 40;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key : map.keys()) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package libcore.libcore.util;
 
+import java.lang.reflect.Method;
+
 import junit.framework.TestCase;
 
 import libcore.util.NativeAllocationRegistry;
@@ -31,9 +33,16 @@ public class NativeAllocationRegistryTest extends TestCase {
     private static class TestConfig {
         public boolean treatAsMalloced;
         public boolean shareRegistry;
+        public boolean batched;
 
         public TestConfig(boolean treatAsMalloced, boolean shareRegistry) {
+            this(treatAsMalloced, shareRegistry, false);
+        }
+
+        public TestConfig(boolean treatAsMalloced, boolean shareRegistry, boolean batched) {
+            this.treatAsMalloced = treatAsMalloced;
             this.shareRegistry = shareRegistry;
+            this.batched = batched;
         }
     }
 
@@ -76,7 +85,13 @@ public class NativeAllocationRegistryTest extends TestCase {
         // references to should easily fit.
         for (int i = 0; i < numAllocationsToSimulate; i++) {
             if (!config.shareRegistry || registry == null) {
-                if (config.treatAsMalloced) {
+                if (config.batched) {
+                    registry = config.treatAsMalloced
+                            ? NativeAllocationRegistry.createMallocedBatched(
+                                    classLoader, getNativeFinalizer(), nativeSize)
+                            : NativeAllocationRegistry.createNonmallocedBatched(
+                                    classLoader, getNativeFinalizer(), nativeSize);
+                } else if (config.treatAsMalloced) {
                     registry = NativeAllocationRegistry.createMalloced(
                             classLoader, getNativeFinalizer(), nativeSize);
                 } else {
@@ -144,6 +159,79 @@ public class NativeAllocationRegistryTest extends TestCase {
         testNativeAllocation(new TestConfig(true, true));
     }
 
+    public void testNativeAllocationNonmallocBatchedSharedRegistry() {
+        testNativeAllocation(new TestConfig(false, true, true));
+    }
+
+    public void testNativeAllocationMallocBatchedSharedRegistry() {
+        testNativeAllocation(new TestConfig(true, true, true));
+    }
+
+    public void testLiveAllocationCount() {
+        if (isNativeBridgedABI()) {
+            // See the explanation in testNativeAllocation.
+            System.logI("Skipping test for native bridged ABI");
+            return;
+        }
+        long size = 1234;
+        NativeAllocationRegistry registry = NativeAllocationRegistry.createNonmallocedBatched(
+                classLoader, getNativeFinalizer(), size);
+        assertEquals(0, registry.getLiveAllocationCount());
+        assertEquals(0, registry.getLiveAllocationBytes());
+
+        Object referent1 = new Object();
+        Object referent2 = new Object();
+        Runnable cleaner1 = registry.registerNativeAllocation(referent1, doNativeAllocation(size));
+        Runnable cleaner2 = registry.registerNativeAllocation(referent2, doNativeAllocation(size));
+        assertEquals(2, registry.getLiveAllocationCount());
+        assertEquals(2 * size, registry.getLiveAllocationBytes());
+        // Too few bytes to be worth reporting to the runtime yet.
+        assertEquals(2 * size, getUnreportedBytes(registry));
+
+        // Explicit frees are applied immediately, even for batched registries.
+        long numBytesAllocatedBeforeClean = getNumNativeBytesAllocated();
+        cleaner1.run();
+        assertEquals(numBytesAllocatedBeforeClean - size, getNumNativeBytesAllocated());
+        assertEquals(1, registry.getLiveAllocationCount());
+        assertEquals(size, registry.getLiveAllocationBytes());
+        // The runtime was never told about the freed bytes, so they are not reported as freed.
+        assertEquals(size, getUnreportedBytes(registry));
+
+        cleaner1.run();
+        assertEquals(1, registry.getLiveAllocationCount());
+        cleaner2.run();
+        assertEquals(0, registry.getLiveAllocationCount());
+        assertEquals(0, registry.getLiveAllocationBytes());
+        assertEquals(0, getUnreportedBytes(registry));
+    }
+
+    public void testExplicitFreeAfterReport() {
+        if (isNativeBridgedABI()) {
+            // See the explanation in testNativeAllocation.
+            System.logI("Skipping test for native bridged ABI");
+            return;
+        }
+        long size = 100 * 1024;
+        NativeAllocationRegistry registry = NativeAllocationRegistry.createNonmallocedBatched(
+                classLoader, getNativeFinalizer(), size);
+        Object[] referents = new Object[3];
+        Runnable[] cleaners = new Runnable[referents.length];
+        for (int i = 0; i < referents.length; i++) {
+            referents[i] = new Object();
+            cleaners[i] = registry.registerNativeAllocation(referents[i], doNativeAllocation(size));
+        }
+        // The third allocation crossed the reporting threshold.
+        assertEquals(0, getUnreportedBytes(registry));
+
+        // The runtime was told about these bytes, so freeing them is reported and leaves
+        // nothing unreported.
+        for (Runnable cleaner : cleaners) {
+            cleaner.run();
+        }
+        assertEquals(0, getUnreportedBytes(registry));
+        assertEquals(0, registry.getLiveAllocationCount());
+    }
+
     public void testBadSize() {
         assertThrowsIllegalArgumentException(new Runnable() {
             public void run() {
@@ -227,6 +315,17 @@ public class NativeAllocationRegistryTest extends TestCase {
         fail("Expected IllegalArgumentException, but no exception was thrown.");
     }
 
+    // getUnreportedBytes() is package-private so that it stays out of the module API.
+    private static long getUnreportedBytes(NativeAllocationRegistry registry) {
+        try {
+            Method method = NativeAllocationRegistry.class.getDeclaredMethod("getUnreportedBytes");
+            method.setAccessible(true);
+            return (long) method.invoke(registry);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     private static native boolean isNativeBridgedABI();
     private static native long getNativeFinalizer();
     private static native long doNativeAllocation(long size);
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.TestCase;
+
+import libcore.util.StripedSecureRandom;
+
+public class StripedSecureRandomTest extends TestCase {
+
+    public void testConstructor_invalid() {
+        try {
+            new StripedSecureRandom(0, 16);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new StripedSecureRandom(1, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testNextBytes_bounds() {
+        StripedSecureRandom random = new StripedSecureRandom(1, 64);
+        try {
+            random.nextBytes(new byte[8], 4, 5);
+            fail();
+        } catch (ArrayIndexOutOfBoundsException expected) {
+        }
+        try {
+            random.nextBytes(new byte[8], -1, 1);
+            fail();
+        } catch (ArrayIndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testNextBytes_range() {
+        StripedSecureRandom random = new StripedSecureRandom(1, 64);
+        byte[] bytes = new byte[256];
+        // Below, at and above the block size, so that both buffered and direct fills are used.
+        for (int count : new int[] { 16, 63, 64, 100 }) {
+            Arrays.fill(bytes, (byte) 0x5a);
+            random.nextBytes(bytes, 8, count);
+            assertEquals(0x5a, bytes[7]);
+            assertEquals(0x5a, bytes[8 + count]);
+            assertFalse(allEqual(bytes, 8, count, (byte) 0x5a));
+        }
+    }
+
+    public void testNextBytes_unique() {
+        // 16 bytes at a time, as UUID.randomUUID() takes them, across block boundaries.
+        StripedSecureRandom random = new StripedSecureRandom(4, 40);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = new byte[16];
+            random.nextBytes(bytes);
+            assertTrue(seen.add(Arrays.toString(bytes)));
+        }
+    }
+
+    public void testNextBytes_concurrent() throws Exception {
+        StripedSecureRandom random = StripedSecureRandom.getDefault();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    byte[] bytes = new byte[16];
+                    random.nextBytes(bytes);
+                    assertTrue(seen.add(Arrays.toString(bytes)));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8000, seen.size());
+    }
+
+    private static boolean allEqual(byte[] bytes, int offset, int count, byte value) {
+        for (int i = offset; i < offset + count; i++) {
+            if (bytes[i] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -16,11 +16,14 @@
 package libcore.libcore.util;
 
 import com.android.i18n.timezone.ZoneInfoData;
+import com.android.i18n.timezone.ZoneInfoDb;
 import junit.framework.TestCase;
 
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.TimeZone;
 
 import libcore.util.ZoneInfo;
@@ -76,6 +79,93 @@ public class ZoneInfoTest extends TestCase {
     }
   }
 
+  /**
+   * Checks that the offsets ZoneInfo caches, before and after it builds its table, match those
+   * of its {@link ZoneInfoData}, for every zone and for times on both sides of transitions.
+   */
+  public void testGetOffset_matchesDelegate() {
+    Random random = new Random(0);
+    for (String tzId : TimeZone.getAvailableIDs()) {
+      ZoneInfoData data = ZoneInfoDb.getInstance().makeZoneInfoData(tzId);
+      ZoneInfo zoneInfo = ZoneInfo.createZoneInfo(data);
+      long[] times = timesAroundTransitions(data.getTransitions(), random);
+      int[] expected = new int[2];
+      int[] actual = new int[2];
+      for (long time : times) {
+        assertEquals(tzId + " " + time, data.getOffset(time), zoneInfo.getOffset(time));
+        assertEquals(tzId + " " + time, data.getOffsetsByUtcTime(time, expected),
+                zoneInfo.getOffsetsByUtcTime(time, actual));
+        assertTrue(tzId + " " + time, Arrays.equals(expected, actual));
+      }
+    }
+  }
+
+  public void testGetOffsets() {
+    Random random = new Random(0);
+    for (String tzId : new String[] { "America/Los_Angeles", "Australia/Lord_Howe", "UTC" }) {
+      ZoneInfoData data = ZoneInfoDb.getInstance().makeZoneInfoData(tzId);
+      ZoneInfo zoneInfo = ZoneInfo.createZoneInfo(data);
+      long[] times = timesAroundTransitions(data.getTransitions(), random);
+      int[] offsets = new int[times.length + 1];
+      zoneInfo.getOffsets(times, offsets);
+      for (int i = 0; i < times.length; i++) {
+        assertEquals(tzId + " " + times[i], data.getOffset(times[i]), offsets[i]);
+      }
+      assertEquals(0, offsets[times.length]);
+
+      Arrays.sort(times);
+      zoneInfo = ZoneInfo.createZoneInfo(data);
+      zoneInfo.getOffsets(times, offsets);
+      for (int i = 0; i < times.length; i++) {
+        assertEquals(tzId + " " + times[i], data.getOffset(times[i]), offsets[i]);
+      }
+    }
+  }
+
+  public void testGetOffsets_offsetsTooShort() {
+    ZoneInfo zoneInfo = (ZoneInfo) TimeZone.getTimeZone("America/Los_Angeles");
+    try {
+      zoneInfo.getOffsets(new long[2], new int[1]);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testSetRawOffset_afterLookups() {
+    ZoneInfoData data = ZoneInfoDb.getInstance().makeZoneInfoData("Europe/London");
+    ZoneInfo zoneInfo = ZoneInfo.createZoneInfo(data);
+    long[] times = timesAroundTransitions(data.getTransitions(), new Random(0));
+    for (long time : times) {
+      zoneInfo.getOffset(time);
+    }
+    ZoneInfo clone = (ZoneInfo) zoneInfo.clone();
+
+    zoneInfo.setRawOffset(3600000);
+    ZoneInfoData shifted = data.createCopyWithRawOffset(3600000);
+    for (long time : times) {
+      assertEquals(shifted.getOffset(time), zoneInfo.getOffset(time));
+      assertEquals(data.getOffset(time), clone.getOffset(time));
+    }
+  }
+
+  /**
+   * Returns the transitions, in milliseconds, each with the milliseconds either side of it,
+   * and some random times between 1900 and 2200.
+   */
+  private static long[] timesAroundTransitions(long[] transitions, Random random) {
+    long[] times = new long[transitions.length * 3 + 200];
+    int count = 0;
+    for (long transition : transitions) {
+      times[count++] = transition * 1000 - 1;
+      times[count++] = transition * 1000;
+      times[count++] = transition * 1000 + 1;
+    }
+    while (count < times.length) {
+      times[count++] = -2208988800000L + (long) (random.nextDouble() * 9467280000000L);
+    }
+    return times;
+  }
+
   private static Instant timeFromSeconds(long timeInSeconds) {
     return Instant.ofEpochSecond(timeInSeconds);
   }
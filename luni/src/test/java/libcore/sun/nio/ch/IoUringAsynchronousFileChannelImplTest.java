@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.sun.nio.ch;
+
+import static android.system.OsConstants.O_RDONLY;
+import static android.system.OsConstants.O_RDWR;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import android.system.Os;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import sun.nio.ch.IoUringAsynchronousFileChannelImpl;
+
+/**
+ * Tests the io_uring channel directly, since AsynchronousFileChannel.open only
+ * uses it if the sun.nio.ch.useIoUring property was set when it was first
+ * called.
+ */
+@RunWith(JUnit4.class)
+public class IoUringAsynchronousFileChannelImplTest {
+
+    // Small enough that most tests queue operations behind a full ring.
+    private static final int ENTRIES = 4;
+
+    private static ExecutorService executor;
+    private static Function<FileDescriptor, AsynchronousFileChannel> ring;
+
+    private File file;
+
+    @BeforeClass
+    public static void setUpRing() throws Exception {
+        // A seccomp filter that doesn't allow io_uring kills the process rather
+        // than failing the system call, so don't try unless there is none.
+        assumeTrue("seccomp filter installed", !hasSeccompFilter());
+        executor = Executors.newCachedThreadPool();
+        try {
+            ring = IoUringAsynchronousFileChannelImpl.newRing(ENTRIES, executor);
+        } catch (IOException e) {
+            assumeTrue("io_uring not available: " + e, false);
+        }
+    }
+
+    private static boolean hasSeccompFilter() throws IOException {
+        for (String line : Files.readAllLines(new File("/proc/self/status").toPath())) {
+            if (line.startsWith("Seccomp:")) {
+                return !line.substring("Seccomp:".length()).trim().equals("0");
+            }
+        }
+        return false;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("IoUringTest", null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    private AsynchronousFileChannel open(byte[] contents) throws Exception {
+        Files.write(file.toPath(), contents);
+        return ring.apply(Os.open(file.getPath(), O_RDWR, 0));
+    }
+
+    @Test
+    public void testRead_moreThanRingHolds() throws Exception {
+        byte[] contents = new byte[64 * 1024];
+        new Random(42).nextBytes(contents);
+        try (AsynchronousFileChannel afc = open(contents)) {
+            // Heap buffers go through temporary direct buffers that are
+            // released on the completion thread.
+            List<ByteBuffer> bufs = new ArrayList<>();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                ByteBuffer buf = (i % 2 == 0) ? ByteBuffer.allocateDirect(256)
+                        : ByteBuffer.allocate(256);
+                bufs.add(buf);
+                futures.add(afc.read(buf, (i * 256L) % contents.length));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(256, (int) futures.get(i).get(10, TimeUnit.SECONDS));
+                ByteBuffer buf = bufs.get(i);
+                assertEquals(256, buf.position());
+                buf.flip();
+                byte[] actual = new byte[256];
+                buf.get(actual);
+                int offset = (int) ((i * 256L) % contents.length);
+                assertArrayEquals(Arrays.copyOfRange(contents, offset, offset + 256), actual);
+            }
+        }
+    }
+
+    @Test
+    public void testRead_short() throws Exception {
+        byte[] contents = new byte[100];
+        new Random(42).nextBytes(contents);
+        try (AsynchronousFileChannel afc = open(contents)) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(64);
+            direct.position(4);
+            assertEquals(10, (int) afc.read(direct, 90).get(10, TimeUnit.SECONDS));
+            assertEquals(14, direct.position());
+
+            ByteBuffer heap = ByteBuffer.allocate(64);
+            heap.position(4);
+            assertEquals(10, (int) afc.read(heap, 90).get(10, TimeUnit.SECONDS));
+            assertEquals(14, heap.position());
+            assertArrayEquals(Arrays.copyOfRange(contents, 90, 100),
+                    Arrays.copyOfRange(heap.array(), 4, 14));
+
+            assertEquals(-1, (int) afc.read(ByteBuffer.allocate(64), 100)
+                    .get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        try (AsynchronousFileChannel afc = open(new byte[0])) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                byte[] bytes = new byte[16];
+                Arrays.fill(bytes, (byte) i);
+                ByteBuffer buf;
+                if (i % 2 == 0) {
+                    buf = ByteBuffer.wrap(bytes);
+                } else {
+                    buf = ByteBuffer.allocateDirect(16);
+                    buf.put(bytes);
+                    buf.flip();
+                }
+                futures.add(afc.write(buf, i * 16L));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(16, (int) future.get(10, TimeUnit.SECONDS));
+            }
+        }
+        byte[] written = Files.readAllBytes(file.toPath());
+        assertEquals(1600, written.length);
+        for (int i = 0; i < written.length; i++) {
+            assertEquals(i / 16, written[i]);
+        }
+    }
+
+    @Test
+    public void testRead_error() throws Exception {
+        FileDescriptor dir = Os.open(file.getParent(), O_RDONLY, 0);
+        try (AsynchronousFileChannel afc = ring.apply(dir)) {
+            // The kernel fails reads from a directory with EISDIR.
+            afc.read(ByteBuffer.allocate(16), 0).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testClose_waitsForInFlightRead() throws Exception {
+        FileDescriptor[] pipe = Os.pipe();
+        AsynchronousFileChannel afc = ring.apply(pipe[0]);
+        try {
+            // Stays in flight until the pipe has data.
+            ByteBuffer buf = ByteBuffer.allocate(16);
+            Future<Integer> read = afc.read(buf, 0);
+            Thread closer = new Thread(() -> {
+                try {
+                    afc.close();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            closer.start();
+            closer.join(200);
+            assertTrue(closer.isAlive());
+            assertFalse(read.isDone());
+
+            Os.write(pipe[1], new byte[] { 42 }, 0, 1);
+            closer.join(10000);
+            assertFalse(closer.isAlive());
+            assertEquals(1, (int) read.get(10, TimeUnit.SECONDS));
+            assertEquals(42, buf.get(0));
+        } finally {
+            Os.close(pipe[1]);
+        }
+    }
+
+    @Test
+    public void testClose_withQueuedReads() throws Exception {
+        try (AsynchronousFileChannel afc = open(new byte[64 * 1024])) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(afc.read(ByteBuffer.allocate(64), i * 64));
+            }
+            afc.close();
+            for (Future<Integer> future : futures) {
+                try {
+                    assertEquals(64, (int) future.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof AsynchronousCloseException);
+                }
+            }
+        }
+    }
+}
@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -30,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import junit.framework.Assert;
 import junit.framework.TestCase;
+import org.apache.harmony.xml.ExpatPushParser;
 import org.apache.harmony.xml.ExpatReader;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
@@ -676,6 +679,104 @@ public class ExpatSaxParserTest extends TestCase {
         }
     }
 
+    public void testPushParser_heapBufferByteAtATime() throws Exception {
+        TestHandler handler = new TestHandler();
+        ExpatReader reader = new ExpatReader();
+        reader.setContentHandler(handler);
+        try (ExpatPushParser parser = reader.newPushParser("UTF-8", null, null)) {
+            for (byte b : SNIPPET.getBytes(StandardCharsets.UTF_8)) {
+                ByteBuffer buffer = ByteBuffer.wrap(new byte[] { b });
+                assertTrue(parser.feed(buffer));
+                assertFalse(buffer.hasRemaining());
+            }
+            assertTrue(parser.finish());
+        }
+        validate(handler);
+    }
+
+    public void testPushParser_directAndReadOnlyBuffers() throws Exception {
+        NamespaceHandler handler = new NamespaceHandler();
+        ExpatReader reader = new ExpatReader();
+        reader.setContentHandler(handler);
+        byte[] bytes = XML.getBytes(StandardCharsets.UTF_8);
+        int split = bytes.length / 2;
+        try (ExpatPushParser parser = reader.newPushParser(null, null, null)) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes, 0, split).flip();
+            assertTrue(parser.feed(direct));
+            assertEquals(split, direct.position());
+            assertTrue(parser.feed(
+                    ByteBuffer.wrap(bytes, split, bytes.length - split).asReadOnlyBuffer()));
+            assertTrue(parser.finish());
+        }
+        handler.validate();
+    }
+
+    public void testPushParser_suspendAndResume() throws Exception {
+        ExpatPushParser[] parser = new ExpatPushParser[1];
+        List<String> elements = new ArrayList<String>();
+        ExpatReader reader = new ExpatReader();
+        reader.setContentHandler(new DefaultHandler() {
+            @Override public void startElement(String uri, String localName, String qName,
+                    Attributes attributes) {
+                elements.add(localName);
+                parser[0].suspend();
+            }
+        });
+        parser[0] = reader.newPushParser("UTF-8", null, null);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(
+                    "<a><b/><c/></a>".getBytes(StandardCharsets.UTF_8));
+            assertFalse(parser[0].feed(buffer));
+            // The whole buffer was taken even though only the first element was parsed.
+            assertFalse(buffer.hasRemaining());
+            assertEquals(Arrays.asList("a"), elements);
+            assertTrue(parser[0].isSuspended());
+
+            try {
+                parser[0].feed(ByteBuffer.allocate(0));
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+
+            assertFalse(parser[0].resume());
+            assertEquals(Arrays.asList("a", "b"), elements);
+            assertFalse(parser[0].resume());
+            assertEquals(Arrays.asList("a", "b", "c"), elements);
+            assertTrue(parser[0].resume());
+            assertFalse(parser[0].isSuspended());
+            assertTrue(parser[0].finish());
+        } finally {
+            parser[0].close();
+        }
+    }
+
+    public void testPushParser_suspendOutsideHandler() throws Exception {
+        try (ExpatPushParser parser = new ExpatReader().newPushParser(null, null, null)) {
+            try {
+                parser.suspend();
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                parser.resume();
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+        }
+    }
+
+    public void testPushParser_incompleteDocument() throws Exception {
+        try (ExpatPushParser parser = new ExpatReader().newPushParser(null, null, null)) {
+            parser.feed(ByteBuffer.wrap("<a><b>".getBytes(StandardCharsets.UTF_8)));
+            try {
+                parser.finish();
+                fail();
+            } catch (SAXParseException expected) {
+            }
+        }
+    }
+
     /**
      * Parses the given xml string and fires events on the given SAX handler.
      */
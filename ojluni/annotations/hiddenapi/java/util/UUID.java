@@ -121,7 +121,7 @@ public final class UUID implements java.io.Serializable, java.lang.Comparable<ja
             throw new RuntimeException("Stub!");
         }
 
-        static final java.security.SecureRandom numberGenerator;
+        static final libcore.util.StripedSecureRandom numberGenerator;
 
         static {
             numberGenerator = null;
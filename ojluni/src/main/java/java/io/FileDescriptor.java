@@ -66,6 +66,19 @@ public final class FileDescriptor {
     // Android-added: lock for release$.
     private final Object releaseLock = new Object();
 
+    // BEGIN Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+    // The domain, type and protocol of the socket, as last set or observed by BlockGuardOs, or
+    // -1 if unknown. They describe descriptor as it was when they were set, socketInfoFd, and are
+    // ignored once descriptor differs. setInt$ forgets them. Native code such as
+    // jniSetFileDescriptorOfFD writes descriptor directly; that is only noticed if it stores a
+    // different number, so a native close followed by a native store of the same number for a
+    // new socket would leave them stale.
+    private int socketInfoFd = -1;
+    private int socketDomain = -1;
+    private int socketType = -1;
+    private int socketProtocol = -1;
+    // END Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+
     /**
      * Constructs an (invalid) FileDescriptor
      * object.
@@ -167,6 +180,8 @@ public final class FileDescriptor {
      */
     public final void setInt$(int fd) {
         this.descriptor = fd;
+        // Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+        forgetSocketInfo();
     }
 
     // BEGIN Android-added: Method to clone standard file descriptors.
@@ -225,8 +240,16 @@ public final class FileDescriptor {
       synchronized (releaseLock) {
           result.descriptor = this.descriptor;
           result.ownerId = this.ownerId;
+          // BEGIN Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+          result.socketInfoFd = this.socketInfoFd;
+          result.socketDomain = this.socketDomain;
+          result.socketType = this.socketType;
+          result.socketProtocol = this.socketProtocol;
+          // END Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
           this.descriptor = -1;
           this.ownerId = FileDescriptor.NO_OWNER;
+          // Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+          forgetSocketInfo();
       }
 
       return result;
@@ -242,6 +265,49 @@ public final class FileDescriptor {
     }
 
     private static native boolean isSocket(int descriptor);
+
+    // BEGIN Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
+    /**
+     * Returns the cached domain of the socket, or -1 if it isn't known.
+     * @hide internal use only
+     */
+    public int getSocketDomain$() {
+        return (socketInfoFd == descriptor) ? socketDomain : -1;
+    }
+
+    /**
+     * Returns the cached type of the socket, or -1 if it isn't known.
+     * @hide internal use only
+     */
+    public int getSocketType$() {
+        return (socketInfoFd == descriptor) ? socketType : -1;
+    }
+
+    /**
+     * Returns the cached protocol of the socket, or -1 if it isn't known.
+     * @hide internal use only
+     */
+    public int getSocketProtocol$() {
+        return (socketInfoFd == descriptor) ? socketProtocol : -1;
+    }
+
+    /**
+     * Caches the domain, type and protocol of the socket. Any of them may be -1 if it isn't
+     * known. The values are forgotten by {@link #setInt$}, and ignored once the descriptor no
+     * longer has its current value.
+     * @hide internal use only
+     */
+    public void setSocketInfo$(int domain, int type, int protocol) {
+        this.socketInfoFd = descriptor;
+        this.socketDomain = domain;
+        this.socketType = type;
+        this.socketProtocol = protocol;
+    }
+
+    private void forgetSocketInfo() {
+        setSocketInfo$(-1, -1, -1);
+    }
+    // END Android-added: Socket metadata cached by libcore.io.BlockGuardOs.
     // Set up JavaIOFileDescriptorAccess in SharedSecrets
     static {
         jdk.internal.misc.SharedSecrets.setJavaIOFileDescriptorAccess(
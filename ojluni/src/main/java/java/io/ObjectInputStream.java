@@ -2177,6 +2177,11 @@ public class ObjectInputStream
             desc.setPrimFieldValues(obj, primVals);
         }
 
+        // BEGIN Android-added: Skip object fields of classes that have none.
+        if (desc.getNumObjFields() == 0) {
+            return;
+        }
+        // END Android-added: Skip object fields of classes that have none.
         int objHandle = passHandle;
         ObjectStreamField[] fields = desc.getFields(false);
         Object[] objVals = new Object[desc.getNumObjFields()];
@@ -1605,6 +1605,11 @@ public class ObjectOutputStream
         desc.getPrimFieldValues(obj, primVals);
         bout.write(primVals, 0, primDataSize, false);
 
+        // BEGIN Android-added: Skip object fields of classes that have none.
+        if (desc.getNumObjFields() == 0) {
+            return;
+        }
+        // END Android-added: Skip object fields of classes that have none.
         ObjectStreamField[] fields = desc.getFields(false);
         Object[] objVals = new Object[desc.getNumObjFields()];
         int numPrimFields = fields.length - objVals.length;
@@ -110,8 +110,30 @@ public class ObjectStreamClass implements Serializable {
         /** queue for WeakReferences to field reflectors keys */
         private static final ReferenceQueue<Class<?>> reflectorsQueue =
             new ReferenceQueue<>();
+
+        // BEGIN Android-added: Look up local descriptors without allocating a key.
+        /**
+         * Front cache for localDescs.  Each class gets a holder for its
+         * descriptor, which lookup() fills once the descriptor is created so
+         * that later lookups don't allocate a WeakClassKey.
+         */
+        static final ClassValue<LocalDescHolder> localDescHolders =
+            new ClassValue<LocalDescHolder>() {
+                @Override
+                protected LocalDescHolder computeValue(Class<?> type) {
+                    return new LocalDescHolder();
+                }
+            };
+        // END Android-added: Look up local descriptors without allocating a key.
     }
 
+    // BEGIN Android-added: Look up local descriptors without allocating a key.
+    /** Holds the cached local descriptor of a class, if any. */
+    private static class LocalDescHolder {
+        volatile SoftReference<ObjectStreamClass> desc;
+    }
+    // END Android-added: Look up local descriptors without allocating a key.
+
     /** class associated with this descriptor (if any) */
     private Class<?> cl;
     /** name of class represented by this descriptor */
@@ -204,6 +226,18 @@ public class ObjectStreamClass implements Serializable {
     private Method writeReplaceMethod;
     /** class-defined readResolve method, or null if none */
     private Method readResolveMethod;
+    // BEGIN Android-added: Invoke serialization hooks through method handles.
+    /** handle for writeObjectMethod, or null if none */
+    private MethodHandle writeObjectHandle;
+    /** handle for readObjectMethod, or null if none */
+    private MethodHandle readObjectHandle;
+    /** handle for readObjectNoDataMethod, or null if none */
+    private MethodHandle readObjectNoDataHandle;
+    /** handle for writeReplaceMethod, or null if none */
+    private MethodHandle writeReplaceHandle;
+    /** handle for readResolveMethod, or null if none */
+    private MethodHandle readResolveHandle;
+    // END Android-added: Invoke serialization hooks through method handles.
 
     /** local class descriptor for represented class (may point to self) */
     private ObjectStreamClass localDesc;
@@ -350,6 +384,16 @@ public class ObjectStreamClass implements Serializable {
         if (!(all || Serializable.class.isAssignableFrom(cl))) {
             return null;
         }
+        // BEGIN Android-added: Look up local descriptors without allocating a key.
+        LocalDescHolder holder = Caches.localDescHolders.get(cl);
+        SoftReference<ObjectStreamClass> held = holder.desc;
+        if (held != null) {
+            ObjectStreamClass desc = held.get();
+            if (desc != null) {
+                return desc;
+            }
+        }
+        // END Android-added: Look up local descriptors without allocating a key.
         processQueue(Caches.localDescsQueue, Caches.localDescs);
         WeakClassKey key = new WeakClassKey(cl, Caches.localDescsQueue);
         Reference<?> ref = Caches.localDescs.get(key);
@@ -376,6 +420,8 @@ public class ObjectStreamClass implements Serializable {
         }
 
         if (entry instanceof ObjectStreamClass) {  // check common case first
+            // Android-added: Look up local descriptors without allocating a key.
+            holder.desc = new SoftReference<>((ObjectStreamClass) entry);
             return (ObjectStreamClass) entry;
         }
         if (entry instanceof EntryFuture) {
@@ -407,6 +453,8 @@ public class ObjectStreamClass implements Serializable {
         }
 
         if (entry instanceof ObjectStreamClass) {
+            // Android-added: Look up local descriptors without allocating a key.
+            holder.desc = new SoftReference<>((ObjectStreamClass) entry);
             return (ObjectStreamClass) entry;
         } else if (entry instanceof RuntimeException) {
             throw (RuntimeException) entry;
@@ -541,6 +589,13 @@ public class ObjectStreamClass implements Serializable {
                         cl, "writeReplace", null, Object.class);
                     readResolveMethod = getInheritableMethod(
                         cl, "readResolve", null, Object.class);
+                    // BEGIN Android-added: Invoke serialization hooks through method handles.
+                    writeObjectHandle = unreflectHook(writeObjectMethod);
+                    readObjectHandle = unreflectHook(readObjectMethod);
+                    readObjectNoDataHandle = unreflectHook(readObjectNoDataMethod);
+                    writeReplaceHandle = unreflectHook(writeReplaceMethod);
+                    readResolveHandle = unreflectHook(readResolveMethod);
+                    // END Android-added: Invoke serialization hooks through method handles.
                     return null;
                 }
             });
@@ -612,6 +667,9 @@ public class ObjectStreamClass implements Serializable {
             externalizable = localDesc.externalizable;
             writeReplaceMethod = localDesc.writeReplaceMethod;
             readResolveMethod = localDesc.readResolveMethod;
+            // Android-added: Invoke serialization hooks through method handles.
+            writeReplaceHandle = localDesc.writeReplaceHandle;
+            readResolveHandle = localDesc.readResolveHandle;
             deserializeEx = localDesc.deserializeEx;
             cons = localDesc.cons;
         }
@@ -701,6 +759,13 @@ public class ObjectStreamClass implements Serializable {
             readObjectNoDataMethod = localDesc.readObjectNoDataMethod;
             writeReplaceMethod = localDesc.writeReplaceMethod;
             readResolveMethod = localDesc.readResolveMethod;
+            // BEGIN Android-added: Invoke serialization hooks through method handles.
+            writeObjectHandle = localDesc.writeObjectHandle;
+            readObjectHandle = localDesc.readObjectHandle;
+            readObjectNoDataHandle = localDesc.readObjectNoDataHandle;
+            writeReplaceHandle = localDesc.writeReplaceHandle;
+            readResolveHandle = localDesc.readResolveHandle;
+            // END Android-added: Invoke serialization hooks through method handles.
             if (deserializeEx == null) {
                 deserializeEx = localDesc.deserializeEx;
             }
@@ -1075,6 +1140,8 @@ public class ObjectStreamClass implements Serializable {
     {
         requireInitialized();
         if (writeObjectMethod != null) {
+            // BEGIN Android-changed: Invoke serialization hooks through method handles.
+            /*
             try {
                 writeObjectMethod.invoke(obj, new Object[]{ out });
             } catch (InvocationTargetException ex) {
@@ -1088,6 +1155,15 @@ public class ObjectStreamClass implements Serializable {
                 // should not occur, as access checks have been suppressed
                 throw new InternalError(ex);
             }
+            */
+            try {
+                writeObjectHandle.invoke(obj, out);
+            } catch (IOException ex) {
+                throw ex;
+            } catch (Throwable th) {
+                throwMiscException(th);
+            }
+            // END Android-changed: Invoke serialization hooks through method handles.
         } else {
             throw new UnsupportedOperationException();
         }
@@ -1105,6 +1181,8 @@ public class ObjectStreamClass implements Serializable {
     {
         requireInitialized();
         if (readObjectMethod != null) {
+            // BEGIN Android-changed: Invoke serialization hooks through method handles.
+            /*
             try {
                 readObjectMethod.invoke(obj, new Object[]{ in });
             } catch (InvocationTargetException ex) {
@@ -1120,6 +1198,15 @@ public class ObjectStreamClass implements Serializable {
                 // should not occur, as access checks have been suppressed
                 throw new InternalError(ex);
             }
+            */
+            try {
+                readObjectHandle.invoke(obj, in);
+            } catch (ClassNotFoundException | IOException ex) {
+                throw ex;
+            } catch (Throwable th) {
+                throwMiscException(th);
+            }
+            // END Android-changed: Invoke serialization hooks through method handles.
         } else {
             throw new UnsupportedOperationException();
         }
@@ -1136,6 +1223,8 @@ public class ObjectStreamClass implements Serializable {
     {
         requireInitialized();
         if (readObjectNoDataMethod != null) {
+            // BEGIN Android-changed: Invoke serialization hooks through method handles.
+            /*
             try {
                 readObjectNoDataMethod.invoke(obj, (Object[]) null);
             } catch (InvocationTargetException ex) {
@@ -1149,6 +1238,15 @@ public class ObjectStreamClass implements Serializable {
                 // should not occur, as access checks have been suppressed
                 throw new InternalError(ex);
             }
+            */
+            try {
+                readObjectNoDataHandle.invoke(obj);
+            } catch (ObjectStreamException ex) {
+                throw ex;
+            } catch (Throwable th) {
+                throwMiscException(th);
+            }
+            // END Android-changed: Invoke serialization hooks through method handles.
         } else {
             throw new UnsupportedOperationException();
         }
@@ -1165,6 +1263,8 @@ public class ObjectStreamClass implements Serializable {
     {
         requireInitialized();
         if (writeReplaceMethod != null) {
+            // BEGIN Android-changed: Invoke serialization hooks through method handles.
+            /*
             try {
                 return writeReplaceMethod.invoke(obj, (Object[]) null);
             } catch (InvocationTargetException ex) {
@@ -1179,6 +1279,16 @@ public class ObjectStreamClass implements Serializable {
                 // should not occur, as access checks have been suppressed
                 throw new InternalError(ex);
             }
+            */
+            try {
+                return (Object) writeReplaceHandle.invoke(obj);
+            } catch (ObjectStreamException ex) {
+                throw ex;
+            } catch (Throwable th) {
+                throwMiscException(th);
+                throw new InternalError(th);  // never reached
+            }
+            // END Android-changed: Invoke serialization hooks through method handles.
         } else {
             throw new UnsupportedOperationException();
         }
@@ -1195,6 +1305,8 @@ public class ObjectStreamClass implements Serializable {
     {
         requireInitialized();
         if (readResolveMethod != null) {
+            // BEGIN Android-changed: Invoke serialization hooks through method handles.
+            /*
             try {
                 return readResolveMethod.invoke(obj, (Object[]) null);
             } catch (InvocationTargetException ex) {
@@ -1209,6 +1321,16 @@ public class ObjectStreamClass implements Serializable {
                 // should not occur, as access checks have been suppressed
                 throw new InternalError(ex);
             }
+            */
+            try {
+                return (Object) readResolveHandle.invoke(obj);
+            } catch (ObjectStreamException ex) {
+                throw ex;
+            } catch (Throwable th) {
+                throwMiscException(th);
+                throw new InternalError(th);  // never reached
+            }
+            // END Android-changed: Invoke serialization hooks through method handles.
         } else {
             throw new UnsupportedOperationException();
         }
@@ -1570,6 +1692,28 @@ public class ObjectStreamClass implements Serializable {
         }
     }
 
+    // BEGIN Android-added: Invoke serialization hooks through method handles.
+    /**
+     * Returns a method handle for the given serialization hook, or null if
+     * meth is null.  Hooks are invoked through these handles rather than
+     * Method.invoke(), which boxes arguments into an array and wraps
+     * exceptions.  The handles are called with invoke() rather than adapted
+     * with asType() so the call site's receiver type is converted by the
+     * runtime instead of by a transforming handle.
+     */
+    private static MethodHandle unreflectHook(Method meth) {
+        if (meth == null) {
+            return null;
+        }
+        try {
+            // Access checks have been suppressed on meth.
+            return MethodHandles.lookup().unreflect(meth);
+        } catch (IllegalAccessException ex) {
+            throw new InternalError(ex);
+        }
+    }
+    // END Android-added: Invoke serialization hooks through method handles.
+
     /**
      * Returns true if classes are defined in the same runtime package, false
      * otherwise.
@@ -2076,6 +2220,9 @@ public class ObjectStreamClass implements Serializable {
         private final char[] typeCodes;
         /** field types */
         private final Class<?>[] types;
+        // Android-added: Skip assignment checks for fields of type Object.
+        /** true if some object field is not of type Object, and so needs assignment checks */
+        private final boolean objTypesChecked;
 
         /**
          * Constructs FieldReflector capable of setting/getting values from the
@@ -2112,6 +2259,15 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+
+            // BEGIN Android-added: Skip assignment checks for fields of type Object.
+            boolean checked = false;
+            for (Class<?> type : types) {
+                // Filler fields (null type) are skipped through their write key.
+                checked |= (type != null && type != Object.class);
+            }
+            objTypesChecked = checked;
+            // END Android-added: Skip assignment checks for fields of type Object.
         }
 
         /**
@@ -2279,7 +2435,9 @@ public class ObjectStreamClass implements Serializable {
                     case 'L':
                     case '[':
                         Object val = vals[offsets[i]];
-                        if (val != null &&
+                        // Android-changed: Skip assignment checks for fields of type Object.
+                        // if (val != null &&
+                        if (objTypesChecked && val != null &&
                             !types[i - numPrimFields].isInstance(val))
                         {
                             Field f = fields[i].getField();
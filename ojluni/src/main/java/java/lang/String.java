@@ -41,6 +41,7 @@ import java.util.Objects;
 import java.util.Spliterator;
 import java.util.StringJoiner;
 import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
@@ -2754,7 +2755,16 @@ public final class String
      * @spec JSR-51
      */
     public String replaceFirst(String regex, String replacement) {
-        return Pattern.compile(regex).matcher(this).replaceFirst(replacement);
+        // BEGIN Android-changed: Reuse compiled patterns and their matchers.
+        // return Pattern.compile(regex).matcher(this).replaceFirst(replacement);
+        Pattern p = Pattern.compileCached(regex, 0);
+        Matcher m = p.acquireMatcher(this);
+        try {
+            return m.replaceFirst(replacement);
+        } finally {
+            p.releaseMatcher(m);
+        }
+        // END Android-changed: Reuse compiled patterns and their matchers.
     }
 
     /**
@@ -2799,7 +2809,16 @@ public final class String
      * @spec JSR-51
      */
     public String replaceAll(String regex, String replacement) {
-        return Pattern.compile(regex).matcher(this).replaceAll(replacement);
+        // BEGIN Android-changed: Reuse compiled patterns and their matchers.
+        // return Pattern.compile(regex).matcher(this).replaceAll(replacement);
+        Pattern p = Pattern.compileCached(regex, 0);
+        Matcher m = p.acquireMatcher(this);
+        try {
+            return m.replaceAll(replacement);
+        } finally {
+            p.releaseMatcher(m);
+        }
+        // END Android-changed: Reuse compiled patterns and their matchers.
     }
 
     /**
@@ -3004,7 +3023,9 @@ public final class String
             return fast;
         }
         // END Android-changed: Replace custom fast-path with use of new Pattern.fastSplit method.
-        return Pattern.compile(regex).split(this, limit);
+        // Android-changed: Reuse compiled patterns.
+        // return Pattern.compile(regex).split(this, limit);
+        return Pattern.compileCached(regex, 0).split(this, limit);
     }
 
     /**
@@ -33,7 +33,10 @@ import dalvik.system.VMRuntime;
 import java.io.*;
 import java.nio.channels.Channel;
 import java.nio.channels.spi.SelectorProvider;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.PropertyPermission;
 import libcore.icu.ICU;
@@ -930,6 +933,13 @@ public final class System {
     private static Properties props;
     private static Properties unchangeableProps;
 
+    // Android-added: Lock-free lookup of hardcoded system properties.
+    // The non-null values of AndroidHardcodedSystemProperties.STATIC_PROPERTIES. They are
+    // unchangeable defaults of every system Properties object, so getProperty can answer
+    // them without a lookup in the current properties and their defaults. Never mutated,
+    // only replaced.
+    private static volatile Map<String, String> hardcodedProps = Collections.emptyMap();
+
     private static native String[] specialProperties();
 
     static final class PropertiesWithNonOverrideableDefaults extends Properties {
@@ -1026,6 +1036,15 @@ public final class System {
             }
         }
 
+        // Android-added: Lock-free lookup of hardcoded system properties.
+        Map<String, String> hardcoded = new HashMap<>();
+        for (String[] pair : AndroidHardcodedSystemProperties.STATIC_PROPERTIES) {
+            if (pair[1] != null) {
+                hardcoded.put(pair[0], pair[1]);
+            }
+        }
+        hardcodedProps = Collections.unmodifiableMap(hardcoded);
+
         return p;
     }
 
@@ -1070,6 +1089,13 @@ public final class System {
     public static void setUnchangeableSystemProperty(String key, String value) {
         checkKey(key);
         unchangeableProps.put(key, value);
+
+        // Android-added: Lock-free lookup of hardcoded system properties.
+        if (hardcodedProps.containsKey(key)) {
+            Map<String, String> hardcoded = new HashMap<>(hardcodedProps);
+            hardcoded.put(key, value);
+            hardcodedProps = Collections.unmodifiableMap(hardcoded);
+        }
     }
 
     private static void addLegacyLocaleSystemProperties() {
@@ -1235,6 +1261,12 @@ public final class System {
             sm.checkPropertyAccess(key);
         }
 
+        // BEGIN Android-added: Lock-free lookup of hardcoded system properties.
+        String value = hardcodedProps.get(key);
+        if (value != null) {
+            return value;
+        }
+        // END Android-added: Lock-free lookup of hardcoded system properties.
         return props.getProperty(key);
     }
 
@@ -1271,6 +1303,12 @@ public final class System {
             sm.checkPropertyAccess(key);
         }
 
+        // BEGIN Android-added: Lock-free lookup of hardcoded system properties.
+        String value = hardcodedProps.get(key);
+        if (value != null) {
+            return value;
+        }
+        // END Android-added: Lock-free lookup of hardcoded system properties.
         return props.getProperty(key, def);
     }
 
@@ -1526,7 +1526,7 @@ assertEquals("[three, thee, tee]", asListFix.invoke((Object)argv).toString());
         x = type.leadingReferenceParameter().cast(x);  // throw CCE if needed
         // Android-changed: Android specific implementation.
         // return bindArgumentL(0, x);
-        return new Transformers.BindTo(this, x);
+        return Transformers.RearrangeArguments.insertArguments(this, 0, new Object[] { x });
     }
 
     /**
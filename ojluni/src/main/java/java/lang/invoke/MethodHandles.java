@@ -2947,7 +2947,7 @@ assert((int)twice.invokeExact(21) == 42);
         MethodType oldType = target.type();
         permuteArgumentChecks(reorder, newType, oldType);
 
-        return new Transformers.PermuteArguments(newType, target, reorder);
+        return Transformers.RearrangeArguments.permuteArguments(newType, target, reorder);
     }
 
     // Android-changed: findFirstDupOrDrop is unused and removed.
@@ -3183,7 +3183,7 @@ assert((int)twice.invokeExact(21) == 42);
             }
         }
 
-        return new Transformers.InsertArguments(target, pos, values);
+        return Transformers.RearrangeArguments.insertArguments(target, pos, values);
     }
 
     // Android-changed: insertArgumentPrimitive is unused.
@@ -3280,7 +3280,7 @@ assertEquals("yz", (String) d0.invokeExact(123, "x", "y", "z"));
         // }
         // result = result.copyWith(newType, lform);
         // return result;
-        return new Transformers.DropArguments(newType, target, pos, dropped);
+        return Transformers.RearrangeArguments.dropArguments(newType, target, pos, dropped);
     }
 
     private static int dropArgumentChecks(MethodType oldType, int pos, List<Class<?>> valueTypes) {
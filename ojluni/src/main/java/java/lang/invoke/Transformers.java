@@ -27,7 +27,6 @@ import static dalvik.system.EmulatedStackFrame.StackFrameAccessor.copyNext;
 
 import dalvik.system.EmulatedStackFrame;
 import dalvik.system.EmulatedStackFrame.Range;
-import dalvik.system.EmulatedStackFrame.RandomOrderStackFrameReader;
 import dalvik.system.EmulatedStackFrame.StackFrameAccessor;
 import dalvik.system.EmulatedStackFrame.StackFrameReader;
 import dalvik.system.EmulatedStackFrame.StackFrameWriter;
@@ -123,34 +122,116 @@ public class Transformers {
         }
     }
 
-    /** Implements {@code MethodHandles.dropArguments}. */
-    static class DropArguments extends Transformer {
-        private final MethodHandle delegate;
-        private final EmulatedStackFrame.Range range1;
-        private final EmulatedStackFrame.Range range2;
+    /**
+     * Implements {@code MethodHandles.dropArguments}, {@code MethodHandles.insertArguments},
+     * {@code MethodHandles.permuteArguments} and {@code MethodHandle.bindTo}. Each of them
+     * calls its target with some of its own arguments, in some order, and constants.
+     *
+     * A rearrangement whose target is itself a rearrangement is fused with it when it is
+     * created, so that a chain of them calls the innermost target with a single frame.
+     */
+    static class RearrangeArguments extends Transformer {
+        private final MethodHandle target;
+
+        /**
+         * For each argument of the target, the index of the argument of this handle that it is,
+         * or -1 if it is {@code constants[i]}.
+         */
+        private final int[] sources;
+        private final Object[] constants;
 
-        DropArguments(MethodType type, MethodHandle delegate, int startPos, int numDropped) {
+        private final EmulatedStackFrame.ArgumentMapping mapping;
+
+        private RearrangeArguments(MethodType type, MethodHandle target, int[] sources,
+                Object[] constants) {
             super(type);
 
-            this.delegate = delegate;
+            this.target = target;
+            this.sources = sources;
+            this.constants = constants;
+
+            // The copies are planned when the handle is created so that invocations only
+            // move values between frames.
+            this.mapping = EmulatedStackFrame.ArgumentMapping.create(
+                    type, target.type(), sources, constants);
+        }
+
+        private static MethodHandle create(MethodType type, MethodHandle target, int[] sources,
+                Object[] constants) {
+            if (!(target instanceof RearrangeArguments)) {
+                return new RearrangeArguments(type, target, sources, constants);
+            }
+
+            // Map the arguments of the inner target straight to ours. The types of the inner
+            // handle's arguments are exactly those of the arguments they come from, so no
+            // conversions are lost.
+            final RearrangeArguments inner = (RearrangeArguments) target;
+            final int[] fusedSources = new int[inner.sources.length];
+            final Object[] fusedConstants = new Object[inner.sources.length];
+            for (int i = 0; i < fusedSources.length; ++i) {
+                final int source = inner.sources[i];
+                if (source < 0) {
+                    fusedSources[i] = -1;
+                    fusedConstants[i] = inner.constants[i];
+                } else if (sources[source] < 0) {
+                    fusedSources[i] = -1;
+                    fusedConstants[i] = constants[source];
+                } else {
+                    fusedSources[i] = sources[source];
+                }
+            }
+            return new RearrangeArguments(type, inner.target, fusedSources, fusedConstants);
+        }
 
-            // We pre-calculate the ranges of values we have to copy through to the delegate
-            // handle at the time of instantiation so that the actual invoke is performant.
-            this.range1 = EmulatedStackFrame.Range.of(type, 0, startPos);
-            this.range2 = EmulatedStackFrame.Range.from(type, startPos + numDropped);
+        /** Implements {@code MethodHandles.dropArguments}. */
+        static MethodHandle dropArguments(MethodType type, MethodHandle target, int startPos,
+                int numDropped) {
+            final int[] sources = new int[target.type().parameterCount()];
+            for (int i = 0; i < sources.length; ++i) {
+                sources[i] = (i < startPos) ? i : i + numDropped;
+            }
+            return create(type, target, sources, new Object[sources.length]);
         }
 
-        @Override
-        public void transform(EmulatedStackFrame emulatedStackFrame) throws Throwable {
-            EmulatedStackFrame calleeFrame = EmulatedStackFrame.create(delegate.type());
+        /**
+         * Implements {@code MethodHandles.insertArguments} and {@code MethodHandle.bindTo}. The
+         * values must already have been converted to the types of the parameters they are
+         * inserted as.
+         */
+        static MethodHandle insertArguments(MethodHandle target, int pos, Object[] values) {
+            final MethodType type =
+                    target.type().dropParameterTypes(pos, pos + values.length);
+            final int[] sources = new int[target.type().parameterCount()];
+            final Object[] constants = new Object[sources.length];
+            for (int i = 0; i < sources.length; ++i) {
+                if (i < pos) {
+                    sources[i] = i;
+                } else if (i < pos + values.length) {
+                    sources[i] = -1;
+                    constants[i] = values[i - pos];
+                } else {
+                    sources[i] = i - values.length;
+                }
+            }
+            return create(type, target, sources, constants);
+        }
 
-            emulatedStackFrame.copyRangeTo(
-                    calleeFrame, range1, 0 /* referencesStart */, 0 /* stackFrameStart */);
-            emulatedStackFrame.copyRangeTo(
-                    calleeFrame, range2, range1.numReferences, range1.numBytes);
+        /** Implements {@code MethodHandles.permuteArguments}. */
+        static MethodHandle permuteArguments(MethodType type, MethodHandle target,
+                int[] reorder) {
+            return create(type, target, reorder, new Object[reorder.length]);
+        }
 
-            invokeFromTransform(delegate, calleeFrame);
-            calleeFrame.copyReturnValueTo(emulatedStackFrame);
+        @Override
+        public void transform(EmulatedStackFrame emulatedStackFrame) throws Throwable {
+            final EmulatedStackFrame calleeFrame = EmulatedStackFrame.acquire(target.type());
+            try {
+                mapping.apply(emulatedStackFrame, calleeFrame);
+                invokeFromTransform(target, calleeFrame);
+                calleeFrame.copyReturnValueTo(emulatedStackFrame);
+            } finally {
+                EmulatedStackFrame.release(calleeFrame);
+            }
         }
     }
 
@@ -185,23 +266,27 @@ public class Transformers {
                 if (th.getClass() == exType) {
                     // We've gotten an exception of the appropriate type, so we need to call
                     // the handler. Create a new frame of the appropriate size.
-                    EmulatedStackFrame fallback = EmulatedStackFrame.create(handler.type());
-
-                    // The first argument to the handler is the actual exception.
-                    fallback.setReference(0, th);
-
-                    // We then copy other arguments that need to be passed through to the handler.
-                    // Note that we might drop arguments at the end, if needed. Note that
-                    // referencesStart == 1 because the first argument is the exception type.
-                    emulatedStackFrame.copyRangeTo(
-                            fallback,
-                            handlerArgsRange,
-                            1 /* referencesStart */,
-                            0 /* stackFrameStart */);
-
-                    // Perform the invoke and return the appropriate value.
-                    invokeFromTransform(handler, fallback);
-                    fallback.copyReturnValueTo(emulatedStackFrame);
+                    EmulatedStackFrame fallback = EmulatedStackFrame.acquire(handler.type());
+                    try {
+                        // The first argument to the handler is the actual exception.
+                        fallback.setReference(0, th);
+
+                        // We then copy other arguments that need to be passed through to the
+                        // handler. Note that we might drop arguments at the end, if needed.
+                        // Note that referencesStart == 1 because the first argument is the
+                        // exception type.
+                        emulatedStackFrame.copyRangeTo(
+                                fallback,
+                                handlerArgsRange,
+                                1 /* referencesStart */,
+                                0 /* stackFrameStart */);
+
+                        // Perform the invoke and return the appropriate value.
+                        invokeFromTransform(handler, fallback);
+                        fallback.copyReturnValueTo(emulatedStackFrame);
+                    } finally {
+                        EmulatedStackFrame.release(fallback);
+                    }
                 } else {
                     // The exception is not of the expected type, we throw it.
                     throw th;
@@ -296,15 +381,20 @@ public class Transformers {
 
         @Override
         public void transform(EmulatedStackFrame emulatedStackFrame) throws Throwable {
-            EmulatedStackFrame testFrame = EmulatedStackFrame.create(test.type());
-            emulatedStackFrame.copyRangeTo(testFrame, testArgsRange, 0, 0);
-
-            // We know that the return value for test is going to be boolean.class.
-            StackFrameReader reader = new StackFrameReader();
-            reader.attach(testFrame);
-            reader.makeReturnValueAccessor();
-            invokeFromTransform(test, testFrame);
-            final boolean testResult = (boolean) reader.nextBoolean();
+            final boolean testResult;
+            EmulatedStackFrame testFrame = EmulatedStackFrame.acquire(test.type());
+            try {
+                emulatedStackFrame.copyRangeTo(testFrame, testArgsRange, 0, 0);
+
+                // We know that the return value for test is going to be boolean.class.
+                StackFrameReader reader = new StackFrameReader();
+                reader.attach(testFrame);
+                reader.makeReturnValueAccessor();
+                invokeFromTransform(test, testFrame);
+                testResult = (boolean) reader.nextBoolean();
+            } finally {
+                EmulatedStackFrame.release(testFrame);
+            }
             if (testResult) {
                 invokeFromTransform(target, emulatedStackFrame);
             } else {
@@ -523,40 +613,6 @@ public class Transformers {
         }
     }
 
-    /** Implements {@code MethodHandle.bindTo}. */
-    static class BindTo extends Transformer {
-        private final MethodHandle delegate;
-        private final Object receiver;
-
-        private final EmulatedStackFrame.Range range;
-
-        BindTo(MethodHandle delegate, Object receiver) {
-            super(delegate.type().dropParameterTypes(0, 1));
-
-            this.delegate = delegate;
-            this.receiver = receiver;
-
-            this.range = EmulatedStackFrame.Range.all(this.type());
-        }
-
-        @Override
-        public void transform(EmulatedStackFrame emulatedStackFrame) throws Throwable {
-            // Create a new emulated stack frame with the full type (including the leading
-            // receiver reference).
-            EmulatedStackFrame stackFrame = EmulatedStackFrame.create(delegate.type());
-
-            // The first reference argument must be the receiver.
-            stackFrame.setReference(0, receiver);
-            // Copy all other arguments.
-            emulatedStackFrame.copyRangeTo(
-                    stackFrame, range, 1 /* referencesStart */, 0 /* stackFrameStart */);
-
-            // Perform the invoke.
-            invokeFromTransform(delegate, stackFrame);
-            stackFrame.copyReturnValueTo(emulatedStackFrame);
-        }
-    }
-
     /** Implements {@code MethodHandle.filterReturnValue}. */
     static class FilterReturnValue extends Transformer {
         private final MethodHandle target;
@@ -578,59 +634,36 @@ public class Transformers {
             // Create a new frame with the target's type and copy all arguments over.
             // This frame differs in return type with |emulatedStackFrame| but will have
             // the same parameter shapes.
-            EmulatedStackFrame targetFrame = EmulatedStackFrame.create(target.type());
-            emulatedStackFrame.copyRangeTo(targetFrame, allArgs, 0, 0);
-            invokeFromTransform(target, targetFrame);
+            EmulatedStackFrame targetFrame = EmulatedStackFrame.acquire(target.type());
+            final EmulatedStackFrame filterFrame;
+            try {
+                emulatedStackFrame.copyRangeTo(targetFrame, allArgs, 0, 0);
+                invokeFromTransform(target, targetFrame);
 
-            // Create an emulated frame for the filter and move the return value from
-            // target to the argument of the filter.
-            final EmulatedStackFrame filterFrame = EmulatedStackFrame.create(filter.type());
-            final Class<?> filterArgumentType = target.type().rtype();
-            if (filterArgumentType != void.class) {
-                final StackFrameReader returnValueReader = new StackFrameReader();
-                returnValueReader.attach(targetFrame).makeReturnValueAccessor();
+                // Create an emulated frame for the filter and move the return value from
+                // target to the argument of the filter.
+                filterFrame = EmulatedStackFrame.acquire(filter.type());
+                final Class<?> filterArgumentType = target.type().rtype();
+                if (filterArgumentType != void.class) {
+                    final StackFrameReader returnValueReader = new StackFrameReader();
+                    returnValueReader.attach(targetFrame).makeReturnValueAccessor();
 
-                final StackFrameWriter filterWriter = new StackFrameWriter();
-                filterWriter.attach(filterFrame);
-                StackFrameAccessor.copyNext(returnValueReader, filterWriter, filterArgumentType);
+                    final StackFrameWriter filterWriter = new StackFrameWriter();
+                    filterWriter.attach(filterFrame);
+                    StackFrameAccessor.copyNext(
+                            returnValueReader, filterWriter, filterArgumentType);
+                }
+            } finally {
+                EmulatedStackFrame.release(targetFrame);
             }
 
             // Invoke the filter and copy its return value back to the original frame.
-            invokeExactFromTransform(filter, filterFrame);
-            filterFrame.copyReturnValueTo(emulatedStackFrame);
-        }
-    }
-
-    /** Implements {@code MethodHandles.permuteArguments}. */
-    static class PermuteArguments extends Transformer {
-        private final MethodHandle target;
-        private final int[] reorder;
-
-        PermuteArguments(MethodType type, MethodHandle target, int[] reorder) {
-            super(type);
-
-            this.target = target;
-            this.reorder = reorder;
-        }
-
-        @Override
-        public void transform(EmulatedStackFrame emulatedStackFrame) throws Throwable {
-            final RandomOrderStackFrameReader reader = new RandomOrderStackFrameReader();
-            reader.attach(emulatedStackFrame);
-
-            final EmulatedStackFrame calleeFrame = EmulatedStackFrame.create(target.type());
-            final StackFrameWriter writer = new StackFrameWriter();
-            writer.attach(calleeFrame);
-
-            final Class<?> [] ptypes = emulatedStackFrame.getMethodType().parameterArray();
-            for (int i = 0; i < reorder.length; ++i) {
-                final int readerIndex = reorder[i];
-                reader.moveTo(readerIndex);
-                StackFrameAccessor.copyNext(reader, writer, ptypes[readerIndex]);
+            try {
+                invokeExactFromTransform(filter, filterFrame);
+                filterFrame.copyReturnValueTo(emulatedStackFrame);
+            } finally {
+                EmulatedStackFrame.release(filterFrame);
             }
-
-            invokeFromTransform(target, calleeFrame);
-            calleeFrame.copyReturnValueTo(emulatedStackFrame);
         }
     }
 
@@ -1587,50 +1620,58 @@ public class Transformers {
             final StackFrameReader reader = new StackFrameReader();
             reader.attach(stackFrame);
 
-            EmulatedStackFrame transformedFrame = EmulatedStackFrame.create(target.type());
-            final StackFrameWriter writer = new StackFrameWriter();
-            writer.attach(transformedFrame);
-
-            final Class<?>[] ptypes = target.type().ptypes();
-            for (int i = 0; i < ptypes.length; ++i) {
-                // Check whether the current argument has a filter associated with it.
-                // If it has no filter, no further action need be taken.
-                final Class<?> ptype = ptypes[i];
-                final MethodHandle filter;
-                if (i < pos) {
-                    filter = null;
-                } else if (i >= pos + filters.length) {
-                    filter = null;
-                } else {
-                    filter = filters[i - pos];
-                }
-
-                if (filter != null) {
-                    // Note that filter.type() must be (ptype)ptype - this is checked before
-                    // this transformer is created.
-                    EmulatedStackFrame filterFrame = EmulatedStackFrame.create(filter.type());
+            EmulatedStackFrame transformedFrame = EmulatedStackFrame.acquire(target.type());
+            try {
+                final StackFrameWriter writer = new StackFrameWriter();
+                writer.attach(transformedFrame);
+
+                final Class<?>[] ptypes = target.type().ptypes();
+                for (int i = 0; i < ptypes.length; ++i) {
+                    // Check whether the current argument has a filter associated with it.
+                    // If it has no filter, no further action need be taken.
+                    final Class<?> ptype = ptypes[i];
+                    final MethodHandle filter;
+                    if (i < pos) {
+                        filter = null;
+                    } else if (i >= pos + filters.length) {
+                        filter = null;
+                    } else {
+                        filter = filters[i - pos];
+                    }
 
-                    //  Copy the next argument from the stack frame to the filter frame.
-                    final StackFrameWriter filterWriter = new StackFrameWriter();
-                    filterWriter.attach(filterFrame);
-                    copyNext(reader, filterWriter, filter.type().ptypes()[0]);
+                    if (filter != null) {
+                        // Note that filter.type() must be (ptype)ptype - this is checked before
+                        // this transformer is created.
+                        EmulatedStackFrame filterFrame = EmulatedStackFrame.acquire(filter.type());
+                        try {
+                            //  Copy the next argument from the stack frame to the filter frame.
+                            final StackFrameWriter filterWriter = new StackFrameWriter();
+                            filterWriter.attach(filterFrame);
+                            copyNext(reader, filterWriter, filter.type().ptypes()[0]);
+
+                            invokeFromTransform(filter, filterFrame);
+
+                            // Copy the argument back from the filter frame to the stack frame.
+                            final StackFrameReader filterReader = new StackFrameReader();
+                            filterReader.attach(filterFrame);
+                            filterReader.makeReturnValueAccessor();
+                            copyNext(filterReader, writer, ptype);
+                        } finally {
+                            EmulatedStackFrame.release(filterFrame);
+                        }
+                    } else {
+                        // There's no filter associated with this frame, just copy the next argument
+                        // over.
+                        copyNext(reader, writer, ptype);
+                    }
+                }
 
-                    invokeFromTransform(filter, filterFrame);
 
-                    // Copy the argument back from the filter frame to the stack frame.
-                    final StackFrameReader filterReader = new StackFrameReader();
-                    filterReader.attach(filterFrame);
-                    filterReader.makeReturnValueAccessor();
-                    copyNext(filterReader, writer, ptype);
-                } else {
-                    // There's no filter associated with this frame, just copy the next argument
-                    // over.
-                    copyNext(reader, writer, ptype);
-                }
+                invokeFromTransform(target, transformedFrame);
+                transformedFrame.copyReturnValueTo(stackFrame);
+            } finally {
+                EmulatedStackFrame.release(transformedFrame);
             }
-
-            invokeFromTransform(target, transformedFrame);
-            transformedFrame.copyReturnValueTo(stackFrame);
         }
     }
 
@@ -1690,31 +1731,40 @@ public class Transformers {
         @Override
         public void transform(EmulatedStackFrame stackFrame) throws Throwable {
             // First invoke the collector.
-            EmulatedStackFrame filterFrame = EmulatedStackFrame.create(collector.type());
-            stackFrame.copyRangeTo(filterFrame, collectorRange, 0, 0);
-            invokeFromTransform(collector, filterFrame);
+            EmulatedStackFrame filterFrame = EmulatedStackFrame.acquire(collector.type());
+            EmulatedStackFrame targetFrame = null;
+            try {
+                stackFrame.copyRangeTo(filterFrame, collectorRange, 0, 0);
+                invokeFromTransform(collector, filterFrame);
 
-            // Start constructing the target frame.
-            EmulatedStackFrame targetFrame = EmulatedStackFrame.create(target.type());
-            stackFrame.copyRangeTo(targetFrame, range1, 0, 0);
+                // Start constructing the target frame.
+                targetFrame = EmulatedStackFrame.acquire(target.type());
+                stackFrame.copyRangeTo(targetFrame, range1, 0, 0);
 
-            // If one of these offsets is not zero, we have a return value to copy.
-            if (referencesOffset != 0 || stackFrameOffset != 0) {
-                final StackFrameReader reader = new StackFrameReader();
-                reader.attach(filterFrame).makeReturnValueAccessor();
-                final StackFrameWriter writer = new StackFrameWriter();
-                writer.attach(targetFrame, pos, range1.numReferences, range1.numBytes);
-                copyNext(reader, writer, target.type().ptypes()[pos]);
+                // If one of these offsets is not zero, we have a return value to copy.
+                if (referencesOffset != 0 || stackFrameOffset != 0) {
+                    final StackFrameReader reader = new StackFrameReader();
+                    reader.attach(filterFrame).makeReturnValueAccessor();
+                    final StackFrameWriter writer = new StackFrameWriter();
+                    writer.attach(targetFrame, pos, range1.numReferences, range1.numBytes);
+                    copyNext(reader, writer, target.type().ptypes()[pos]);
+                }
+            } finally {
+                EmulatedStackFrame.release(filterFrame);
             }
 
-            stackFrame.copyRangeTo(
-                    targetFrame,
-                    range2,
-                    range1.numReferences + referencesOffset,
-                    range1.numBytes + stackFrameOffset);
+            try {
+                stackFrame.copyRangeTo(
+                        targetFrame,
+                        range2,
+                        range1.numReferences + referencesOffset,
+                        range1.numBytes + stackFrameOffset);
 
-            invokeFromTransform(target, targetFrame);
-            targetFrame.copyReturnValueTo(stackFrame);
+                invokeFromTransform(target, targetFrame);
+                targetFrame.copyReturnValueTo(stackFrame);
+            } finally {
+                EmulatedStackFrame.release(targetFrame);
+            }
         }
     }
 
@@ -1765,37 +1815,46 @@ public class Transformers {
         @Override
         public void transform(EmulatedStackFrame stackFrame) throws Throwable {
             // First construct the combiner frame and invoke the combiner.
-            EmulatedStackFrame combinerFrame = EmulatedStackFrame.create(combiner.type());
-            stackFrame.copyRangeTo(combinerFrame, combinerArgs, 0, 0);
-            invokeExactFromTransform(combiner, combinerFrame);
+            EmulatedStackFrame combinerFrame = EmulatedStackFrame.acquire(combiner.type());
+            EmulatedStackFrame targetFrame = null;
+            try {
+                stackFrame.copyRangeTo(combinerFrame, combinerArgs, 0, 0);
+                invokeExactFromTransform(combiner, combinerFrame);
 
-            // Create the stack frame for the target and copy leading arguments to it.
-            EmulatedStackFrame targetFrame = EmulatedStackFrame.create(target.type());
-            stackFrame.copyRangeTo(targetFrame, leadingArgs, 0, 0);
+                // Create the stack frame for the target and copy leading arguments to it.
+                targetFrame = EmulatedStackFrame.acquire(target.type());
+                stackFrame.copyRangeTo(targetFrame, leadingArgs, 0, 0);
 
-            // If one of these offsets is not zero, we have to slot the return value from the
-            // combiner into the target frame.
-            if (referencesOffset != 0 || stackFrameOffset != 0) {
-                final StackFrameReader reader = new StackFrameReader();
-                reader.attach(combinerFrame).makeReturnValueAccessor();
-                final StackFrameWriter writer = new StackFrameWriter();
-                writer.attach(targetFrame,
-                              position,
-                              leadingArgs.numReferences,
-                              leadingArgs.numBytes);
-                copyNext(reader, writer, target.type().ptypes()[position]);
+                // If one of these offsets is not zero, we have to slot the return value from the
+                // combiner into the target frame.
+                if (referencesOffset != 0 || stackFrameOffset != 0) {
+                    final StackFrameReader reader = new StackFrameReader();
+                    reader.attach(combinerFrame).makeReturnValueAccessor();
+                    final StackFrameWriter writer = new StackFrameWriter();
+                    writer.attach(targetFrame,
+                                  position,
+                                  leadingArgs.numReferences,
+                                  leadingArgs.numBytes);
+                    copyNext(reader, writer, target.type().ptypes()[position]);
+                }
+            } finally {
+                EmulatedStackFrame.release(combinerFrame);
             }
 
-            // Copy the arguments provided to the combiner to the tail of the target frame.
-            stackFrame.copyRangeTo(
-                targetFrame,
-                trailingArgs,
-                leadingArgs.numReferences + referencesOffset,
-                leadingArgs.numBytes + stackFrameOffset);
+            try {
+                // Copy the arguments provided to the combiner to the tail of the target frame.
+                stackFrame.copyRangeTo(
+                    targetFrame,
+                    trailingArgs,
+                    leadingArgs.numReferences + referencesOffset,
+                    leadingArgs.numBytes + stackFrameOffset);
 
-            // Call the target and propagate return value.
-            invokeExactFromTransform(target, targetFrame);
-            targetFrame.copyReturnValueTo(stackFrame);
+                // Call the target and propagate return value.
+                invokeExactFromTransform(target, targetFrame);
+                targetFrame.copyReturnValueTo(stackFrame);
+            } finally {
+                EmulatedStackFrame.release(targetFrame);
+            }
         }
 
         private static MethodType deriveType(MethodHandle target,
@@ -1808,93 +1867,6 @@ public class Transformers {
         }
     }
 
-    /** Implements {@code MethodHandles.insertArguments}. */
-    static class InsertArguments extends Transformer {
-        private final MethodHandle target;
-        private final int pos;
-        private final Object[] values;
-
-        private final Range range1;
-        private final Range range2;
-
-        InsertArguments(MethodHandle target, int pos, Object[] values) {
-            super(target.type().dropParameterTypes(pos, pos + values.length));
-            this.target = target;
-            this.pos = pos;
-            this.values = values;
-
-            final MethodType type = type();
-            range1 = EmulatedStackFrame.Range.of(type, 0, pos);
-            range2 = Range.of(type, pos, type.parameterCount());
-        }
-
-        @Override
-        public void transform(EmulatedStackFrame stackFrame) throws Throwable {
-            EmulatedStackFrame calleeFrame = EmulatedStackFrame.create(target.type());
-
-            // Copy all arguments before |pos|.
-            stackFrame.copyRangeTo(calleeFrame, range1, 0, 0);
-
-            // Attach a stack frame writer so that we can copy the next |values.length|
-            // arguments.
-            final StackFrameWriter writer = new StackFrameWriter();
-            writer.attach(calleeFrame, pos, range1.numReferences, range1.numBytes);
-
-            // Copy all the arguments supplied in |values|.
-            int referencesCopied = 0;
-            int bytesCopied = 0;
-            final Class<?>[] ptypes = target.type().ptypes();
-            for (int i = 0; i < values.length; ++i) {
-                final Class<?> ptype = ptypes[i + pos];
-                final char typeChar = Wrapper.basicTypeChar(ptype);
-                if (typeChar == 'L') {
-                    writer.putNextReference(values[i], ptype);
-                    referencesCopied++;
-                } else {
-                    switch (typeChar) {
-                        case 'Z':
-                            writer.putNextBoolean((boolean) values[i]);
-                            break;
-                        case 'B':
-                            writer.putNextByte((byte) values[i]);
-                            break;
-                        case 'C':
-                            writer.putNextChar((char) values[i]);
-                            break;
-                        case 'S':
-                            writer.putNextShort((short) values[i]);
-                            break;
-                        case 'I':
-                            writer.putNextInt((int) values[i]);
-                            break;
-                        case 'J':
-                            writer.putNextLong((long) values[i]);
-                            break;
-                        case 'F':
-                            writer.putNextFloat((float) values[i]);
-                            break;
-                        case 'D':
-                            writer.putNextDouble((double) values[i]);
-                            break;
-                    }
-                    bytesCopied += EmulatedStackFrame.getSize(ptype);
-                }
-            }
-
-            // Copy all remaining arguments.
-            if (range2 != null) {
-                stackFrame.copyRangeTo(
-                        calleeFrame,
-                        range2,
-                        range1.numReferences + referencesCopied,
-                        range1.numBytes + bytesCopied);
-            }
-
-            invokeFromTransform(target, calleeFrame);
-            calleeFrame.copyReturnValueTo(stackFrame);
-        }
-    }
-
     /** Implements {@code MethodHandle.asType}. */
     static class AsTypeAdapter extends Transformer {
         private final MethodHandle target;
@@ -1906,23 +1878,27 @@ public class Transformers {
 
         @Override
         public void transform(EmulatedStackFrame callerFrame) throws Throwable {
-            final EmulatedStackFrame targetFrame = EmulatedStackFrame.create(target.type());
-            final StackFrameReader reader = new StackFrameReader();
-            final StackFrameWriter writer = new StackFrameWriter();
+            final EmulatedStackFrame targetFrame = EmulatedStackFrame.acquire(target.type());
+            try {
+                final StackFrameReader reader = new StackFrameReader();
+                final StackFrameWriter writer = new StackFrameWriter();
 
-            // Adapt arguments
-            reader.attach(callerFrame);
-            writer.attach(targetFrame);
-            adaptArguments(reader, writer);
+                // Adapt arguments
+                reader.attach(callerFrame);
+                writer.attach(targetFrame);
+                adaptArguments(reader, writer);
 
-            // Invoke target
-            invokeFromTransform(target, targetFrame);
+                // Invoke target
+                invokeFromTransform(target, targetFrame);
 
-            if (callerFrame.getMethodType().rtype() != void.class) {
-                // Adapt return value
-                reader.attach(targetFrame).makeReturnValueAccessor();
-                writer.attach(callerFrame).makeReturnValueAccessor();
-                adaptReturnValue(reader, writer);
+                if (callerFrame.getMethodType().rtype() != void.class) {
+                    // Adapt return value
+                    reader.attach(targetFrame).makeReturnValueAccessor();
+                    writer.attach(callerFrame).makeReturnValueAccessor();
+                    adaptReturnValue(reader, writer);
+                }
+            } finally {
+                EmulatedStackFrame.release(targetFrame);
             }
         }
 
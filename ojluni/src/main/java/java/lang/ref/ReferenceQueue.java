@@ -27,6 +27,7 @@
 package java.lang.ref;
 
 import sun.misc.Cleaner;
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -49,6 +50,10 @@ public class ReferenceQueue<T> {
     private Reference<? extends T> head = null;
     private Reference<? extends T> tail = null;
 
+    // Number of references currently in the queue. Only used for reporting.
+    // @GuardedBy("lock")
+    private int size = 0;
+
     private final Object lock = new Object();
 
     // Current target of enqueuePending. Either a Cleaner or a ReferenceQueue.
@@ -93,6 +98,7 @@ public class ReferenceQueue<T> {
         }
         tail = r;
         tail.queueNext = r;
+        size++;
         return true;
     }
 
@@ -112,6 +118,17 @@ public class ReferenceQueue<T> {
         }
     }
 
+    /**
+     * Returns the number of references currently enqueued on this queue and not yet removed.
+     * Intended only for statistics reporting; the result may be stale by the time it is used.
+     * @hide
+     */
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
     /**
      * Test if the given reference object has been enqueued but not yet
      * removed from the queue, assuming this is the reference object's queue.
@@ -149,6 +166,7 @@ public class ReferenceQueue<T> {
             } else {
                 head = head.queueNext;
             }
+            size--;
 
             // Update queueNext to indicate that the reference has been
             // enqueued, but is now removed from the queue.
@@ -233,11 +251,13 @@ public class ReferenceQueue<T> {
 
     /**
      * Enqueue the given list of currently pending (unenqueued) references.
+     * Returns the number of references processed.
      *
      * @hide
      */
-    public static void enqueuePending(Reference<?> list, AtomicInteger progressCounter) {
+    public static int enqueuePending(Reference<?> list, AtomicInteger progressCounter) {
         Reference<?> start = list;
+        int count = 0;
         do {
             ReferenceQueue queue = list.queue;
             if (queue == null || Cleaner.isCleanerQueue(queue)) {
@@ -254,6 +274,7 @@ public class ReferenceQueue<T> {
                     list.queueNext = sQueueNextUnenqueued;
                 }
                 list = next;
+                count++;
             } else {
                 currentTarget = queue;
                 // To improve performance, we try to avoid repeated
@@ -269,6 +290,7 @@ public class ReferenceQueue<T> {
                         list.pendingNext = list;
                         queue.enqueueLocked(list);
                         list = next;
+                        count++;
                     } while (list != start && list.queue == queue && ++i <= MAX_ITERS);
                     queue.lock.notifyAll();
                 }
@@ -276,6 +298,52 @@ public class ReferenceQueue<T> {
             progressCounter.incrementAndGet();
         } while (list != start);
         currentTarget = null;
+        return count;
+    }
+
+    /**
+     * Splits the given list of pending (unenqueued) references into circular lists of at most
+     * {@code maxChunkSize} references each, appending the head of each to {@code chunks}.
+     * Each resulting list may be passed to {@link #enqueuePending} independently, possibly
+     * from different threads. Returns the total number of references in {@code list}.
+     *
+     * <p>All heads are appended before any link is cut, so if appending to {@code chunks} throws,
+     * for example an {@link OutOfMemoryError}, {@code list} is left whole.
+     *
+     * @hide
+     */
+    public static int splitPending(Reference<?> list, int maxChunkSize,
+            Collection<Reference<?>> chunks) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("maxChunkSize <= 0: " + maxChunkSize);
+        }
+        final Reference<?> start = list;
+        Reference<?> current = list;
+        int count = 0;
+        do {
+            if (count % maxChunkSize == 0) {
+                chunks.add(current);
+            }
+            current = current.pendingNext;
+            count++;
+        } while (current != start);
+
+        // Nothing below allocates, so the list is either left whole or split completely.
+        Reference<?> chunkStart = list;
+        int chunkSize = 1;
+        while (current.pendingNext != start) {
+            Reference<?> next = current.pendingNext;
+            if (chunkSize == maxChunkSize) {
+                // Close the current chunk into a cycle and start a new one.
+                current.pendingNext = chunkStart;
+                chunkStart = next;
+                chunkSize = 0;
+            }
+            current = next;
+            chunkSize++;
+        }
+        current.pendingNext = chunkStart;
+        return count;
     }
 
     /**
@@ -38,6 +38,9 @@ import java.io.ObjectStreamException;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
+// Android-added: parallelMultiply().
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.ThreadLocalRandom;
 
 import jdk.internal.math.DoubleConsts;
@@ -254,6 +257,24 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      */
     static final int BURNIKEL_ZIEGLER_OFFSET = 40;
 
+    // BEGIN Android-added: Thresholds for large problems that BoringSSL alone handles poorly.
+    /**
+     * The threshold value for using Burnikel-Ziegler division rather than
+     * BoringSSL's, which takes quadratic time.  If the number of ints in both
+     * the divisor and the quotient are at least this value, Burnikel-Ziegler
+     * division will be used, its multiplications still done by BoringSSL.
+     */
+    private static final int BURNIKEL_ZIEGLER_LARGE_THRESHOLD = 2048;
+
+    /**
+     * The threshold value for parallel multiplication.  If the number of ints
+     * in both mag arrays are at least this value, {@link #parallelMultiply}
+     * splits them with 3-way Toom-Cook and computes the five partial products
+     * as fork/join tasks.
+     */
+    private static final int PARALLEL_MULTIPLY_THRESHOLD = 1024;
+    // END Android-added: Thresholds for large problems that BoringSSL alone handles poorly.
+
     /**
      * The threshold value for using Schoenhage recursive base conversion. If
      * the number of ints in the number are larger than this value,
@@ -1621,18 +1642,7 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
             result = trustedStripLeadingZeroInts(result);
             return new BigInteger(result, resultSign);
         } else {
-            long xBN = 0, yBN = 0, resultBN = 0;
-            try {
-                xBN = bigEndInts2NewBN(mag, /* neg= */false);
-                yBN = bigEndInts2NewBN(val.mag, /* neg= */false);
-                resultBN = NativeBN.BN_new();
-                NativeBN.BN_mul(resultBN, xBN, yBN);
-                return new BigInteger(resultSign, bn2BigEndInts(resultBN));
-            } finally {
-                NativeBN.BN_free(xBN);
-                NativeBN.BN_free(yBN);
-                NativeBN.BN_free(resultBN);
-            }
+            return new BigInteger(resultSign, NativeBN.mulBigEndInts(mag, val.mag));
 
             /*
             if ((xlen < TOOM_COOK_THRESHOLD) && (ylen < TOOM_COOK_THRESHOLD)) {
@@ -1703,6 +1713,113 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         }
     }
 
+    // BEGIN Android-added: parallelMultiply(), as in OpenJDK 19.
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}.
+     * When both {@code this} and {@code val} are large, typically
+     * in the thousands of bits, parallel multiply might be used.
+     * This method returns the exact same mathematical result as
+     * {@link #multiply}.
+     *
+     * @implNote This implementation may offer better algorithmic
+     * performance when {@code val == this}.
+     *
+     * @implNote Compared to {@link #multiply}, an implementation's
+     * parallel multiplication algorithm would typically use more
+     * CPU resources to compute the result faster, and may do so
+     * with a slight increase in memory consumption.
+     *
+     * @param  val value to be multiplied by this BigInteger.
+     * @return {@code this * val}
+     * @see #multiply
+     *
+     * @hide Not public API until its thresholds have been tuned on
+     *       multi-core devices.
+     */
+    public BigInteger parallelMultiply(BigInteger val) {
+        // With no other thread to share the partial products, splitting
+        // them off would only add Toom-Cook's work to BoringSSL's.
+        boolean parallel = ForkJoinPool.getCommonPoolParallelism() > 1;
+        return multiply(val, false, parallel, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}, using
+     * parallel 3-way Toom-Cook multiplication when {@code parallel} is true
+     * and both numbers are large, and {@link #multiply(BigInteger, boolean)}
+     * otherwise.
+     *
+     * @param  val value to be multiplied by this BigInteger.
+     * @param  isRecursion whether this is a recursive invocation
+     * @param  parallel whether the multiplication may be done in parallel
+     * @param  depth the depth of recursion, which limits forking
+     * @return {@code this * val}
+     */
+    private BigInteger multiply(BigInteger val, boolean isRecursion,
+                                boolean parallel, int depth) {
+        if (!parallel
+                || mag.length < PARALLEL_MULTIPLY_THRESHOLD
+                || val.mag.length < PARALLEL_MULTIPLY_THRESHOLD) {
+            return multiply(val, isRecursion);
+        }
+        // See multiply(BigInteger, boolean) for this check, which guards
+        // against an overflowing product before the work to compute it.
+        if (!isRecursion) {
+            if ((long)bitLength(mag, mag.length) +
+                (long)bitLength(val.mag, val.mag.length) >
+                32L*MAX_MAG_LENGTH) {
+                reportOverflow();
+            }
+        }
+        return multiplyToomCook3(this, val, parallel, depth);
+    }
+
+    /**
+     * A partial product of parallel Toom-Cook multiplication, which is
+     * forked until the recursion is deep enough to have given every thread
+     * of the common pool some work, and computed in place after that.
+     */
+    private static final class RecursiveMultiply extends RecursiveTask<BigInteger> {
+        private static final long serialVersionUID = 0L;
+
+        private static final int PARALLEL_FORK_DEPTH_THRESHOLD =
+            32 - Integer.numberOfLeadingZeros(ForkJoinPool.getCommonPoolParallelism());
+
+        private final BigInteger a;
+        private final BigInteger b;
+        private final boolean parallel;
+        private final int depth;
+
+        private RecursiveMultiply(BigInteger a, BigInteger b,
+                                  boolean parallel, int depth) {
+            this.a = a;
+            this.b = b;
+            this.parallel = parallel;
+            this.depth = depth;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            return a.multiply(b, true, parallel, depth);
+        }
+
+        /**
+         * Returns a task computing {@code a * b}: started, for its result to
+         * be joined, if it may be forked, and otherwise already done.
+         */
+        static RecursiveMultiply forkOrInvoke(BigInteger a, BigInteger b,
+                                              boolean parallel, int depth) {
+            RecursiveMultiply task = new RecursiveMultiply(a, b, parallel, depth);
+            if (parallel && depth <= PARALLEL_FORK_DEPTH_THRESHOLD) {
+                task.fork();
+            } else {
+                task.invoke();
+            }
+            return task;
+        }
+    }
+    // END Android-added: parallelMultiply(), as in OpenJDK 19.
+
     private static BigInteger multiplyByInt(int[] x, int y, int sign) {
         if (Integer.bitCount(y) == 1) {
             return new BigInteger(shiftLeft(x,Integer.numberOfTrailingZeros(y)), sign);
@@ -1921,7 +2038,14 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * LNCS #4547. Springer, Madrid, Spain, June 21-22, 2007.
      *
      */
+    // BEGIN Android-changed: Support parallelMultiply(), as in OpenJDK 19.
     private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b) {
+        return multiplyToomCook3(a, b, false, 0);
+    }
+
+    private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b,
+                                                boolean parallel, int depth) {
+    // END Android-changed: Support parallelMultiply(), as in OpenJDK 19.
         int alen = a.mag.length;
         int blen = b.mag.length;
 
@@ -1945,6 +2069,9 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
 
         BigInteger v0, v1, v2, vm1, vinf, t1, t2, tm1, da1, db1;
 
+        // BEGIN Android-changed: Compute the partial products in parallel
+        // for parallelMultiply(), as in OpenJDK 19.
+        /*
         v0 = a0.multiply(b0, true);
         da1 = a2.add(a0);
         db1 = b2.add(b0);
@@ -1955,6 +2082,28 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         v2 = da1.add(a2).shiftLeft(1).subtract(a0).multiply(
              db1.add(b2).shiftLeft(1).subtract(b0), true);
         vinf = a2.multiply(b2, true);
+        */
+        depth++;
+        RecursiveMultiply v0Task =
+            RecursiveMultiply.forkOrInvoke(a0, b0, parallel, depth);
+        da1 = a2.add(a0);
+        db1 = b2.add(b0);
+        RecursiveMultiply vm1Task = RecursiveMultiply.forkOrInvoke(
+            da1.subtract(a1), db1.subtract(b1), parallel, depth);
+        da1 = da1.add(a1);
+        db1 = db1.add(b1);
+        RecursiveMultiply v1Task =
+            RecursiveMultiply.forkOrInvoke(da1, db1, parallel, depth);
+        RecursiveMultiply v2Task = RecursiveMultiply.forkOrInvoke(
+            da1.add(a2).shiftLeft(1).subtract(a0),
+            db1.add(b2).shiftLeft(1).subtract(b0), parallel, depth);
+        vinf = a2.multiply(b2, true, parallel, depth);
+        v0 = v0Task.join();
+        vm1 = vm1Task.join();
+        v1 = v1Task.join();
+        v2 = v2Task.join();
+        // END Android-changed: Compute the partial products in parallel
+        // for parallelMultiply(), as in OpenJDK 19.
 
         // The algorithm requires two divisions by 2 and one by 3.
         // All divisions are known to be exact, that is, they do not produce
@@ -2338,6 +2487,15 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
     private static final int BORINGSSL_DIV_THRESHOLD = 40;
     private static final int BORINGSSL_DIV_OFFSET = 20;
 
+    /**
+     * Returns whether dividing this BigInteger by {@code val} is large
+     * enough for Burnikel-Ziegler division to beat BoringSSL's.
+     */
+    private boolean isBurnikelZieglerLarge(BigInteger val) {
+        return val.mag.length >= BURNIKEL_ZIEGLER_LARGE_THRESHOLD &&
+                mag.length - val.mag.length >= BURNIKEL_ZIEGLER_LARGE_THRESHOLD;
+    }
+
     /**
      * Returns a BigInteger whose value is {@code (this / val)}.
      *
@@ -2353,6 +2511,8 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         if (mag.length < BORINGSSL_DIV_THRESHOLD ||
                 mag.length - val.mag.length < BORINGSSL_DIV_OFFSET) {
             return divideKnuth(val);
+        } else if (isBurnikelZieglerLarge(val)) {
+            return divideBurnikelZiegler(val);
         } else {
             /*
             return divideBurnikelZiegler(val);
@@ -2401,29 +2561,20 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
                 mag.length < BORINGSSL_DIV_OFFSET ||
                 mag.length - val.mag.length < BORINGSSL_DIV_OFFSET) {
             return divideAndRemainderKnuth(val);
+        } else if (isBurnikelZieglerLarge(val)) {
+            return divideAndRemainderBurnikelZiegler(val);
         } else {
             /*
             return divideAndRemainderBurnikelZiegler(val);
             */
             int quotSign = signum == val.signum ? 1 : -1;  // 0 divided doesn't get here.
-            long xBN = 0, yBN = 0, quotBN = 0, remBN = 0;
-            try {
-                xBN = bigEndInts2NewBN(mag, /* neg= */false);
-                yBN = bigEndInts2NewBN(val.mag, /* neg= */false);
-                quotBN = NativeBN.BN_new();
-                remBN = NativeBN.BN_new();
-                NativeBN.BN_div(quotBN, remBN, xBN, yBN);
-                BigInteger quotient = new BigInteger(quotSign, bn2BigEndInts(quotBN));
-                        // The sign of a zero quotient is fixed by the constructor.
-                BigInteger remainder = new BigInteger(signum, bn2BigEndInts(remBN));
-                BigInteger[] result = {quotient, remainder};
-                return result;
-            } finally {
-                NativeBN.BN_free(xBN);
-                NativeBN.BN_free(yBN);
-                NativeBN.BN_free(quotBN);
-                NativeBN.BN_free(remBN);
-            }
+            int[][] quotAndRem = new int[2][];
+            NativeBN.divBigEndInts(mag, val.mag, quotAndRem);
+            BigInteger quotient = new BigInteger(quotSign, quotAndRem[0]);
+                    // The sign of a zero quotient is fixed by the constructor.
+            BigInteger remainder = new BigInteger(signum, quotAndRem[1]);
+            BigInteger[] result = {quotient, remainder};
+            return result;
         }
         // END Android-changed: Fall back to boringssl for large problems.
     }
@@ -2457,6 +2608,8 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         if (val.mag.length < BORINGSSL_DIV_THRESHOLD ||
                 mag.length - val.mag.length < BORINGSSL_DIV_THRESHOLD) {
             return remainderKnuth(val);
+        } else if (isBurnikelZieglerLarge(val)) {
+            return remainderBurnikelZiegler(val);
         } else {
             /*
             return remainderBurnikelZiegler(val);
@@ -2811,35 +2964,6 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         return (result.signum >= 0 ? result : result.add(m));
     }
 
-    // BEGIN Android-added: Support fallback to boringssl where it makes sense.
-    // The conversion itself takes linear time, so this only makes sense for largish superlinear
-    // operations.
-
-    private static int[] reverse(int[] arg) {
-      int len = arg.length;
-      int[] result = new int[len];
-      for (int i = 0; i < len; ++i) {
-        result[i] = arg[len - i - 1];
-      }
-      return result;
-    }
-
-    private static long /* BN */ bigEndInts2NewBN(int[] beArray, boolean neg) {
-      // The input is an array of ints arranged in big-endian order, i.e. most significant int
-      // first. BN deals with big-endian or little-endian byte arrays, so we need to reverse order.
-      int[] leArray = reverse(beArray);
-      long resultBN = NativeBN.BN_new();
-      NativeBN.litEndInts2bn(leArray, leArray.length, neg, resultBN);
-      return resultBN;
-    }
-
-    private int[] bn2BigEndInts(long bn) {
-      return reverse(NativeBN.bn2litEndInts(bn));
-    }
-
-    // END Android-added: Support fallback to boringssl.
-
-
     /**
      * Returns a BigInteger whose value is
      * <code>(this<sup>exponent</sup> mod m)</code>.  (Unlike {@code pow}, this
@@ -2881,22 +3005,9 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         // is usually faster.
         final int BORINGSSL_MOD_EXP_THRESHOLD = 3;
         if (m.mag.length >= BORINGSSL_MOD_EXP_THRESHOLD) {
-            long baseBN = 0, expBN = 0, modBN = 0, resultBN = 0;
-            try {
-                baseBN = bigEndInts2NewBN(base.mag, /* neg= */false);
-                expBN = bigEndInts2NewBN(exponent.mag, /* neg= */false);
-                modBN = bigEndInts2NewBN(m.mag, /* neg= */false);
-                resultBN = NativeBN.BN_new();
-                NativeBN.BN_mod_exp(resultBN, baseBN, expBN, modBN);
-                result = new BigInteger(1, bn2BigEndInts(resultBN));
-                        // The sign of a zero result is fixed by the constructor.
-                return (invertResult ? result.modInverse(m) : result);
-            } finally {
-                NativeBN.BN_free(baseBN);
-                NativeBN.BN_free(expBN);
-                NativeBN.BN_free(modBN);
-                NativeBN.BN_free(resultBN);
-            }
+            result = new BigInteger(1, NativeBN.modExpBigEndInts(base.mag, exponent.mag, m.mag));
+                    // The sign of a zero result is fixed by the constructor.
+            return (invertResult ? result.modInverse(m) : result);
         }
         // END Android-added: Fall back to the boringssl implementation.
         if (m.testBit(0)) { // odd modulus
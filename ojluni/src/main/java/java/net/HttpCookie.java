@@ -265,6 +265,19 @@ public final class HttpCookie implements Cloneable {
             return false;
     }
 
+    // BEGIN Android-added: Let InMemoryCookieStore expire cookies in time order.
+    /**
+     * Returns the time, in milliseconds, from which {@link #hasExpired}
+     * returns true, or {@code Long.MAX_VALUE} if this cookie doesn't expire.
+     */
+    long expiryTime() {
+        if (maxAge == MAX_AGE_UNSPECIFIED) return Long.MAX_VALUE;
+        if (maxAge <= 0) return whenCreated;
+        if (maxAge >= (Long.MAX_VALUE - whenCreated) / 1000 - 1) return Long.MAX_VALUE;
+        return whenCreated + (maxAge + 1) * 1000;
+    }
+    // END Android-added: Let InMemoryCookieStore expire cookies in time order.
+
     /**
      * Specifies a comment that describes a cookie's purpose.
      * The comment is useful if the browser presents the cookie
@@ -1000,10 +1013,12 @@ public final class HttpCookie implements Cloneable {
                         // cookie.setMaxAge(cookie.expiryDate2DeltaSeconds(attrValue));
                         // Android-changed: Altered max age calculation to avoid setting.
                         // it to MAX_AGE_UNSPECIFIED (-1) if "expires" is one second in past.
-                        Date date = HttpDate.parse(attrValue);
+                        // Android-changed: Parse to millis, without allocating a Date.
+                        // Date date = HttpDate.parse(attrValue);
+                        long expiresMillis = HttpDate.parseMillis(attrValue);
                         long maxAgeInSeconds = 0;
-                        if (date != null) {
-                            maxAgeInSeconds = (date.getTime() - cookie.whenCreated) / 1000;
+                        if (expiresMillis != HttpDate.NOT_A_DATE) {
+                            maxAgeInSeconds = (expiresMillis - cookie.whenCreated) / 1000;
                             // Avoid MAX_AGE_UNSPECIFIED
                             if (maxAgeInSeconds == MAX_AGE_UNSPECIFIED) {
                                 maxAgeInSeconds = 0;
@@ -28,6 +28,17 @@ package java.net;
 
 import dalvik.system.VMRuntime;
 
+// BEGIN Android-changed: Index cookies by domain and read them without locking.
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+/*
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
@@ -35,6 +46,8 @@ import java.util.HashMap;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.concurrent.locks.ReentrantLock;
+*/
+// END Android-changed: Index cookies by domain and read them without locking.
 
 // Android-changed: App compat changes and bug fixes.
 // b/26456024 Add targetSdkVersion based compatibility for domain matching
@@ -43,6 +56,7 @@ import java.util.concurrent.locks.ReentrantLock;
 // Remove cookieJar and domainIndex. Use urlIndex as single Cookie storage
 // Fix InMemoryCookieStore#remove to verify cookie URI before removal
 // Fix InMemoryCookieStore#removeAll to return false if it's empty.
+// Index cookies by domain so that get() doesn't scan every cookie, and read without locking
 /**
  * A simple in-memory java.net.CookieStore implementation
  *
@@ -63,10 +77,44 @@ public class InMemoryCookieStore implements CookieStore {
     private Map<String, List<HttpCookie>> domainIndex = null;
     */
     // END Android-removed: Remove cookieJar and domainIndex.
+
+    // BEGIN Android-changed: Index cookies by domain and read them without locking.
+    // Cookies are looked up far more often than they are set, so lookups
+    // read the indexes without taking the lock. The indexes map to arrays
+    // that are replaced, never modified, while holding the lock.
+    /*
     private Map<URI, List<HttpCookie>> uriIndex = null;
 
     // use ReentrantLock instead of syncronized for scalability
     private ReentrantLock lock = null;
+    */
+
+    // Stands in for the null URI, which ConcurrentHashMap can't use as a key.
+    private static final Object NO_URI = new Object();
+
+    // The cookies of each effective URI, or NO_URI, in the order in which
+    // they were added. A URI stays in the index after its last cookie is
+    // removed; see getURIs().
+    private final ConcurrentHashMap<Object, Entry[]> uriIndex = new ConcurrentHashMap<>();
+
+    // The same cookies by domain, see domainKey(), for those with a domain.
+    private final ConcurrentHashMap<String, Entry[]> domainIndex = new ConcurrentHashMap<>();
+
+    // Cookies with a positive max-age, in the order in which they expire, so
+    // that they are dropped even if no lookup comes across them.
+    private final TreeSet<Entry> expiryQueue = new TreeSet<>((a, b) -> {
+        int result = Long.compare(a.expiryTime, b.expiryTime);
+        return (result != 0) ? result : Long.compare(a.sequence, b.sequence);
+    });
+
+    // The expiry time of the first cookie in expiryQueue.
+    private volatile long nextExpiryTime = Long.MAX_VALUE;
+
+    private long nextSequence;
+
+    // Held while changing any of the above.
+    private final ReentrantLock lock = new ReentrantLock(false);
+    // END Android-changed: Index cookies by domain and read them without locking.
 
     // BEGIN Android-changed: Add targetSdkVersion and remove cookieJar and domainIndex.
     private final boolean applyMCompatibility;
@@ -79,8 +127,9 @@ public class InMemoryCookieStore implements CookieStore {
     }
 
     public InMemoryCookieStore(int targetSdkVersion) {
-        uriIndex = new HashMap<>();
-        lock = new ReentrantLock(false);
+        // Android-removed: Indexes and lock are initialized with the fields.
+        // uriIndex = new HashMap<>();
+        // lock = new ReentrantLock(false);
         applyMCompatibility = (targetSdkVersion <= 23);
     }
     // END Android-changed: Add targetSdkVersion and remove cookieJar and domainIndex.
@@ -99,8 +148,22 @@ public class InMemoryCookieStore implements CookieStore {
             // Android-changed: Android supports clearing cookies. http://b/33034917
             // They are cleared by adding the cookie with max-age: 0.
             //if (cookie.getMaxAge() != 0) {
-            addIndex(uriIndex, getEffectiveURI(uri), cookie);
+            // Android-changed: Index cookies by domain and read them without locking.
+            // addIndex(uriIndex, getEffectiveURI(uri), cookie);
+            Object key = uriKey(getEffectiveURI(uri));
+            Entry[] entries = uriIndex.get(key);
+            if (entries != null) {
+                // there may already have the same cookie, so remove it first
+                for (Entry entry : entries) {
+                    if (entry.cookie.equals(cookie)) {
+                        unlink(entry);
+                        break;
+                    }
+                }
+            }
+            link(new Entry(key, domainKey(cookie.getDomain()), cookie, nextSequence++));
             //}
+            expireCookies(System.currentTimeMillis());
         } finally {
             lock.unlock();
         }
@@ -122,6 +185,8 @@ public class InMemoryCookieStore implements CookieStore {
 
         List<HttpCookie> cookies = new ArrayList<HttpCookie>();
         // BEGIN Android-changed: InMemoryCookieStore ignores scheme (http/https). b/25897688
+        // BEGIN Android-changed: Index cookies by domain and read them without locking.
+        /*
         lock.lock();
         try {
             // check domainIndex first
@@ -131,6 +196,43 @@ public class InMemoryCookieStore implements CookieStore {
         } finally {
             lock.unlock();
         }
+        */
+        // Expired cookies that are found on the way are removed, as before.
+        List<Entry> expired = null;
+        String host = uri.getHost();
+        if (host != null) {
+            // A domain can match a host without starting at a dot in it, see
+            // netscapeDomainMatches(), but has a dot of its own, so look up
+            // every suffix of the host that includes its last dot.
+            String key = foldCase(host);
+            int lastDot = key.lastIndexOf('.');
+            for (int i = 0; i <= lastDot; i++) {
+                expired = getInternal(cookies, expired, domainIndex.get(key.substring(i)), host);
+            }
+            if (lastDot == -1) {
+                expired = getInternal(cookies, expired, domainIndex.get("local"), host);
+                expired = getInternal(cookies, expired, domainIndex.get(key + ".local"), host);
+            }
+        }
+        expired = getInternal(cookies, expired, uriIndex.get(uriKey(getEffectiveURI(uri))), null);
+
+        if (expired != null) {
+            lock.lock();
+            try {
+                for (Entry entry : expired) {
+                    unlink(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else if (nextExpiryTime <= System.currentTimeMillis() && lock.tryLock()) {
+            try {
+                expireCookies(System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+        }
+        // END Android-changed: Index cookies by domain and read them without locking.
         // END Android-changed: InMemoryCookieStore ignores scheme (http/https). b/25897688
         return cookies;
     }
@@ -142,6 +244,8 @@ public class InMemoryCookieStore implements CookieStore {
         // BEGIN Android-changed: Remove cookieJar and domainIndex.
         List<HttpCookie> rt = new ArrayList<HttpCookie>();
 
+        // BEGIN Android-changed: Index cookies by domain and read them without locking.
+        /*
         lock.lock();
         try {
             for (List<HttpCookie> list : uriIndex.values()) {
@@ -159,6 +263,34 @@ public class InMemoryCookieStore implements CookieStore {
             rt = Collections.unmodifiableList(rt);
             lock.unlock();
         }
+        */
+        Set<HttpCookie> seen = new HashSet<>();
+        List<Entry> expired = null;
+        for (Entry[] entries : uriIndex.values()) {
+            for (Entry entry : entries) {
+                HttpCookie cookie = entry.cookie;
+                if (cookie.hasExpired()) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(entry);
+                } else if (seen.add(cookie)) {
+                    rt.add(cookie);
+                }
+            }
+        }
+        if (expired != null) {
+            lock.lock();
+            try {
+                for (Entry entry : expired) {
+                    unlink(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        rt = Collections.unmodifiableList(rt);
+        // END Android-changed: Index cookies by domain and read them without locking.
         // END Android-changed: Remove cookieJar and domainIndex.
 
         return rt;
@@ -192,6 +324,8 @@ public class InMemoryCookieStore implements CookieStore {
 
         return uris;
          */
+        // Android-changed: Index cookies by domain and read them without locking.
+        /*
         lock.lock();
         try {
             List<URI> result = new ArrayList<URI>(uriIndex.keySet());
@@ -200,6 +334,14 @@ public class InMemoryCookieStore implements CookieStore {
         } finally {
             lock.unlock();
         }
+        */
+        List<URI> result = new ArrayList<URI>();
+        for (Object key : uriIndex.keySet()) {
+            if (key != NO_URI) {
+                result.add((URI) key);
+            }
+        }
+        return Collections.unmodifiableList(result);
         // END Android-changed: App compat. Return URI with no cookies. http://b/65538736
     }
 
@@ -216,6 +358,8 @@ public class InMemoryCookieStore implements CookieStore {
         // BEGIN Android-changed: Fix uri not being removed from uriIndex.
         lock.lock();
         try {
+            // Android-changed: Index cookies by domain and read them without locking.
+            /*
             uri = getEffectiveURI(uri);
             if (uriIndex.get(uri) == null) {
                 return false;
@@ -227,6 +371,17 @@ public class InMemoryCookieStore implements CookieStore {
                     return false;
                 }
             }
+            */
+            Entry[] entries = uriIndex.get(uriKey(getEffectiveURI(uri)));
+            if (entries != null) {
+                for (Entry entry : entries) {
+                    if (entry.cookie.equals(ck)) {
+                        unlink(entry);
+                        return true;
+                    }
+                }
+            }
+            return false;
         } finally {
             lock.unlock();
         }
@@ -245,6 +400,11 @@ public class InMemoryCookieStore implements CookieStore {
         try {
             result = !uriIndex.isEmpty();
             uriIndex.clear();
+            // BEGIN Android-added: Index cookies by domain and read them without locking.
+            domainIndex.clear();
+            expiryQueue.clear();
+            nextExpiryTime = Long.MAX_VALUE;
+            // END Android-added: Index cookies by domain and read them without locking.
         } finally {
             lock.unlock();
         }
@@ -317,6 +477,8 @@ public class InMemoryCookieStore implements CookieStore {
         return false;
     }
 
+    // BEGIN Android-changed: Index cookies by domain and read them without locking.
+    /*
     private void getInternal1(List<HttpCookie> cookies, Map<URI, List<HttpCookie>> cookieIndex,
             String host) {
         // BEGIN Android-changed: InMemoryCookieStore ignores scheme (http/https). b/25897688
@@ -405,7 +567,177 @@ public class InMemoryCookieStore implements CookieStore {
             indexStore.put(index, cookies);
         }
     }
+    */
+
+    // A cookie as filed under one URI.
+    private static final class Entry {
+        final Object uriKey;
+        // null if the cookie had no domain when it was added.
+        final String domainKey;
+        final HttpCookie cookie;
+        // Orders entries that expire at the same time.
+        final long sequence;
+        // Guarded by lock; only changed while the entry isn't in expiryQueue.
+        long expiryTime;
+
+        Entry(Object uriKey, String domainKey, HttpCookie cookie, long sequence) {
+            this.uriKey = uriKey;
+            this.domainKey = domainKey;
+            this.cookie = cookie;
+            this.sequence = sequence;
+        }
+    }
+
+    // @param cookies           [OUT] contains the found cookies
+    // @param expired           expired entries found so far, or null
+    // @param entries           the entries to look at, or null
+    // @param host              the host that the cookies must domain-match,
+    //                          or null to take all of them
+    // @return                  expired, with any more expired entries added
+    private List<Entry> getInternal(List<HttpCookie> cookies, List<Entry> expired,
+            Entry[] entries, String host) {
+        if (entries == null) {
+            return expired;
+        }
+        for (Entry entry : entries) {
+            HttpCookie c = entry.cookie;
+            if (host != null) {
+                String domain = c.getDomain();
+                if (!((c.getVersion() == 0 && netscapeDomainMatches(domain, host)) ||
+                        (c.getVersion() == 1 && HttpCookie.domainMatches(domain, host)))) {
+                    continue;
+                }
+            }
+            if (!c.hasExpired()) {
+                // don't add twice
+                if (!cookies.contains(c)) {
+                    cookies.add(c);
+                }
+            } else {
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(entry);
+            }
+        }
+        return expired;
+    }
+
+    // Adds entry to the indexes. Called with lock held.
+    private void link(Entry entry) {
+        uriIndex.put(entry.uriKey, append(uriIndex.get(entry.uriKey), entry));
+        if (entry.domainKey != null) {
+            domainIndex.put(entry.domainKey, append(domainIndex.get(entry.domainKey), entry));
+        }
+        // Cookies that are added expired, such as those with max-age 0 that
+        // clear a cookie, are left for get() and getCookies() to find, so
+        // that they can still be removed before then.
+        if (entry.cookie.getMaxAge() > 0) {
+            entry.expiryTime = entry.cookie.expiryTime();
+            if (entry.expiryTime != Long.MAX_VALUE) {
+                expiryQueue.add(entry);
+                nextExpiryTime = expiryQueue.first().expiryTime;
+            }
+        }
+    }
+
+    // Removes entry from the indexes, if it is still there. Called with lock
+    // held.
+    private void unlink(Entry entry) {
+        Entry[] entries = uriIndex.get(entry.uriKey);
+        Entry[] remaining = remove(entries, entry);
+        if (remaining == entries) {
+            return;
+        }
+        uriIndex.put(entry.uriKey, remaining);
+        if (entry.domainKey != null) {
+            remaining = remove(domainIndex.get(entry.domainKey), entry);
+            if (remaining.length == 0) {
+                domainIndex.remove(entry.domainKey);
+            } else {
+                domainIndex.put(entry.domainKey, remaining);
+            }
+        }
+        if (expiryQueue.remove(entry)) {
+            nextExpiryTime = expiryQueue.isEmpty()
+                    ? Long.MAX_VALUE : expiryQueue.first().expiryTime;
+        }
+    }
+
+    // Removes cookies that have expired by now from the indexes. Called with
+    // lock held.
+    private void expireCookies(long now) {
+        while (!expiryQueue.isEmpty() && expiryQueue.first().expiryTime <= now) {
+            Entry entry = expiryQueue.pollFirst();
+            if (entry.cookie.hasExpired()) {
+                // Already out of expiryQueue, so this only updates the indexes.
+                unlink(entry);
+            } else if (entry.cookie.getMaxAge() > 0) {
+                // The max-age was changed after the cookie was added.
+                entry.expiryTime = Math.max(entry.cookie.expiryTime(), now + 1);
+                if (entry.expiryTime != Long.MAX_VALUE) {
+                    expiryQueue.add(entry);
+                }
+            }
+        }
+        nextExpiryTime = expiryQueue.isEmpty()
+                ? Long.MAX_VALUE : expiryQueue.first().expiryTime;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        if (entries == null) {
+            return new Entry[] { entry };
+        }
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    // Returns entries without entry, or entries itself if entry isn't in it.
+    private static Entry[] remove(Entry[] entries, Entry entry) {
+        if (entries == null) {
+            return null;
+        }
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                Entry[] result = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, result, 0, i);
+                System.arraycopy(entries, i + 1, result, i, result.length - i);
+                return result;
+            }
+        }
+        return entries;
+    }
+
+    private static Object uriKey(URI effectiveURI) {
+        return (effectiveURI != null) ? effectiveURI : NO_URI;
+    }
+
+    // Domains are filed without a leading dot and with characters that
+    // String.equalsIgnoreCase() considers equal mapped to the same one, so a
+    // domain that matches a host is filed under a suffix of the host.
+    private static String domainKey(String domain) {
+        if (domain == null) {
+            return null;
+        }
+        String key = foldCase(domain);
+        return key.startsWith(".") ? key.substring(1) : key;
+    }
 
+    private static String foldCase(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+                char[] chars = s.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = Character.toLowerCase(Character.toUpperCase(chars[j]));
+                }
+                return new String(chars);
+            }
+        }
+        return s;
+    }
+    // END Android-changed: Index cookies by domain and read them without locking.
 
     //
     // for cookie purpose, the effective uri should only be http://host
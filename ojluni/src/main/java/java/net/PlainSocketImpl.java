@@ -125,7 +125,7 @@ class PlainSocketImpl extends AbstractPlainSocketImpl
     void socketCreate(boolean isStream) throws IOException {
         // The fd object must not change after calling bind, because we rely on this undocumented
         // behaviour. See libcore.java.net.SocketTest#testFileDescriptorStaysSame.
-        fd.setInt$(IoBridge.socket(AF_INET6, isStream ? SOCK_STREAM : SOCK_DGRAM, 0).getInt$());
+        setDescriptor(fd, IoBridge.socket(AF_INET6, isStream ? SOCK_STREAM : SOCK_DGRAM, 0));
         IoUtils.setFdOwner(fd, this);
 
         if (serverSocket != null) {
@@ -134,6 +134,14 @@ class PlainSocketImpl extends AbstractPlainSocketImpl
         }
     }
 
+    // Moves the descriptor of newFd into fd, along with what BlockGuardOs has cached about it,
+    // so that it needn't ask the kernel again.
+    private static void setDescriptor(FileDescriptor fd, FileDescriptor newFd) {
+        fd.setInt$(newFd.getInt$());
+        fd.setSocketInfo$(newFd.getSocketDomain$(), newFd.getSocketType$(),
+                newFd.getSocketProtocol$());
+    }
+
     void socketConnect(InetAddress address, int port, int timeout) throws IOException {
         if (fd == null || !fd.valid()) {
             throw new SocketException("Socket closed");
@@ -200,7 +208,7 @@ class PlainSocketImpl extends AbstractPlainSocketImpl
         try {
             FileDescriptor newfd = Libcore.os.accept(fd, peerAddress);
 
-            s.fd.setInt$(newfd.getInt$());
+            setDescriptor(s.fd, newfd);
             IoUtils.setFdOwner(s.fd, s);
             s.address = peerAddress.getAddress();
             s.port = peerAddress.getPort();
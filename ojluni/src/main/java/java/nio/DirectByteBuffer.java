@@ -66,6 +66,11 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
         // are discarded.
         final Object originalBufferObject;
 
+        // The MemoryRef of a DirectBufferPool whose memory this one borrows until it is released,
+        // or null. The memory is handed on to another buffer after that, so buffers of a borrowed
+        // MemoryRef don't expose their backing array.
+        final MemoryRef pooledFrom;
+
         MemoryRef(int capacity) {
             VMRuntime runtime = VMRuntime.getRuntime();
             buffer = (byte[]) runtime.newNonMovableArray(byte.class, capacity + 7);
@@ -75,6 +80,7 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
             isAccessible = true;
             isFreed = false;
             originalBufferObject = null;
+            pooledFrom = null;
         }
 
         MemoryRef(long allocatedAddress, Object originalBufferObject) {
@@ -83,6 +89,21 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
             this.offset = 0;
             this.originalBufferObject = originalBufferObject;
             isAccessible = true;
+            pooledFrom = null;
+        }
+
+        MemoryRef(MemoryRef pooledFrom) {
+            buffer = pooledFrom.buffer;
+            allocatedAddress = pooledFrom.allocatedAddress;
+            offset = pooledFrom.offset;
+            originalBufferObject = null;
+            isAccessible = true;
+            this.pooledFrom = pooledFrom;
+        }
+
+        // The array that buffers of this MemoryRef expose as their backing array.
+        byte[] array() {
+            return (pooledFrom == null) ? buffer : null;
         }
 
         void free() {
@@ -97,7 +118,7 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
     final MemoryRef memoryRef;
 
     DirectByteBuffer(int capacity, MemoryRef memoryRef) {
-        super(-1, 0, capacity, capacity, memoryRef.buffer, memoryRef.offset);
+        super(-1, 0, capacity, capacity, memoryRef.array(), memoryRef.offset);
         // Only have references to java objects, no need for a cleaner since the GC will do all
         // the work.
         this.memoryRef = memoryRef;
@@ -137,7 +158,7 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
     DirectByteBuffer(MemoryRef memoryRef,         // package-private
                      int mark, int pos, int lim, int cap,
                      int off, boolean isReadOnly) {
-        super(mark, pos, lim, cap, memoryRef.buffer, off);
+        super(mark, pos, lim, cap, memoryRef.array(), off);
         this.isReadOnly = isReadOnly;
         this.memoryRef = memoryRef;
         address = memoryRef.allocatedAddress + off;
@@ -330,7 +351,11 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
         int lim = limit();
         assert (pos <= lim);
         int rem = (pos <= lim ? lim - pos : 0);
-        System.arraycopy(hb, position + offset, hb, offset, remaining());
+        if (hb != null) {
+            System.arraycopy(hb, position + offset, hb, offset, remaining());
+        } else {
+            Memory.memmove(this, 0, this, pos, rem);
+        }
         position(rem);
         limit(capacity());
         discardMark();
@@ -986,6 +1011,10 @@ public class DirectByteBuffer extends MappedByteBuffer implements DirectBuffer {
 
     @Override
     public final void setAccessible(boolean value) {
+        // A freed buffer's memory may belong to another buffer by now.
+        if (value && memoryRef.isFreed) {
+            throw new IllegalStateException("buffer has been freed");
+        }
         memoryRef.isAccessible = value;
     }
 }
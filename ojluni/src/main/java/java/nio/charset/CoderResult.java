@@ -27,8 +27,10 @@ package java.nio.charset;
 
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
+// Android-removed: The caches are ConcurrentIntObjectMaps.
+// import java.util.concurrent.ConcurrentHashMap;
+// import java.util.Map;
+import libcore.util.ConcurrentIntObjectMap;
 
 /**
  * A description of the result state of a coder.
@@ -194,8 +196,11 @@ public class CoderResult {
         static final Cache INSTANCE = new Cache();
         private Cache() {}
 
-        final Map<Integer, CoderResult> unmappable = new ConcurrentHashMap<>();
-        final Map<Integer, CoderResult> malformed  = new ConcurrentHashMap<>();
+        // Android-changed: Key the caches by int, so lookups don't box the length.
+        // final Map<Integer, CoderResult> unmappable = new ConcurrentHashMap<>();
+        // final Map<Integer, CoderResult> malformed  = new ConcurrentHashMap<>();
+        final ConcurrentIntObjectMap<CoderResult> unmappable = new ConcurrentIntObjectMap<>();
+        final ConcurrentIntObjectMap<CoderResult> malformed  = new ConcurrentIntObjectMap<>();
     }
 
     private static final CoderResult[] malformed4 = new CoderResult[] {
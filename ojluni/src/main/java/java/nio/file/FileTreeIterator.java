@@ -67,7 +67,24 @@ class FileTreeIterator implements Iterator<Event>, Closeable {
     FileTreeIterator(Path start, int maxDepth, FileVisitOption... options)
         throws IOException
     {
-        this.walker = new FileTreeWalker(Arrays.asList(options), maxDepth);
+        // Android-changed: Delegate to the constructor that takes needAttributes.
+        // this.walker = new FileTreeWalker(Arrays.asList(options), maxDepth);
+        this(start, maxDepth, true, options);
+    }
+
+    // BEGIN Android-added: Let callers that only need the files skip the stat.
+    /**
+     * Creates a new iterator to walk the file tree starting at the given file.
+     * If {@code needAttributes} is false the caller does not read the
+     * attributes of the events.
+     */
+    FileTreeIterator(Path start, int maxDepth, boolean needAttributes,
+                     FileVisitOption... options)
+        throws IOException
+    {
+        this.walker = new FileTreeWalker(Arrays.asList(options), maxDepth,
+                                         needAttributes);
+    // END Android-added: Let callers that only need the files skip the stat.
         this.next = walker.walk(start);
         assert next.type() == FileTreeWalker.EventType.ENTRY ||
                next.type() == FileTreeWalker.EventType.START_DIRECTORY;
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.nio.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import sun.nio.fs.BasicFileAttributesHolder;
+
+/**
+ * A {@code Spliterator} over the files of a file tree that can be split
+ * between the worker threads of a parallel stream. Each spliterator walks its
+ * own stack of directories depth first; {@link #trySplit} hands the shallowest
+ * half of that stack, which usually holds most of the remaining work, to a new
+ * spliterator. The traversal order is unspecified.
+ *
+ * <p> Errors are reported as by {@link Files#find}: an {@code IOException}
+ * while reading a directory or the attributes of a file is wrapped in an
+ * {@code UncheckedIOException}.
+ *
+ * @see Files#findParallel
+ */
+
+class FileTreeSpliterator implements Spliterator<Path>, Closeable {
+
+    /**
+     * State shared by all spliterators split from the same root.
+     */
+    private static class Walk {
+        final boolean followLinks;
+        final LinkOption[] linkOptions;
+        final int maxDepth;
+        // whether the matcher reads the attributes
+        final boolean needAttributes;
+        final BiPredicate<Path, BasicFileAttributes> matcher;
+        // directory streams currently open by any spliterator of this walk
+        final Set<DirectoryStream<Path>> openStreams = ConcurrentHashMap.newKeySet();
+        volatile boolean closed;
+
+        Walk(FileVisitOption[] options, int maxDepth,
+             BiPredicate<Path, BasicFileAttributes> matcher,
+             boolean needAttributes) {
+            boolean fl = false;
+            for (FileVisitOption option: options) {
+                // will throw NPE if options contains null
+                switch (option) {
+                    case FOLLOW_LINKS : fl = true; break;
+                    default:
+                        throw new AssertionError("Should not get here");
+                }
+            }
+            if (maxDepth < 0)
+                throw new IllegalArgumentException("'maxDepth' is negative");
+
+            this.followLinks = fl;
+            this.linkOptions = (fl) ? new LinkOption[0] :
+                new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
+            this.maxDepth = maxDepth;
+            this.matcher = matcher;
+            this.needAttributes = needAttributes;
+        }
+
+        /**
+         * Returns the attributes of the given file, in the same way as
+         * {@code FileTreeWalker.getAttributes}.
+         */
+        BasicFileAttributes getAttributes(Path file, boolean canUseCached)
+            throws IOException
+        {
+            // cached attributes may only know the file type
+            if (canUseCached && !needAttributes && !followLinks &&
+                (file instanceof BasicFileAttributesHolder) &&
+                (System.getSecurityManager() == null))
+            {
+                BasicFileAttributes cached = ((BasicFileAttributesHolder)file).get();
+                if (cached != null && (!followLinks || !cached.isSymbolicLink())) {
+                    return cached;
+                }
+            }
+
+            try {
+                return Files.readAttributes(file, BasicFileAttributes.class, linkOptions);
+            } catch (IOException ioe) {
+                if (!followLinks)
+                    throw ioe;
+                return Files.readAttributes(file,
+                                            BasicFileAttributes.class,
+                                            LinkOption.NOFOLLOW_LINKS);
+            }
+        }
+    }
+
+    /**
+     * A directory that remains to be read. Directories link to their parent so
+     * that cycles can be detected when following links.
+     */
+    private static class DirectoryNode {
+        final Path dir;
+        final Object key;
+        final DirectoryNode parent;
+        final int depth;
+
+        DirectoryNode(Path dir, Object key, DirectoryNode parent, int depth) {
+            this.dir = dir;
+            this.key = key;
+            this.parent = parent;
+            this.depth = depth;
+        }
+
+        /**
+         * Returns true if walking into the given directory would result in a
+         * file system loop/cycle.
+         */
+        boolean wouldLoop(Path dir, Object key) {
+            for (DirectoryNode ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (key != null && ancestor.key != null) {
+                    if (key.equals(ancestor.key))
+                        return true;
+                } else {
+                    try {
+                        if (Files.isSameFile(dir, ancestor.dir))
+                            return true;
+                    } catch (IOException | SecurityException x) {
+                        // ignore
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Walk walk;
+    // directories still to be read; the most recently found at the tail
+    private final ArrayDeque<DirectoryNode> pending;
+
+    // the starting file, until it has been reported (root spliterator only)
+    private Path start;
+    private BasicFileAttributes startAttrs;
+
+    // the directory being read
+    private DirectoryNode current;
+    private DirectoryStream<Path> stream;
+    private Iterator<Path> iterator;
+
+    /**
+     * Creates a spliterator for the file tree starting at the given file.
+     * If {@code needAttributes} is false the matcher does not read the
+     * attributes it is given, which may then only know the type of the file.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code maxDepth} is negative
+     * @throws  IOException
+     *          if an I/O errors occurs reading the attributes of the starting file
+     * @throws  SecurityException
+     *          if the security manager denies access to the starting file
+     * @throws  NullPointerException
+     *          if {@code start}, {@code matcher} or {@code options} is {@code null}
+     *          or the options array contains a {@code null} element
+     */
+    FileTreeSpliterator(Path start, int maxDepth,
+                        BiPredicate<Path, BasicFileAttributes> matcher,
+                        boolean needAttributes,
+                        FileVisitOption... options)
+        throws IOException
+    {
+        if (matcher == null)
+            throw new NullPointerException("matcher");
+        this.walk = new Walk(options, maxDepth, matcher, needAttributes);
+        this.pending = new ArrayDeque<>();
+        this.start = start;
+        this.startAttrs = walk.getAttributes(start, false);
+        if (maxDepth > 0 && startAttrs.isDirectory()) {
+            pending.add(new DirectoryNode(start, startAttrs.fileKey(), null, 0));
+        }
+    }
+
+    private FileTreeSpliterator(Walk walk, ArrayDeque<DirectoryNode> pending) {
+        this.walk = walk;
+        this.pending = pending;
+    }
+
+    /**
+     * Opens the next pending directory. Returns false if there are none left.
+     */
+    private boolean openNext() {
+        for (;;) {
+            DirectoryNode node = pending.pollLast();
+            if (node == null)
+                return false;
+
+            DirectoryStream<Path> ds;
+            try {
+                ds = Files.newDirectoryStream(node.dir);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            } catch (SecurityException se) {
+                // skip directories we are not allowed to read, as Files.walk does
+                continue;
+            }
+            walk.openStreams.add(ds);
+            if (walk.closed) {
+                closeStream(ds);
+                throw new IllegalStateException();
+            }
+            current = node;
+            stream = ds;
+            iterator = ds.iterator();
+            return true;
+        }
+    }
+
+    private void closeCurrent() {
+        DirectoryStream<Path> ds = stream;
+        current = null;
+        stream = null;
+        iterator = null;
+        closeStream(ds);
+    }
+
+    private void closeStream(DirectoryStream<Path> ds) {
+        walk.openStreams.remove(ds);
+        try {
+            ds.close();
+        } catch (IOException ignore) { }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Path> action) {
+        if (walk.closed)
+            throw new IllegalStateException();
+
+        if (start != null) {
+            Path file = start;
+            BasicFileAttributes attrs = startAttrs;
+            start = null;
+            startAttrs = null;
+            if (walk.matcher.test(file, attrs)) {
+                action.accept(file);
+                return true;
+            }
+        }
+
+        for (;;) {
+            if (iterator == null && !openNext())
+                return false;
+
+            Path entry;
+            try {
+                if (!iterator.hasNext()) {
+                    closeCurrent();
+                    continue;
+                }
+                entry = iterator.next();
+            } catch (DirectoryIteratorException x) {
+                closeCurrent();
+                throw new UncheckedIOException(x.getCause());
+            }
+
+            BasicFileAttributes attrs;
+            try {
+                attrs = walk.getAttributes(entry, true);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            } catch (SecurityException se) {
+                continue;
+            }
+
+            int depth = current.depth + 1;
+            if (depth < walk.maxDepth && attrs.isDirectory()) {
+                Object key = attrs.fileKey();
+                if (walk.followLinks && current.wouldLoop(entry, key)) {
+                    throw new UncheckedIOException(
+                        new FileSystemLoopException(entry.toString()));
+                }
+                pending.addLast(new DirectoryNode(entry, key, current, depth));
+            }
+
+            if (walk.matcher.test(entry, attrs)) {
+                action.accept(entry);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Path> trySplit() {
+        // keep at least one directory unless we are in the middle of one
+        int n = pending.size();
+        int count = (iterator != null) ? (n + 1) / 2 : n / 2;
+        if (count == 0)
+            return null;
+
+        ArrayDeque<DirectoryNode> split = new ArrayDeque<>(count);
+        for (int i = 0; i < count; i++) {
+            split.addLast(pending.pollFirst());
+        }
+        return new FileTreeSpliterator(walk, split);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+
+    /**
+     * Closes the directories still open by any spliterator of this walk.
+     */
+    @Override
+    public void close() {
+        walk.closed = true;
+        for (DirectoryStream<Path> ds : walk.openStreams) {
+            closeStream(ds);
+        }
+    }
+}
@@ -58,6 +58,8 @@ class FileTreeWalker implements Closeable {
     private final boolean followLinks;
     private final LinkOption[] linkOptions;
     private final int maxDepth;
+    // Android-added: Whether the caller reads the attributes of the events.
+    private final boolean needAttributes;
     private final ArrayDeque<DirectoryNode> stack = new ArrayDeque<>();
     private boolean closed;
 
@@ -175,6 +177,19 @@ class FileTreeWalker implements Closeable {
      *          array contains a {@code null} element
      */
     FileTreeWalker(Collection<FileVisitOption> options, int maxDepth) {
+        // Android-changed: Delegate to the constructor that takes needAttributes.
+        this(options, maxDepth, true);
+    }
+
+    // BEGIN Android-added: Let callers that only need the files skip the stat.
+    /**
+     * Creates a {@code FileTreeWalker}. If {@code needAttributes} is false the
+     * caller does not read the attributes of the events, which may then only
+     * know the type of the file.
+     */
+    FileTreeWalker(Collection<FileVisitOption> options, int maxDepth,
+                   boolean needAttributes) {
+    // END Android-added: Let callers that only need the files skip the stat.
         boolean fl = false;
         for (FileVisitOption option: options) {
             // will throw NPE if options contains null
@@ -191,6 +206,8 @@ class FileTreeWalker implements Closeable {
         this.linkOptions = (fl) ? new LinkOption[0] :
             new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
         this.maxDepth = maxDepth;
+        // Android-added: Whether the caller reads the attributes of the events.
+        this.needAttributes = needAttributes;
     }
 
     /**
@@ -202,7 +219,13 @@ class FileTreeWalker implements Closeable {
         throws IOException
     {
         // if attributes are cached then use them if possible
-        if (canUseCached &&
+        // BEGIN Android-changed: Cached attributes may only know the file type.
+        // Use them only if they are neither handed to the caller nor used to
+        // detect cycles, so that the caller gets an IOException if the file
+        // can't be read and a consistent stat of it otherwise.
+        // if (canUseCached &&
+        if (canUseCached && !needAttributes && !followLinks &&
+        // END Android-changed: Cached attributes may only know the file type.
             (file instanceof BasicFileAttributesHolder) &&
             (System.getSecurityManager() == null))
         {
@@ -3571,7 +3571,9 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        // Android-changed: Don't read attributes that aren't returned.
+        // FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, false, options);
         try {
             return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
                                 .onClose(iterator::close)
@@ -3696,6 +3698,101 @@ public final class Files {
         }
     }
 
+    // BEGIN Android-added: Parallel file tree walks.
+    /**
+     * Return a parallel {@code Stream} that is lazily populated with {@code
+     * Path} by walking the file tree rooted at a given starting file.
+     *
+     * <p> This method visits the same files as {@link #walk(Path, int,
+     * FileVisitOption...) walk}, but the order in which they are returned is
+     * unspecified. Directories are read concurrently by the threads executing
+     * the stream pipeline, so the stream should be consumed with operations
+     * that do not depend on encounter order.
+     *
+     * <p> The returned stream encapsulates one or more {@link DirectoryStream}s
+     * and should be closed with the {@code try}-with-resources construct.
+     *
+     * @param   start
+     *          the starting file
+     * @param   maxDepth
+     *          the maximum number of directory levels to visit
+     * @param   options
+     *          options to configure the traversal
+     *
+     * @return  the parallel {@link Stream} of {@link Path}
+     *
+     * @throws  IllegalArgumentException
+     *          if the {@code maxDepth} parameter is negative
+     * @throws  SecurityException
+     *          If the security manager denies access to the starting file.
+     * @throws  IOException
+     *          if an I/O error is thrown when accessing the starting file.
+     *
+     * @see     #walk(Path, int, FileVisitOption...)
+     * @hide
+     */
+    public static Stream<Path> walkParallel(Path start,
+                                            int maxDepth,
+                                            FileVisitOption... options)
+        throws IOException
+    {
+        // The matcher ignores the attributes, so they needn't be read.
+        return parallelStream(new FileTreeSpliterator(start, maxDepth,
+                (path, attrs) -> true, false, options));
+    }
+
+    /**
+     * Return a parallel {@code Stream} that is lazily populated with {@code
+     * Path} by searching for files in a file tree rooted at a given starting
+     * file.
+     *
+     * <p> This method walks the file tree in the manner specified by the
+     * {@link #walkParallel walkParallel} method. The given {@link BiPredicate}
+     * may be invoked concurrently from several threads.
+     *
+     * @param   start
+     *          the starting file
+     * @param   maxDepth
+     *          the maximum number of directory levels to search
+     * @param   matcher
+     *          the function used to decide whether a file should be included
+     *          in the returned stream
+     * @param   options
+     *          options to configure the traversal
+     *
+     * @return  the parallel {@link Stream} of {@link Path}
+     *
+     * @throws  IllegalArgumentException
+     *          if the {@code maxDepth} parameter is negative
+     * @throws  SecurityException
+     *          If the security manager denies access to the starting file.
+     * @throws  IOException
+     *          if an I/O error is thrown when accessing the starting file.
+     *
+     * @see     #find(Path, int, BiPredicate, FileVisitOption...)
+     * @hide
+     */
+    public static Stream<Path> findParallel(Path start,
+                                            int maxDepth,
+                                            BiPredicate<Path, BasicFileAttributes> matcher,
+                                            FileVisitOption... options)
+        throws IOException
+    {
+        return parallelStream(new FileTreeSpliterator(start, maxDepth,
+                matcher, true, options));
+    }
+
+    private static Stream<Path> parallelStream(FileTreeSpliterator spliterator) {
+        try {
+            return StreamSupport.stream(spliterator, true)
+                                .onClose(spliterator::close);
+        } catch (Error|RuntimeException e) {
+            spliterator.close();
+            throw e;
+        }
+    }
+    // END Android-added: Parallel file tree walks.
+
     /**
      * Read all lines from a file as a {@code Stream}. Unlike {@link
      * #readAllLines(Path, Charset) readAllLines}, this method does not read
@@ -2076,6 +2076,15 @@ public class SimpleDateFormat extends DateFormat {
         return getExtendedTimeZoneNames().getTimeZoneNames();
     }
 
+    // Android-added: locale accessor for CompiledDateFormat.
+    /**
+     * Returns the locale this format was created with, which names time zones, or null if it
+     * was deserialized from a format that didn't record one.
+     */
+    Locale getLocale() {
+        return locale;
+    }
+
     /**
      * Parses the time zone string using the ICU4J class {@link TimeZoneNames}.
      */
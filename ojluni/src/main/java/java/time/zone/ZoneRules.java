@@ -78,8 +78,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+// Android-removed: lastRulesCache is a ConcurrentIntObjectMap.
+// import java.util.concurrent.ConcurrentHashMap;
+// import java.util.concurrent.ConcurrentMap;
+import libcore.util.ConcurrentIntObjectMap;
 
 // Android-changed: remove mention of ZoneRulesProvider.
 /**
@@ -146,8 +148,11 @@ public final class ZoneRules implements Serializable {
     /**
      * The map of recent transitions.
      */
-    private final transient ConcurrentMap<Integer, ZoneOffsetTransition[]> lastRulesCache =
-                new ConcurrentHashMap<Integer, ZoneOffsetTransition[]>();
+    // Android-changed: Key lastRulesCache by int, so lookups don't box the year.
+    // private final transient ConcurrentMap<Integer, ZoneOffsetTransition[]> lastRulesCache =
+    //             new ConcurrentHashMap<Integer, ZoneOffsetTransition[]>();
+    private final transient ConcurrentIntObjectMap<ZoneOffsetTransition[]> lastRulesCache =
+                new ConcurrentIntObjectMap<ZoneOffsetTransition[]>();
     /**
      * The zero-length long array.
      */
@@ -744,8 +749,10 @@ public final class ZoneRules implements Serializable {
      * @return the transition array, not null
      */
     private ZoneOffsetTransition[] findTransitionArray(int year) {
-        Integer yearObj = year;  // should use Year class, but this saves a class load
-        ZoneOffsetTransition[] transArray = lastRulesCache.get(yearObj);
+        // Android-changed: lastRulesCache is keyed by int.
+        // Integer yearObj = year;  // should use Year class, but this saves a class load
+        // ZoneOffsetTransition[] transArray = lastRulesCache.get(yearObj);
+        ZoneOffsetTransition[] transArray = lastRulesCache.get(year);
         if (transArray != null) {
             return transArray;
         }
@@ -755,7 +762,9 @@ public final class ZoneRules implements Serializable {
             transArray[i] = ruleArray[i].createTransition(year);
         }
         if (year < LAST_CACHED_YEAR) {
-            lastRulesCache.putIfAbsent(yearObj, transArray);
+            // Android-changed: lastRulesCache is keyed by int.
+            // lastRulesCache.putIfAbsent(yearObj, transArray);
+            lastRulesCache.putIfAbsent(year, transArray);
         }
         return transArray;
     }
@@ -30,6 +30,8 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+// Android-added: ByteOrder for encoding between ByteBuffers.
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 import jdk.internal.vm.annotation.IntrinsicCandidate;
@@ -379,6 +381,125 @@ public class Base64 {
             return ByteBuffer.wrap(dst);
         }
 
+        // BEGIN Android-added: Encoding between ByteBuffers, and between array ranges.
+        /**
+         * Encodes all remaining bytes from the source buffer into the
+         * destination buffer, starting at its position, using the
+         * {@link Base64} encoding scheme. Either buffer may be direct, and
+         * neither is copied.
+         *
+         * <p> Upon return, the source buffer's position will be its limit,
+         * and the destination buffer's position will have advanced past the
+         * encoded bytes. No bytes will be written, and neither position
+         * changed, if the destination buffer has too little room.
+         *
+         * <p> Except with a MIME encoder, a long input can be encoded in
+         * pieces whose lengths, all but the last, are multiples of 3; the
+         * encoded pieces together are the encoding of the whole.
+         *
+         * @param   src
+         *          the bytes to encode
+         * @param   dst
+         *          the buffer to write the encoded bytes to
+         * @return  The number of bytes written to the destination buffer
+         *
+         * @throws  IllegalArgumentException if {@code dst} does not have
+         *          enough space for encoding all input bytes.
+         * @hide
+         */
+        public int encode(ByteBuffer src, ByteBuffer dst) {
+            int len = encodedOutLength(src.remaining(), false);
+            if (dst.remaining() < len || len == -1)
+                throw new IllegalArgumentException(
+                    "Output buffer is too small for encoding all input bytes");
+            int dp = dst.position();
+            int ret = encodeBuffer(src, src.position(), src.limit(), dst, dp);
+            src.position(src.limit());
+            dst.position(dp + ret);
+            return ret;
+        }
+
+        /**
+         * Encodes {@code len} bytes from the specified byte array, starting at
+         * {@code off}, using the {@link Base64} encoding scheme, writing the
+         * resulting bytes to the given output byte array, starting at
+         * {@code dstOff}.
+         *
+         * @return  The number of bytes written to the output byte array
+         *
+         * @throws  IllegalArgumentException if {@code dst} does not have enough
+         *          space after {@code dstOff} for encoding all input bytes.
+         * @throws  IndexOutOfBoundsException if either range is out of bounds
+         * @hide
+         */
+        public int encode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+            return encode(ByteBuffer.wrap(src, off, len),
+                          ByteBuffer.wrap(dst, dstOff, dst.length - dstOff));
+        }
+
+        /**
+         * Encodes {@code src} from {@code sp} to {@code sl} into {@code dst}
+         * from {@code dp}, which has room. Whole lines are encoded six bytes at
+         * a time, reading them as a long and writing eight characters as a long.
+         */
+        private int encodeBuffer(ByteBuffer src, int sp, int sl, ByteBuffer dst, int dp) {
+            char[] base64 = isURL ? toBase64URL : toBase64;
+            boolean srcSwap = src.order() != ByteOrder.BIG_ENDIAN;
+            boolean dstSwap = dst.order() != ByteOrder.BIG_ENDIAN;
+            int dp0 = dp;
+            int sl3 = sp + (sl - sp) / 3 * 3;
+            int lineBytes = linemax > 0 ? linemax / 4 * 3 : Integer.MAX_VALUE;
+            while (sp < sl3) {
+                int lineEnd = sp + Math.min(lineBytes, sl3 - sp);
+                boolean fullLine = lineEnd - sp == lineBytes;
+                // A long read needs eight bytes; only the first six are used.
+                for (; lineEnd - sp >= 6 && sl - sp >= 8; sp += 6, dp += 8) {
+                    long bits = src.getLong(sp);
+                    if (srcSwap)
+                        bits = Long.reverseBytes(bits);
+                    long chars = 0;
+                    for (int shift = 58; shift >= 16; shift -= 6) {
+                        chars = chars << 8 | base64[(int) (bits >>> shift) & 0x3f];
+                    }
+                    dst.putLong(dp, dstSwap ? Long.reverseBytes(chars) : chars);
+                }
+                for (; sp < lineEnd; sp += 3) {
+                    int bits = (src.get(sp) & 0xff) << 16 |
+                               (src.get(sp + 1) & 0xff) <<  8 |
+                               (src.get(sp + 2) & 0xff);
+                    dst.put(dp++, (byte)base64[(bits >>> 18) & 0x3f]);
+                    dst.put(dp++, (byte)base64[(bits >>> 12) & 0x3f]);
+                    dst.put(dp++, (byte)base64[(bits >>> 6)  & 0x3f]);
+                    dst.put(dp++, (byte)base64[bits & 0x3f]);
+                }
+                if (fullLine && linemax > 0 && sp < sl) {
+                    for (byte b : newline) {
+                        dst.put(dp++, b);
+                    }
+                }
+            }
+            if (sp < sl) {               // 1 or 2 leftover bytes
+                int b0 = src.get(sp++) & 0xff;
+                dst.put(dp++, (byte)base64[b0 >> 2]);
+                if (sp == sl) {
+                    dst.put(dp++, (byte)base64[(b0 << 4) & 0x3f]);
+                    if (doPadding) {
+                        dst.put(dp++, (byte)'=');
+                        dst.put(dp++, (byte)'=');
+                    }
+                } else {
+                    int b1 = src.get(sp) & 0xff;
+                    dst.put(dp++, (byte)base64[(b0 << 4) & 0x3f | (b1 >> 4)]);
+                    dst.put(dp++, (byte)base64[(b1 << 2) & 0x3f]);
+                    if (doPadding) {
+                        dst.put(dp++, (byte)'=');
+                    }
+                }
+            }
+            return dp - dp0;
+        }
+        // END Android-added: Encoding between ByteBuffers, and between array ranges.
+
         /**
          * Wraps an output stream for encoding byte data using the {@link Base64}
          * encoding scheme.
@@ -668,6 +789,192 @@ public class Base64 {
             }
         }
 
+        // BEGIN Android-added: Decoding between ByteBuffers, and between array ranges.
+        /**
+         * Decodes all remaining bytes from the source buffer using the
+         * {@link Base64} encoding scheme, writing the results into the
+         * destination buffer, starting at its position. Either buffer may be
+         * direct, and neither is copied.
+         *
+         * <p> Upon return, the source buffer's position will be its limit,
+         * and the destination buffer's position will have advanced past the
+         * decoded bytes. No bytes will be written, and neither position
+         * changed, if the destination buffer has too little room.
+         *
+         * <p> If the source buffer is not in valid Base64 encoding scheme then
+         * neither position is changed, but some bytes may have been written to
+         * the destination buffer before IllegalArgumentException is thrown.
+         *
+         * @param   src
+         *          the bytes to decode
+         * @param   dst
+         *          the buffer to write the decoded bytes to
+         * @return  The number of bytes written to the destination buffer
+         *
+         * @throws  IllegalArgumentException
+         *          if {@code src} is not in valid Base64 scheme, or {@code dst}
+         *          does not have enough space for decoding all input bytes.
+         * @hide
+         */
+        public int decode(ByteBuffer src, ByteBuffer dst) {
+            int sp = src.position();
+            int sl = src.limit();
+            int len = decodedOutLength(src, sp, sl);
+            if (dst.remaining() < len)
+                throw new IllegalArgumentException(
+                    "Output buffer is too small for decoding all input bytes");
+            int dp = dst.position();
+            int ret = decodeBuffer(src, sp, sl, dst, dp);
+            src.position(sl);
+            dst.position(dp + ret);
+            return ret;
+        }
+
+        /**
+         * Decodes {@code len} bytes from the input byte array, starting at
+         * {@code off}, using the {@link Base64} encoding scheme, writing the
+         * results into the given output byte array, starting at {@code dstOff}.
+         *
+         * @return  The number of bytes written to the output byte array
+         *
+         * @throws  IllegalArgumentException
+         *          if {@code src} is not in valid Base64 scheme, or {@code dst}
+         *          does not have enough space after {@code dstOff} for
+         *          decoding all input bytes.
+         * @throws  IndexOutOfBoundsException if either range is out of bounds
+         * @hide
+         */
+        public int decode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+            return decode(ByteBuffer.wrap(src, off, len),
+                          ByteBuffer.wrap(dst, dstOff, dst.length - dstOff));
+        }
+
+        /**
+         * {@link #decodedOutLength(byte[], int, int)} for a buffer.
+         */
+        private int decodedOutLength(ByteBuffer src, int sp, int sl) {
+            int[] base64 = isURL ? fromBase64URL : fromBase64;
+            int paddings = 0;
+            int len = sl - sp;
+            if (len == 0)
+                return 0;
+            if (len < 2) {
+                if (isMIME && base64[0] == -1)
+                    return 0;
+                throw new IllegalArgumentException(
+                    "Input byte[] should at least have 2 bytes for base64 bytes");
+            }
+            if (isMIME) {
+                int n = 0;
+                while (sp < sl) {
+                    int b = src.get(sp++) & 0xff;
+                    if (b == '=') {
+                        len -= (sl - sp + 1);
+                        break;
+                    }
+                    if ((b = base64[b]) == -1)
+                        n++;
+                }
+                len -= n;
+            } else {
+                if (src.get(sl - 1) == '=') {
+                    paddings++;
+                    if (src.get(sl - 2) == '=')
+                        paddings++;
+                }
+            }
+            if (paddings == 0 && (len & 0x3) !=  0)
+                paddings = 4 - (len & 0x3);
+            return 3 * (int) ((len + 3L) / 4) - paddings;
+        }
+
+        /**
+         * {@link #decode0} for buffers, writing from {@code dp}. Runs of
+         * alphabet characters are decoded eight at a time, reading them as a
+         * long and writing six bytes.
+         */
+        private int decodeBuffer(ByteBuffer src, int sp, int sl, ByteBuffer dst, int dp) {
+            int[] base64 = isURL ? fromBase64URL : fromBase64;
+            boolean srcSwap = src.order() != ByteOrder.BIG_ENDIAN;
+            boolean dstSwap = dst.order() != ByteOrder.BIG_ENDIAN;
+            int dp0 = dp;
+            int bits = 0;
+            int shiftto = 18;       // pos of first byte of 4-byte atom
+
+            while (sp < sl) {
+                // Fast path, which stops before any non-alphabet byte, padding included.
+                for (; shiftto == 18 && sl - sp >= 8; sp += 8, dp += 6) {
+                    long chars = src.getLong(sp);
+                    if (srcSwap)
+                        chars = Long.reverseBytes(chars);
+                    long bytes = 0;
+                    int check = 0;
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        int b = base64[(int) (chars >>> shift) & 0xff];
+                        check |= b;
+                        bytes = bytes << 6 | (b & 0x3f);
+                    }
+                    if (check < 0)
+                        break;
+                    int high = (int) (bytes >>> 16);
+                    short low = (short) bytes;
+                    dst.putInt(dp, dstSwap ? Integer.reverseBytes(high) : high);
+                    dst.putShort(dp + 4, dstSwap ? Short.reverseBytes(low) : low);
+                }
+                if (sp >= sl) {
+                    // we're done
+                    break;
+                }
+                int b = src.get(sp++) & 0xff;
+                if ((b = base64[b]) < 0) {
+                    if (b == -2) {         // padding byte '='
+                        if (shiftto == 6 && (sp == sl || src.get(sp++) != '=') ||
+                            shiftto == 18) {
+                            throw new IllegalArgumentException(
+                                "Input byte array has wrong 4-byte ending unit");
+                        }
+                        break;
+                    }
+                    if (isMIME)    // skip if for rfc2045
+                        continue;
+                    else
+                        throw new IllegalArgumentException(
+                            "Illegal base64 character " +
+                            Integer.toString(src.get(sp - 1), 16));
+                }
+                bits |= (b << shiftto);
+                shiftto -= 6;
+                if (shiftto < 0) {
+                    dst.put(dp++, (byte)(bits >> 16));
+                    dst.put(dp++, (byte)(bits >>  8));
+                    dst.put(dp++, (byte)(bits));
+                    shiftto = 18;
+                    bits = 0;
+                }
+            }
+            // reached end of input or hit padding '=' characters.
+            if (shiftto == 6) {
+                dst.put(dp++, (byte)(bits >> 16));
+            } else if (shiftto == 0) {
+                dst.put(dp++, (byte)(bits >> 16));
+                dst.put(dp++, (byte)(bits >>  8));
+            } else if (shiftto == 12) {
+                // dangling single "x", incorrectly encoded.
+                throw new IllegalArgumentException(
+                    "Last unit does not have enough valid bits");
+            }
+            // anything left is invalid, if is not MIME.
+            // if MIME, ignore all non-base64 character
+            while (sp < sl) {
+                if (isMIME && base64[src.get(sp++) & 0xff] < 0)
+                    continue;
+                throw new IllegalArgumentException(
+                    "Input byte array has incorrect ending byte at " + sp);
+            }
+            return dp - dp0;
+        }
+        // END Android-added: Decoding between ByteBuffers, and between array ranges.
+
         /**
          * Returns an input stream for decoding {@link Base64} encoded byte stream.
          *
@@ -33,6 +33,7 @@ import dalvik.annotation.compat.VersionCodes;
 import dalvik.system.VMRuntime;
 
 import java.security.*;
+import libcore.util.StripedSecureRandom;
 
 // Android-removed: not using JavaLangAccess.fastUUID.
 // import jdk.internal.misc.JavaLangAccess;
@@ -107,7 +108,9 @@ public final class UUID implements java.io.Serializable, Comparable<UUID> {
      * based UUIDs. In a holder class to defer initialization until needed.
      */
     private static class Holder {
-        static final SecureRandom numberGenerator = new SecureRandom();
+        // Android-changed: spread threads over several generators instead of one.
+        // static final SecureRandom numberGenerator = new SecureRandom();
+        static final StripedSecureRandom numberGenerator = StripedSecureRandom.getDefault();
     }
 
     // Constructors and Factories
@@ -153,7 +156,9 @@ public final class UUID implements java.io.Serializable, Comparable<UUID> {
      * @return  A randomly generated {@code UUID}
      */
     public static UUID randomUUID() {
-        SecureRandom ng = Holder.numberGenerator;
+        // Android-changed: spread threads over several generators instead of one.
+        // SecureRandom ng = Holder.numberGenerator;
+        StripedSecureRandom ng = Holder.numberGenerator;
 
         byte[] randomBytes = new byte[16];
         ng.nextBytes(randomBytes);
@@ -454,21 +459,54 @@ public final class UUID implements java.io.Serializable, Comparable<UUID> {
      *
      * @return  A string representation of this {@code UUID}
      */
+    // Android-added: @SuppressWarnings for String(byte[], int, int, int).
+    @SuppressWarnings("deprecation")
     public String toString() {
+        // BEGIN Android-changed: format into a Latin-1 byte array.
         // Android-changed: using old implementation.
         // return jla.fastUUID(leastSigBits, mostSigBits);
+        /*
         return (digits(mostSigBits >> 32, 8) + "-" +
                 digits(mostSigBits >> 16, 4) + "-" +
                 digits(mostSigBits, 4) + "-" +
                 digits(leastSigBits >> 48, 4) + "-" +
                 digits(leastSigBits, 12));
+        */
+        byte[] buf = new byte[36];
+        formatHex(mostSigBits >>> 32, buf, 0, 8);
+        buf[8] = '-';
+        formatHex(mostSigBits >>> 16, buf, 9, 4);
+        buf[13] = '-';
+        formatHex(mostSigBits, buf, 14, 4);
+        buf[18] = '-';
+        formatHex(leastSigBits >>> 48, buf, 19, 4);
+        buf[23] = '-';
+        formatHex(leastSigBits, buf, 24, 12);
+        return new String(buf, 0, 0, buf.length);
+        // END Android-changed: format into a Latin-1 byte array.
     }
 
-    /** Returns val represented by the specified number of hex digits. */
-    private static String digits(long val, int digits) {
-        long hi = 1L << (digits * 4);
-        return Long.toHexString(hi | (val & (hi - 1))).substring(1);
+    // BEGIN Android-added: hex formatting with a lookup table for toString().
+    private static final byte[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    /** Writes the low {@code digits} hex digits of val to buf, starting at offset. */
+    private static void formatHex(long val, byte[] buf, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buf[i] = HEX_DIGITS[(int) val & 0xf];
+            val >>>= 4;
+        }
     }
+    // END Android-added: hex formatting with a lookup table for toString().
+
+    // BEGIN Android-removed: only used by the old toString() implementation.
+    // /** Returns val represented by the specified number of hex digits. */
+    // private static String digits(long val, int digits) {
+    //     long hi = 1L << (digits * 4);
+    //     return Long.toHexString(hi | (val & (hi - 1))).substring(1);
+    // }
+    // END Android-removed: only used by the old toString() implementation.
 
     /**
      * Returns a hash code for this {@code UUID}.
@@ -0,0 +1,628 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ScheduledExecutorService} backed by a hashed hierarchical timing
+ * wheel, for applications that keep very many timeouts pending, most of
+ * which are cancelled before they expire.
+ *
+ * <p>Scheduling and cancelling a task are O(1) and take no lock: both hand
+ * the task to a single timer thread through a lock-free queue, and the timer
+ * thread links it into or out of the wheel. Time advances in ticks of a
+ * configurable duration. The wheel has four levels of 256 slots; a task is
+ * placed in the lowest level whose span covers its delay and moves down a
+ * level each time the level below completes a revolution. On every tick the
+ * timer thread takes all tasks in the current slot and runs them as one
+ * batch.
+ *
+ * <p>Tasks never run before their delay has elapsed, rounded up to a whole
+ * tick, and usually run within one tick after it. Tasks that expire in the
+ * same tick run in no particular order. Unless a task executor is given,
+ * tasks run on the timer thread and should be short. The timer thread wakes
+ * once per tick while any task is pending and sleeps otherwise.
+ *
+ * <p>As with {@link ScheduledThreadPoolExecutor}, delayed tasks still run
+ * after {@link #shutdown}, periodic tasks don't, and cancelled tasks are
+ * removed from the wheel.
+ *
+ * @hide
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * The most tasks moved from the submission queue into the wheel per tick,
+     * so that a burst of submissions can't hold up expiry.
+     */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+    private static final int TIDYING = 3;
+    private static final int TERMINATED = 4;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Executor taskExecutor;
+    private final Thread timerThread;
+
+    /** Tasks waiting for the timer thread to link them into the wheel. */
+    private final ConcurrentLinkedQueue<WheelTask<?>> submitted = new ConcurrentLinkedQueue<>();
+    /** Cancelled tasks waiting for the timer thread to unlink them. */
+    private final ConcurrentLinkedQueue<WheelTask<?>> cancellations =
+            new ConcurrentLinkedQueue<>();
+
+    /**
+     * Guards the wheel and the lifecycle. Only the timer thread takes it
+     * while running, so it is uncontended except during shutdown.
+     */
+    private final ReentrantLock mainLock = new ReentrantLock();
+    /** Heads of the doubly linked task lists, level by level. */
+    private final WheelTask<?>[] slots = new WheelTask<?>[LEVELS * WHEEL_SIZE];
+    /** The last tick processed. */
+    private long currentTick;
+    /** The number of tasks linked into the wheel. */
+    private int wheelSize;
+    /** Tasks that are due, in the order they expired. */
+    private ArrayList<WheelTask<?>> expired = new ArrayList<>();
+    /** The batch being run by the timer thread, swapped with expired. */
+    private ArrayList<WheelTask<?>> running = new ArrayList<>();
+    private boolean periodicTasksCancelled;
+
+    private volatile int state;
+    private volatile boolean started;
+    /** True while the timer thread sleeps until a task is submitted. */
+    private volatile boolean idle;
+    private final CountDownLatch termination = new CountDownLatch(1);
+
+    /**
+     * Creates an executor that runs tasks on its timer thread.
+     *
+     * @param tickDuration the resolution of the timer
+     * @param unit the unit of {@code tickDuration}
+     * @throws IllegalArgumentException if {@code tickDuration <= 0}
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, Executors.defaultThreadFactory(), null);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param tickDuration the resolution of the timer
+     * @param unit the unit of {@code tickDuration}
+     * @param threadFactory the factory for the timer thread
+     * @param taskExecutor the executor that runs expired tasks, or null to run
+     *     them on the timer thread
+     * @throws IllegalArgumentException if {@code tickDuration <= 0}
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+            ThreadFactory threadFactory, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration <= 0");
+        }
+        if (unit == null || threadFactory == null) {
+            throw new NullPointerException();
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.taskExecutor = taskExecutor;
+        this.startNanos = System.nanoTime();
+        this.timerThread = threadFactory.newThread(this::runTimer);
+        if (timerThread == null) {
+            throw new NullPointerException("threadFactory returned null");
+        }
+    }
+
+    private class WheelTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** The time the task is enabled to run, in System.nanoTime() units. */
+        private volatile long time;
+
+        /**
+         * Period for repeating tasks, in nanoseconds. A positive value
+         * indicates fixed-rate execution, a negative value fixed-delay
+         * execution and zero a one-shot task.
+         */
+        private final long period;
+
+        // The following are owned by the timer thread.
+        /** The tick at which the task expires. */
+        long deadlineTick;
+        WheelTask<?> prev;
+        WheelTask<?> next;
+        /** The index of the slot the task is linked into, or -1. */
+        int slot = -1;
+
+        WheelTask(Runnable r, V result, long time, long period) {
+            super(r, result);
+            this.time = time;
+            this.period = period;
+        }
+
+        WheelTask(Callable<V> callable, long time) {
+            super(callable);
+            this.time = time;
+            this.period = 0;
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            long diff = (other instanceof WheelTask)
+                    ? time - ((WheelTask<?>) other).time
+                    : getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancellations.offer(this);
+            }
+            return cancelled;
+        }
+
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (super.runAndReset()) {
+                time = (period > 0) ? time + period : triggerTime(-period);
+                if (state == RUNNING) {
+                    enqueue(this);
+                } else {
+                    cancel(false);
+                }
+            }
+        }
+    }
+
+    private long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    private long triggerTime(long delay) {
+        return System.nanoTime() + Math.min(delay, Long.MAX_VALUE >> 1);
+    }
+
+    private void delayedExecute(WheelTask<?> task) {
+        if (state != RUNNING || !ensureStarted()) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        enqueue(task);
+    }
+
+    private boolean ensureStarted() {
+        if (started) {
+            return true;
+        }
+        mainLock.lock();
+        try {
+            if (!started && state == RUNNING) {
+                timerThread.start();
+                started = true;
+            }
+            return started;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void enqueue(WheelTask<?> task) {
+        submitted.offer(task);
+        if (state >= STOP && submitted.remove(task)) {
+            // The timer thread has stopped or is about to; it won't see the task.
+            task.cancel(false);
+        } else if (idle) {
+            LockSupport.unpark(timerThread);
+        }
+    }
+
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        if (command == null || unit == null) {
+            throw new NullPointerException();
+        }
+        WheelTask<Void> task = new WheelTask<>(command, null, triggerTime(delay, unit), 0);
+        delayedExecute(task);
+        return task;
+    }
+
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        if (callable == null || unit == null) {
+            throw new NullPointerException();
+        }
+        WheelTask<V> task = new WheelTask<>(callable, triggerTime(delay, unit));
+        delayedExecute(task);
+        return task;
+    }
+
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+            long period, TimeUnit unit) {
+        if (command == null || unit == null) {
+            throw new NullPointerException();
+        }
+        if (period <= 0L) {
+            throw new IllegalArgumentException();
+        }
+        WheelTask<Void> task = new WheelTask<>(command, null,
+                triggerTime(initialDelay, unit), unit.toNanos(period));
+        delayedExecute(task);
+        return task;
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
+            long delay, TimeUnit unit) {
+        if (command == null || unit == null) {
+            throw new NullPointerException();
+        }
+        if (delay <= 0L) {
+            throw new IllegalArgumentException();
+        }
+        WheelTask<Void> task = new WheelTask<>(command, null,
+                triggerTime(initialDelay, unit), -unit.toNanos(delay));
+        delayedExecute(task);
+        return task;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay, which means it runs
+     * on the next tick.
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * Initiates an orderly shutdown. Delayed tasks that are already scheduled
+     * still run; periodic tasks are cancelled. No new tasks are accepted.
+     */
+    public void shutdown() {
+        mainLock.lock();
+        try {
+            if (state == RUNNING) {
+                state = SHUTDOWN;
+            }
+            if (!started) {
+                state = TERMINATED;
+                termination.countDown();
+                return;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        LockSupport.unpark(timerThread);
+    }
+
+    /**
+     * Stops the timer thread and returns the tasks that were waiting to run.
+     * Tasks that had already expired but not yet started are cancelled
+     * rather than returned.
+     */
+    public List<Runnable> shutdownNow() {
+        ArrayList<Runnable> tasks = new ArrayList<>();
+        mainLock.lock();
+        try {
+            if (state < STOP) {
+                state = STOP;
+            }
+            for (int i = 0; i < slots.length; i++) {
+                for (WheelTask<?> task = detach(i); task != null; ) {
+                    WheelTask<?> next = task.next;
+                    clearLinks(task);
+                    if (!task.isCancelled()) {
+                        tasks.add(task);
+                    }
+                    task = next;
+                }
+            }
+            wheelSize = 0;
+            for (WheelTask<?> task : expired) {
+                if (!task.isCancelled()) {
+                    tasks.add(task);
+                }
+            }
+            expired.clear();
+            WheelTask<?> task;
+            while ((task = submitted.poll()) != null) {
+                if (!task.isCancelled()) {
+                    tasks.add(task);
+                }
+            }
+            cancellations.clear();
+            if (!started) {
+                state = TERMINATED;
+                termination.countDown();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        timerThread.interrupt();
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return state != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return state == TERMINATED;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    private void runTimer() {
+        try {
+            while (true) {
+                mainLock.lock();
+                try {
+                    if (state >= STOP || !advance()) {
+                        break;
+                    }
+                    ArrayList<WheelTask<?>> batch = expired;
+                    expired = running;
+                    running = batch;
+                } finally {
+                    mainLock.unlock();
+                }
+                runBatch(running);
+                waitForNextTick();
+            }
+        } finally {
+            state = TERMINATED;
+            termination.countDown();
+        }
+    }
+
+    /**
+     * Brings the wheel up to date with submissions, cancellations and the
+     * current time, and collects the tasks that are due. Returns false if the
+     * executor has been shut down and has no tasks left.
+     */
+    private boolean advance() {
+        if (state == SHUTDOWN && !periodicTasksCancelled) {
+            cancelPeriodicTasks();
+            periodicTasksCancelled = true;
+        }
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        if (wheelSize == 0 && currentTick < targetTick) {
+            // Nothing to expire in between.
+            currentTick = targetTick;
+        }
+        transferSubmitted();
+        WheelTask<?> task;
+        while ((task = cancellations.poll()) != null) {
+            if (task.slot >= 0) {
+                unlink(task);
+            }
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            expireTick();
+        }
+        if (state == SHUTDOWN && wheelSize == 0 && expired.isEmpty()) {
+            // Pairs with the check in enqueue(): either a task submitted from
+            // here on is seen below, or its submitter sees TIDYING.
+            state = TIDYING;
+            if (submitted.isEmpty()) {
+                return false;
+            }
+            state = SHUTDOWN;
+        }
+        return true;
+    }
+
+    private void transferSubmitted() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTask<?> task = submitted.poll();
+            if (task == null) {
+                break;
+            }
+            if (task.isCancelled()) {
+                continue;
+            }
+            if (state != RUNNING && task.isPeriodic()) {
+                task.cancel(false);
+                continue;
+            }
+            long elapsed = task.time - startNanos;
+            // Round up so that a task never runs early.
+            task.deadlineTick = (elapsed <= 0) ? 0 : (elapsed - 1) / tickNanos + 1;
+            insert(task);
+        }
+    }
+
+    /**
+     * Processes the tick just reached: moves tasks down from the higher
+     * levels whose slot starts at this tick, then expires the tasks in the
+     * current slot of the lowest level.
+     */
+    private void expireTick() {
+        long tick = currentTick;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = WHEEL_BITS * level;
+            if ((tick & ((1L << shift) - 1)) == 0) {
+                int index = (level << WHEEL_BITS) | (int) ((tick >>> shift) & WHEEL_MASK);
+                for (WheelTask<?> task = detach(index); task != null; ) {
+                    WheelTask<?> next = task.next;
+                    clearLinks(task);
+                    wheelSize--;
+                    insert(task);
+                    task = next;
+                }
+            }
+        }
+        for (WheelTask<?> task = detach((int) (tick & WHEEL_MASK)); task != null; ) {
+            WheelTask<?> next = task.next;
+            clearLinks(task);
+            wheelSize--;
+            expired.add(task);
+            task = next;
+        }
+    }
+
+    /**
+     * Links the task into the lowest level whose span covers its remaining
+     * delay, or adds it to the expired tasks if it is due. Tasks too far out
+     * for the top level are moved down early and placed again.
+     */
+    private void insert(WheelTask<?> task) {
+        long delta = task.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expired.add(task);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (level << WHEEL_BITS)
+                | (int) ((task.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        WheelTask<?> head = slots[index];
+        task.next = head;
+        if (head != null) {
+            head.prev = task;
+        }
+        slots[index] = task;
+        task.slot = index;
+        wheelSize++;
+    }
+
+    private void unlink(WheelTask<?> task) {
+        WheelTask<?> prev = task.prev;
+        WheelTask<?> next = task.next;
+        if (prev != null) {
+            prev.next = next;
+        } else {
+            slots[task.slot] = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+        clearLinks(task);
+        wheelSize--;
+    }
+
+    /** Removes and returns the list of tasks in a slot. */
+    private WheelTask<?> detach(int index) {
+        WheelTask<?> head = slots[index];
+        slots[index] = null;
+        return head;
+    }
+
+    private static void clearLinks(WheelTask<?> task) {
+        task.prev = null;
+        task.next = null;
+        task.slot = -1;
+    }
+
+    private void cancelPeriodicTasks() {
+        for (int i = 0; i < slots.length; i++) {
+            for (WheelTask<?> task = slots[i]; task != null; ) {
+                WheelTask<?> next = task.next;
+                if (task.isPeriodic()) {
+                    unlink(task);
+                    task.cancel(false);
+                }
+                task = next;
+            }
+        }
+    }
+
+    private void runBatch(ArrayList<WheelTask<?>> batch) {
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            WheelTask<?> task = batch.get(i);
+            if (state >= STOP) {
+                task.cancel(false);
+            } else if (taskExecutor == null) {
+                task.run();
+            } else {
+                try {
+                    taskExecutor.execute(task);
+                } catch (RuntimeException e) {
+                    task.cancel(false);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void waitForNextTick() {
+        if (state >= STOP) {
+            return;
+        }
+        // A task may have interrupted the timer thread; don't let that turn
+        // the waits below into a busy loop.
+        Thread.interrupted();
+        if (wheelSize == 0 && state == RUNNING) {
+            idle = true;
+            // Pairs with the check in enqueue(): either the task is seen here
+            // or its submitter sees idle and unparks this thread.
+            if (submitted.isEmpty()) {
+                LockSupport.park(this);
+            }
+            idle = false;
+        } else {
+            long wait = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+}
@@ -29,6 +29,8 @@ package java.util.jar;
 import java.io.*;
 import java.lang.ref.SoftReference;
 import java.util.*;
+// Android-added: Verify all entries up front, in parallel.
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.*;
@@ -489,6 +491,70 @@ class JarFile extends ZipFile {
             jv);
     }
 
+    // BEGIN Android-added: Verify all entries up front, in parallel.
+    /**
+     * Verifies the digest of every signed entry of this jar file against its
+     * manifest, using the common fork/join pool. This is equivalent to
+     * reading every entry through {@link #getInputStream}, but reads the
+     * entries on several threads.
+     *
+     * @throws SecurityException if an entry is incorrectly signed
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @see #verifyAllEntries(ForkJoinPool)
+     * @hide
+     */
+    public void verifyAllEntries() throws IOException {
+        verifyAllEntries(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies the digest of every signed entry of this jar file against its
+     * manifest, reading the entries on {@code pool}. Once an entry is found
+     * to be incorrectly signed no more entries are read, and the exception
+     * for it is thrown. Afterwards {@link JarEntry#getCodeSigners()} returns
+     * the signers of every correctly signed entry without reading it again.
+     *
+     * <p>Does nothing if the jar file isn't signed or was opened without
+     * verification.
+     *
+     * @param pool the pool on which to read the entries
+     * @throws SecurityException if an entry is incorrectly signed
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @hide
+     */
+    public void verifyAllEntries(ForkJoinPool pool) throws IOException {
+        JarVerifier jv;
+        Manifest man;
+        // The entries are read on the pool, so the lock mustn't be held
+        // while they're verified.
+        synchronized (this) {
+            maybeInstantiateVerifier();
+            if (this.jv != null && !jvInitialized) {
+                initializeVerifier();
+                jvInitialized = true;
+            }
+            jv = this.jv;
+            if (jv == null) {
+                return;
+            }
+            man = getManifestFromReference();
+        }
+        jv.verifyAll(this, man, pool);
+    }
+
+    /*
+     * Returns a stream over the contents of an entry that doesn't verify
+     * them. Used by JarVerifier.verifyAll(), which verifies them itself.
+     */
+    InputStream getUnverifiedInputStream(ZipEntry ze) throws IOException {
+        return super.getInputStream(ze);
+    }
+    // END Android-added: Verify all entries up front, in parallel.
+
     // Statics for hand-coded Boyer-Moore search
     private static final char[] CLASSPATH_CHARS = {'c','l','a','s','s','-','p','a','t','h'};
     // The bad character shift for "class-path"
@@ -31,6 +31,10 @@ import java.net.URL;
 import java.util.*;
 import java.security.*;
 import java.security.cert.CertificateException;
+// Android-added: Verify all entries up front, in parallel.
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 
 import jdk.internal.util.jar.JarIndex;
@@ -440,6 +444,101 @@ class JarVerifier {
         }
     }
 
+    // BEGIN Android-added: Verify all entries up front, in parallel.
+    /**
+     * Verifies every signed entry of {@code jar} that hasn't been verified
+     * yet, reading and digesting the entries on {@code pool}. Each thread of
+     * the pool reuses one set of MessageDigests for all the entries it
+     * verifies. Once an entry fails, no more entries are started and the
+     * exception of the first failure is thrown.
+     *
+     * Must only be called after {@link #doneWithMeta}, and not while
+     * holding the lock of {@code jar}.
+     */
+    void verifyAll(JarFile jar, Manifest man, ForkJoinPool pool) throws IOException {
+        List<JarEntry> entries = new ArrayList<>();
+        for (Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ) {
+            JarEntry je = e.nextElement();
+            String name = je.getName();
+            if (name.startsWith("./"))
+                name = name.substring(2);
+            if (name.startsWith("/"))
+                name = name.substring(1);
+            if (!je.isDirectory() && sigFileSigners.containsKey(name)) {
+                entries.add(je);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        ParallelVerification verification = new ParallelVerification(jar, man, entries);
+        pool.invoke(verification.new Task(0, entries.size()));
+        Exception failure = verification.failure.get();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    private final class ParallelVerification {
+        // Entries a task verifies itself rather than splitting further.
+        private static final int THRESHOLD = 8;
+
+        private final JarFile jar;
+        private final List<JarEntry> entries;
+        private final ThreadLocal<ManifestEntryVerifier> verifiers;
+        private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[8192]);
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ParallelVerification(JarFile jar, Manifest man, List<JarEntry> entries) {
+            this.jar = jar;
+            this.entries = entries;
+            this.verifiers = ThreadLocal.withInitial(() -> new ManifestEntryVerifier(man));
+        }
+
+        private void verify(JarEntry je) throws IOException {
+            ManifestEntryVerifier mev = verifiers.get();
+            byte[] buffer = buffers.get();
+            beginEntry(je, mev);
+            try (InputStream is = jar.getUnverifiedInputStream(je)) {
+                int n;
+                while ((n = is.read(buffer, 0, buffer.length)) != -1) {
+                    update(n, buffer, 0, n, mev);
+                }
+            }
+            update(-1, null, 0, 0, mev);
+        }
+
+        private final class Task extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            Task(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > THRESHOLD) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new Task(from, mid), new Task(mid, to));
+                    return;
+                }
+                for (int i = from; i < to && failure.get() == null; i++) {
+                    try {
+                        verify(entries.get(i));
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        }
+    }
+    // END Android-added: Verify all entries up front, in parallel.
+
     static class VerifierStream extends java.io.InputStream {
 
         private InputStream is;
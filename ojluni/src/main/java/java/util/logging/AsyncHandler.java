@@ -0,0 +1,492 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.logging;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <tt>Handler</tt> that publishes records to a target <tt>Handler</tt> on a
+ * background thread.
+ * <p>
+ * {@link #publish} checks the record's level and filter, copies the record,
+ * captures the parts of it that must be read on the logging thread, and puts
+ * the copy in a bounded lock-free ring buffer. The record passed to
+ * <tt>publish</tt>, which the logger also passes to its other handlers, is
+ * not changed, and the target is given the copy. A single daemon thread takes records from
+ * the buffer and hands them to the target, which formats and writes them.
+ * Threads that log concurrently therefore neither format on their own
+ * thread nor contend on the target's monitor.
+ * <p>
+ * Before a record is queued its caller is inferred, since the stack of the
+ * background thread would not show it, and parameters that might change
+ * before the record is formatted are captured. Strings, boxed primitives,
+ * <tt>BigInteger</tt>, <tt>BigDecimal</tt> and enums are queued as is and
+ * <tt>Date</tt>s are cloned. If any other parameter is present, the message
+ * is formatted on the logging thread, with the target's <tt>Formatter</tt>,
+ * and queued without parameters, so that it reads as it would have had the
+ * target published it synchronously.
+ * <p>
+ * If the background thread dies, for example because the target threw an
+ * <tt>Error</tt>, later records are published to the target on the logging
+ * thread.
+ * <p>
+ * When the buffer is full the {@link OverflowPolicy} decides what happens to
+ * further records. Records that are dropped are counted in
+ * {@link #getDroppedCount}.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.size
+ *        defines the buffer size, rounded up to a power of two
+ *        (defaults to 1024). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the {@link OverflowPolicy} by name
+ *        (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.sampleRate
+ *        defines how many records <tt>SAMPLE</tt> lets through under
+ *        pressure: one in this many (defaults to 10). </li>
+ * <li>   &lt;handler-name&gt;.inferCaller
+ *        specifies whether to infer the caller of records that don't name
+ *        one (defaults to <tt>true</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler</tt> class.
+ *        (no default). </li>
+ * </ul>
+ *
+ * @hide
+ */
+public class AsyncHandler extends Handler {
+
+    /**
+     * What {@link #publish} does with a record when the buffer can't take it.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Waits until the background thread makes room. No record is lost
+         * unless it is logged by the target itself.
+         */
+        BLOCK,
+        /**
+         * Drops the record. The buffer refills as soon as room is made, so
+         * under sustained load the records that survive come in bursts.
+         */
+        DROP,
+        /**
+         * Once the buffer is half full, queues only one in every
+         * <tt>sampleRate</tt> records and drops the rest, and drops records
+         * that find the buffer full. The records that survive sustained load
+         * are spread evenly over time.
+         */
+        SAMPLE
+    }
+
+    private final static int DEFAULT_SIZE = 1024;
+    private final static int MAX_SIZE = 1 << 20;
+    private final static int DEFAULT_SAMPLE_RATE = 10;
+
+    // How long a BLOCKed publish() or a flush() waits before checking again.
+    private final static long WAIT_NANOS = 100_000L;
+
+    // Formats messages for targets that have no Formatter.
+    private final static Formatter MESSAGE_FORMATTER = new Formatter() {
+        @Override
+        public String format(LogRecord record) {
+            return formatMessage(record);
+        }
+    };
+
+    private Handler target;
+    private int size;
+    private OverflowPolicy overflowPolicy;
+    private int sampleRate;
+    private boolean inferCaller;
+
+    // A multi-producer, single-consumer ring buffer. Producers claim a
+    // sequence number from tail and then store their record in its slot;
+    // the consumer takes records from head in order, waiting for slots that
+    // have been claimed but not filled yet.
+    private AtomicReferenceArray<LogRecord> buffer;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    // The number of records the target has finished publishing.
+    private volatile long published;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+    private Thread consumer;
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+        size = manager.getIntProperty(cname + ".size", DEFAULT_SIZE);
+        if (size <= 0) {
+            size = DEFAULT_SIZE;
+        }
+        String overflow = manager.getStringProperty(cname + ".overflow", null);
+        try {
+            overflowPolicy = overflow != null
+                    ? OverflowPolicy.valueOf(overflow.trim().toUpperCase(Locale.ROOT))
+                    : OverflowPolicy.BLOCK;
+        } catch (IllegalArgumentException e) {
+            overflowPolicy = OverflowPolicy.BLOCK;
+        }
+        sampleRate = manager.getIntProperty(cname + ".sampleRate", DEFAULT_SAMPLE_RATE);
+        if (sampleRate <= 0) {
+            sampleRate = DEFAULT_SAMPLE_RATE;
+        }
+        inferCaller = manager.getBooleanProperty(cname + ".inferCaller", true);
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        String targetName = manager.getProperty(handlerName + ".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (Exception e) {
+            try {
+                clz = Thread.currentThread().getContextClassLoader()
+                        .loadClass(targetName);
+                target = (Handler) clz.newInstance();
+            } catch (Exception innerE) {
+                throw new RuntimeException("AsyncHandler can't load handler target \"" +
+                        targetName + "\"", innerE);
+            }
+        }
+        init();
+        start();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given buffer size
+     * and overflow policy are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the number of log records to buffer, rounded up to a
+     *                power of two (must be greater than zero)
+     * @param overflowPolicy  what to do with records when the buffer is full
+     *
+     * @throws IllegalArgumentException if {@code size <= 0}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflowPolicy) {
+        if (target == null || overflowPolicy == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.overflowPolicy = overflowPolicy;
+        this.size = size;
+        init();
+        start();
+    }
+
+    // Initialize.  Size is a count of LogRecords.
+    private void init() {
+        int capacity = Integer.highestOneBit(Math.min(size, MAX_SIZE));
+        if (capacity < size && capacity < MAX_SIZE) {
+            capacity <<= 1;
+        }
+        buffer = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    private void start() {
+        consumer = new Thread(this::drain, "AsyncHandler");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> for the target <tt>Handler</tt>.
+     * <p>
+     * If the record is loggable, a copy of it with its caller and parameters
+     * captured as described above is put in the buffer, subject to the
+     * overflow policy. The record itself is not changed. Records published after {@link #close} are dropped.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || closed || !isLoggable(record)) {
+            return;
+        }
+        if (!consumer.isAlive()) {
+            publishDirectly(capture(record));
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.SAMPLE
+                && tail.get() - head > mask / 2
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        record = capture(record);
+        while (!offer(record)) {
+            // The target may log through this handler; the consumer must
+            // never wait for itself.
+            if (overflowPolicy != OverflowPolicy.BLOCK || closed
+                    || Thread.currentThread() == consumer) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // Nothing will make room if the consumer has died.
+            if (!consumer.isAlive()) {
+                publishDirectly(record);
+                return;
+            }
+            LockSupport.parkNanos(this, WAIT_NANOS);
+        }
+        if (consumerWaiting) {
+            consumerWaiting = false;
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // Returns a copy of the record to queue. The caller's record is also
+    // passed to the logger's other handlers, so it is never changed.
+    private LogRecord capture(LogRecord record) {
+        LogRecord copy = record.copyForAsync(inferCaller);
+        Object[] parameters = copy.getParameters();
+        if (parameters == null) {
+            return copy;
+        }
+        Object[] captured = null;
+        for (int i = 0; i < parameters.length; i++) {
+            Object parameter = parameters[i];
+            if (isImmutable(parameter)) {
+                continue;
+            }
+            if (!(parameter instanceof Date)) {
+                // Replacing the parameter with a copy or a String could
+                // change how format elements such as {0,number} render it.
+                formatMessage(copy);
+                return copy;
+            }
+            if (captured == null) {
+                captured = parameters.clone();
+            }
+            captured[i] = ((Date) parameter).clone();
+        }
+        if (captured != null) {
+            copy.setParameters(captured);
+        }
+        return copy;
+    }
+
+    // Replaces the copy's message with the message the target would format,
+    // and drops the parameters and resource bundle it was formatted with.
+    private void formatMessage(LogRecord copy) {
+        Formatter formatter = target.getFormatter();
+        if (formatter == null) {
+            formatter = MESSAGE_FORMATTER;
+        }
+        copy.setMessage(formatter.formatMessage(copy));
+        copy.setParameters(null);
+        copy.setResourceBundle(null);
+        copy.setResourceBundleName(null);
+    }
+
+    private void publishDirectly(LogRecord record) {
+        try {
+            target.publish(record);
+        } catch (Exception e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private static boolean isImmutable(Object o) {
+        return o == null
+                || o instanceof String
+                || o instanceof Integer
+                || o instanceof Long
+                || o instanceof Boolean
+                || o instanceof Character
+                || o instanceof Double
+                || o instanceof Float
+                || o instanceof Short
+                || o instanceof Byte
+                || o instanceof Enum
+                || o.getClass() == BigInteger.class
+                || o.getClass() == BigDecimal.class;
+    }
+
+    private boolean offer(LogRecord record) {
+        long t;
+        do {
+            t = tail.get();
+            if (t - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+        // A volatile store: the consumer checks this slot after announcing
+        // that it is about to wait, and publish() checks consumerWaiting
+        // after this store, so one of them always sees the other.
+        buffer.set((int) t & mask, record);
+        return true;
+    }
+
+    private void drain() {
+        long h = head;
+        while (true) {
+            int slot = (int) h & mask;
+            LogRecord record = buffer.get(slot);
+            if (record == null) {
+                if (closed && tail.get() == h) {
+                    break;
+                }
+                consumerWaiting = true;
+                if (buffer.get(slot) == null && !(closed && tail.get() == h)) {
+                    LockSupport.park(this);
+                }
+                consumerWaiting = false;
+                continue;
+            }
+            buffer.lazySet(slot, null);
+            head = ++h;
+            try {
+                target.publish(record);
+            } catch (Exception e) {
+                reportError(null, e, ErrorManager.WRITE_FAILURE);
+            }
+            published = h;
+        }
+    }
+
+    /**
+     * Returns the number of records that have been dropped because the
+     * buffer was full, or because of sampling.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the <tt>Handler</tt> this handler publishes to.
+     */
+    public Handler getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the overflow policy of this handler.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Waits until the records queued before this call have been published,
+     * then flushes the target <tt>Handler</tt>.
+     */
+    @Override
+    public void flush() {
+        awaitPublished(tail.get());
+        target.flush();
+    }
+
+    private void awaitPublished(long sequence) {
+        if (Thread.currentThread() == consumer) {
+            return;
+        }
+        while (published < sequence && consumer.isAlive()) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Publishes the records that are still queued, closes the target
+     * <tt>Handler</tt> and stops the background thread. Records published
+     * after this call are dropped.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        closed = true;
+        LockSupport.unpark(consumer);
+        if (Thread.currentThread() != consumer) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        target.close();
+        setLevel(Level.OFF);
+    }
+}
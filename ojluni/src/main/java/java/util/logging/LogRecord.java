@@ -548,6 +548,36 @@ public class LogRecord implements java.io.Serializable {
         needToInferCaller = false;
     }
 
+    // BEGIN Android-added: Lets AsyncHandler queue a copy of a record.
+    // Returns a copy that shares this record's parameters array and resource bundle.
+    // The copy's caller is settled on the logging thread: inferred now if infer is
+    // true, otherwise left unknown rather than inferred later from the stack of
+    // whichever thread publishes it. This record is not changed.
+    LogRecord copyForAsync(boolean infer) {
+        LogRecord copy = new LogRecord(this);
+        if (needToInferCaller && infer) {
+            copy.inferCaller();
+        }
+        return copy;
+    }
+
+    private LogRecord(LogRecord other) {
+        level = other.level;
+        sequenceNumber = other.sequenceNumber;
+        sourceClassName = other.sourceClassName;
+        sourceMethodName = other.sourceMethodName;
+        message = other.message;
+        threadID = other.threadID;
+        millis = other.millis;
+        thrown = other.thrown;
+        loggerName = other.loggerName;
+        resourceBundleName = other.resourceBundleName;
+        parameters = other.parameters;
+        resourceBundle = other.resourceBundle;
+        needToInferCaller = false;
+    }
+    // END Android-added: Lets AsyncHandler queue a copy of a record.
+
     // Private method to infer the caller's class and method names
     private void inferCaller() {
         needToInferCaller = false;
@@ -34,11 +34,16 @@ import com.android.icu.util.regex.PatternNative;
 
 import dalvik.annotation.compat.VersionCodes;
 import dalvik.system.VMRuntime;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -908,6 +913,10 @@ public final class Pattern
     /* package */ transient PatternNative nativePattern;
     // END Android-changed: reimplement matching logic natively via ICU.
 
+    // Android-added: Reuse of Matchers, and their native state, across calls.
+    // An idle Matcher for this pattern, available to acquireMatcher(). Accessed via IDLE_MATCHER.
+    private transient Matcher idleMatcher;
+
     /**
      * Compiles the given regular expression into a pattern.
      *
@@ -947,6 +956,38 @@ public final class Pattern
         return new Pattern(regex, flags);
     }
 
+    // BEGIN Android-added: Cache of compiled patterns for String's regex methods.
+    // A small direct-mapped cache: each (regex, flags) pair maps to a single slot, and a miss
+    // simply replaces the slot's previous occupant. This keeps lookups lock-free and
+    // allocation-free, and bounds the memory held, while programs that repeatedly use a
+    // handful of constant patterns hit the cache nearly every time. Patterns are immutable
+    // and safe to share between threads.
+    private static final int COMPILED_CACHE_SIZE = 128;  // Must be a power of two.
+    private static final AtomicReferenceArray<Pattern> compiledCache =
+            new AtomicReferenceArray<>(COMPILED_CACHE_SIZE);
+
+    /**
+     * Returns a compiled pattern equivalent to {@code compile(regex, flags)}, possibly shared
+     * with previous callers. Used by {@link String#matches}, {@link String#replaceAll},
+     * {@link String#replaceFirst} and {@link String#split}, which would otherwise compile
+     * the same expression on every call.
+     *
+     * @hide
+     */
+    public static Pattern compileCached(String regex, int flags) {
+        int hash = regex.hashCode() * 31 + flags;
+        // Spread higher bits downwards, as HashMap does.
+        int index = (hash ^ (hash >>> 16)) & (COMPILED_CACHE_SIZE - 1);
+        Pattern cached = compiledCache.get(index);
+        if (cached != null && cached.flags == flags && cached.pattern.equals(regex)) {
+            return cached;
+        }
+        Pattern compiled = new Pattern(regex, flags);
+        compiledCache.lazySet(index, compiled);
+        return compiled;
+    }
+    // END Android-added: Cache of compiled patterns for String's regex methods.
+
     /**
      * Returns the regular expression from which this pattern was compiled.
      *
@@ -990,6 +1031,118 @@ public final class Pattern
         return m;
     }
 
+    // BEGIN Android-added: Reuse of Matchers, and their native state, across calls.
+    private static final VarHandle IDLE_MATCHER;
+    static {
+        try {
+            IDLE_MATCHER = MethodHandles.lookup()
+                    .findVarHandle(Pattern.class, "idleMatcher", Matcher.class);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Applies {@code action} to a matcher for the given input, and returns its result.
+     *
+     * <p>This is equivalent to {@code action.apply(matcher(input))}, except that the matcher,
+     * and the native matcher state behind it, may be reused from a previous call on this
+     * pattern rather than newly allocated. The matcher must therefore not be used once
+     * {@code action} returns, and must not be stored or returned by it. This pattern may be
+     * used by multiple threads concurrently; each call sees a matcher of its own.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     * @param  action
+     *         The function to apply to the matcher
+     * @return  The result of {@code action}
+     *
+     * @hide
+     */
+    public <R> R withMatcher(CharSequence input, Function<? super Matcher, ? extends R> action) {
+        Matcher m = acquireMatcher(input);
+        try {
+            return action.apply(m);
+        } finally {
+            releaseMatcher(m);
+        }
+    }
+
+    /**
+     * Returns, for each of the given inputs, whether the entire input matches this pattern.
+     * Equivalent to calling {@code matcher(inputs[i]).matches()} for each input, but reuses a
+     * single matcher for all of them.
+     *
+     * @param  inputs
+     *         The character sequences to be matched
+     * @return  An array whose {@code i}th element is true iff {@code inputs[i]} matches
+     * @throws  NullPointerException
+     *          If {@code inputs} is null
+     * @throws  IllegalArgumentException
+     *          If any of {@code inputs} is null
+     *
+     * @hide
+     */
+    public boolean[] matchesAll(CharSequence[] inputs) {
+        // Matcher.reset() would throw NullPointerException instead.
+        for (int i = 0; i < inputs.length; ++i) {
+            if (inputs[i] == null) {
+                throw new IllegalArgumentException("inputs[" + i + "] == null");
+            }
+        }
+        boolean[] result = new boolean[inputs.length];
+        if (inputs.length == 0) {
+            return result;
+        }
+        Matcher m = acquireMatcher(inputs[0]);
+        try {
+            result[0] = m.matches();
+            for (int i = 1; i < inputs.length; ++i) {
+                result[i] = m.reset(inputs[i]).matches();
+            }
+        } finally {
+            releaseMatcher(m);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a matcher for the given input, reusing this pattern's idle matcher if there is
+     * one. The caller must pass the matcher to {@link #releaseMatcher} once it is done with
+     * it, and must not use it afterwards.
+     *
+     * @hide
+     */
+    public Matcher acquireMatcher(CharSequence input) {
+        Matcher m = (Matcher) IDLE_MATCHER.getAndSet(this, null);
+        if (m == null) {
+            return new Matcher(this, input);
+        }
+        return m.reset(input);
+    }
+
+    /**
+     * Returns a matcher obtained from {@link #acquireMatcher} so that it may be reused.
+     *
+     * @hide
+     */
+    public void releaseMatcher(Matcher m) {
+        if (m.pattern() != this) {
+            // The caller switched patterns with usePattern(). Let it be collected.
+            return;
+        }
+        // Restore the state a new matcher starts with, and drop the reference to the input.
+        if (m.hasTransparentBounds()) {
+            m.useTransparentBounds(false);
+        }
+        if (!m.hasAnchoringBounds()) {
+            m.useAnchoringBounds(true);
+        }
+        m.reset("");
+        IDLE_MATCHER.setRelease(this, m);
+    }
+    // END Android-added: Reuse of Matchers, and their native state, across calls.
+
     /**
      * Returns this pattern's match flags.
      *
@@ -1028,9 +1181,20 @@ public final class Pattern
      *          If the expression's syntax is invalid
      */
     public static boolean matches(String regex, CharSequence input) {
+        // BEGIN Android-changed: Reuse compiled patterns and their matchers.
+        /*
         Pattern p = Pattern.compile(regex);
         Matcher m = p.matcher(input);
         return m.matches();
+        */
+        Pattern p = Pattern.compileCached(regex, 0);
+        Matcher m = p.acquireMatcher(input);
+        try {
+            return m.matches();
+        } finally {
+            p.releaseMatcher(m);
+        }
+        // END Android-changed: Reuse compiled patterns and their matchers.
     }
 
     // Android-changed: Adopt split() behavior change only for apps targeting API > 28.
@@ -1117,15 +1281,21 @@ public final class Pattern
      */
     public String[] split(CharSequence input, int limit) {
         // BEGIN Android-added: fastSplit() to speed up simple cases.
-        String[] fast = fastSplit(pattern, input.toString(), limit);
-        if (fast != null) {
-            return fast;
+        // fastSplit() interprets the pattern as if compiled without flags. The remaining flags
+        // do not change what a literal separator matches.
+        if ((flags & (CASE_INSENSITIVE | COMMENTS | LITERAL)) == 0) {
+            String[] fast = fastSplit(pattern, input.toString(), limit);
+            if (fast != null) {
+                return fast;
+            }
         }
         // END Android-added: fastSplit() to speed up simple cases.
         int index = 0;
         boolean matchLimited = limit > 0;
         ArrayList<String> matchList = new ArrayList<>();
-        Matcher m = matcher(input);
+        // Android-changed: Reuse matchers. If matching throws, the matcher is simply not reused.
+        // Matcher m = matcher(input);
+        Matcher m = acquireMatcher(input);
 
         // Add segments before each match found
         while(m.find()) {
@@ -1151,6 +1321,8 @@ public final class Pattern
                 index = m.end();
             }
         }
+        // Android-added: Reuse matchers.
+        releaseMatcher(m);
 
         // If no match was found, return this
         if (index == 0)
@@ -1181,7 +1353,9 @@ public final class Pattern
      *   (1)one-char String and this character is not one of the
      *      RegEx's meta characters ".$|()[{^?*+\\", or
      *   (2)two-char String and the first char is the backslash and
-     *      the second is one of regEx's meta characters ".$|()[{^?*+\\".
+     *      the second is one of regEx's meta characters ".$|()[{^?*+\\", or
+     *   (3)sequence of characters of the above two kinds, i.e. a literal
+     *      multi-char separator such as ", " or "\\|\\|".
      * @hide
      */
     public static String[] fastSplit(String re, String input, int limit) {
@@ -1208,7 +1382,11 @@ public final class Pattern
                 return null;
             }
         } else {
-            return null;
+            String separator = literalSeparator(re);
+            if (separator == null) {
+                return null;
+            }
+            return fastSplit(separator, input, limit, separator.length());
         }
 
         // We can do this cheaply...
@@ -1255,6 +1433,86 @@ public final class Pattern
         result[separatorCount] = input.substring(begin, lastPartEnd);
         return result;
     }
+
+    /**
+     * Returns the literal text matched by {@code re}, a string of at least two characters,
+     * or null if {@code re} is not simply a sequence of non-metacharacters and
+     * backslash-quoted metacharacters.
+     */
+    private static String literalSeparator(String re) {
+        int len = re.length();
+        // Avoid a copy in the common case where nothing is quoted.
+        boolean quoted = false;
+        for (int i = 0; i < len; ++i) {
+            char ch = re.charAt(i);
+            if (ch == '\\') {
+                // Quoted metacharacters are effectively single non-metacharacters.
+                if (i + 1 == len || FASTSPLIT_METACHARACTERS.indexOf(re.charAt(i + 1)) == -1) {
+                    return null;
+                }
+                quoted = true;
+                ++i;
+            } else if (Character.isSurrogate(ch) || FASTSPLIT_METACHARACTERS.indexOf(ch) != -1) {
+                return null;
+            }
+        }
+        if (!quoted) {
+            return re;
+        }
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; ++i) {
+            char ch = re.charAt(i);
+            if (ch == '\\') {
+                ch = re.charAt(++i);
+            }
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits {@code input} around occurrences of the literal {@code separator}, which has
+     * length {@code separatorLength}. Matches are non-overlapping and found from left to
+     * right, as they would be by the regex engine.
+     */
+    private static String[] fastSplit(String separator, String input, int limit,
+            int separatorLength) {
+        if (input.isEmpty()) {
+            return new String[] { "" };
+        }
+
+        // Count separators
+        int separatorCount = 0;
+        int begin = 0;
+        int end;
+        while (separatorCount + 1 != limit && (end = input.indexOf(separator, begin)) != -1) {
+            ++separatorCount;
+            begin = end + separatorLength;
+        }
+        if (separatorCount == 0) {
+            return new String[] { input };
+        }
+
+        // Collect the result parts.
+        String[] result = new String[separatorCount + 1];
+        begin = 0;
+        for (int i = 0; i != separatorCount; ++i) {
+            end = input.indexOf(separator, begin);
+            result[i] = input.substring(begin, end);
+            begin = end + separatorLength;
+        }
+        // Add last part.
+        result[separatorCount] = input.substring(begin);
+        if (limit != 0) {
+            return result;
+        }
+        // Remove all trailing empty parts for limit == 0.
+        int resultSize = result.length;
+        while (resultSize > 0 && result[resultSize - 1].isEmpty()) {
+            --resultSize;
+        }
+        return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+    }
     // END Android-added: fastSplit() to speed up simple cases.
 
     /**
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.util.zip.ZipConstants64.*;
+import static java.util.zip.ZipUtils.get16;
+import static java.util.zip.ZipUtils.get64;
+
+/**
+ * An index of the entries of a {@link ZipFile} by name, over the central
+ * directory that the native code has mapped into memory.
+ *
+ * <p>Names are matched byte for byte, as by the native lookup. Looking up a
+ * name that consists of ASCII characters in a zip file whose names are UTF-8
+ * doesn't allocate; other names are encoded first. A {@link ZipEntry} is
+ * only created for an entry that is found.
+ *
+ * <p>The mapping goes away when the zip file is closed, so the index must
+ * only be used while holding the lock of the zip file and after checking
+ * that it is open.
+ */
+final class CentralDirectoryIndex implements ZipConstants {
+
+    private final ByteBuffer cen;
+
+    // The offset in cen of the CEN header of each entry.
+    private final int[] offsets;
+
+    // The hash of the name of each entry: 31 * h + b over its bytes.
+    private final int[] hashes;
+
+    // Open addressing with linear probing. Each slot holds the index of an
+    // entry plus one, or 0 if it is free.
+    private final int[] table;
+    private final int mask;
+
+    private CentralDirectoryIndex(ByteBuffer cen, int total) {
+        this.cen = cen.order(ByteOrder.LITTLE_ENDIAN);
+        this.offsets = new int[total];
+        this.hashes = new int[total];
+        int capacity = Integer.highestOneBit(Math.max(total, 1) * 2 - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Indexes the {@code total} entries in {@code cen}, which starts at the
+     * first CEN header. Returns null if the headers run past its end.
+     */
+    static CentralDirectoryIndex create(ByteBuffer cen, int total) {
+        CentralDirectoryIndex index = new CentralDirectoryIndex(cen, total);
+        try {
+            int offset = 0;
+            for (int i = 0; i < total; i++) {
+                int nlen = index.u16(offset + CENNAM);
+                int h = 0;
+                for (int j = 0; j < nlen; j++) {
+                    h = 31 * h + (cen.get(offset + CENHDR + j) & 0xff);
+                }
+                index.offsets[i] = offset;
+                index.hashes[i] = h;
+                offset += CENHDR + nlen + index.u16(offset + CENEXT) + index.u16(offset + CENCOM);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+        // Insert the last entry first, so that of several entries with the
+        // same name the last one is found, as in the native hash table.
+        for (int i = total - 1; i >= 0; i--) {
+            int slot = spread(index.hashes[i]) & index.mask;
+            while (index.table[slot] != 0) {
+                slot = (slot + 1) & index.mask;
+            }
+            index.table[slot] = i + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the offset of the CEN header of the entry called {@code name},
+     * or else of the entry called {@code name + "/"}, or -1 if there is
+     * neither.
+     */
+    int find(String name, ZipCoder zc) {
+        if (!zc.isUTF8()) {
+            return find(zc.getBytes(name));
+        }
+        int length = name.length();
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return find(zc.getBytes(name));
+            }
+            h = 31 * h + c;
+        }
+        for (int slot = spread(h) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int offset = offsets[table[slot] - 1];
+            if (hashes[table[slot] - 1] == h && nameEquals(offset, name, length)) {
+                return offset;
+            }
+        }
+        if (length > 0 && name.charAt(length - 1) == '/') {
+            return -1;
+        }
+        h = 31 * h + '/';
+        for (int slot = spread(h) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int offset = offsets[table[slot] - 1];
+            if (hashes[table[slot] - 1] == h && nameEquals(offset, name, length + 1)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private int find(byte[] name) {
+        int h = 0;
+        for (byte b : name) {
+            h = 31 * h + (b & 0xff);
+        }
+        for (int slot = spread(h) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int offset = offsets[table[slot] - 1];
+            if (hashes[table[slot] - 1] == h && nameEquals(offset, name, name.length)) {
+                return offset;
+            }
+        }
+        if (name.length > 0 && name[name.length - 1] == '/') {
+            return -1;
+        }
+        h = 31 * h + '/';
+        for (int slot = spread(h) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int offset = offsets[table[slot] - 1];
+            if (hashes[table[slot] - 1] == h && nameEquals(offset, name, name.length + 1)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    // Whether the name at offset is name, or name followed by a slash if nlen
+    // is one more than the length of name. Only called for ASCII names.
+    private boolean nameEquals(int offset, String name, int nlen) {
+        if (u16(offset + CENNAM) != nlen) {
+            return false;
+        }
+        int length = Math.min(nlen, name.length());
+        for (int i = 0; i < length; i++) {
+            if (cen.get(offset + CENHDR + i) != (byte) name.charAt(i)) {
+                return false;
+            }
+        }
+        return length == nlen || cen.get(offset + CENHDR + length) == '/';
+    }
+
+    private boolean nameEquals(int offset, byte[] name, int nlen) {
+        if (u16(offset + CENNAM) != nlen) {
+            return false;
+        }
+        int length = Math.min(nlen, name.length);
+        for (int i = 0; i < length; i++) {
+            if (cen.get(offset + CENHDR + i) != name[i]) {
+                return false;
+            }
+        }
+        return length == nlen || cen.get(offset + CENHDR + length) == '/';
+    }
+
+    /**
+     * Creates the entry for the CEN header at {@code offset}, as ZipFile
+     * does from a native jzentry.
+     */
+    ZipEntry getEntry(int offset, String name, ZipCoder zc) {
+        int nlen = u16(offset + CENNAM);
+        int elen = u16(offset + CENEXT);
+        int clen = u16(offset + CENCOM);
+        long size = u32(offset + CENLEN);
+        long csize = (u16(offset + CENHOW) == ZipEntry.STORED) ? 0 : u32(offset + CENSIZ);
+
+        byte[] extra = null;
+        if (elen > 0) {
+            extra = new byte[elen];
+            get(offset + CENHDR + nlen, extra, elen);
+            if (size == ZIP64_MAGICVAL || csize == ZIP64_MAGICVAL) {
+                int off = 0;
+                while (off + 4 < elen) {
+                    int sz = get16(extra, off + 2);
+                    if (get16(extra, off) == EXTID_ZIP64) {
+                        off += 4;
+                        if (size == ZIP64_MAGICVAL) {
+                            if (sz < 8 || off + 8 > elen) {
+                                break;
+                            }
+                            size = get64(extra, off);
+                            sz -= 8;
+                            off += 8;
+                        }
+                        if (csize == ZIP64_MAGICVAL) {
+                            if (sz < 8 || off + 8 > elen) {
+                                break;
+                            }
+                            csize = get64(extra, off);
+                        }
+                        break;
+                    }
+                    off += sz + 4;
+                }
+            }
+        }
+
+        ZipEntry e = new ZipEntry();
+        e.flag = u16(offset + CENFLG);
+        e.name = name;
+        e.xdostime = u32(offset + CENTIM);
+        e.crc = u32(offset + CENCRC);
+        e.size = size;
+        e.csize = (csize != 0) ? csize : size;
+        e.method = (csize != 0) ? ZipEntry.DEFLATED : ZipEntry.STORED;
+        e.setExtra0(extra, false);
+        if (clen > 0) {
+            // The native code treats the comment as a C string.
+            int start = offset + CENHDR + nlen + elen;
+            int length = 0;
+            while (length < clen && cen.get(start + length) != 0) {
+                length++;
+            }
+            if (length > 0) {
+                byte[] bcomm = new byte[length];
+                get(start, bcomm, length);
+                if (!zc.isUTF8() && (e.flag & USE_UTF8) != 0) {
+                    e.comment = zc.toStringUTF8(bcomm, length);
+                } else {
+                    e.comment = zc.toString(bcomm, length);
+                }
+            }
+        }
+        return e;
+    }
+
+    private void get(int offset, byte[] dst, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[i] = cen.get(offset + i);
+        }
+    }
+
+    private int u16(int offset) {
+        return cen.getShort(offset) & 0xffff;
+    }
+
+    private long u32(int offset) {
+        return cen.getInt(offset) & 0xffffffffL;
+    }
+
+    private static int spread(int h) {
+        h *= 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
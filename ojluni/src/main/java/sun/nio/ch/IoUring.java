@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package sun.nio.ch;
+
+import java.io.IOException;
+import java.security.AccessController;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import sun.security.action.GetPropertyAction;
+
+/**
+ * A process-wide Linux io_uring instance for asynchronous file I/O.
+ *
+ * <p>Operations are queued by any thread and submitted in batches: whichever
+ * thread gets the submission lock moves everything that is queued into the
+ * submission ring and enters the kernel once for the whole batch. At most as
+ * many operations are in flight as the completion ring holds; the rest wait
+ * in the queue. A single daemon thread reaps completions, also in batches,
+ * and completes each operation on that thread. Operations hand their result
+ * on to the thread pool of their channel.
+ *
+ * <p>io_uring is used only if the {@code sun.nio.ch.useIoUring} system
+ * property is {@code true}. The seccomp policy for apps does not allow
+ * io_uring, and a blocked system call kills the process instead of failing,
+ * so only processes known to run without that policy may set it.
+ * {@link #getInstance} returns null if the property isn't set, or if the
+ * kernel lacks io_uring or the read and write operations (Linux 5.6).
+ */
+final class IoUring {
+
+    // From <linux/io_uring.h>.
+    static final int OP_READ  = 22;
+    static final int OP_WRITE = 23;
+
+    private static final int ENTRIES = 256;
+
+    private static final String USE_IO_URING = "sun.nio.ch.useIoUring";
+
+    // fd, opcode, address, length, offset, user_data; see IoUring.c.
+    private static final int SQE_STRIDE = 6;
+
+    /**
+     * An operation on a file. The subclass keeps the buffer at {@code address}
+     * reachable until {@link #complete} is called.
+     */
+    abstract static class Op {
+        final int fd;
+        final int opcode;
+        final long address;
+        final int length;
+        final long position;
+
+        Op(int fd, int opcode, long address, int length, long position) {
+            this.fd = fd;
+            this.opcode = opcode;
+            this.address = address;
+            this.length = length;
+            this.position = position;
+        }
+
+        /**
+         * Called on the completion thread with the result of the system call:
+         * the number of bytes transferred or a negated errno value, or with
+         * the exception that prevented the operation from being submitted.
+         */
+        abstract void complete(int result, IOException exc);
+    }
+
+    private static final Object initLock = new Object();
+    private static IoUring instance;
+    private static boolean initialized;
+
+    static IoUring getInstance() {
+        synchronized (initLock) {
+            if (!initialized) {
+                initialized = true;
+                String enabled = AccessController.doPrivileged(
+                    new GetPropertyAction(USE_IO_URING));
+                if (!Boolean.parseBoolean(enabled)) {
+                    return null;
+                }
+                try {
+                    instance = create(ENTRIES);
+                } catch (IOException | UnsatisfiedLinkError e) {
+                    // Use the thread pool based implementation.
+                }
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Creates a ring with the given number of submission queue entries,
+     * whatever the {@code sun.nio.ch.useIoUring} property says. Each ring
+     * has its own completion thread, which runs until the process exits.
+     */
+    static IoUring create(int entries) throws IOException {
+        return new IoUring(setup(entries));
+    }
+
+    private final long ring;
+    private final int batchSize;
+
+    // Operations waiting for a free slot or for the submission lock.
+    private final ConcurrentLinkedQueue<Op> queue = new ConcurrentLinkedQueue<>();
+
+    // The remaining fields are guarded by submitLock. The kernel identifies
+    // an in-flight operation by its index in slots.
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private final Op[] slots;
+    private final int[] freeSlots;
+    private int freeCount;
+    private final long[] sqes;
+    // Set once the completion thread can no longer reap completions.
+    private IOException failure;
+
+    private IoUring(long ring) {
+        this.ring = ring;
+        this.batchSize = sqEntries(ring);
+        int maxInFlight = cqEntries(ring);
+        this.slots = new Op[maxInFlight];
+        this.freeSlots = new int[maxInFlight];
+        for (int i = 0; i < maxInFlight; i++) {
+            freeSlots[i] = maxInFlight - 1 - i;
+        }
+        this.freeCount = maxInFlight;
+        this.sqes = new long[batchSize * SQE_STRIDE];
+
+        Thread completer = new Thread(this::reap, "IoUring");
+        completer.setDaemon(true);
+        completer.start();
+    }
+
+    /**
+     * Queues an operation and submits it unless another thread is already
+     * submitting, in which case that thread picks it up.
+     */
+    void submit(Op op) {
+        queue.add(op);
+        flush();
+    }
+
+    private void flush() {
+        // Whoever holds the lock checks the queue again after releasing it,
+        // so an operation queued while the lock was held is never stranded.
+        // If the ring is full, the completion thread submits once it has
+        // freed slots.
+        while (!queue.isEmpty() && submitLock.tryLock()) {
+            boolean full;
+            try {
+                full = submitQueued();
+            } finally {
+                submitLock.unlock();
+            }
+            if (full) {
+                break;
+            }
+        }
+    }
+
+    // Returns true if operations are left in the queue for lack of slots.
+    private boolean submitQueued() {
+        if (failure != null) {
+            Op op;
+            while ((op = queue.poll()) != null) {
+                op.complete(0, failure);
+            }
+            return false;
+        }
+        while (true) {
+            int count = 0;
+            Op op;
+            while (count < batchSize && freeCount > 0 && (op = queue.poll()) != null) {
+                int slot = freeSlots[--freeCount];
+                slots[slot] = op;
+                int i = count++ * SQE_STRIDE;
+                sqes[i] = op.fd;
+                sqes[i + 1] = op.opcode;
+                sqes[i + 2] = op.address;
+                sqes[i + 3] = op.length;
+                sqes[i + 4] = op.position;
+                sqes[i + 5] = slot;
+            }
+            if (count == 0) {
+                return freeCount == 0 && !queue.isEmpty();
+            }
+            int submitted;
+            try {
+                submitted = submit(ring, sqes, count);
+            } catch (IOException e) {
+                for (int i = 0; i < count; i++) {
+                    release(i).complete(0, e);
+                }
+                continue;
+            }
+            if (submitted < count) {
+                // At least one operation is in flight, so the completion
+                // thread will submit the rest once it completes.
+                for (int i = submitted; i < count; i++) {
+                    queue.add(release(i));
+                }
+                return true;
+            }
+        }
+    }
+
+    // Frees the slot of the i-th entry in sqes and returns its operation.
+    private Op release(int i) {
+        int slot = (int) sqes[i * SQE_STRIDE + 5];
+        Op op = slots[slot];
+        slots[slot] = null;
+        freeSlots[freeCount++] = slot;
+        return op;
+    }
+
+    private void reap() {
+        long[] completions = new long[slots.length * 2];
+        Op[] done = new Op[slots.length];
+        while (true) {
+            int count;
+            try {
+                count = await(ring, completions, slots.length);
+            } catch (IOException e) {
+                // Only fails for reasons that a retry can't fix.
+                fail(e);
+                return;
+            }
+            submitLock.lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) completions[2 * i];
+                    done[i] = slots[slot];
+                    slots[slot] = null;
+                    freeSlots[freeCount++] = slot;
+                }
+            } finally {
+                submitLock.unlock();
+            }
+            // Refill the ring before running the completions.
+            flush();
+            for (int i = 0; i < count; i++) {
+                Op op = done[i];
+                done[i] = null;
+                op.complete((int) completions[2 * i + 1], null);
+            }
+        }
+    }
+
+    // Fails the operations in flight and every operation submitted later,
+    // rather than leave them waiting for completions that won't be reaped.
+    private void fail(IOException e) {
+        Op[] inFlight;
+        submitLock.lock();
+        try {
+            failure = e;
+            inFlight = slots.clone();
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    slots[i] = null;
+                    freeSlots[freeCount++] = i;
+                }
+            }
+        } finally {
+            submitLock.unlock();
+        }
+        for (Op op : inFlight) {
+            if (op != null) {
+                op.complete(0, e);
+            }
+        }
+        flush();
+    }
+
+    private static native long setup(int entries) throws IOException;
+
+    private static native int sqEntries(long ring);
+
+    private static native int cqEntries(long ring);
+
+    // Returns the number of entries the kernel took, and throws only if it
+    // took none.
+    private static native int submit(long ring, long[] sqes, int count) throws IOException;
+
+    // Waits for at least one completion and returns up to max of them.
+    private static native int await(long ring, long[] completions, int max) throws IOException;
+
+    static {
+        IOUtil.load();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package sun.nio.ch;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ShutdownChannelGroupException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import android.system.OsConstants;
+import libcore.io.Libcore;
+
+/**
+ * AsynchronousFileChannel that reads and writes through {@link IoUring}, so
+ * no thread is blocked while an operation is in progress and the number of
+ * operations in flight isn't limited by the size of a thread pool. Results
+ * are delivered on the channel's thread pool, as with
+ * {@link SimpleAsynchronousFileChannelImpl}, from which the remaining
+ * operations are inherited.
+ *
+ * <p>Buffers that aren't direct are read into or written from a temporary
+ * direct buffer.
+ */
+public class IoUringAsynchronousFileChannelImpl
+    extends SimpleAsynchronousFileChannelImpl
+{
+    private final IoUring ring;
+    private final int fdVal;
+
+    // Operations the kernel may still be working on; close() waits for them
+    // before closing the file descriptor.
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object pendingLock = new Object();
+
+    private IoUringAsynchronousFileChannelImpl(FileDescriptor fdObj,
+                                               boolean reading,
+                                               boolean writing,
+                                               ExecutorService executor,
+                                               IoUring ring)
+    {
+        super(fdObj, reading, writing, executor);
+        this.ring = ring;
+        this.fdVal = IOUtil.fdVal(fdObj);
+    }
+
+    /**
+     * Opens a channel that uses io_uring, or a {@link
+     * SimpleAsynchronousFileChannelImpl} if io_uring isn't enabled or
+     * available; see {@link IoUring}.
+     */
+    public static AsynchronousFileChannel open(FileDescriptor fdo,
+                                               boolean reading,
+                                               boolean writing,
+                                               ThreadPool pool)
+    {
+        IoUring ring = IoUring.getInstance();
+        if (ring == null) {
+            return SimpleAsynchronousFileChannelImpl.open(fdo, reading, writing, pool);
+        }
+        ExecutorService executor = (pool == null) ?
+            defaultExecutor() : pool.executor();
+        return new IoUringAsynchronousFileChannelImpl(fdo, reading, writing, executor, ring);
+    }
+
+    // Android-added: for testing.
+    /**
+     * Opens channels over a new ring with the given number of submission
+     * queue entries, whatever the {@code sun.nio.ch.useIoUring} property says.
+     * Callers must know that the seccomp policy of the process allows io_uring.
+     * The ring lives until the process exits.
+     *
+     * @throws IOException if the kernel lacks io_uring or the read and write
+     *         operations
+     */
+    public static Function<FileDescriptor, AsynchronousFileChannel> newRing(
+            int entries, ExecutorService executor) throws IOException
+    {
+        IoUring ring = IoUring.create(entries);
+        return fdo -> new IoUringAsynchronousFileChannelImpl(fdo, true, true, executor, ring);
+    }
+
+    @Override
+    void awaitPendingIO() {
+        boolean interrupted = false;
+        synchronized (pendingLock) {
+            while (pending.get() > 0) {
+                try {
+                    pendingLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    <A> Future<Integer> implRead(final ByteBuffer dst,
+                                 final long position,
+                                 final A attachment,
+                                 final CompletionHandler<Integer,? super A> handler)
+    {
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if (!reading)
+            throw new NonReadableChannelException();
+        if (dst.isReadOnly())
+            throw new IllegalArgumentException("Read-only buffer");
+        return submit(IoUring.OP_READ, dst, position, attachment, handler);
+    }
+
+    @Override
+    <A> Future<Integer> implWrite(final ByteBuffer src,
+                                  final long position,
+                                  final A attachment,
+                                  final CompletionHandler<Integer,? super A> handler)
+    {
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if (!writing)
+            throw new NonWritableChannelException();
+        return submit(IoUring.OP_WRITE, src, position, attachment, handler);
+    }
+
+    private <A> Future<Integer> submit(int opcode,
+                                       ByteBuffer buf,
+                                       long position,
+                                       A attachment,
+                                       CompletionHandler<Integer,? super A> handler)
+    {
+        // complete immediately if channel closed or no bytes remaining
+        if (!isOpen() || (buf.remaining() == 0)) {
+            Throwable exc = (isOpen()) ? null : new ClosedChannelException();
+            if (handler == null)
+                return CompletedFuture.withResult(0, exc);
+            Invoker.invokeIndirectly(handler, attachment, 0, exc, executor);
+            return null;
+        }
+
+        // close() sets closed before waiting for pending to drop to zero,
+        // so either it waits for this operation or we see that it's closed.
+        pending.incrementAndGet();
+        if (!isOpen()) {
+            operationDone();
+            Throwable exc = new AsynchronousCloseException();
+            if (handler == null)
+                return CompletedFuture.withResult(0, exc);
+            Invoker.invokeIndirectly(handler, attachment, 0, exc, executor);
+            return null;
+        }
+
+        PendingFuture<Integer,A> result = (handler == null) ?
+            new PendingFuture<Integer,A>(this) : null;
+        ring.submit(new FileOp<A>(opcode, buf, position, attachment, handler, result));
+        return result;
+    }
+
+    private void operationDone() {
+        if (pending.decrementAndGet() == 0 && !isOpen()) {
+            synchronized (pendingLock) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    private final class FileOp<A> extends IoUring.Op {
+        private final ByteBuffer buf;
+        private final int bufPosition;
+        // A temporary direct buffer standing in for buf, or null.
+        private final ByteBuffer shadow;
+        private final A attachment;
+        private final CompletionHandler<Integer,? super A> handler;
+        private final PendingFuture<Integer,A> result;
+
+        FileOp(int opcode, ByteBuffer buf, long position, A attachment,
+               CompletionHandler<Integer,? super A> handler, PendingFuture<Integer,A> result)
+        {
+            this(opcode, buf, buf.position(), buf.remaining(), shadowFor(opcode, buf),
+                 position, attachment, handler, result);
+        }
+
+        private FileOp(int opcode, ByteBuffer buf, int bufPosition, int length,
+                       ByteBuffer shadow, long position, A attachment,
+                       CompletionHandler<Integer,? super A> handler,
+                       PendingFuture<Integer,A> result)
+        {
+            super(fdVal, opcode,
+                  (shadow != null) ? ((DirectBuffer)shadow).address()
+                                   : ((DirectBuffer)buf).address() + bufPosition,
+                  length, position);
+            this.buf = buf;
+            this.bufPosition = bufPosition;
+            this.shadow = shadow;
+            this.attachment = attachment;
+            this.handler = handler;
+            this.result = result;
+        }
+
+        @Override
+        void complete(int res, IOException exc) {
+            if (exc == null && (res == -OsConstants.EINTR || res == -OsConstants.EAGAIN)
+                    && isOpen()) {
+                ring.submit(this);
+                return;
+            }
+            int n = 0;
+            if (exc == null) {
+                if (res < 0) {
+                    exc = new IOException(Libcore.os.strerror(-res));
+                } else if (res == 0 && opcode == IoUring.OP_READ) {
+                    n = IOStatus.EOF;
+                } else {
+                    n = res;
+                    if (shadow != null && opcode == IoUring.OP_READ) {
+                        shadow.limit(n);
+                        ByteBuffer dst = buf.duplicate();
+                        dst.position(bufPosition);
+                        dst.put(shadow);
+                    }
+                    buf.position(bufPosition + n);
+                }
+            }
+            if (shadow != null) {
+                Util.releaseTemporaryDirectBuffer(shadow);
+            }
+            if (exc != null && !isOpen()) {
+                exc = new AsynchronousCloseException();
+            }
+            operationDone();
+
+            if (handler == null) {
+                result.setResult(n, exc);
+            } else {
+                try {
+                    Invoker.invokeIndirectly(handler, attachment, n, exc, executor);
+                } catch (ShutdownChannelGroupException ignore) {
+                    // Nowhere left to run the handler.
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer shadowFor(int opcode, ByteBuffer buf) {
+        if (buf instanceof DirectBuffer) {
+            return null;
+        }
+        ByteBuffer shadow = Util.getTemporaryDirectBuffer(buf.remaining());
+        if (opcode == IoUring.OP_WRITE) {
+            shadow.put(buf.duplicate());
+            shadow.flip();
+        }
+        return shadow;
+    }
+}
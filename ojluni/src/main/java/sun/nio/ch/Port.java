@@ -30,10 +30,12 @@ import java.nio.channels.*;
 import java.io.IOException;
 import java.io.Closeable;
 import java.io.FileDescriptor;
-import java.util.Map;
-import java.util.HashMap;
+// Android-removed: fdToChannel is an IntObjectMap.
+// import java.util.Map;
+// import java.util.HashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import libcore.util.IntObjectMap;
 
 /**
  * Base implementation of AsynchronousChannelGroupImpl for Unix systems.
@@ -50,8 +52,11 @@ abstract class Port extends AsynchronousChannelGroupImpl {
 
     // maps fd to "pollable" channel
     protected final ReadWriteLock fdToChannelLock = new ReentrantReadWriteLock();
-    protected final Map<Integer,PollableChannel> fdToChannel =
-        new HashMap<Integer,PollableChannel>();
+    // Android-changed: Key fdToChannel by int, so events don't box the fd to look it up.
+    // protected final Map<Integer,PollableChannel> fdToChannel =
+    //     new HashMap<Integer,PollableChannel>();
+    protected final IntObjectMap<PollableChannel> fdToChannel =
+        new IntObjectMap<PollableChannel>();
 
 
     Port(AsynchronousChannelProvider provider, ThreadPool pool) {
@@ -66,7 +71,9 @@ abstract class Port extends AsynchronousChannelGroupImpl {
         try {
             if (isShutdown())
                 throw new ShutdownChannelGroupException();
-            fdToChannel.put(Integer.valueOf(fd), ch);
+            // Android-changed: fdToChannel is keyed by int.
+            // fdToChannel.put(Integer.valueOf(fd), ch);
+            fdToChannel.put(fd, ch);
         } finally {
             fdToChannelLock.writeLock().unlock();
         }
@@ -90,7 +97,9 @@ abstract class Port extends AsynchronousChannelGroupImpl {
 
         fdToChannelLock.writeLock().lock();
         try {
-            fdToChannel.remove(Integer.valueOf(fd));
+            // Android-changed: fdToChannel is keyed by int.
+            // fdToChannel.remove(Integer.valueOf(fd));
+            fdToChannel.remove(fd);
 
             // last key to be removed so check if group is shutdown
             if (fdToChannel.isEmpty())
@@ -154,7 +163,9 @@ abstract class Port extends AsynchronousChannelGroupImpl {
             fdToChannelLock.writeLock().lock();
             count = 0;
             try {
-                for (Integer fd: fdToChannel.keySet()) {
+                // Android-changed: fdToChannel is keyed by int.
+                // for (Integer fd: fdToChannel.keySet()) {
+                for (int fd: fdToChannel.keys()) {
                     channels[count++] = fdToChannel.get(fd);
                     if (count >= MAX_BATCH_SIZE)
                         break;
@@ -73,6 +73,19 @@ public class SimpleAsynchronousFileChannelImpl
         return new SimpleAsynchronousFileChannelImpl(fdo, reading, writing, executor);
     }
 
+    // BEGIN Android-added: Hooks for IoUringAsynchronousFileChannelImpl.
+    static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.defaultExecutor;
+    }
+
+    /**
+     * Waits for I/O that isn't covered by closeLock to finish before the file
+     * descriptor is closed.
+     */
+    void awaitPendingIO() {
+    }
+    // END Android-added: Hooks for IoUringAsynchronousFileChannelImpl.
+
     @Override
     public void close() throws IOException {
         // mark channel as closed
@@ -97,6 +110,8 @@ public class SimpleAsynchronousFileChannelImpl
         } finally {
             closeLock.writeLock().unlock();
         }
+        // Android-added: Wait for I/O submitted by subclasses.
+        awaitPendingIO();
 
         // close file
         nd.close(fdObj);
@@ -27,6 +27,8 @@
 package sun.nio.ch;
 
 import java.nio.ByteBuffer;
+// Android-added: Take temporary direct buffers from a DirectBufferPool.
+import java.nio.DirectBufferPool;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
@@ -218,7 +220,9 @@ public class Util {
         // to remove the buffer from the cache (as this method does
         // below) given that we won't put the new buffer in the cache.
         if (isBufferTooLarge(size)) {
-            return ByteBuffer.allocateDirect(size);
+            // Android-changed: Take temporary direct buffers from a DirectBufferPool.
+            // return ByteBuffer.allocateDirect(size);
+            return DirectBufferPool.getDefault().allocate(size);
         }
 
         BufferCache cache = bufferCache.get();
@@ -233,7 +237,9 @@ public class Util {
                 buf = cache.removeFirst();
                 free(buf);
             }
-            return ByteBuffer.allocateDirect(size);
+            // Android-changed: Take temporary direct buffers from a DirectBufferPool.
+            // return ByteBuffer.allocateDirect(size);
+            return DirectBufferPool.getDefault().allocate(size);
         }
     }
 
@@ -291,12 +297,13 @@ public class Util {
      * Frees the memory for the given direct buffer
      */
     private static void free(ByteBuffer buf) {
-        // Android-changed: Add null check for cleaner. http://b/26040655
-        // ((DirectBuffer)buf).cleaner().clean();
-        Cleaner cleaner = ((DirectBuffer)buf).cleaner();
-        if (cleaner != null) {
-            cleaner.clean();
-        }
+        // BEGIN Android-changed: Return the memory to the DirectBufferPool it came from.
+        // Releasing runs the cleaner, if there is one, as before. http://b/26040655
+        /*
+        ((DirectBuffer)buf).cleaner().clean();
+        */
+        DirectBufferPool.getDefault().release(buf);
+        // END Android-changed: Return the memory to the DirectBufferPool it came from.
     }
 
 
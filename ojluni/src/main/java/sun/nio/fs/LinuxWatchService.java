@@ -33,6 +33,7 @@ import java.io.IOException;
 
 import dalvik.annotation.optimization.ReachabilitySensitive;
 import dalvik.system.CloseGuard;
+import libcore.util.IntObjectMap;
 import sun.misc.Unsafe;
 
 import static sun.nio.fs.UnixNativeDispatcher.*;
@@ -184,7 +185,9 @@ class LinuxWatchService
         // socketpair used to shutdown polling thread
         private final int socketpair[];
         // maps watch descriptor to Key
-        private final Map<Integer,LinuxWatchKey> wdToKey;
+        // Android-changed: Key wdToKey by int, so events don't box the wd to look it up.
+        // private final Map<Integer,LinuxWatchKey> wdToKey;
+        private final IntObjectMap<LinuxWatchKey> wdToKey;
         // address of read buffer
         private final long address;
 
@@ -197,7 +200,9 @@ class LinuxWatchService
             this.watcher = watcher;
             this.ifd = ifd;
             this.socketpair = sp;
-            this.wdToKey = new HashMap<Integer,LinuxWatchKey>();
+            // Android-changed: wdToKey is an IntObjectMap.
+            // this.wdToKey = new HashMap<Integer,LinuxWatchKey>();
+            this.wdToKey = new IntObjectMap<LinuxWatchKey>();
             this.address = unsafe.allocateMemory(BUFFER_SIZE);
             // Android-added: CloseGuard support.
             guard.open("close");
@@ -300,8 +305,12 @@ class LinuxWatchService
             // Android-added: CloseGuard support.
             guard.close();
             // invalidate all keys
-            for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
-                entry.getValue().invalidate(true);
+            // Android-changed: wdToKey is an IntObjectMap.
+            // for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
+            //     entry.getValue().invalidate(true);
+            // }
+            for (int wd: wdToKey.keys()) {
+                wdToKey.get(wd).invalidate(true);
             }
             wdToKey.clear();
 
@@ -429,8 +438,13 @@ class LinuxWatchService
         private void processEvent(int wd, int mask, final UnixPath name) {
             // overflow - signal all keys
             if ((mask & IN_Q_OVERFLOW) > 0) {
-                for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
-                    entry.getValue()
+                // Android-changed: wdToKey is an IntObjectMap.
+                // for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
+                //     entry.getValue()
+                //         .signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+                // }
+                for (int descriptor: wdToKey.keys()) {
+                    wdToKey.get(descriptor)
                         .signalEvent(StandardWatchEventKinds.OVERFLOW, null);
                 }
                 return;
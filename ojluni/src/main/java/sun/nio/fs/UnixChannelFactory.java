@@ -32,7 +32,9 @@ import java.util.Set;
 
 import sun.nio.ch.FileChannelImpl;
 import sun.nio.ch.ThreadPool;
-import sun.nio.ch.SimpleAsynchronousFileChannelImpl;
+// Android-changed: Use io_uring where it is enabled.
+// import sun.nio.ch.SimpleAsynchronousFileChannelImpl;
+import sun.nio.ch.IoUringAsynchronousFileChannelImpl;
 import jdk.internal.misc.SharedSecrets;
 import jdk.internal.misc.JavaIOFileDescriptorAccess;
 
@@ -168,9 +170,15 @@ class UnixChannelFactory {
         if (flags.append)
             throw new UnsupportedOperationException("APPEND not allowed");
 
+        // BEGIN Android-changed: Use io_uring where it is enabled.
+        /*
         // for now use simple implementation
         FileDescriptor fdObj = open(-1, path, null, flags, mode);
         return SimpleAsynchronousFileChannelImpl.open(fdObj, flags.read, flags.write, pool);
+        */
+        FileDescriptor fdObj = open(-1, path, null, flags, mode);
+        return IoUringAsynchronousFileChannelImpl.open(fdObj, flags.read, flags.write, pool);
+        // END Android-changed: Use io_uring where it is enabled.
     }
 
     /**
@@ -142,4 +142,10 @@ class UnixConstants {
 
     static final int AT_SYMLINK_NOFOLLOW = 0x100;
     static final int AT_REMOVEDIR = 0x200;
+
+    // Android-added: dirent d_type values, used by readdirBatch.
+    static final int DT_UNKNOWN = 0;
+    static final int DT_DIR = 4;
+    static final int DT_REG = 8;
+    static final int DT_LNK = 10;
 }                                                                              
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package sun.nio.fs;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import static sun.nio.fs.UnixConstants.*;
+
+/**
+ * A path returned by {@link UnixDirectoryStream} that remembers the file type
+ * reported by readdir. Tree walkers can use the attributes returned by
+ * {@link #get} to tell directories from other files without calling stat.
+ * Those attributes know nothing but the type of the file, as it was when the
+ * directory was read, so walkers that hand attributes to their caller, or
+ * need file keys to detect cycles, must stat the file instead.
+ */
+class UnixDirectoryEntry extends UnixPath implements BasicFileAttributesHolder {
+    // dirent d_type, or DT_UNKNOWN once invalidated
+    private volatile int type;
+
+    private volatile DirentAttributes attrs;
+
+    UnixDirectoryEntry(UnixFileSystem fs, byte[] path, int type) {
+        super(fs, path);
+        this.type = type;
+    }
+
+    @Override
+    public BasicFileAttributes get() {
+        int t = type;
+        if (t != DT_DIR && t != DT_REG && t != DT_LNK) {
+            // the file system didn't tell us, let the caller stat
+            return null;
+        }
+        DirentAttributes a = attrs;
+        if (a == null) {
+            attrs = a = new DirentAttributes(t);
+        }
+        return a;
+    }
+
+    @Override
+    public void invalidate() {
+        type = DT_UNKNOWN;
+        attrs = null;
+    }
+
+    /**
+     * Attributes that answer the file type queries from d_type. They have no
+     * file key, and the size and times are not known.
+     */
+    private static final class DirentAttributes implements BasicFileAttributes {
+        private final int type;
+
+        DirentAttributes(int type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return type == DT_REG;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return type == DT_DIR;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return type == DT_LNK;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileTime creationTime() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+}
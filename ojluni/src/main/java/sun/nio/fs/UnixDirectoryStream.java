@@ -26,6 +26,7 @@
 package sun.nio.fs;
 
 import java.nio.file.*;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.locks.*;
@@ -64,6 +65,10 @@ class UnixDirectoryStream
     // Android-added: CloseGuard support.
     private final CloseGuard guard = CloseGuard.get();
 
+    // Android-added: Read directory entries in batches.
+    // Size of the buffer passed to readdirBatch; fits at least 15 maximum length names.
+    private static final int BATCH_SIZE = 4096;
+
     /**
      * Initializes a new instance
      */
@@ -150,11 +155,20 @@ class UnixDirectoryStream
         // next entry to return
         private Path nextEntry;
 
+        // BEGIN Android-changed: Read directory entries in batches.
+        // Entries read by readdirBatch but not yet returned.
+        private final byte[] batch = new byte[BATCH_SIZE];
+        private int batchPos;
+        private int batchLimit;
+        // END Android-changed: Read directory entries in batches.
+
         UnixDirectoryIterator(DirectoryStream<Path> stream) {
             atEof = false;
             this.stream = stream;
         }
 
+        // BEGIN Android-removed: readdirBatch already skips "." and "..".
+        /*
         // Return true if file name is "." or ".."
         private boolean isSelfOrParent(byte[] nameAsBytes) {
             if (nameAsBytes[0] == '.') {
@@ -165,44 +179,64 @@ class UnixDirectoryStream
             }
             return false;
         }
+        */
+        // END Android-removed: readdirBatch already skips "." and "..".
 
         // Returns next entry (or null)
         private Path readNextEntry() {
             assert Thread.holdsLock(this);
 
             for (;;) {
-                byte[] nameAsBytes = null;
+                // BEGIN Android-changed: Read directory entries in batches.
+                // Each entry carries its d_type so that walkers can avoid a stat.
+                if (batchPos == batchLimit) {
+                    batchPos = 0;
+                    batchLimit = 0;
+
+                    // prevent close while reading
+                    readLock().lock();
+                    try {
+                        if (isOpen()) {
+                            batchLimit = readdirBatch(dp, batch);
+                        }
+                    } catch (UnixException x) {
+                        IOException ioe = x.asIOException(dir);
+                        throw new DirectoryIteratorException(ioe);
+                    } finally {
+                        readLock().unlock();
+                    }
 
-                // prevent close while reading
-                readLock().lock();
-                try {
-                    if (isOpen()) {
-                        nameAsBytes = readdir(dp);
+                    // EOF
+                    if (batchLimit == 0) {
+                        atEof = true;
+                        return null;
                     }
-                } catch (UnixException x) {
-                    IOException ioe = x.asIOException(dir);
-                    throw new DirectoryIteratorException(ioe);
-                } finally {
-                    readLock().unlock();
                 }
 
-                // EOF
-                if (nameAsBytes == null) {
-                    atEof = true;
-                    return null;
+                int type = batch[batchPos++] & 0xff;
+                int length = batch[batchPos++] & 0xff;
+                if (type == READDIR_ERROR) {
+                    // readdir failed after the entries before this record
+                    int errno = ((batch[batchPos] & 0xff) << 24)
+                            | ((batch[batchPos + 1] & 0xff) << 16)
+                            | ((batch[batchPos + 2] & 0xff) << 8)
+                            | (batch[batchPos + 3] & 0xff);
+                    batchPos += length;
+                    IOException ioe = new UnixException(errno).asIOException(dir);
+                    throw new DirectoryIteratorException(ioe);
                 }
+                byte[] nameAsBytes = Arrays.copyOfRange(batch, batchPos, batchPos + length);
+                batchPos += length;
 
-                // ignore "." and ".."
-                if (!isSelfOrParent(nameAsBytes)) {
-                    Path entry = dir.resolve(nameAsBytes);
+                Path entry = dir.resolveEntry(nameAsBytes, type);
+                // END Android-changed: Read directory entries in batches.
 
-                    // return entry if no filter or filter accepts it
-                    try {
-                        if (filter == null || filter.accept(entry))
-                            return entry;
-                    } catch (IOException ioe) {
-                        throw new DirectoryIteratorException(ioe);
-                    }
+                // return entry if no filter or filter accepts it
+                try {
+                    if (filter == null || filter.accept(entry))
+                        return entry;
+                } catch (IOException ioe) {
+                    throw new DirectoryIteratorException(ioe);
                 }
             }
         }
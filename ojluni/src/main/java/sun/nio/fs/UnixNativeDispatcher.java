@@ -447,6 +447,27 @@ class UnixNativeDispatcher {
      */
     static native byte[] readdir(long dir) throws UnixException;
 
+    // BEGIN Android-added: Read directory entries in batches.
+    /**
+     * Reads as many directory entries as fit into {@code buf}, skipping "." and
+     * "..". Each entry is encoded as the dirent d_type byte, the length of the
+     * name as an unsigned byte, and the bytes of the name.
+     * <p>
+     * If an error occurs after some entries have been read, the entries are
+     * followed by a record whose type is {@link #READDIR_ERROR} and whose
+     * 4 name bytes hold the errno, big-endian. The exception is only thrown
+     * if no entries were read.
+     *
+     * @return  the number of bytes written to {@code buf}, or 0 at end of stream
+     */
+    static native int readdirBatch(long dir, byte[] buf) throws UnixException;
+
+    /**
+     * Type of the record that ends a batch cut short by an error.
+     */
+    static final int READDIR_ERROR = 0xff;
+    // END Android-added: Read directory entries in batches.
+
     /**
      * size_t read(int fildes, void* buf, size_t nbyte)
      */
@@ -405,6 +405,11 @@ class UnixPath
         return resolve(new UnixPath(getFileSystem(), other));
     }
 
+    // Android-added: Resolve a directory entry name, remembering its d_type.
+    UnixPath resolveEntry(byte[] name, int type) {
+        return new UnixDirectoryEntry(getFileSystem(), resolve(path, name), type);
+    }
+
     @Override
     public UnixPath relativize(Path obj) {
         UnixPath other = toUnixPath(obj);
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+#include "jni.h"
+#include "jni_util.h"
+#include "jlong.h"
+
+#include <errno.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/mman.h>
+#include <sys/syscall.h>
+#include <linux/io_uring.h>
+
+/*
+ * A minimal io_uring binding for sun.nio.ch.IoUring, using the raw system
+ * calls. Submissions are passed in as arrays of longs, SQE_STRIDE per entry,
+ * and completions are returned as (user_data, res) pairs. The Java side
+ * serializes submissions and has a single thread reaping completions, so
+ * neither ring needs more than acquire/release ordering here.
+ */
+
+#define SQE_STRIDE 6
+
+#if defined(__NR_io_uring_setup) && defined(__NR_io_uring_enter) \
+        && defined(__NR_io_uring_register) && defined(IO_URING_OP_SUPPORTED)
+
+struct ring {
+    int fd;
+    unsigned sq_entries;
+    unsigned cq_entries;
+    unsigned *sq_head;
+    unsigned *sq_tail;
+    unsigned *sq_mask;
+    unsigned *sq_array;
+    unsigned *cq_head;
+    unsigned *cq_tail;
+    unsigned *cq_mask;
+    struct io_uring_sqe *sqes;
+    struct io_uring_cqe *cqes;
+    void *sq_ptr;
+    size_t sq_len;
+    void *cq_ptr;
+    size_t cq_len;
+    size_t sqes_len;
+};
+
+static int io_uring_setup(unsigned entries, struct io_uring_params *p) {
+    return (int) syscall(__NR_io_uring_setup, entries, p);
+}
+
+static int io_uring_enter(int fd, unsigned to_submit, unsigned min_complete, unsigned flags) {
+    return (int) syscall(__NR_io_uring_enter, fd, to_submit, min_complete, flags, NULL, 0);
+}
+
+/* Returns true if the kernel implements IORING_OP_READ and IORING_OP_WRITE (Linux 5.6+). */
+static int supports_read_write(int fd) {
+    size_t len = sizeof(struct io_uring_probe) + 256 * sizeof(struct io_uring_probe_op);
+    struct io_uring_probe *probe = calloc(1, len);
+    int supported = 0;
+    if (probe != NULL
+            && syscall(__NR_io_uring_register, fd, IORING_REGISTER_PROBE, probe, 256) == 0) {
+        supported = probe->last_op >= IORING_OP_WRITE
+                && (probe->ops[IORING_OP_READ].flags & IO_URING_OP_SUPPORTED)
+                && (probe->ops[IORING_OP_WRITE].flags & IO_URING_OP_SUPPORTED);
+    }
+    free(probe);
+    return supported;
+}
+
+static void unmap(struct ring *r) {
+    if (r->sqes != NULL && r->sqes != MAP_FAILED) {
+        munmap(r->sqes, r->sqes_len);
+    }
+    if (r->cq_ptr != NULL && r->cq_ptr != MAP_FAILED && r->cq_ptr != r->sq_ptr) {
+        munmap(r->cq_ptr, r->cq_len);
+    }
+    if (r->sq_ptr != NULL && r->sq_ptr != MAP_FAILED) {
+        munmap(r->sq_ptr, r->sq_len);
+    }
+}
+
+JNIEXPORT jlong JNICALL
+Java_sun_nio_ch_IoUring_setup(JNIEnv *env, jclass c, jint entries)
+{
+    struct io_uring_params p;
+    struct ring *r;
+    int fd;
+
+    memset(&p, 0, sizeof(p));
+    fd = io_uring_setup((unsigned) entries, &p);
+    if (fd < 0) {
+        JNU_ThrowIOExceptionWithLastError(env, "io_uring_setup failed");
+        return 0;
+    }
+    if (!supports_read_write(fd)) {
+        close(fd);
+        JNU_ThrowIOException(env, "io_uring does not support IORING_OP_READ and IORING_OP_WRITE");
+        return 0;
+    }
+
+    r = calloc(1, sizeof(struct ring));
+    if (r == NULL) {
+        close(fd);
+        JNU_ThrowOutOfMemoryError(env, NULL);
+        return 0;
+    }
+    r->fd = fd;
+    r->sq_entries = p.sq_entries;
+    r->cq_entries = p.cq_entries;
+    r->sq_len = p.sq_off.array + p.sq_entries * sizeof(unsigned);
+    r->cq_len = p.cq_off.cqes + p.cq_entries * sizeof(struct io_uring_cqe);
+    if (p.features & IORING_FEAT_SINGLE_MMAP) {
+        if (r->cq_len > r->sq_len) {
+            r->sq_len = r->cq_len;
+        }
+        r->cq_len = r->sq_len;
+    }
+    r->sq_ptr = mmap(NULL, r->sq_len, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE,
+                     fd, IORING_OFF_SQ_RING);
+    if (r->sq_ptr == MAP_FAILED) {
+        goto fail;
+    }
+    if (p.features & IORING_FEAT_SINGLE_MMAP) {
+        r->cq_ptr = r->sq_ptr;
+    } else {
+        r->cq_ptr = mmap(NULL, r->cq_len, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE,
+                         fd, IORING_OFF_CQ_RING);
+        if (r->cq_ptr == MAP_FAILED) {
+            goto fail;
+        }
+    }
+    r->sqes_len = p.sq_entries * sizeof(struct io_uring_sqe);
+    r->sqes = mmap(NULL, r->sqes_len, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE,
+                   fd, IORING_OFF_SQES);
+    if (r->sqes == MAP_FAILED) {
+        goto fail;
+    }
+
+    r->sq_head = (unsigned *) ((char *) r->sq_ptr + p.sq_off.head);
+    r->sq_tail = (unsigned *) ((char *) r->sq_ptr + p.sq_off.tail);
+    r->sq_mask = (unsigned *) ((char *) r->sq_ptr + p.sq_off.ring_mask);
+    r->sq_array = (unsigned *) ((char *) r->sq_ptr + p.sq_off.array);
+    r->cq_head = (unsigned *) ((char *) r->cq_ptr + p.cq_off.head);
+    r->cq_tail = (unsigned *) ((char *) r->cq_ptr + p.cq_off.tail);
+    r->cq_mask = (unsigned *) ((char *) r->cq_ptr + p.cq_off.ring_mask);
+    r->cqes = (struct io_uring_cqe *) ((char *) r->cq_ptr + p.cq_off.cqes);
+    return ptr_to_jlong(r);
+
+fail:
+    JNU_ThrowIOExceptionWithLastError(env, "io_uring mmap failed");
+    unmap(r);
+    close(fd);
+    free(r);
+    return 0;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_sqEntries(JNIEnv *env, jclass c, jlong address)
+{
+    return ((struct ring *) jlong_to_ptr(address))->sq_entries;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_cqEntries(JNIEnv *env, jclass c, jlong address)
+{
+    return ((struct ring *) jlong_to_ptr(address))->cq_entries;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_submit(JNIEnv *env, jclass c, jlong address, jlongArray sqes,
+                               jint count)
+{
+    struct ring *r = jlong_to_ptr(address);
+    unsigned tail = *r->sq_tail;
+    unsigned head = __atomic_load_n(r->sq_head, __ATOMIC_ACQUIRE);
+    unsigned mask = *r->sq_mask;
+    unsigned submitted = 0;
+    int n = 0;
+    jlong *ops;
+
+    ops = (*env)->GetPrimitiveArrayCritical(env, sqes, NULL);
+    if (ops == NULL) {
+        return 0;
+    }
+    for (; n < count && tail - head < r->sq_entries; n++) {
+        unsigned index = tail & mask;
+        struct io_uring_sqe *sqe = &r->sqes[index];
+        jlong *op = ops + n * SQE_STRIDE;
+        memset(sqe, 0, sizeof(*sqe));
+        sqe->fd = (int) op[0];
+        sqe->opcode = (__u8) op[1];
+        sqe->addr = (__u64) op[2];
+        sqe->len = (__u32) op[3];
+        sqe->off = (__u64) op[4];
+        sqe->user_data = (__u64) op[5];
+        r->sq_array[index] = index;
+        tail++;
+    }
+    (*env)->ReleasePrimitiveArrayCritical(env, sqes, ops, JNI_ABORT);
+    __atomic_store_n(r->sq_tail, tail, __ATOMIC_RELEASE);
+
+    while (submitted < (unsigned) n) {
+        int res = io_uring_enter(r->fd, n - submitted, 0, 0);
+        if (res < 0) {
+            int err = errno;
+            if (err == EINTR) {
+                continue;
+            }
+            /* Withdraw the entries that the kernel didn't consume. */
+            __atomic_store_n(r->sq_tail, __atomic_load_n(r->sq_head, __ATOMIC_ACQUIRE),
+                             __ATOMIC_RELEASE);
+            if (submitted == 0) {
+                errno = err;
+                JNU_ThrowIOExceptionWithLastError(env, "io_uring_enter failed");
+            }
+            return submitted;
+        }
+        submitted += res;
+    }
+    return n;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_await(JNIEnv *env, jclass c, jlong address, jlongArray completions,
+                              jint max)
+{
+    struct ring *r = jlong_to_ptr(address);
+    unsigned head = *r->cq_head;
+    unsigned tail = __atomic_load_n(r->cq_tail, __ATOMIC_ACQUIRE);
+    unsigned mask = *r->cq_mask;
+    int n = 0;
+    jlong *out;
+
+    while (head == tail) {
+        if (io_uring_enter(r->fd, 0, 1, IORING_ENTER_GETEVENTS) < 0 && errno != EINTR) {
+            JNU_ThrowIOExceptionWithLastError(env, "io_uring_enter failed");
+            return 0;
+        }
+        tail = __atomic_load_n(r->cq_tail, __ATOMIC_ACQUIRE);
+    }
+
+    out = (*env)->GetPrimitiveArrayCritical(env, completions, NULL);
+    if (out == NULL) {
+        return 0;
+    }
+    for (; head != tail && n < max; head++, n++) {
+        struct io_uring_cqe *cqe = &r->cqes[head & mask];
+        out[2 * n] = (jlong) cqe->user_data;
+        out[2 * n + 1] = cqe->res;
+    }
+    (*env)->ReleasePrimitiveArrayCritical(env, completions, out, 0);
+    __atomic_store_n(r->cq_head, head, __ATOMIC_RELEASE);
+    return n;
+}
+
+#else
+
+JNIEXPORT jlong JNICALL
+Java_sun_nio_ch_IoUring_setup(JNIEnv *env, jclass c, jint entries)
+{
+    JNU_ThrowIOException(env, "io_uring is not supported");
+    return 0;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_sqEntries(JNIEnv *env, jclass c, jlong address)
+{
+    return 0;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_cqEntries(JNIEnv *env, jclass c, jlong address)
+{
+    return 0;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_submit(JNIEnv *env, jclass c, jlong address, jlongArray sqes,
+                               jint count)
+{
+    JNU_ThrowIOException(env, "io_uring is not supported");
+    return 0;
+}
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_ch_IoUring_await(JNIEnv *env, jclass c, jlong address, jlongArray completions,
+                              jint max)
+{
+    JNU_ThrowIOException(env, "io_uring is not supported");
+    return 0;
+}
+
+#endif
@@ -777,6 +777,79 @@ Java_sun_nio_fs_UnixNativeDispatcher_readdir(JNIEnv* env, jclass this, jlong val
 // END Android-changed: Integrate OpenJDK 12 commit to use readdir, not readdir_r. b/64362645
 }
 
+// BEGIN Android-added: Read directory entries in batches.
+/*
+ * Fills the given array with as many directory entries as fit, each encoded as
+ * [d_type][name length][name bytes]. "." and ".." are skipped. Returns the number
+ * of bytes written, or 0 at the end of the directory stream.
+ *
+ * If readdir64 fails after some entries have been read, those entries are
+ * returned followed by a READDIR_ERROR record, [READDIR_ERROR][4][errno as 4
+ * bytes, big-endian], so that the caller sees the entries before the error.
+ */
+#define READDIR_ERROR 0xff  /* UnixNativeDispatcher.READDIR_ERROR */
+
+JNIEXPORT jint JNICALL
+Java_sun_nio_fs_UnixNativeDispatcher_readdirBatch(JNIEnv* env, jclass this, jlong value,
+    jbyteArray buffer) {
+    DIR* dirp = jlong_to_ptr(value);
+    jsize capacity = (*env)->GetArrayLength(env, buffer);
+    /*
+     * readdir64 may block, for example on FUSE or network file systems, so fill a
+     * native buffer rather than holding the array with GetPrimitiveArrayCritical,
+     * which could stall the GC.
+     */
+    jbyte* buf = (jbyte*)malloc(capacity);
+    jint pos = 0;
+    int err = 0;
+
+    if (buf == NULL) {
+        JNU_ThrowOutOfMemoryError(env, "native heap");
+        return 0;
+    }
+    /* only read another entry if it is guaranteed to fit */
+    while (capacity - pos >= 2 + NAME_MAX) {
+        struct dirent64* ptr;
+        size_t len;
+
+        errno = 0;
+        ptr = readdir64(dirp);
+        if (ptr == NULL) {
+            err = errno;
+            break;
+        }
+        if (ptr->d_name[0] == '.' && (ptr->d_name[1] == '\0' ||
+                (ptr->d_name[1] == '.' && ptr->d_name[2] == '\0'))) {
+            continue;
+        }
+        len = strlen(ptr->d_name);
+        buf[pos++] = (jbyte)ptr->d_type;
+        buf[pos++] = (jbyte)len;
+        memcpy(buf + pos, ptr->d_name, len);
+        pos += len;
+    }
+    if (err != 0 && pos == 0) {
+        free(buf);
+        throwUnixException(env, err);
+        return 0;
+    }
+    if (err != 0) {
+        /* the loop condition left room for at least 2 + NAME_MAX bytes */
+        buf[pos++] = (jbyte)READDIR_ERROR;
+        buf[pos++] = 4;
+        buf[pos++] = (jbyte)(err >> 24);
+        buf[pos++] = (jbyte)(err >> 16);
+        buf[pos++] = (jbyte)(err >> 8);
+        buf[pos++] = (jbyte)err;
+    }
+    if (pos > 0) {
+        (*env)->SetByteArrayRegion(env, buffer, 0, pos, buf);
+    }
+    free(buf);
+    return pos;
+}
+// END Android-added: Read directory entries in batches.
+
 JNIEXPORT void JNICALL
 Java_sun_nio_fs_UnixNativeDispatcher_mkdir0(JNIEnv* env, jclass this,
     jlong pathAddress, jint mode)
@@ -1268,6 +1341,8 @@ static JNINativeMethod gMethods[] = {
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, fdopendir, "(I)J"),
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, closedir, "(J)V"),
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, readdir, "(J)[B"),
+  // Android-added: Read directory entries in batches.
+  NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, readdirBatch, "(J[B)I"),
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, read, "(IJI)I"),
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, write, "(IJI)I"),
   NATIVE_METHOD(Java_sun_nio_fs_UnixNativeDispatcher, access0, "(JI)V"),
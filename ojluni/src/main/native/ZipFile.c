@@ -31,6 +31,7 @@
 #include <stdlib.h>
 #include <string.h>
 #include <errno.h>
+#include <limits.h>
 #include <ctype.h>
 #include <assert.h>
 #include <nativehelper/JNIHelp.h>
@@ -355,6 +356,33 @@ ZipFile_getZipMessage(JNIEnv *env, jclass cls, jlong zfile)
     return JNU_NewStringPlatform(env, msg);
 }
 
+// BEGIN Android-added: Expose the mapped central directory to CentralDirectoryIndex.
+/*
+ * Returns a direct buffer over the mapped central directory, starting at the
+ * first CEN header, or null if it isn't mapped. The buffer is only valid
+ * until the zip file is closed.
+ */
+JNIEXPORT jobject JNICALL
+ZipFile_getCentralDirectory(JNIEnv *env, jclass cls, jlong zfile)
+{
+    jzfile *zip = jlong_to_ptr(zfile);
+    jlong start;
+
+#ifdef USE_MMAP
+    if (!zip->usemmap || zip->maddr == NULL || zip->total == 0) {
+        return NULL;
+    }
+    start = zip->entries[0].cenpos - zip->offset;
+    if (start < 0 || start >= zip->mlen || zip->mlen - start > INT_MAX) {
+        return NULL;
+    }
+    return (*env)->NewDirectByteBuffer(env, zip->maddr + start, zip->mlen - start);
+#else
+    return NULL;
+#endif
+}
+// END Android-added: Expose the mapped central directory to CentralDirectoryIndex.
+
 JNIEXPORT jobjectArray JNICALL
 JarFile_getMetaInfEntryNames(JNIEnv *env, jobject obj)
 {
@@ -417,6 +445,8 @@ static JNINativeMethod gMethods[] = {
   NATIVE_METHOD(ZipFile, getCommentBytes, "(J)[B"),
   NATIVE_METHOD(ZipFile, getEntryBytes, "(JI)[B"),
   NATIVE_METHOD(ZipFile, getZipMessage, "(J)Ljava/lang/String;"),
+  // Android-added: Expose the mapped central directory to CentralDirectoryIndex.
+  NATIVE_METHOD(ZipFile, getCentralDirectory, "(J)Ljava/nio/ByteBuffer;"),
 };
 
 static JNINativeMethod gJarFileMethods[] = {
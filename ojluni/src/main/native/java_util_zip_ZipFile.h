@@ -185,6 +185,15 @@ JNIEXPORT jbyteArray JNICALL ZipFile_getEntryBytes
 JNIEXPORT jstring JNICALL ZipFile_getZipMessage
   (JNIEnv *, jclass, jlong);
 
+// Android-added: Expose the mapped central directory to CentralDirectoryIndex.
+/*
+ * Class:     java_util_zip_ZipFile
+ * Method:    getCentralDirectory
+ * Signature: (J)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL ZipFile_getCentralDirectory
+  (JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif